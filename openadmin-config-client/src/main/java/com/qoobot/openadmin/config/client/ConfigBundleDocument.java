@@ -0,0 +1,71 @@
+package com.qoobot.openadmin.config.client;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 配置包文档，与服务端 GET /api/config/bundle 的结构一致，本地回退文件也使用该结构
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ConfigBundleDocument {
+
+    private String environment;
+    private List<String> groups;
+    private long revision;
+    private List<Entry> entries = new ArrayList<>();
+
+    // 手动添加getter/setter方法
+    public String getEnvironment() { return environment; }
+    public void setEnvironment(String environment) { this.environment = environment; }
+
+    public List<String> getGroups() { return groups; }
+    public void setGroups(List<String> groups) { this.groups = groups; }
+
+    public long getRevision() { return revision; }
+    public void setRevision(long revision) { this.revision = revision; }
+
+    public List<Entry> getEntries() { return entries; }
+    public void setEntries(List<Entry> entries) { this.entries = entries; }
+
+    /**
+     * 配置包条目，灰度字段仅在灰度发布中出现
+     */
+    @Data
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Entry {
+        private String key;
+        private String value;
+        private String type;
+        private Long revision;
+        private String grayValue;
+        private Long grayReleaseId;
+        private Double grayRatio;
+
+        public String getKey() { return key; }
+        public void setKey(String key) { this.key = key; }
+
+        public String getValue() { return value; }
+        public void setValue(String value) { this.value = value; }
+
+        public String getType() { return type; }
+        public void setType(String type) { this.type = type; }
+
+        public Long getRevision() { return revision; }
+        public void setRevision(Long revision) { this.revision = revision; }
+
+        public String getGrayValue() { return grayValue; }
+        public void setGrayValue(String grayValue) { this.grayValue = grayValue; }
+
+        public Long getGrayReleaseId() { return grayReleaseId; }
+        public void setGrayReleaseId(Long grayReleaseId) { this.grayReleaseId = grayReleaseId; }
+
+        public Double getGrayRatio() { return grayRatio; }
+        public void setGrayRatio(Double grayRatio) { this.grayRatio = grayRatio; }
+    }
+}
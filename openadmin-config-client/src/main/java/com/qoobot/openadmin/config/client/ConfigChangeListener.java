@@ -0,0 +1,10 @@
+package com.qoobot.openadmin.config.client;
+
+/**
+ * 配置变更回调，在客户端刷新线程中调用，值为调用方可见的生效值（删除时newValue为null）
+ */
+@FunctionalInterface
+public interface ConfigChangeListener {
+
+    void onConfigChanged(String configKey, String oldValue, String newValue);
+}
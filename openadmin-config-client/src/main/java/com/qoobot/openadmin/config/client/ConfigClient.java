@@ -0,0 +1,446 @@
+package com.qoobot.openadmin.config.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.qoobot.openadmin.config.support.ConfigValueParsers;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * 嵌入式配置客户端
+ * 启动时一次拉取完整配置包（失败时使用本地回退文件），之后由后台线程按修订号拉取增量变更，
+ * 生成新的不可变快照整体替换。读取只访问进程内快照，不加锁、不访问网络；
+ * 灰度判定在构建快照时按调用方标识完成，加密配置的明文由服务端解密后返回。
+ * <p>
+ * 用法：
+ * <pre>
+ * ConfigClient client = new ConfigClient(properties);
+ * client.start();
+ * int poolSize = client.getInt("order.pool.size", 16);
+ * client.addListener("order.pool.size", (key, oldValue, newValue) -&gt; resize(newValue));
+ * </pre>
+ */
+@Slf4j
+public class ConfigClient implements AutoCloseable {
+
+    // 单次刷新最多拉取的增量页数，超过时改为拉取完整配置包
+    private static final int MAX_DELTA_PAGES = 20;
+
+    private final ConfigClientProperties properties;
+    private final ConfigTransport transport;
+    private final ConfigFallbackStore fallbackStore;
+    private final Set<String> groups;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private volatile ConfigSnapshot snapshot = ConfigSnapshot.EMPTY;
+    // 是否已有基线（完整配置包或回退文件），有基线后按修订号增量刷新
+    private volatile boolean hasBaseline;
+    // 最近一次与配置中心成功同步的时间
+    private volatile long lastSyncMillis;
+    private final AtomicLong refreshFailures = new AtomicLong();
+
+    private final Map<String, Set<ConfigChangeListener>> listeners = new ConcurrentHashMap<>();
+    private final Set<ConfigChangeListener> globalListeners = new CopyOnWriteArraySet<>();
+
+    private ScheduledExecutorService scheduler;
+
+    public ConfigClient(ConfigClientProperties properties) {
+        this(properties, new HttpConfigTransport(properties));
+    }
+
+    public ConfigClient(ConfigClientProperties properties, ConfigTransport transport) {
+        if (properties.getEnvironment() == null || properties.getEnvironment().isEmpty()) {
+            throw new IllegalArgumentException("环境不能为空");
+        }
+        this.properties = properties;
+        this.transport = transport;
+        this.groups = properties.getGroups() == null || properties.getGroups().isEmpty()
+                ? Collections.emptySet() : new TreeSet<>(properties.getGroups());
+        String fallbackDirectory = properties.getFallbackDirectory();
+        this.fallbackStore = fallbackDirectory == null || fallbackDirectory.isEmpty()
+                ? null : new ConfigFallbackStore(fallbackDirectory, properties.getEnvironment());
+    }
+
+    /**
+     * 加载初始配置并启动后台刷新，重复调用无效
+     * 配置中心与回退文件均不可用时以空配置启动，后台线程持续重试
+     */
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        lastSyncMillis = System.currentTimeMillis();
+        try {
+            loadBundle();
+        } catch (Exception e) {
+            log.warn("从配置中心加载配置失败，尝试使用本地回退文件: {}", e.getMessage());
+            refreshFailures.incrementAndGet();
+            loadFallback();
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "config-client-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Math.max(properties.getRefreshIntervalMillis(), 100L);
+        scheduler.scheduleWithFixedDelay(this::refresh, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    public String getString(String configKey) {
+        ConfigSnapshot.Entry entry = snapshot.get(configKey);
+        return entry != null ? entry.getValue() : null;
+    }
+
+    public String getString(String configKey, String defaultValue) {
+        String value = getString(configKey);
+        return value != null ? value : defaultValue;
+    }
+
+    public int getInt(String configKey, int defaultValue) {
+        Integer value = getParsedValue(configKey, "int", ConfigValueParsers::parseInt);
+        return value != null ? value : defaultValue;
+    }
+
+    public long getLong(String configKey, long defaultValue) {
+        Long value = getParsedValue(configKey, "long", ConfigValueParsers::parseLong);
+        return value != null ? value : defaultValue;
+    }
+
+    public boolean getBoolean(String configKey, boolean defaultValue) {
+        Boolean value = getParsedValue(configKey, "boolean", ConfigValueParsers::parseBoolean);
+        return value != null ? value : defaultValue;
+    }
+
+    public Duration getDuration(String configKey, Duration defaultValue) {
+        Duration value = getParsedValue(configKey, "duration", ConfigValueParsers::parseDuration);
+        return value != null ? value : defaultValue;
+    }
+
+    public <T> T getJson(String configKey, Class<T> type) {
+        // 缓存只读的JSON树，每次调用转换为新的对象，调用方修改返回值不影响共享缓存
+        JsonNode tree = getParsedValue(configKey, "json", raw -> {
+            try {
+                JsonNode node = objectMapper.readTree(raw);
+                if (node == null || node.isMissingNode()) {
+                    throw new IllegalArgumentException("不是有效的JSON: " + configKey);
+                }
+                return node;
+            } catch (IOException e) {
+                throw new IllegalArgumentException("不是有效的JSON: " + configKey, e);
+            }
+        });
+        if (tree == null) {
+            return null;
+        }
+        try {
+            return objectMapper.treeToValue(tree, type);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("JSON配置无法转换为" + type.getSimpleName() + ": " + configKey, e);
+        }
+    }
+
+    public List<String> getList(String configKey) {
+        List<String> value = getParsedValue(configKey, "list", raw -> {
+            if (!raw.trim().startsWith("[")) {
+                return ConfigValueParsers.parseList(raw);
+            }
+            try {
+                return List.of(objectMapper.readValue(raw, String[].class));
+            } catch (IOException e) {
+                throw new IllegalArgumentException("不是有效的JSON数组: " + configKey, e);
+            }
+        });
+        return value != null ? value : Collections.emptyList();
+    }
+
+    /**
+     * 当前全部生效配置
+     */
+    public Map<String, String> getAll() {
+        Map<String, String> values = new HashMap<>();
+        for (Map.Entry<String, ConfigSnapshot.Entry> entry : snapshot.getEntries().entrySet()) {
+            values.put(entry.getKey(), entry.getValue().getValue());
+        }
+        return values;
+    }
+
+    public void addListener(String configKey, ConfigChangeListener listener) {
+        listeners.computeIfAbsent(configKey, k -> new CopyOnWriteArraySet<>()).add(listener);
+    }
+
+    /**
+     * 监听所有配置键的变更
+     */
+    public void addListener(ConfigChangeListener listener) {
+        globalListeners.add(listener);
+    }
+
+    public void removeListener(String configKey, ConfigChangeListener listener) {
+        Set<ConfigChangeListener> keyListeners = listeners.get(configKey);
+        if (keyListeners != null) {
+            keyListeners.remove(listener);
+        }
+    }
+
+    public void removeListener(ConfigChangeListener listener) {
+        globalListeners.remove(listener);
+    }
+
+    /**
+     * 当前快照对应的修订号
+     */
+    public long getRevision() {
+        return snapshot.getRevision();
+    }
+
+    /**
+     * 距最近一次与配置中心成功同步的毫秒数，使用回退文件时从文件写入时间算起
+     */
+    public long getStalenessMillis() {
+        return Math.max(0L, System.currentTimeMillis() - lastSyncMillis);
+    }
+
+    public long getRefreshFailures() {
+        return refreshFailures.get();
+    }
+
+    public int size() {
+        return snapshot.getEntries().size();
+    }
+
+    public String getEnvironment() {
+        return properties.getEnvironment();
+    }
+
+    /**
+     * 执行一次刷新：尚无基线时拉取完整配置包，否则拉取增量变更
+     */
+    void refresh() {
+        try {
+            if (hasBaseline) {
+                pullChanges();
+            } else {
+                loadBundle();
+            }
+        } catch (Exception e) {
+            refreshFailures.incrementAndGet();
+            log.warn("刷新配置失败，继续使用修订号 {} 的配置: {}", snapshot.getRevision(), e.getMessage());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T getParsedValue(String configKey, String typeKey, Function<String, T> parser) {
+        ConfigSnapshot.Entry entry = snapshot.get(configKey);
+        if (entry == null || entry.getValue() == null) {
+            return null;
+        }
+        Map<String, Object> parsedValues = entry.getParsedValues();
+        Object value = parsedValues.get(typeKey);
+        if (value == null) {
+            value = parser.apply(entry.getValue());
+            parsedValues.put(typeKey, value);
+        }
+        return (T) value;
+    }
+
+    private void loadBundle() throws IOException {
+        ConfigBundleDocument bundle = transport.fetchBundle(properties.getEnvironment(), new ArrayList<>(groups));
+        Map<String, ConfigSnapshot.Entry> entries = new HashMap<>();
+        for (ConfigBundleDocument.Entry source : bundle.getEntries()) {
+            entries.put(source.getKey(), new ConfigSnapshot.Entry(source, properties.getCallerId()));
+        }
+        ConfigSnapshot previous = snapshot;
+        install(new ConfigSnapshot(entries, bundle.getRevision()), union(previous, entries.keySet()));
+        hasBaseline = true;
+        lastSyncMillis = System.currentTimeMillis();
+        log.info("加载配置包: 环境 {}，修订号 {}，{} 个配置", properties.getEnvironment(),
+                bundle.getRevision(), entries.size());
+        saveFallback();
+    }
+
+    private void loadFallback() {
+        if (fallbackStore == null) {
+            return;
+        }
+        ConfigBundleDocument document = fallbackStore.load();
+        if (document == null) {
+            return;
+        }
+        // 分组设置变化后回退文件内容不匹配，不能作为增量基线
+        Set<String> fileGroups = document.getGroups() == null
+                ? Collections.emptySet() : new TreeSet<>(document.getGroups());
+        if (!fileGroups.equals(groups)) {
+            log.warn("配置回退文件的分组与当前设置不一致，已忽略: {}", fallbackStore.getFile());
+            return;
+        }
+        Map<String, ConfigSnapshot.Entry> entries = new HashMap<>();
+        for (ConfigBundleDocument.Entry source : document.getEntries()) {
+            entries.put(source.getKey(), new ConfigSnapshot.Entry(source, properties.getCallerId()));
+        }
+        install(new ConfigSnapshot(entries, document.getRevision()), entries.keySet());
+        hasBaseline = true;
+        lastSyncMillis = fallbackStore.lastModifiedMillis();
+        log.info("使用本地回退文件: {}，修订号 {}，{} 个配置", fallbackStore.getFile(),
+                document.getRevision(), entries.size());
+    }
+
+    private void pullChanges() throws IOException {
+        ConfigSnapshot current = snapshot;
+        long revision = current.getRevision();
+        Map<String, ConfigSnapshot.Entry> entries = null;
+        Set<String> changedKeys = new HashSet<>();
+        Map<String, ConfigBundleDocument.Entry> encrypted = new HashMap<>();
+        for (int page = 0; ; page++) {
+            if (page == MAX_DELTA_PAGES) {
+                log.info("增量变更过多，改为拉取完整配置包: 环境 {}，修订号 {}", properties.getEnvironment(), revision);
+                loadBundle();
+                return;
+            }
+            ConfigDeltaDocument delta = transport.fetchChanges(properties.getEnvironment(), revision);
+            if (!delta.getUpserts().isEmpty() || !delta.getDeletedKeys().isEmpty()) {
+                if (entries == null) {
+                    entries = new HashMap<>(current.getEntries());
+                }
+                apply(delta, entries, changedKeys, encrypted);
+            }
+            if (delta.getRevision() != null) {
+                revision = Math.max(revision, delta.getRevision());
+            }
+            if (!Boolean.TRUE.equals(delta.getHasMore())) {
+                break;
+            }
+        }
+
+        if (!encrypted.isEmpty()) {
+            // 加密配置由服务端解密并按调用方完成灰度判定
+            Map<String, String> values = transport.fetchValues(properties.getEnvironment(),
+                    new ArrayList<>(encrypted.keySet()), properties.getCallerId());
+            for (ConfigBundleDocument.Entry source : encrypted.values()) {
+                source.setValue(values.get(source.getKey()));
+                entries.put(source.getKey(), new ConfigSnapshot.Entry(source, null));
+            }
+        }
+
+        lastSyncMillis = System.currentTimeMillis();
+        if (entries == null && revision == current.getRevision()) {
+            return;
+        }
+        install(new ConfigSnapshot(entries != null ? entries : current.getEntries(), revision), changedKeys);
+        log.debug("应用增量变更: 环境 {}，修订号 {} -> {}，{} 个配置键", properties.getEnvironment(),
+                current.getRevision(), revision, changedKeys.size());
+        saveFallback();
+    }
+
+    private void apply(ConfigDeltaDocument delta, Map<String, ConfigSnapshot.Entry> entries,
+                       Set<String> changedKeys, Map<String, ConfigBundleDocument.Entry> encrypted) {
+        for (ConfigDeltaDocument.Item item : delta.getUpserts()) {
+            String configKey = item.getConfigKey();
+            changedKeys.add(configKey);
+            // 移出所选分组的配置按删除处理
+            if (!groups.isEmpty() && !groups.contains(item.getGroupName())) {
+                entries.remove(configKey);
+                encrypted.remove(configKey);
+                continue;
+            }
+            ConfigBundleDocument.Entry source = new ConfigBundleDocument.Entry();
+            source.setKey(configKey);
+            source.setType(item.getConfigType());
+            source.setRevision(item.getRevision());
+            if (Boolean.TRUE.equals(item.getEncrypted())) {
+                encrypted.put(configKey, source);
+                continue;
+            }
+            encrypted.remove(configKey);
+            source.setValue(item.getConfigValue());
+            if (item.getGrayValue() != null && item.getGrayReleaseId() != null && item.getGrayRatio() != null) {
+                source.setGrayValue(item.getGrayValue());
+                source.setGrayReleaseId(item.getGrayReleaseId());
+                source.setGrayRatio(item.getGrayRatio());
+            }
+            entries.put(configKey, new ConfigSnapshot.Entry(source, properties.getCallerId()));
+        }
+        for (String configKey : delta.getDeletedKeys()) {
+            changedKeys.add(configKey);
+            entries.remove(configKey);
+            encrypted.remove(configKey);
+        }
+    }
+
+    /**
+     * 替换快照并通知生效值发生变化的配置键
+     */
+    private void install(ConfigSnapshot next, Collection<String> candidateKeys) {
+        ConfigSnapshot previous = snapshot;
+        snapshot = next;
+        if (listeners.isEmpty() && globalListeners.isEmpty()) {
+            return;
+        }
+        for (String configKey : candidateKeys) {
+            String oldValue = valueOf(previous.get(configKey));
+            String newValue = valueOf(next.get(configKey));
+            if (Objects.equals(oldValue, newValue)) {
+                continue;
+            }
+            notifyListeners(listeners.getOrDefault(configKey, Collections.emptySet()), configKey, oldValue, newValue);
+            notifyListeners(globalListeners, configKey, oldValue, newValue);
+        }
+    }
+
+    private void notifyListeners(Collection<ConfigChangeListener> targets, String configKey,
+                                 String oldValue, String newValue) {
+        for (ConfigChangeListener listener : targets) {
+            try {
+                listener.onConfigChanged(configKey, oldValue, newValue);
+            } catch (Exception e) {
+                log.error("配置变更回调异常: {}", configKey, e);
+            }
+        }
+    }
+
+    private void saveFallback() {
+        if (fallbackStore == null) {
+            return;
+        }
+        ConfigSnapshot current = snapshot;
+        ConfigBundleDocument document = new ConfigBundleDocument();
+        document.setEnvironment(properties.getEnvironment());
+        document.setGroups(groups.isEmpty() ? null : new ArrayList<>(groups));
+        document.setRevision(current.getRevision());
+        for (ConfigSnapshot.Entry entry : current.getEntries().values()) {
+            document.getEntries().add(entry.getSource());
+        }
+        try {
+            fallbackStore.save(document);
+        } catch (IOException e) {
+            log.warn("写入配置回退文件失败: {} - {}", fallbackStore.getFile(), e.getMessage());
+        }
+    }
+
+    private static Set<String> union(ConfigSnapshot previous, Set<String> configKeys) {
+        Set<String> keys = new HashSet<>(previous.getEntries().keySet());
+        keys.addAll(configKeys);
+        return keys;
+    }
+
+    private static String valueOf(ConfigSnapshot.Entry entry) {
+        return entry != null ? entry.getValue() : null;
+    }
+}
@@ -0,0 +1,37 @@
+package com.qoobot.openadmin.config.client;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * 配置客户端指标，需要类路径中存在Micrometer
+ * config.client.staleness 为距最近一次成功同步的秒数，持续增长说明客户端正在使用过期配置
+ */
+public class ConfigClientMetrics implements MeterBinder {
+
+    private final ConfigClient client;
+
+    public ConfigClientMetrics(ConfigClient client) {
+        this.client = client;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        String environment = client.getEnvironment();
+        Gauge.builder("config.client.staleness", client, c -> c.getStalenessMillis() / 1000d)
+                .tag("environment", environment)
+                .baseUnit("seconds")
+                .register(registry);
+        Gauge.builder("config.client.revision", client, ConfigClient::getRevision)
+                .tag("environment", environment)
+                .register(registry);
+        Gauge.builder("config.client.entries", client, ConfigClient::size)
+                .tag("environment", environment)
+                .register(registry);
+        FunctionCounter.builder("config.client.refresh.failures", client, ConfigClient::getRefreshFailures)
+                .tag("environment", environment)
+                .register(registry);
+    }
+}
@@ -0,0 +1,78 @@
+package com.qoobot.openadmin.config.client;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 配置客户端参数
+ */
+@Data
+public class ConfigClientProperties {
+
+    /**
+     * 配置中心地址，如 http://config-server:8080
+     */
+    private String serverUrl;
+
+    /**
+     * 环境
+     */
+    private String environment;
+
+    /**
+     * 只加载这些分组的配置，为空时加载环境下全部配置
+     */
+    private List<String> groups = new ArrayList<>();
+
+    /**
+     * 调用方标识（通常为实例ID），用于灰度判定，为空时始终使用稳定值
+     */
+    private String callerId;
+
+    /**
+     * 访问令牌，非空时以 Authorization: Bearer 发送
+     */
+    private String accessToken;
+
+    /**
+     * 后台增量刷新间隔
+     */
+    private long refreshIntervalMillis = 5000;
+
+    /**
+     * 单次请求超时时间
+     */
+    private long requestTimeoutMillis = 10000;
+
+    /**
+     * 本地回退文件目录，为空时不写回退文件
+     */
+    private String fallbackDirectory = "./config-cache";
+
+    // 手动添加getter/setter方法
+    public String getServerUrl() { return serverUrl; }
+    public void setServerUrl(String serverUrl) { this.serverUrl = serverUrl; }
+
+    public String getEnvironment() { return environment; }
+    public void setEnvironment(String environment) { this.environment = environment; }
+
+    public List<String> getGroups() { return groups; }
+    public void setGroups(List<String> groups) { this.groups = groups; }
+
+    public String getCallerId() { return callerId; }
+    public void setCallerId(String callerId) { this.callerId = callerId; }
+
+    public String getAccessToken() { return accessToken; }
+    public void setAccessToken(String accessToken) { this.accessToken = accessToken; }
+
+    public long getRefreshIntervalMillis() { return refreshIntervalMillis; }
+    public void setRefreshIntervalMillis(long refreshIntervalMillis) { this.refreshIntervalMillis = refreshIntervalMillis; }
+
+    public long getRequestTimeoutMillis() { return requestTimeoutMillis; }
+    public void setRequestTimeoutMillis(long requestTimeoutMillis) { this.requestTimeoutMillis = requestTimeoutMillis; }
+
+    public String getFallbackDirectory() { return fallbackDirectory; }
+    public void setFallbackDirectory(String fallbackDirectory) { this.fallbackDirectory = fallbackDirectory; }
+}
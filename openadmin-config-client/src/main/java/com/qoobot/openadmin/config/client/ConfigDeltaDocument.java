@@ -0,0 +1,85 @@
+package com.qoobot.openadmin.config.client;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 增量变更文档，对应服务端 GET /api/config/changes 的返回，只映射客户端需要的字段
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ConfigDeltaDocument {
+
+    private String environment;
+    private Long sinceRevision;
+    private Long revision;
+    private Boolean hasMore = false;
+    private List<Item> upserts = new ArrayList<>();
+    private List<String> deletedKeys = new ArrayList<>();
+
+    // 手动添加getter/setter方法
+    public String getEnvironment() { return environment; }
+    public void setEnvironment(String environment) { this.environment = environment; }
+
+    public Long getSinceRevision() { return sinceRevision; }
+    public void setSinceRevision(Long sinceRevision) { this.sinceRevision = sinceRevision; }
+
+    public Long getRevision() { return revision; }
+    public void setRevision(Long revision) { this.revision = revision; }
+
+    public Boolean getHasMore() { return hasMore; }
+    public void setHasMore(Boolean hasMore) { this.hasMore = hasMore; }
+
+    public List<Item> getUpserts() { return upserts; }
+    public void setUpserts(List<Item> upserts) { this.upserts = upserts; }
+
+    public List<String> getDeletedKeys() { return deletedKeys; }
+    public void setDeletedKeys(List<String> deletedKeys) { this.deletedKeys = deletedKeys; }
+
+    /**
+     * 变更的配置项
+     */
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Item {
+        private String configKey;
+        private String configValue;
+        private String configType;
+        private String groupName;
+        private Boolean encrypted;
+        private String grayValue;
+        private Long grayReleaseId;
+        private Double grayRatio;
+        private Long revision;
+
+        public String getConfigKey() { return configKey; }
+        public void setConfigKey(String configKey) { this.configKey = configKey; }
+
+        public String getConfigValue() { return configValue; }
+        public void setConfigValue(String configValue) { this.configValue = configValue; }
+
+        public String getConfigType() { return configType; }
+        public void setConfigType(String configType) { this.configType = configType; }
+
+        public String getGroupName() { return groupName; }
+        public void setGroupName(String groupName) { this.groupName = groupName; }
+
+        public Boolean getEncrypted() { return encrypted; }
+        public void setEncrypted(Boolean encrypted) { this.encrypted = encrypted; }
+
+        public String getGrayValue() { return grayValue; }
+        public void setGrayValue(String grayValue) { this.grayValue = grayValue; }
+
+        public Long getGrayReleaseId() { return grayReleaseId; }
+        public void setGrayReleaseId(Long grayReleaseId) { this.grayReleaseId = grayReleaseId; }
+
+        public Double getGrayRatio() { return grayRatio; }
+        public void setGrayRatio(Double grayRatio) { this.grayRatio = grayRatio; }
+
+        public Long getRevision() { return revision; }
+        public void setRevision(Long revision) { this.revision = revision; }
+    }
+}
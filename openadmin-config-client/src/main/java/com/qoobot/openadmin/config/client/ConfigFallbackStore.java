@@ -0,0 +1,103 @@
+package com.qoobot.openadmin.config.client;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.*;
+import java.util.EnumSet;
+import java.util.List;
+
+/**
+ * 本地回退文件
+ * 以配置包相同的CBOR结构保存最近一次成功同步的配置，配置中心不可用时启动使用。
+ * 先写临时文件再原子替换，写入中断不会破坏已有文件；文件包含解密后的配置值，
+ * 临时文件在写入任何内容前即以仅所有者可读写的权限创建（POSIX权限或ACL）
+ */
+@Slf4j
+class ConfigFallbackStore {
+
+    private static final String FILE_SUFFIX = ".bundle";
+
+    private final Path file;
+    private final ObjectMapper cborMapper = new ObjectMapper(new CBORFactory())
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    ConfigFallbackStore(String directory, String environment) {
+        this.file = Paths.get(directory).resolve(environment + FILE_SUFFIX);
+    }
+
+    /**
+     * 读取回退文件，不存在或内容损坏时返回null
+     */
+    ConfigBundleDocument load() {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try {
+            return cborMapper.readValue(file.toFile(), ConfigBundleDocument.class);
+        } catch (IOException e) {
+            log.warn("配置回退文件无法读取，已忽略: {} - {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 回退文件的最后修改时间，用于计算回退配置的陈旧度
+     */
+    long lastModifiedMillis() {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+
+    void save(ConfigBundleDocument document) throws IOException {
+        byte[] content = cborMapper.writeValueAsBytes(document);
+        Files.createDirectories(file.getParent());
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        // 上次写入中断遗留的临时文件权限未知，删除后重新创建
+        Files.deleteIfExists(temp);
+        createOwnerOnly(temp);
+        try {
+            Files.write(temp, content, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            try {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+    }
+
+    /**
+     * 创建仅所有者可读写的空文件：POSIX文件系统在创建时指定权限，
+     * 否则在写入内容前将ACL替换为仅所有者一项；两者均不支持时沿用目录默认权限
+     */
+    private static void createOwnerOnly(Path path) throws IOException {
+        if (path.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            Files.createFile(path, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+            return;
+        }
+        Files.createFile(path);
+        AclFileAttributeView acl = Files.getFileAttributeView(path, AclFileAttributeView.class);
+        if (acl != null) {
+            AclEntry ownerOnly = AclEntry.newBuilder()
+                    .setType(AclEntryType.ALLOW)
+                    .setPrincipal(acl.getOwner())
+                    .setPermissions(EnumSet.allOf(AclEntryPermission.class))
+                    .build();
+            acl.setAcl(List.of(ownerOnly));
+        }
+    }
+
+    Path getFile() {
+        return file;
+    }
+}
@@ -0,0 +1,71 @@
+package com.qoobot.openadmin.config.client;
+
+import com.qoobot.openadmin.config.gray.GrayReleaseRule;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 客户端配置快照，构建后不再修改
+ * 每次刷新生成新快照并整体替换，读取只需一次volatile读与一次哈希查找，不加锁
+ */
+final class ConfigSnapshot {
+
+    static final ConfigSnapshot EMPTY = new ConfigSnapshot(Collections.emptyMap(), 0L);
+
+    private final Map<String, Entry> entries;
+    private final long revision;
+
+    ConfigSnapshot(Map<String, Entry> entries, long revision) {
+        this.entries = entries;
+        this.revision = revision;
+    }
+
+    Entry get(String configKey) {
+        return entries.get(configKey);
+    }
+
+    Map<String, Entry> getEntries() {
+        return entries;
+    }
+
+    long getRevision() {
+        return revision;
+    }
+
+    /**
+     * 快照条目，构建时按调用方标识完成灰度判定，生效值直接可读
+     */
+    static final class Entry {
+        private final ConfigBundleDocument.Entry source;
+        private final String value;
+        // 类型化读取结果，首次解析后缓存在条目上，条目随配置变更整体替换
+        private final Map<String, Object> parsedValues = new ConcurrentHashMap<>(4);
+
+        Entry(ConfigBundleDocument.Entry source, String callerId) {
+            this.source = source;
+            this.value = isGray(source, callerId) ? source.getGrayValue() : source.getValue();
+        }
+
+        ConfigBundleDocument.Entry getSource() {
+            return source;
+        }
+
+        String getValue() {
+            return value;
+        }
+
+        Map<String, Object> getParsedValues() {
+            return parsedValues;
+        }
+
+        private static boolean isGray(ConfigBundleDocument.Entry source, String callerId) {
+            if (callerId == null || source.getGrayValue() == null
+                    || source.getGrayReleaseId() == null || source.getGrayRatio() == null) {
+                return false;
+            }
+            return GrayReleaseRule.of(source.getGrayReleaseId(), source.getGrayRatio()).isGray(callerId);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.qoobot.openadmin.config.client;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 客户端与配置中心之间的传输
+ */
+public interface ConfigTransport {
+
+    /**
+     * 拉取环境（或指定分组）的完整配置包
+     */
+    ConfigBundleDocument fetchBundle(String environment, List<String> groups) throws IOException;
+
+    /**
+     * 拉取某修订号之后的增量变更
+     */
+    ConfigDeltaDocument fetchChanges(String environment, long sinceRevision) throws IOException;
+
+    /**
+     * 由服务端解密并按调用方判定灰度后返回配置值
+     */
+    Map<String, String> fetchValues(String environment, List<String> configKeys, String callerId) throws IOException;
+}
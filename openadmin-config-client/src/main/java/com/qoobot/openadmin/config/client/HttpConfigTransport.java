@@ -0,0 +1,132 @@
+package com.qoobot.openadmin.config.client;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * 基于JDK HttpClient的传输实现
+ * 完整配置包以CBOR格式拉取并接受gzip/deflate压缩，增量变更与配置值使用JSON
+ */
+public class HttpConfigTransport implements ConfigTransport {
+
+    private static final String CBOR_MEDIA_TYPE = "application/cbor";
+    private static final String JSON_MEDIA_TYPE = "application/json";
+
+    private final String baseUrl;
+    private final String accessToken;
+    private final Duration requestTimeout;
+    private final HttpClient httpClient;
+    private final ObjectMapper jsonMapper;
+    private final ObjectMapper cborMapper;
+
+    public HttpConfigTransport(ConfigClientProperties properties) {
+        if (properties.getServerUrl() == null || properties.getServerUrl().isEmpty()) {
+            throw new IllegalArgumentException("配置中心地址不能为空");
+        }
+        this.baseUrl = properties.getServerUrl().replaceAll("/+$", "");
+        this.accessToken = properties.getAccessToken();
+        this.requestTimeout = Duration.ofMillis(properties.getRequestTimeoutMillis());
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(requestTimeout)
+                .build();
+        this.jsonMapper = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        this.cborMapper = new ObjectMapper(new CBORFactory())
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    }
+
+    @Override
+    public ConfigBundleDocument fetchBundle(String environment, List<String> groups) throws IOException {
+        StringBuilder path = new StringBuilder("/api/config/bundle?format=cbor&environment=").append(encode(environment));
+        if (groups != null && !groups.isEmpty()) {
+            path.append("&groups=").append(encode(String.join(",", groups)));
+        }
+        HttpRequest request = request(path.toString())
+                .header("Accept", CBOR_MEDIA_TYPE)
+                .header("Accept-Encoding", "gzip, deflate")
+                .GET()
+                .build();
+        try (InputStream body = send(request)) {
+            return cborMapper.readValue(body, ConfigBundleDocument.class);
+        }
+    }
+
+    @Override
+    public ConfigDeltaDocument fetchChanges(String environment, long sinceRevision) throws IOException {
+        HttpRequest request = request("/api/config/changes?env=" + encode(environment) + "&sinceRevision=" + sinceRevision)
+                .header("Accept", JSON_MEDIA_TYPE)
+                .GET()
+                .build();
+        try (InputStream body = send(request)) {
+            return jsonMapper.readValue(body, ConfigDeltaDocument.class);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map<String, String> fetchValues(String environment, List<String> configKeys, String callerId)
+            throws IOException {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("keys", configKeys);
+        payload.put("environment", environment);
+        payload.put("callerId", callerId);
+        HttpRequest request = request("/api/config/batch-values")
+                .header("Accept", JSON_MEDIA_TYPE)
+                .header("Content-Type", JSON_MEDIA_TYPE)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(jsonMapper.writeValueAsBytes(payload)))
+                .build();
+        try (InputStream body = send(request)) {
+            return jsonMapper.readValue(body, Map.class);
+        }
+    }
+
+    private HttpRequest.Builder request(String path) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(requestTimeout);
+        if (accessToken != null && !accessToken.isEmpty()) {
+            builder.header("Authorization", "Bearer " + accessToken);
+        }
+        return builder;
+    }
+
+    private InputStream send(HttpRequest request) throws IOException {
+        HttpResponse<byte[]> response;
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("请求配置中心被中断: " + request.uri(), e);
+        }
+        if (response.statusCode() != 200) {
+            throw new IOException("请求配置中心失败: " + request.uri() + " HTTP " + response.statusCode());
+        }
+        InputStream body = new ByteArrayInputStream(response.body());
+        String contentEncoding = response.headers().firstValue("Content-Encoding").orElse("");
+        if ("gzip".equalsIgnoreCase(contentEncoding)) {
+            return new GZIPInputStream(body);
+        }
+        if ("deflate".equalsIgnoreCase(contentEncoding)) {
+            return new InflaterInputStream(body);
+        }
+        return body;
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,82 @@
+package com.qoobot.openadmin.config.gray;
+
+import java.util.SplittableRandom;
+
+/**
+ * 灰度发布分桶规则
+ * 每个灰度批次以批次ID为种子将全部桶随机排列，取前 ratio * BUCKET_COUNT 个桶作为灰度桶。
+ * 调用方标识经哈希后落入固定的桶，判定只需一次哈希与一次数组访问；
+ * 同一批次调整比例时种子不变，已命中灰度的调用方保持命中。
+ * 规则不依赖服务端状态，客户端可使用相同算法在本地判定
+ */
+public final class GrayReleaseRule {
+
+    public static final int BUCKET_COUNT = 1000;
+
+    private final long seed;
+    private final double ratio;
+    private final boolean[] grayBuckets;
+
+    private GrayReleaseRule(long seed, double ratio) {
+        this.seed = seed;
+        this.ratio = ratio;
+        this.grayBuckets = new boolean[BUCKET_COUNT];
+
+        int grayCount = (int) Math.round(Math.max(0d, Math.min(1d, ratio)) * BUCKET_COUNT);
+        int[] buckets = new int[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets[i] = i;
+        }
+        // 以种子做Fisher-Yates洗牌，前grayCount个桶为灰度桶
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int i = BUCKET_COUNT - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = buckets[i];
+            buckets[i] = buckets[j];
+            buckets[j] = tmp;
+        }
+        for (int i = 0; i < grayCount; i++) {
+            grayBuckets[buckets[i]] = true;
+        }
+    }
+
+    /**
+     * 构建灰度规则
+     * @param seed 灰度批次ID
+     * @param ratio 灰度比例（0~1）
+     */
+    public static GrayReleaseRule of(long seed, double ratio) {
+        return new GrayReleaseRule(seed, ratio);
+    }
+
+    /**
+     * 判断调用方是否命中灰度，未提供调用方标识时始终返回稳定版本
+     */
+    public boolean isGray(String callerId) {
+        return callerId != null && grayBuckets[bucketOf(seed, callerId)];
+    }
+
+    /**
+     * 计算调用方所在的桶：FNV-1a 64位哈希混入种子后做SplitMix64终结化
+     */
+    public static int bucketOf(long seed, String callerId) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < callerId.length(); i++) {
+            hash ^= callerId.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= seed;
+        hash = (hash ^ (hash >>> 30)) * 0xbf58476d1ce4e5b9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94d049bb133111ebL;
+        hash ^= hash >>> 31;
+        return (int) Math.floorMod(hash, (long) BUCKET_COUNT);
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public double getRatio() {
+        return ratio;
+    }
+}
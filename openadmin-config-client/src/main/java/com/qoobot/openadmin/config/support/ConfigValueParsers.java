@@ -0,0 +1,122 @@
+package com.qoobot.openadmin.config.support;
+
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 配置值解析工具类
+ * 类型化读取与写入校验共用同一套解析规则，格式错误时抛出IllegalArgumentException。
+ * 服务端与客户端共用，不依赖Spring
+ */
+public final class ConfigValueParsers {
+
+    private static final Pattern SIMPLE_DURATION = Pattern.compile("^([+-]?\\d+)([a-zA-Z]{0,2})$");
+    private static final Pattern ISO_DURATION = Pattern.compile("^[+-]?[pP].*$");
+
+    private ConfigValueParsers() {
+    }
+
+    public static int parseInt(String raw) {
+        try {
+            return Integer.parseInt(raw.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("不是有效的整数: " + raw, e);
+        }
+    }
+
+    public static long parseLong(String raw) {
+        try {
+            return Long.parseLong(raw.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("不是有效的长整数: " + raw, e);
+        }
+    }
+
+    public static double parseNumber(String raw) {
+        try {
+            return Double.parseDouble(raw.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("不是有效的数值: " + raw, e);
+        }
+    }
+
+    /**
+     * 仅接受true/false（不区分大小写）
+     */
+    public static boolean parseBoolean(String raw) {
+        String value = raw.trim();
+        if ("true".equalsIgnoreCase(value)) {
+            return true;
+        }
+        if ("false".equalsIgnoreCase(value)) {
+            return false;
+        }
+        throw new IllegalArgumentException("不是有效的布尔值: " + raw);
+    }
+
+    /**
+     * 支持ISO-8601格式（PT30S）及简单格式（500ms、30s、5m、2h、1d），纯数字按毫秒处理
+     */
+    public static Duration parseDuration(String raw) {
+        String value = raw.trim();
+        Matcher matcher = SIMPLE_DURATION.matcher(value);
+        if (matcher.matches()) {
+            try {
+                return Duration.of(Long.parseLong(matcher.group(1)), durationUnit(matcher.group(2)));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("不是有效的时长: " + raw, e);
+            }
+        }
+        if (ISO_DURATION.matcher(value).matches()) {
+            try {
+                return Duration.parse(value);
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("不是有效的时长: " + raw, e);
+            }
+        }
+        throw new IllegalArgumentException("不是有效的时长: " + raw);
+    }
+
+    private static ChronoUnit durationUnit(String suffix) {
+        switch (suffix.toLowerCase(Locale.ROOT)) {
+            case "":
+            case "ms":
+                return ChronoUnit.MILLIS;
+            case "ns":
+                return ChronoUnit.NANOS;
+            case "us":
+                return ChronoUnit.MICROS;
+            case "s":
+                return ChronoUnit.SECONDS;
+            case "m":
+                return ChronoUnit.MINUTES;
+            case "h":
+                return ChronoUnit.HOURS;
+            case "d":
+                return ChronoUnit.DAYS;
+            default:
+                throw new IllegalArgumentException("不支持的时长单位: " + suffix);
+        }
+    }
+
+    /**
+     * 按逗号分隔解析为不可变列表，忽略空白项
+     */
+    public static List<String> parseList(String raw) {
+        List<String> items = new ArrayList<>();
+        for (String item : raw.split(",")) {
+            String trimmed = item.trim();
+            if (!trimmed.isEmpty()) {
+                items.add(trimmed);
+            }
+        }
+        return Collections.unmodifiableList(items);
+    }
+}
@@ -0,0 +1,246 @@
+package com.qoobot.openadmin.config.client;
+
+import com.qoobot.openadmin.config.gray.GrayReleaseRule;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * 配置客户端测试
+ * 使用内存传输模拟配置中心，验证初始加载、增量刷新、灰度判定、变更回调与本地回退
+ */
+class ConfigClientTest {
+
+    @TempDir
+    Path fallbackDirectory;
+
+    private final FakeTransport transport = new FakeTransport();
+    private ConfigClient client;
+
+    @BeforeEach
+    void setUp() {
+        transport.bundle.setEnvironment("prod");
+        transport.bundle.setRevision(10);
+        transport.bundle.getEntries().add(entry("pool.size", "16", 3L));
+        transport.bundle.getEntries().add(entry("timeout", "30s", 5L));
+        transport.bundle.getEntries().add(entry("hosts", "a, b", 7L));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (client != null) {
+            client.close();
+        }
+    }
+
+    @Test
+    void testInitialLoadAndTypedAccessors() {
+        client = newClient(null);
+        client.start();
+        assertEquals(10L, client.getRevision());
+        assertEquals(16, client.getInt("pool.size", 1));
+        assertEquals(Duration.ofSeconds(30), client.getDuration("timeout", Duration.ZERO));
+        assertEquals(List.of("a", "b"), client.getList("hosts"));
+        assertEquals(42, client.getInt("missing", 42));
+        assertThrows(IllegalArgumentException.class, () -> client.getBoolean("pool.size", false));
+    }
+
+    @Test
+    void testDeltaRefreshNotifiesListeners() {
+        client = newClient(null);
+        client.start();
+        List<String> changes = new ArrayList<>();
+        client.addListener("pool.size", (key, oldValue, newValue) -> changes.add(key + ":" + oldValue + "->" + newValue));
+        client.addListener((key, oldValue, newValue) -> changes.add("*" + key));
+
+        ConfigDeltaDocument delta = new ConfigDeltaDocument();
+        delta.setRevision(12L);
+        delta.getUpserts().add(item("pool.size", "32", 12L));
+        delta.getDeletedKeys().add("hosts");
+        transport.deltas.add(delta);
+        client.refresh();
+
+        assertEquals(12L, client.getRevision());
+        assertEquals(32, client.getInt("pool.size", 1));
+        assertNull(client.getString("hosts"));
+        assertEquals(List.of("*hosts", "*pool.size", "pool.size:16->32"), sorted(changes));
+        assertEquals(List.of(10L), transport.requestedRevisions);
+    }
+
+    @Test
+    void testEncryptedChangesAreResolvedByServer() {
+        client = newClient("instance-1");
+        client.start();
+        ConfigDeltaDocument delta = new ConfigDeltaDocument();
+        delta.setRevision(11L);
+        ConfigDeltaDocument.Item secret = item("db.password", "ciphertext", 11L);
+        secret.setEncrypted(true);
+        delta.getUpserts().add(secret);
+        transport.deltas.add(delta);
+        transport.values.put("db.password", "s3cret");
+        client.refresh();
+
+        assertEquals("s3cret", client.getString("db.password"));
+        assertEquals(List.of("db.password"), transport.requestedValueKeys);
+    }
+
+    @Test
+    void testGrayValueIsResolvedForCaller() {
+        ConfigBundleDocument.Entry gray = entry("feature.enabled", "false", 9L);
+        gray.setGrayValue("true");
+        gray.setGrayReleaseId(7L);
+        gray.setGrayRatio(0.5);
+        transport.bundle.getEntries().add(gray);
+
+        String grayCaller = null;
+        String stableCaller = null;
+        GrayReleaseRule rule = GrayReleaseRule.of(7L, 0.5);
+        for (int i = 0; grayCaller == null || stableCaller == null; i++) {
+            String callerId = "instance-" + i;
+            if (rule.isGray(callerId)) {
+                grayCaller = grayCaller != null ? grayCaller : callerId;
+            } else {
+                stableCaller = stableCaller != null ? stableCaller : callerId;
+            }
+        }
+
+        client = newClient(grayCaller);
+        client.start();
+        assertTrue(client.getBoolean("feature.enabled", false));
+        client.close();
+
+        client = newClient(stableCaller);
+        client.start();
+        assertFalse(client.getBoolean("feature.enabled", true));
+    }
+
+    @Test
+    void testFallbackFileIsUsedWhenServerIsUnavailable() {
+        client = newClient(null);
+        client.start();
+        client.close();
+
+        transport.available = false;
+        client = newClient(null);
+        client.start();
+        assertEquals(10L, client.getRevision());
+        assertEquals("16", client.getString("pool.size"));
+        assertEquals(1L, client.getRefreshFailures());
+
+        // 配置中心恢复后从回退文件的修订号继续增量刷新
+        transport.available = true;
+        ConfigDeltaDocument delta = new ConfigDeltaDocument();
+        delta.setRevision(11L);
+        delta.getUpserts().add(item("pool.size", "64", 11L));
+        transport.deltas.add(delta);
+        client.refresh();
+        assertEquals("64", client.getString("pool.size"));
+        assertEquals(10L, transport.requestedRevisions.get(0));
+    }
+
+    @Test
+    void testFallbackFileIsOwnerOnly() throws IOException {
+        assumeTrue(fallbackDirectory.getFileSystem().supportedFileAttributeViews().contains("posix"));
+        // 上次写入中断遗留的临时文件带有默认权限
+        Path staleTemp = fallbackDirectory.resolve("prod.bundle.tmp");
+        Files.write(staleTemp, new byte[] {1, 2, 3});
+        Files.setPosixFilePermissions(staleTemp, PosixFilePermissions.fromString("rw-r--r--"));
+
+        client = newClient(null);
+        client.start();
+
+        Path fallbackFile = fallbackDirectory.resolve("prod.bundle");
+        assertEquals("rw-------", PosixFilePermissions.toString(Files.getPosixFilePermissions(fallbackFile)));
+        assertFalse(Files.exists(staleTemp));
+    }
+
+    private ConfigClient newClient(String callerId) {
+        ConfigClientProperties properties = new ConfigClientProperties();
+        properties.setServerUrl("http://localhost:8080");
+        properties.setEnvironment("prod");
+        properties.setCallerId(callerId);
+        properties.setRefreshIntervalMillis(60_000);
+        properties.setFallbackDirectory(fallbackDirectory.toString());
+        return new ConfigClient(properties, transport);
+    }
+
+    private static ConfigBundleDocument.Entry entry(String key, String value, long revision) {
+        ConfigBundleDocument.Entry entry = new ConfigBundleDocument.Entry();
+        entry.setKey(key);
+        entry.setValue(value);
+        entry.setType("STRING");
+        entry.setRevision(revision);
+        return entry;
+    }
+
+    private static ConfigDeltaDocument.Item item(String key, String value, long revision) {
+        ConfigDeltaDocument.Item item = new ConfigDeltaDocument.Item();
+        item.setConfigKey(key);
+        item.setConfigValue(value);
+        item.setConfigType("STRING");
+        item.setRevision(revision);
+        return item;
+    }
+
+    private static List<String> sorted(List<String> values) {
+        List<String> copy = new ArrayList<>(values);
+        Collections.sort(copy);
+        return copy;
+    }
+
+    private static class FakeTransport implements ConfigTransport {
+        private final ConfigBundleDocument bundle = new ConfigBundleDocument();
+        private final Deque<ConfigDeltaDocument> deltas = new ArrayDeque<>();
+        private final Map<String, String> values = new HashMap<>();
+        private final List<Long> requestedRevisions = new ArrayList<>();
+        private final List<String> requestedValueKeys = new ArrayList<>();
+        private boolean available = true;
+
+        @Override
+        public ConfigBundleDocument fetchBundle(String environment, List<String> groups) throws IOException {
+            checkAvailable();
+            return bundle;
+        }
+
+        @Override
+        public ConfigDeltaDocument fetchChanges(String environment, long sinceRevision) throws IOException {
+            checkAvailable();
+            requestedRevisions.add(sinceRevision);
+            ConfigDeltaDocument delta = deltas.poll();
+            if (delta == null) {
+                delta = new ConfigDeltaDocument();
+                delta.setRevision(sinceRevision);
+            }
+            return delta;
+        }
+
+        @Override
+        public Map<String, String> fetchValues(String environment, List<String> configKeys, String callerId)
+                throws IOException {
+            checkAvailable();
+            requestedValueKeys.addAll(configKeys);
+            Map<String, String> result = new HashMap<>();
+            for (String key : configKeys) {
+                result.put(key, values.get(key));
+            }
+            return result;
+        }
+
+        private void checkAvailable() throws IOException {
+            if (!available) {
+                throw new IOException("配置中心不可用");
+            }
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.qoobot.openadmin.config.audit;
+
+import com.qoobot.openadmin.config.entity.ConfigOperationLog;
+import com.qoobot.openadmin.config.support.TransactionCallbacks;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 配置操作日志异步批量写入器
+ * 写事务提交后将日志放入有界缓冲区，由后台线程按条数或时间间隔触发JDBC批量插入，
+ * 配置写入路径上不再产生同步的日志插入。入队不等待，缓冲区满时立即丢弃并计数，提交线程不被阻塞。
+ * 关闭时停止接收并将缓冲区剩余日志全部写入；与关闭并发入队的日志由入队线程补写
+ */
+@Slf4j
+@Component
+public class ConfigOperationLogWriter {
+
+    private static final String INSERT_SQL = "INSERT INTO config_operation_logs "
+            + "(config_id, operation_type, operator, old_value, new_value, remark, created_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final int MAX_FLUSH_ATTEMPTS = 3;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BlockingQueue<ConfigOperationLog> buffer;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    public ConfigOperationLogWriter(JdbcTemplate jdbcTemplate,
+                                    ObjectProvider<MeterRegistry> meterRegistry,
+                                    @Value("${openadmin.config.operation-log.buffer-size:8192}") int bufferSize,
+                                    @Value("${openadmin.config.operation-log.batch-size:200}") int batchSize,
+                                    @Value("${openadmin.config.operation-log.flush-interval-ms:1000}") long flushIntervalMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        this.worker = new Thread(this::runLoop, "config-oplog-writer");
+        this.worker.setDaemon(true);
+        meterRegistry.ifAvailable(this::bindMetrics);
+    }
+
+    @PostConstruct
+    public void start() {
+        worker.start();
+    }
+
+    /**
+     * 提交一条操作日志，存在活动事务时在提交后入队，事务回滚则不记录
+     */
+    public void append(ConfigOperationLog entry) {
+        TransactionCallbacks.afterCommit(() -> enqueue(entry));
+    }
+
+    private void enqueue(ConfigOperationLog entry) {
+        if (!running) {
+            // 关闭过程中产生的日志直接写入
+            flush(Collections.singletonList(entry));
+            return;
+        }
+        if (!buffer.offer(entry)) {
+            if (dropped.incrementAndGet() % 1000 == 1) {
+                log.warn("操作日志缓冲区已满，已累计丢弃 {} 条日志", dropped.get());
+            }
+            return;
+        }
+        enqueued.incrementAndGet();
+        if (!running) {
+            // 入队期间开始关闭，工作线程可能已排空缓冲区并退出，由当前线程写入剩余日志
+            List<ConfigOperationLog> remaining = new ArrayList<>();
+            buffer.drainTo(remaining);
+            flush(remaining);
+        }
+    }
+
+    private void runLoop() {
+        List<ConfigOperationLog> batch = new ArrayList<>(batchSize);
+        long deadline = System.nanoTime() + flushIntervalNanos;
+        while (running || !buffer.isEmpty()) {
+            try {
+                long waitNanos = deadline - System.nanoTime();
+                ConfigOperationLog first = waitNanos > 0 && running
+                        ? buffer.poll(waitNanos, TimeUnit.NANOSECONDS)
+                        : buffer.poll();
+                if (first != null) {
+                    batch.add(first);
+                    buffer.drainTo(batch, batchSize - batch.size());
+                }
+            } catch (InterruptedException e) {
+                // 关闭时被中断，继续排空缓冲区
+            }
+            if (batch.size() >= batchSize || System.nanoTime() - deadline >= 0 || !running) {
+                flush(batch);
+                batch.clear();
+                deadline = System.nanoTime() + flushIntervalNanos;
+            }
+        }
+        flush(batch);
+    }
+
+    private void flush(List<ConfigOperationLog> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        for (int attempt = 1; attempt <= MAX_FLUSH_ATTEMPTS; attempt++) {
+            try {
+                jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, entry) -> {
+                    if (entry.getConfigId() != null) {
+                        ps.setLong(1, entry.getConfigId());
+                    } else {
+                        ps.setNull(1, Types.BIGINT);
+                    }
+                    ps.setString(2, entry.getOperationType());
+                    ps.setString(3, entry.getOperator());
+                    ps.setString(4, entry.getOldValue());
+                    ps.setString(5, entry.getNewValue());
+                    ps.setString(6, entry.getRemark());
+                    ps.setTimestamp(7, Timestamp.valueOf(entry.getCreatedAt()));
+                });
+                written.addAndGet(batch.size());
+                return;
+            } catch (RuntimeException e) {
+                if (attempt == MAX_FLUSH_ATTEMPTS) {
+                    failed.addAndGet(batch.size());
+                    log.error("操作日志批量写入失败，丢弃 {} 条日志", batch.size(), e);
+                    return;
+                }
+                log.warn("操作日志批量写入失败，第 {} 次重试", attempt, e);
+                try {
+                    Thread.sleep(100L * attempt);
+                } catch (InterruptedException ie) {
+                    // 关闭过程中不中断重试
+                }
+            }
+        }
+    }
+
+    private void bindMetrics(MeterRegistry registry) {
+        Gauge.builder("config.oplog.buffer.size", buffer, BlockingQueue::size)
+                .description("操作日志缓冲区中待写入的条数")
+                .register(registry);
+        Gauge.builder("config.oplog.buffer.remaining", buffer, BlockingQueue::remainingCapacity)
+                .description("操作日志缓冲区剩余容量")
+                .register(registry);
+        FunctionCounter.builder("config.oplog.enqueued", enqueued, AtomicLong::get).register(registry);
+        FunctionCounter.builder("config.oplog.dropped", dropped, AtomicLong::get)
+                .description("缓冲区满被丢弃的日志条数")
+                .register(registry);
+        FunctionCounter.builder("config.oplog.written", written, AtomicLong::get).register(registry);
+        FunctionCounter.builder("config.oplog.failed", failed, AtomicLong::get).register(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        worker.interrupt();
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.info("操作日志写入器已关闭: written={}, dropped={}, failed={}", written.get(), dropped.get(), failed.get());
+    }
+}
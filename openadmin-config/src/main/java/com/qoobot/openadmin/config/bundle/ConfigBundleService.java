@@ -0,0 +1,240 @@
+package com.qoobot.openadmin.config.bundle;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.qoobot.openadmin.config.codec.ConfigValueCodec;
+import com.qoobot.openadmin.config.dto.ConfigDTO;
+import com.qoobot.openadmin.config.overlay.ConfigScope;
+import com.qoobot.openadmin.config.service.ConfigService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.*;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 配置包构建与缓存
+ * 配置包按（环境、分组集合、格式、环境修订号）缓存序列化后的字节，同一修订号只构建一次，
+ * 环境有变更时修订号增大，旧修订号的配置包不再被命中并随缓存淘汰。
+ * 同一键的并发请求只有一个线程构建，其余线程等待结果，避免集中启动时重复序列化
+ */
+@Slf4j
+@Component
+public class ConfigBundleService {
+
+    public static final String CODING_GZIP = "gzip";
+    public static final String CODING_DEFLATE = "deflate";
+
+    /**
+     * 配置包序列化格式
+     */
+    public enum Format {
+        CBOR("application/cbor", new ObjectMapper(new CBORFactory())),
+        SMILE("application/x-jackson-smile", new ObjectMapper(new SmileFactory()));
+
+        private final String mediaType;
+        private final ObjectMapper mapper;
+
+        Format(String mediaType, ObjectMapper mapper) {
+            this.mediaType = mediaType;
+            this.mapper = mapper;
+        }
+
+        public String getMediaType() { return mediaType; }
+
+        public static Format of(String name) {
+            if (name == null || name.isEmpty()) {
+                return CBOR;
+            }
+            try {
+                return valueOf(name.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("不支持的配置包格式: " + name);
+            }
+        }
+    }
+
+    @Autowired
+    private ConfigService configService;
+
+    private final int compressionMinBytes;
+    private final Cache<String, Bundle> bundleCache;
+
+    @Autowired
+    public ConfigBundleService(
+            @Value("${openadmin.config.bundle.cache-size:256}") long cacheSize,
+            @Value("${openadmin.config.bundle.cache-ttl-seconds:600}") long cacheTtlSeconds,
+            @Value("${openadmin.config.bundle.compression-min-bytes:1024}") int compressionMinBytes) {
+        this.compressionMinBytes = compressionMinBytes;
+        this.bundleCache = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterAccess(Duration.ofSeconds(cacheTtlSeconds))
+                .build();
+    }
+
+    /**
+     * 获取当前修订号的配置包，groups为空时包含环境下全部分组
+     *
+     * @throws IllegalArgumentException 环境名为覆盖层
+     */
+    public Bundle getBundle(String environment, List<String> groups, Format format) {
+        ConfigScope.requireEnvironment(environment);
+        long revision = configService.getEnvironmentRevision(environment);
+        List<String> groupSet = groups == null ? Collections.emptyList() : new ArrayList<>(new TreeSet<>(groups));
+        String cacheKey = environment + '\n' + String.join(",", groupSet) + '\n' + format + '\n' + revision;
+        return bundleCache.get(cacheKey, key -> build(environment, groupSet, format, revision));
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("bundles", bundleCache.estimatedSize());
+        return statistics;
+    }
+
+    private Bundle build(String environment, List<String> groups, Format format, long revision) {
+        ConfigDTO.ConfigBundle content = configService.getConfigBundle(environment, groups);
+        // 删除只推进环境修订号而不体现在条目中，以环境修订号为准
+        content.setRevision(Math.max(content.getRevision(), revision));
+        byte[] body;
+        try {
+            body = format.mapper.writeValueAsBytes(content);
+        } catch (IOException e) {
+            throw new UncheckedIOException("配置包序列化失败", e);
+        }
+        log.debug("构建配置包: {} groups={} format={} revision={}, {} 个配置, {} 字节",
+                environment, groups, format, content.getRevision(), content.getEntries().size(), body.length);
+        return new Bundle(format, content.getRevision(), body, compressionMinBytes);
+    }
+
+    /**
+     * 序列化后的配置包，压缩形式在首次请求该编码时生成并保留
+     */
+    public static final class Bundle {
+        private final Format format;
+        private final long revision;
+        private final byte[] body;
+        private final String digest;
+        private final int compressionMinBytes;
+        private volatile byte[] gzipBody;
+        private volatile byte[] deflateBody;
+
+        Bundle(Format format, long revision, byte[] body, int compressionMinBytes) {
+            this.format = format;
+            this.revision = revision;
+            this.body = body;
+            this.digest = digest(body);
+            this.compressionMinBytes = compressionMinBytes;
+        }
+
+        public Format getFormat() { return format; }
+
+        public long getRevision() { return revision; }
+
+        public byte[] getBody() { return body; }
+
+        /**
+         * 强ETag，由内容摘要与内容编码共同决定，不同编码的表示使用不同的ETag
+         */
+        public String getETag(String contentCoding) {
+            return "\"" + digest + (contentCoding != null ? "-" + contentCoding : "") + "\"";
+        }
+
+        /**
+         * 按Accept-Encoding选择内容编码，不压缩时返回null；小于阈值或压缩后未变小时不压缩
+         */
+        public String selectCoding(String acceptEncoding) {
+            if (body.length < compressionMinBytes) {
+                return null;
+            }
+            if (accepts(acceptEncoding, CODING_GZIP) && getEncodedBody(CODING_GZIP).length < body.length) {
+                return CODING_GZIP;
+            }
+            if (accepts(acceptEncoding, CODING_DEFLATE) && getEncodedBody(CODING_DEFLATE).length < body.length) {
+                return CODING_DEFLATE;
+            }
+            return null;
+        }
+
+        public byte[] getEncodedBody(String contentCoding) {
+            if (contentCoding == null) {
+                return body;
+            }
+            if (CODING_GZIP.equals(contentCoding)) {
+                byte[] encoded = gzipBody;
+                if (encoded == null) {
+                    // 并发时可能重复压缩，结果相同，无需加锁
+                    encoded = gzip(body);
+                    gzipBody = encoded;
+                }
+                return encoded;
+            }
+            if (CODING_DEFLATE.equals(contentCoding)) {
+                byte[] encoded = deflateBody;
+                if (encoded == null) {
+                    encoded = ConfigValueCodec.deflate(body, Deflater.DEFAULT_COMPRESSION);
+                    deflateBody = encoded;
+                }
+                return encoded;
+            }
+            throw new IllegalArgumentException("不支持的内容编码: " + contentCoding);
+        }
+    }
+
+    /**
+     * Accept-Encoding是否接受指定编码（q=0表示拒绝）
+     */
+    public static boolean accepts(String acceptEncoding, String contentCoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (!contentCoding.equalsIgnoreCase(parts[0].trim())) {
+                continue;
+            }
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        return Double.parseDouble(param.substring(2)) > 0;
+                    } catch (NumberFormatException e) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(body.length / 4, 64));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException("配置包压缩失败", e);
+        }
+        return out.toByteArray();
+    }
+
+    private static String digest(byte[] body) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(body);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(hash, 16));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256不可用", e);
+        }
+    }
+}
@@ -0,0 +1,367 @@
+package com.qoobot.openadmin.config.cache;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.Policy;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.qoobot.openadmin.config.entity.ConfigItem;
+import com.qoobot.openadmin.config.mapper.ConfigMapper;
+import com.qoobot.openadmin.config.overlay.ConfigScope;
+import com.qoobot.openadmin.config.snapshot.ConfigLocalSnapshotStore;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.Executor;
+
+/**
+ * 配置项读取缓存
+ * 配置的每个环境一个独立分区，按估算的字节数加权限制容量，互不挤占；
+ * 其他环境共用一个共享分区（键为 环境 + 分隔符 + 配置键），分区与指标数量不随请求中的环境名增长。
+ * 写入后超过刷新间隔的条目在下次访问时异步刷新（期间继续返回旧值），不做硬过期，
+ * 配置变更由仓储层精确失效。不存在的配置键以空值缓存一段较短的时间，避免反复查询数据库。
+ * 各分区的命中率、淘汰、加载耗时及加权大小注册到Micrometer（cache=config.items, environment=环境，共享分区为*）。
+ * 全局、应用及实例覆盖层由覆盖层解析器自行缓存，读取时直接查询数据库，不进入任何分区
+ * <p>
+ * 独立分区的环境：openadmin.config.cache.environments（逗号分隔）；
+ * 可按环境覆盖的属性：openadmin.config.cache.partitions.{环境}.max-weight-bytes
+ */
+@Slf4j
+@Component
+public class ConfigItemCache {
+
+    public static final String CACHE_NAME = "config.items";
+
+    // 共享分区在统计与指标中的名称
+    public static final String SHARED_PARTITION = "*";
+
+    // 共享分区键中环境与配置键的分隔符
+    private static final char SHARED_KEY_SEPARATOR = '\u0000';
+
+    // 单个缓存条目的固定开销估算（对象头、引用、时间戳等）
+    private static final long ENTRY_OVERHEAD_BYTES = 64;
+    private static final long ITEM_OVERHEAD_BYTES = 256;
+
+    private final ConfigMapper configMapper;
+    private final ConfigLocalSnapshotStore configLocalSnapshotStore;
+    private final Environment springEnvironment;
+    private final Executor refreshExecutor;
+    private final MeterRegistry meterRegistry;
+
+    private final long defaultMaxWeightBytes;
+    private final Duration refreshAfterWrite;
+    private final Duration negativeTtl;
+    private final int batchChunkSize;
+
+    // 独立分区在构造时创建，之后只读
+    private final Map<String, LoadingCache<String, Optional<ConfigItem>>> partitions;
+    private final LoadingCache<String, Optional<ConfigItem>> sharedPartition;
+
+    public ConfigItemCache(ConfigMapper configMapper,
+                           ConfigLocalSnapshotStore configLocalSnapshotStore,
+                           Environment springEnvironment,
+                           @Qualifier("configQueryExecutor") Executor refreshExecutor,
+                           ObjectProvider<MeterRegistry> meterRegistry,
+                           @Value("${openadmin.config.cache.max-weight-bytes:33554432}") long defaultMaxWeightBytes,
+                           @Value("${openadmin.config.cache.refresh-after-write:5m}") String refreshAfterWrite,
+                           @Value("${openadmin.config.cache.negative-ttl:30s}") String negativeTtl,
+                           @Value("${openadmin.config.cache.batch-chunk-size:500}") int batchChunkSize,
+                           @Value("${openadmin.config.cache.environments:dev,test,prod}") String environments) {
+        this.configMapper = configMapper;
+        this.configLocalSnapshotStore = configLocalSnapshotStore;
+        this.springEnvironment = springEnvironment;
+        this.refreshExecutor = refreshExecutor;
+        this.meterRegistry = meterRegistry.getIfAvailable();
+        this.defaultMaxWeightBytes = defaultMaxWeightBytes;
+        this.refreshAfterWrite = DurationStyle.detectAndParse(refreshAfterWrite);
+        this.negativeTtl = DurationStyle.detectAndParse(negativeTtl);
+        this.batchChunkSize = batchChunkSize;
+
+        Map<String, LoadingCache<String, Optional<ConfigItem>>> created = new HashMap<>();
+        for (String environment : environments.split(",")) {
+            String name = environment.trim();
+            if (!name.isEmpty() && !created.containsKey(name)) {
+                created.put(name, createPartition(name, new PartitionLoader(name)));
+            }
+        }
+        this.partitions = Collections.unmodifiableMap(created);
+        this.sharedPartition = createPartition(SHARED_PARTITION, new SharedPartitionLoader());
+    }
+
+    /**
+     * 读取配置项，未命中时从数据库加载（冷启动阶段优先使用本地快照），不存在时返回空
+     */
+    public Optional<ConfigItem> get(String configKey, String environment) {
+        if (ConfigScope.isOverlayLayer(environment)) {
+            return Optional.ofNullable(configMapper.selectByKeyAndEnvironment(configKey, environment));
+        }
+        LoadingCache<String, Optional<ConfigItem>> partition = partitions.get(environment);
+        if (partition != null) {
+            return partition.get(configKey);
+        }
+        return sharedPartition.get(sharedKey(environment, configKey));
+    }
+
+    /**
+     * 批量读取配置项，仅对未命中的键批量加载，返回以配置键为key的映射
+     */
+    public Map<String, ConfigItem> getAll(Collection<String> configKeys, String environment) {
+        LoadingCache<String, Optional<ConfigItem>> partition = partitions.get(environment);
+        Map<String, ConfigItem> result = new LinkedHashMap<>(configKeys.size());
+        if (ConfigScope.isOverlayLayer(environment)) {
+            for (Map.Entry<String, Optional<ConfigItem>> entry
+                    : new PartitionLoader(environment).loadAll(new LinkedHashSet<>(configKeys)).entrySet()) {
+                entry.getValue().ifPresent(item -> result.put(entry.getKey(), item));
+            }
+            return result;
+        }
+        if (partition != null) {
+            for (Map.Entry<String, Optional<ConfigItem>> entry : partition.getAll(configKeys).entrySet()) {
+                entry.getValue().ifPresent(item -> result.put(entry.getKey(), item));
+            }
+            return result;
+        }
+        List<String> sharedKeys = new ArrayList<>(configKeys.size());
+        for (String configKey : configKeys) {
+            sharedKeys.add(sharedKey(environment, configKey));
+        }
+        for (Map.Entry<String, Optional<ConfigItem>> entry : sharedPartition.getAll(sharedKeys).entrySet()) {
+            entry.getValue().ifPresent(item -> result.put(item.getConfigKey(), item));
+        }
+        return result;
+    }
+
+    public void put(ConfigItem item) {
+        if (ConfigScope.isOverlayLayer(item.getEnvironment())) {
+            return;
+        }
+        LoadingCache<String, Optional<ConfigItem>> partition = partitions.get(item.getEnvironment());
+        if (partition != null) {
+            partition.put(item.getConfigKey(), Optional.of(item));
+        } else {
+            sharedPartition.put(sharedKey(item.getEnvironment(), item.getConfigKey()), Optional.of(item));
+        }
+    }
+
+    public void invalidate(String configKey, String environment) {
+        LoadingCache<String, Optional<ConfigItem>> partition = partitions.get(environment);
+        if (partition != null) {
+            partition.invalidate(configKey);
+        } else {
+            sharedPartition.invalidate(sharedKey(environment, configKey));
+        }
+    }
+
+    public void invalidateAll(Collection<ConfigItem> items) {
+        Map<String, List<String>> keysByEnvironment = new HashMap<>();
+        for (ConfigItem item : items) {
+            keysByEnvironment.computeIfAbsent(item.getEnvironment(), env -> new ArrayList<>()).add(item.getConfigKey());
+        }
+        keysByEnvironment.forEach((environment, configKeys) -> {
+            LoadingCache<String, Optional<ConfigItem>> partition = partitions.get(environment);
+            if (partition != null) {
+                partition.invalidateAll(configKeys);
+                return;
+            }
+            List<String> sharedKeys = new ArrayList<>(configKeys.size());
+            for (String configKey : configKeys) {
+                sharedKeys.add(sharedKey(environment, configKey));
+            }
+            sharedPartition.invalidateAll(sharedKeys);
+        });
+    }
+
+    public void invalidateAll() {
+        partitions.values().forEach(LoadingCache::invalidateAll);
+        sharedPartition.invalidateAll();
+    }
+
+    /**
+     * 各分区的缓存统计，环境（共享分区为*） -> 统计项
+     */
+    public Map<String, Map<String, Object>> getStatistics() {
+        Map<String, LoadingCache<String, Optional<ConfigItem>>> all = new HashMap<>(partitions);
+        all.put(SHARED_PARTITION, sharedPartition);
+        Map<String, Map<String, Object>> statistics = new TreeMap<>();
+        all.forEach((environment, partition) -> {
+            CacheStats stats = partition.stats();
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("size", partition.estimatedSize());
+            values.put("weightBytes", weightedSize(partition));
+            values.put("maxWeightBytes", maxWeight(partition));
+            values.put("hitRate", stats.hitRate());
+            values.put("hitCount", stats.hitCount());
+            values.put("missCount", stats.missCount());
+            values.put("evictionCount", stats.evictionCount());
+            values.put("averageLoadPenaltyMillis", stats.averageLoadPenalty() / 1_000_000.0);
+            statistics.put(environment, values);
+        });
+        return statistics;
+    }
+
+    private static String sharedKey(String environment, String configKey) {
+        return environment + SHARED_KEY_SEPARATOR + configKey;
+    }
+
+    private LoadingCache<String, Optional<ConfigItem>> createPartition(String environment,
+                                                                       CacheLoader<String, Optional<ConfigItem>> loader) {
+        long maxWeightBytes = springEnvironment.getProperty(
+                "openadmin.config.cache.partitions." + environment + ".max-weight-bytes", Long.class, defaultMaxWeightBytes);
+        long negativeTtlNanos = negativeTtl.toNanos();
+        LoadingCache<String, Optional<ConfigItem>> partition = Caffeine.newBuilder()
+                .maximumWeight(maxWeightBytes)
+                .weigher(ConfigItemCache::weigh)
+                .expireAfter(new Expiry<String, Optional<ConfigItem>>() {
+                    @Override
+                    public long expireAfterCreate(String key, Optional<ConfigItem> value, long currentTime) {
+                        return value.isPresent() ? Long.MAX_VALUE : negativeTtlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Optional<ConfigItem> value,
+                                                  long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Optional<ConfigItem> value,
+                                                long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .refreshAfterWrite(refreshAfterWrite)
+                .executor(refreshExecutor)
+                .recordStats()
+                .build(loader);
+        if (meterRegistry != null) {
+            Tags tags = Tags.of("environment", environment);
+            CaffeineCacheMetrics.monitor(meterRegistry, partition, CACHE_NAME, tags);
+            Gauge.builder("config.cache.weight", partition, ConfigItemCache::weightedSize)
+                    .description("配置缓存分区当前的估算字节数")
+                    .baseUnit("bytes")
+                    .tags(tags)
+                    .register(meterRegistry);
+            Gauge.builder("config.cache.max.weight", partition, ConfigItemCache::maxWeight)
+                    .description("配置缓存分区的字节数上限")
+                    .baseUnit("bytes")
+                    .tags(tags)
+                    .register(meterRegistry);
+        }
+        log.info("创建配置缓存分区: environment={}, maxWeightBytes={}", environment, maxWeightBytes);
+        return partition;
+    }
+
+    private static double weightedSize(LoadingCache<String, Optional<ConfigItem>> partition) {
+        return partition.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L);
+    }
+
+    private static double maxWeight(LoadingCache<String, Optional<ConfigItem>> partition) {
+        return partition.policy().eviction().map(Policy.Eviction::getMaximum).orElse(0L);
+    }
+
+    /**
+     * 按字符串内容估算条目字节数，字符按2字节计，偏向高估；压缩存储的配置值按压缩后的长度计
+     */
+    static int weigh(String configKey, Optional<ConfigItem> value) {
+        long bytes = ENTRY_OVERHEAD_BYTES + 2L * configKey.length();
+        if (value.isPresent()) {
+            ConfigItem item = value.get();
+            bytes += ITEM_OVERHEAD_BYTES
+                    + 2L * (length(item.getConfigValue()) + length(item.getGrayValue())
+                    + length(item.getDescription()) + length(item.getTags())
+                    + length(item.getGroupName()) + length(item.getEnvironment()));
+        }
+        return (int) Math.min(bytes, Integer.MAX_VALUE);
+    }
+
+    private static int length(String value) {
+        return value != null ? value.length() : 0;
+    }
+
+    /**
+     * 分区加载器：冷启动阶段优先使用本地快照，应用就绪后加载与刷新均查询数据库；
+     * 批量加载时未查到的键以空值返回，由缓存负缓存
+     */
+    private final class PartitionLoader implements CacheLoader<String, Optional<ConfigItem>> {
+
+        private final String environment;
+
+        PartitionLoader(String environment) {
+            this.environment = environment;
+        }
+
+        @Override
+        public Optional<ConfigItem> load(String configKey) {
+            Optional<ConfigItem> snapshotItem = configLocalSnapshotStore.findDuringColdStart(configKey, environment);
+            if (snapshotItem.isPresent()) {
+                return snapshotItem;
+            }
+            return Optional.ofNullable(configMapper.selectByKeyAndEnvironment(configKey, environment));
+        }
+
+        @Override
+        public Map<String, Optional<ConfigItem>> loadAll(Set<? extends String> configKeys) {
+            Map<String, Optional<ConfigItem>> loaded = new HashMap<>(configKeys.size() * 2);
+            List<String> remaining = new ArrayList<>(configKeys.size());
+            for (String configKey : configKeys) {
+                Optional<ConfigItem> snapshotItem = configLocalSnapshotStore.findDuringColdStart(configKey, environment);
+                if (snapshotItem.isPresent()) {
+                    loaded.put(configKey, snapshotItem);
+                } else {
+                    remaining.add(configKey);
+                }
+            }
+            for (int start = 0; start < remaining.size(); start += batchChunkSize) {
+                List<String> chunk = remaining.subList(start, Math.min(start + batchChunkSize, remaining.size()));
+                for (ConfigItem item : configMapper.selectByKeysAndEnvironment(chunk, environment)) {
+                    loaded.put(item.getConfigKey(), Optional.of(item));
+                }
+            }
+            for (String configKey : remaining) {
+                loaded.putIfAbsent(configKey, Optional.empty());
+            }
+            log.debug("批量加载配置项: 请求 {} 个, 查询数据库 {} 个, 环境 {}",
+                    configKeys.size(), remaining.size(), environment);
+            return loaded;
+        }
+    }
+
+    /**
+     * 共享分区加载器：按键中的环境分组后交给对应环境的加载逻辑
+     */
+    private final class SharedPartitionLoader implements CacheLoader<String, Optional<ConfigItem>> {
+
+        @Override
+        public Optional<ConfigItem> load(String sharedKey) {
+            int separator = sharedKey.indexOf(SHARED_KEY_SEPARATOR);
+            return new PartitionLoader(sharedKey.substring(0, separator)).load(sharedKey.substring(separator + 1));
+        }
+
+        @Override
+        public Map<String, Optional<ConfigItem>> loadAll(Set<? extends String> sharedKeys) {
+            Map<String, Set<String>> keysByEnvironment = new HashMap<>();
+            for (String sharedKey : sharedKeys) {
+                int separator = sharedKey.indexOf(SHARED_KEY_SEPARATOR);
+                keysByEnvironment.computeIfAbsent(sharedKey.substring(0, separator), env -> new LinkedHashSet<>())
+                        .add(sharedKey.substring(separator + 1));
+            }
+            Map<String, Optional<ConfigItem>> loaded = new HashMap<>(sharedKeys.size() * 2);
+            keysByEnvironment.forEach((environment, configKeys) ->
+                    new PartitionLoader(environment).loadAll(configKeys)
+                            .forEach((configKey, item) -> loaded.put(sharedKey(environment, configKey), item)));
+            return loaded;
+        }
+    }
+}
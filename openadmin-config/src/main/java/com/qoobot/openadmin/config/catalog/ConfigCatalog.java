@@ -0,0 +1,366 @@
+package com.qoobot.openadmin.config.catalog;
+
+import com.qoobot.openadmin.config.dto.ConfigDTO;
+import com.qoobot.openadmin.config.entity.ConfigItem;
+import com.qoobot.openadmin.config.mapper.ConfigMapper;
+import com.qoobot.openadmin.config.overlay.ConfigScope;
+import com.qoobot.openadmin.config.support.TransactionCallbacks;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 配置目录
+ * 按（环境、分组、状态、加密标识）维护有效配置项计数，由一次聚合查询构建，
+ * 之后随本实例的新增、更新、删除和状态变更在事务提交后增量维护。
+ * 构建时在同一快照中读取全局修订号，修订号不大于该值的增量已包含在聚合结果中而被丢弃；
+ * 其他实例的写入不产生增量，由定期重新聚合校正。
+ * 环境列表、分组列表与统计数据由计数派生并缓存，变更后首次读取时重新派生，读取不访问数据库
+ */
+@Slf4j
+@Component
+public class ConfigCatalog {
+
+    // 新环境创建前下拉框中始终提供的默认环境
+    private static final List<String> DEFAULT_ENVIRONMENTS = Arrays.asList("dev", "test", "prod");
+
+    @Autowired
+    private ConfigMapper configMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    @Qualifier("configQueryExecutor")
+    private Executor configQueryExecutor;
+
+    // 与数据库重新聚合校正的间隔
+    @Value("${openadmin.config.catalog.reconcile-interval-ms:60000}")
+    private long reconcileIntervalMillis = 60000;
+
+    private final Map<Facet, Long> counts = new ConcurrentHashMap<>();
+    // 计数变更序号，视图记录派生时的序号，不一致即过期
+    private final AtomicLong modCount = new AtomicLong();
+    private volatile CatalogView view;
+    private volatile boolean ready;
+
+    // 串行化增量与构建结果的替换；baseRevision为当前计数对应的修订号，pending为构建期间到达的增量
+    private final Object lock = new Object();
+    private long baseRevision;
+    private List<Delta> pending;
+
+    private final AtomicBoolean reconciling = new AtomicBoolean();
+    private volatile long nextReconcileAt;
+
+    /**
+     * 应用启动后通过聚合查询构建目录
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        boolean initial = !ready;
+        synchronized (lock) {
+            pending = new ArrayList<>();
+        }
+        try {
+            // 可重复读事务保证修订号与聚合结果来自同一快照：全局修订号行在写事务提交前保持锁定，
+            // 快照中可见的写入修订号均不大于读到的修订号，不可见的均大于
+            TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+            transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+            transactionTemplate.setReadOnly(true);
+            Snapshot snapshot = transactionTemplate.execute(status -> load());
+            synchronized (lock) {
+                counts.clear();
+                counts.putAll(snapshot.counts);
+                baseRevision = snapshot.revision;
+                for (Delta delta : pending) {
+                    if (delta.revision > baseRevision) {
+                        add(delta.facet, delta.delta);
+                    }
+                }
+                ready = true;
+                modCount.incrementAndGet();
+            }
+            nextReconcileAt = System.currentTimeMillis() + reconcileIntervalMillis;
+            if (initial) {
+                log.info("配置目录构建完成: {} 个分组统计项, revision={}", snapshot.counts.size(), snapshot.revision);
+            }
+        } catch (Exception e) {
+            log.warn("配置目录构建失败: {}", e.getMessage());
+        } finally {
+            synchronized (lock) {
+                pending = null;
+            }
+        }
+    }
+
+    private Snapshot load() {
+        Long revision = configMapper.selectRevision();
+        Map<Facet, Long> loaded = new HashMap<>();
+        for (ConfigDTO.ConfigCatalogCount row : configMapper.selectCatalogCounts()) {
+            loaded.merge(new Facet(row.getEnvironment(), row.getGroupName(), row.getStatus(),
+                                   Boolean.TRUE.equals(row.getEncrypted())),
+                         row.getItemCount(), Long::sum);
+        }
+        return new Snapshot(loaded, revision != null ? revision : 0L);
+    }
+
+    /**
+     * 配置项新增后调用，item的修订号为本次写入的修订号
+     */
+    public void onInsert(ConfigItem item) {
+        Facet facet = Facet.of(item, null);
+        long revision = revisionOf(item);
+        TransactionCallbacks.afterCommit(() -> apply(facet, 1, revision));
+    }
+
+    /**
+     * 配置项更新后调用，current中未设置的字段沿用previous，current的修订号为本次写入的修订号
+     */
+    public void onUpdate(ConfigItem previous, ConfigItem current) {
+        Facet before = Facet.of(previous, null);
+        Facet after = Facet.of(current, previous);
+        if (before.equals(after)) {
+            return;
+        }
+        long revision = revisionOf(current);
+        TransactionCallbacks.afterCommit(() -> {
+            apply(before, -1, revision);
+            apply(after, 1, revision);
+        });
+    }
+
+    /**
+     * 配置项删除后调用，revision为删除写入的修订号
+     */
+    public void onDelete(ConfigItem previous, long revision) {
+        Facet facet = Facet.of(previous, null);
+        TransactionCallbacks.afterCommit(() -> apply(facet, -1, revision));
+    }
+
+    /**
+     * 环境列表：默认环境与存在配置项的环境
+     */
+    public List<String> getEnvironments() {
+        return currentView().environments;
+    }
+
+    /**
+     * 配置分组列表
+     */
+    public List<String> getConfigGroups() {
+        return currentView().groups;
+    }
+
+    /**
+     * 配置统计数据
+     */
+    public Map<String, Object> getStatistics() {
+        return currentView().statistics;
+    }
+
+    private void apply(Facet facet, long delta, long revision) {
+        synchronized (lock) {
+            if (pending != null) {
+                pending.add(new Delta(facet, delta, revision));
+            }
+            // 修订号不大于构建快照的写入已包含在聚合结果中
+            if (!ready || revision <= baseRevision) {
+                return;
+            }
+            add(facet, delta);
+            modCount.incrementAndGet();
+        }
+    }
+
+    private void add(Facet facet, long delta) {
+        counts.compute(facet, (key, value) -> {
+            long updated = (value != null ? value : 0L) + delta;
+            return updated > 0 ? updated : null;
+        });
+    }
+
+    private static long revisionOf(ConfigItem item) {
+        // 未携带修订号的写入总是应用，由下一次校正修正
+        return item.getRevision() != null ? item.getRevision() : Long.MAX_VALUE;
+    }
+
+    /**
+     * 到期后在后台重新聚合，校正其他实例写入造成的偏差
+     */
+    private void reconcileIfDue() {
+        if (System.currentTimeMillis() < nextReconcileAt || !reconciling.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            configQueryExecutor.execute(() -> {
+                try {
+                    rebuild();
+                } finally {
+                    reconciling.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            reconciling.set(false);
+            log.warn("提交配置目录校正任务失败: {}", e.getMessage());
+        }
+    }
+
+    private CatalogView currentView() {
+        if (ready) {
+            reconcileIfDue();
+        }
+        CatalogView current = view;
+        long mod = modCount.get();
+        if (current == null || current.modCount != mod) {
+            if (!ready) {
+                rebuild();
+                mod = modCount.get();
+            }
+            current = new CatalogView(counts, mod);
+            view = current;
+        }
+        return current;
+    }
+
+    /**
+     * 由计数派生的只读视图
+     */
+    private static final class CatalogView {
+        private final List<String> environments;
+        private final List<String> groups;
+        private final Map<String, Object> statistics;
+        private final long modCount;
+
+        private CatalogView(Map<Facet, Long> counts, long modCount) {
+            this.modCount = modCount;
+            long total = 0;
+            long encrypted = 0;
+            Map<String, Long> byEnvironment = new TreeMap<>();
+            Map<String, Long> byGroup = new TreeMap<>();
+            Map<String, Long> byStatus = new TreeMap<>();
+            for (Map.Entry<Facet, Long> entry : counts.entrySet()) {
+                Facet facet = entry.getKey();
+                long count = entry.getValue();
+                total += count;
+                if (facet.encrypted) {
+                    encrypted += count;
+                }
+                // 全局、应用及实例覆盖层不作为独立环境统计
+                if (facet.environment != null && !ConfigScope.isOverlayLayer(facet.environment)) {
+                    byEnvironment.merge(facet.environment, count, Long::sum);
+                }
+                if (facet.groupName != null && !facet.groupName.isEmpty()) {
+                    byGroup.merge(facet.groupName, count, Long::sum);
+                }
+                if (facet.status != null) {
+                    byStatus.merge(facet.status, count, Long::sum);
+                }
+            }
+
+            Set<String> environmentNames = new LinkedHashSet<>(DEFAULT_ENVIRONMENTS);
+            environmentNames.addAll(byEnvironment.keySet());
+            this.environments = Collections.unmodifiableList(new ArrayList<>(environmentNames));
+            this.groups = Collections.unmodifiableList(new ArrayList<>(byGroup.keySet()));
+
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("total", total);
+            stats.put("environments", environments);
+            stats.put("groups", groups);
+            stats.put("encrypted", encrypted);
+            stats.put("environmentCounts", Collections.unmodifiableMap(byEnvironment));
+            stats.put("groupCounts", Collections.unmodifiableMap(byGroup));
+            stats.put("statusCounts", Collections.unmodifiableMap(byStatus));
+            this.statistics = Collections.unmodifiableMap(stats);
+        }
+    }
+
+    /**
+     * 构建时读取的计数与修订号
+     */
+    private static final class Snapshot {
+        private final Map<Facet, Long> counts;
+        private final long revision;
+
+        private Snapshot(Map<Facet, Long> counts, long revision) {
+            this.counts = counts;
+            this.revision = revision;
+        }
+    }
+
+    /**
+     * 构建期间到达的增量，构建完成后重放修订号大于快照的部分
+     */
+    private static final class Delta {
+        private final Facet facet;
+        private final long delta;
+        private final long revision;
+
+        private Delta(Facet facet, long delta, long revision) {
+            this.facet = facet;
+            this.delta = delta;
+            this.revision = revision;
+        }
+    }
+
+    /**
+     * 统计维度
+     */
+    private static final class Facet {
+        private final String environment;
+        private final String groupName;
+        private final String status;
+        private final boolean encrypted;
+
+        private Facet(String environment, String groupName, String status, boolean encrypted) {
+            this.environment = environment;
+            this.groupName = groupName;
+            this.status = status;
+            this.encrypted = encrypted;
+        }
+
+        private static Facet of(ConfigItem item, ConfigItem fallback) {
+            return new Facet(
+                    pick(item.getEnvironment(), fallback != null ? fallback.getEnvironment() : null),
+                    pick(item.getGroupName(), fallback != null ? fallback.getGroupName() : null),
+                    pick(item.getStatus(), fallback != null ? fallback.getStatus() : null),
+                    Boolean.TRUE.equals(pick(item.getEncrypted(), fallback != null ? fallback.getEncrypted() : null)));
+        }
+
+        private static <T> T pick(T value, T fallback) {
+            return value != null ? value : fallback;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Facet)) {
+                return false;
+            }
+            Facet other = (Facet) o;
+            return encrypted == other.encrypted
+                    && Objects.equals(environment, other.environment)
+                    && Objects.equals(groupName, other.groupName)
+                    && Objects.equals(status, other.status);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(environment, groupName, status, encrypted);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.qoobot.openadmin.config.codec;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 配置值压缩编解码
+ * 超过阈值的配置值以deflate（zlib格式）压缩后Base64编码，并加上前缀 {deflate} 存入文本列；
+ * 未超过阈值或压缩后反而更大的值原样存储。以前缀开头的普通文本总是压缩，存储形式以前缀开头即为压缩值，没有歧义。
+ * 加密配置先压缩再加密，解密后再解压。
+ * <p>
+ * zlib格式与HTTP的 Content-Encoding: deflate 一致，压缩字节可直接返回给支持deflate的客户端
+ */
+@Component
+public class ConfigValueCodec {
+
+    public static final String PREFIX = "{deflate}";
+
+    private final boolean enabled;
+    private final int thresholdBytes;
+    private final int level;
+
+    @Autowired
+    public ConfigValueCodec(
+            @Value("${openadmin.config.compression.enabled:true}") boolean enabled,
+            @Value("${openadmin.config.compression.threshold-bytes:4096}") int thresholdBytes,
+            @Value("${openadmin.config.compression.level:6}") int level) {
+        if (level < Deflater.BEST_SPEED || level > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("压缩级别必须在1~9之间: " + level);
+        }
+        this.enabled = enabled;
+        this.thresholdBytes = Math.max(thresholdBytes, 1);
+        this.level = level;
+    }
+
+    /**
+     * 将明文编码为存储形式，超过阈值时压缩。参数总是按明文处理，调用方不应传入存储形式
+     */
+    public String encode(String value) {
+        if (value == null) {
+            return null;
+        }
+        // 恰好以前缀开头的普通文本总是压缩，保证读取时不会被误当作压缩值，关闭压缩时同样如此
+        boolean prefixed = isCompressed(value);
+        if (!enabled && !prefixed) {
+            return value;
+        }
+        // UTF-8字节数不小于字符数，不超过阈值/3个字符的值一定不会超过阈值，无需编码计算
+        if (!prefixed && (long) value.length() * 3 < thresholdBytes) {
+            return value;
+        }
+        byte[] plain = value.getBytes(StandardCharsets.UTF_8);
+        if (!prefixed && plain.length < thresholdBytes) {
+            return value;
+        }
+        byte[] compressed = deflate(plain, level);
+        // Base64膨胀4/3，压缩收益不足时保持原样
+        int encodedLength = PREFIX.length() + 4 * ((compressed.length + 2) / 3);
+        if (!prefixed && encodedLength >= value.length()) {
+            return value;
+        }
+        return PREFIX + Base64.getEncoder().encodeToString(compressed);
+    }
+
+    /**
+     * 存储形式是否为压缩值
+     */
+    public static boolean isCompressed(String stored) {
+        return stored != null && stored.startsWith(PREFIX);
+    }
+
+    /**
+     * 解码存储形式，非压缩值原样返回
+     */
+    public static String decode(String stored) {
+        if (!isCompressed(stored)) {
+            return stored;
+        }
+        return new String(inflate(compressedBytes(stored)), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 压缩值的原始zlib字节，可直接作为 Content-Encoding: deflate 的响应体；非压缩值返回null
+     */
+    public static byte[] compressedBytes(String stored) {
+        if (!isCompressed(stored)) {
+            return null;
+        }
+        try {
+            return Base64.getDecoder().decode(stored.substring(PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("压缩配置值Base64格式错误", e);
+        }
+    }
+
+    /**
+     * 以zlib格式压缩字节
+     */
+    public static byte[] deflate(byte[] plain, int level) {
+        Deflater deflater = new Deflater(level);
+        try {
+            deflater.setInput(plain);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(plain.length / 4, 64));
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                int n = deflater.deflate(buffer);
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] compressed) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(compressed.length * 4);
+            byte[] buffer = new byte[8192];
+            while (!inflater.finished()) {
+                int n = inflater.inflate(buffer);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalStateException("压缩配置值数据不完整");
+                }
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("压缩配置值格式错误", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
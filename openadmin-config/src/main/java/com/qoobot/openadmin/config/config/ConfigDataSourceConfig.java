@@ -0,0 +1,72 @@
+package com.qoobot.openadmin.config.config;
+
+import com.qoobot.openadmin.config.datasource.ConfigReadRoutingInterceptor;
+import com.qoobot.openadmin.config.datasource.ConfigRoutingDataSource;
+import com.qoobot.openadmin.config.watch.ConfigWatchManager;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 配置中心读写分离数据源配置
+ * 开启 openadmin.config.datasource.read-write-split.enabled 后，主库使用 spring.datasource.*，
+ * 从库使用 openadmin.config.datasource.replicas[n].*（url、username、password、driver-class-name，
+ * 连接池参数位于 replicas[n].hikari.*）
+ */
+@Configuration
+@ConditionalOnProperty(name = "openadmin.config.datasource.read-write-split.enabled", havingValue = "true")
+public class ConfigDataSourceConfig {
+
+    private static final String REPLICAS_PREFIX = "openadmin.config.datasource.replicas";
+
+    @Bean
+    @Primary
+    public ConfigRoutingDataSource dataSource(
+            DataSourceProperties primaryProperties,
+            Environment environment,
+            ObjectProvider<ConfigWatchManager> configWatchManager,
+            @Value("${openadmin.config.datasource.replica-lag-check-interval-ms:200}") long lagCheckIntervalMillis)
+            throws Exception {
+        Binder binder = Binder.get(environment);
+        DataSource primary = buildDataSource(primaryProperties, binder, "spring.datasource.hikari");
+
+        List<DataSourceProperties> replicaProperties = binder
+                .bind(REPLICAS_PREFIX, Bindable.listOf(DataSourceProperties.class))
+                .orElse(Collections.emptyList());
+        List<DataSource> replicas = new ArrayList<>(replicaProperties.size());
+        for (int i = 0; i < replicaProperties.size(); i++) {
+            replicas.add(buildDataSource(replicaProperties.get(i), binder, REPLICAS_PREFIX + "[" + i + "].hikari"));
+        }
+
+        // 订阅管理器在数据源之后创建，按需获取，未就绪时不设下限
+        return new ConfigRoutingDataSource(primary, replicas, () -> {
+            ConfigWatchManager watchManager = configWatchManager.getIfAvailable();
+            return watchManager != null ? watchManager.getCurrentRevision() : 0L;
+        }, lagCheckIntervalMillis);
+    }
+
+    @Bean
+    public ConfigReadRoutingInterceptor configReadRoutingInterceptor() {
+        return new ConfigReadRoutingInterceptor();
+    }
+
+    private static DataSource buildDataSource(DataSourceProperties properties, Binder binder, String poolPrefix)
+            throws Exception {
+        properties.afterPropertiesSet();
+        DataSource dataSource = properties.initializeDataSourceBuilder().build();
+        binder.bind(poolPrefix, Bindable.ofInstance(dataSource));
+        return dataSource;
+    }
+}
@@ -0,0 +1,100 @@
+package com.qoobot.openadmin.config.config;
+
+import com.qoobot.openadmin.config.datasource.ConfigReadConsistency;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * 配置中心线程池配置
+ */
+@Configuration
+public class ConfigExecutorConfig {
+
+    /**
+     * 配置查询线程池
+     * 用于分页查询时并行执行总数统计等辅助查询
+     */
+    @Bean(name = "configQueryExecutor")
+    public ThreadPoolTaskExecutor configQueryExecutor(
+            @Value("${openadmin.config.query-executor.core-size:4}") int coreSize,
+            @Value("${openadmin.config.query-executor.max-size:16}") int maxSize,
+            @Value("${openadmin.config.query-executor.queue-capacity:256}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(coreSize);
+        executor.setMaxPoolSize(maxSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("config-query-");
+        // 并行的辅助查询与发起请求使用同一读一致性令牌
+        executor.setTaskDecorator(ConfigReadConsistency::propagate);
+        // 队列满时由调用线程执行，保证统计查询不会被丢弃
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * 配置变更通知线程池
+     * 有界队列，在事务提交后异步分发监听器与远程订阅者通知
+     */
+    @Bean(name = "configNotifyExecutor")
+    public ThreadPoolTaskExecutor configNotifyExecutor(
+            @Value("${openadmin.config.notify-executor.core-size:2}") int coreSize,
+            @Value("${openadmin.config.notify-executor.max-size:8}") int maxSize,
+            @Value("${openadmin.config.notify-executor.queue-capacity:10000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(coreSize);
+        executor.setMaxPoolSize(maxSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("config-notify-");
+        // 队列满时由提交线程执行，避免丢失变更通知
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * 外部配置中心同步线程池
+     * 线程数即同步时并行处理的分组数上限，避免对远程配置中心造成突发压力
+     */
+    @Bean(name = "configSyncExecutor")
+    public ThreadPoolTaskExecutor configSyncExecutor(
+            @Value("${openadmin.config.sync.parallelism:4}") int parallelism,
+            @Value("${openadmin.config.sync.queue-capacity:1024}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(parallelism);
+        executor.setMaxPoolSize(parallelism);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("config-sync-");
+        // 队列满时由发起同步的线程执行，不丢弃分组
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * 密钥轮换重新加密线程池
+     * 线程数即并行加解密的上限，避免批量轮换占满CPU影响在线请求
+     */
+    @Bean(name = "configReencryptExecutor")
+    public ThreadPoolTaskExecutor configReencryptExecutor(
+            @Value("${openadmin.config.crypto.reencrypt.parallelism:4}") int parallelism,
+            @Value("${openadmin.config.crypto.reencrypt.queue-capacity:64}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(parallelism);
+        executor.setMaxPoolSize(parallelism);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("config-reencrypt-");
+        // 队列满时由轮换线程执行，形成背压
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+}
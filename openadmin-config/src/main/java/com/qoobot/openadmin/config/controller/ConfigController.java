@@ -1,16 +1,26 @@
 package com.qoobot.openadmin.config.controller;
 
+import com.qoobot.openadmin.config.bundle.ConfigBundleService;
+import com.qoobot.openadmin.config.crypto.ConfigKeyRotationJob;
 import com.qoobot.openadmin.config.dto.ConfigDTO;
+import com.qoobot.openadmin.config.entity.ConfigOperationLog;
 import com.qoobot.openadmin.config.service.ConfigService;
 import lombok.extern.slf4j.Slf4j;
 
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -24,9 +34,17 @@ import java.util.Map;
 @RequestMapping("/api/config")
 public class ConfigController {
     
+    private static final String NDJSON_MEDIA_TYPE = "application/x-ndjson";
+
     @Autowired
     private ConfigService configService;
 
+    @Autowired
+    private ConfigBundleService configBundleService;
+
+    @Autowired
+    private ConfigKeyRotationJob configKeyRotationJob;
+
     /**
      * 创建配置项
      */
@@ -100,9 +118,10 @@ public class ConfigController {
     @GetMapping("/value")
     public ResponseEntity<Map<String, String>> getConfigValue(
             @RequestParam String key,
-            @RequestParam String environment) {
+            @RequestParam String environment,
+            @RequestParam(required = false) String callerId) {
         try {
-            String value = configService.getConfigValue(key, environment);
+            String value = configService.getConfigValue(key, environment, callerId);
             Map<String, String> result = new HashMap<>();
             result.put("key", key);
             result.put("environment", environment);
@@ -114,6 +133,43 @@ public class ConfigController {
         }
     }
 
+    /**
+     * 以原始文本返回配置值
+     * 请求头 Accept-Encoding 包含deflate且配置值以压缩形式存储时，直接返回存储的压缩字节（Content-Encoding: deflate），
+     * 服务端不解压；否则返回UTF-8明文
+     */
+    @GetMapping("/value/raw")
+    public ResponseEntity<byte[]> getRawConfigValue(
+            @RequestParam String key,
+            @RequestParam String environment,
+            @RequestParam(required = false) String callerId,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        try {
+            MediaType textPlain = new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8);
+            if (ConfigBundleService.accepts(acceptEncoding, ConfigBundleService.CODING_DEFLATE)) {
+                byte[] compressed = configService.getCompressedConfigValue(key, environment, callerId);
+                if (compressed != null) {
+                    return ResponseEntity.ok()
+                            .contentType(textPlain)
+                            .header(HttpHeaders.CONTENT_ENCODING, "deflate")
+                            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                            .body(compressed);
+                }
+            }
+            String value = configService.getConfigValue(key, environment, callerId);
+            if (value == null) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.ok()
+                    .contentType(textPlain)
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                    .body(value.getBytes(StandardCharsets.UTF_8));
+        } catch (Exception e) {
+            log.error("获取配置原始值异常", e);
+            throw new RuntimeException("获取配置原始值失败");
+        }
+    }
+
     /**
      * 批量获取配置值
      */
@@ -124,8 +180,9 @@ public class ConfigController {
             @SuppressWarnings("unchecked")
             List<String> keys = (List<String>) request.get("keys");
             String environment = (String) request.get("environment");
+            String callerId = (String) request.get("callerId");
             
-            Map<String, String> values = configService.batchGetConfigValues(keys, environment);
+            Map<String, String> values = configService.batchGetConfigValues(keys, environment, callerId);
             return ResponseEntity.ok(values);
         } catch (Exception e) {
             log.error("批量获取配置值异常", e);
@@ -141,12 +198,32 @@ public class ConfigController {
         try {
             Page<ConfigDTO> result = configService.getConfigsByPage(query);
             return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            log.warn("查询配置失败: {}", e.getMessage());
+            throw e;
         } catch (Exception e) {
             log.error("查询配置异常", e);
             throw new RuntimeException("查询配置失败");
         }
     }
 
+    /**
+     * 游标滚动查询配置项
+     */
+    @PostMapping("/search/scroll")
+    public ResponseEntity<ConfigDTO.ConfigScrollResult> scrollConfigs(@RequestBody ConfigDTO.ConfigQuery query) {
+        try {
+            ConfigDTO.ConfigScrollResult result = configService.scrollConfigs(query);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            log.warn("滚动查询配置失败: {}", e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            log.error("滚动查询配置异常", e);
+            throw new RuntimeException("滚动查询配置失败");
+        }
+    }
+
     /**
      * 根据分组获取配置项
      */
@@ -165,16 +242,81 @@ public class ConfigController {
      * 根据环境获取配置项
      */
     @GetMapping("/environment/{environment}")
-    public ResponseEntity<List<ConfigDTO>> getConfigsByEnvironment(@PathVariable String environment) {
+    public ResponseEntity<List<ConfigDTO>> getConfigsByEnvironment(
+            @PathVariable String environment,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
+            // 以环境最新修订号作为ETag，未变更时返回304
+            String etag = "\"" + environment + "-" + configService.getEnvironmentRevision(environment) + "\"";
+            if (etag.equals(ifNoneMatch)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
             List<ConfigDTO> result = configService.getConfigsByEnvironment(environment);
-            return ResponseEntity.ok(result);
+            return ResponseEntity.ok().eTag(etag).body(result);
         } catch (Exception e) {
             log.error("按环境查询配置异常", e);
             throw new RuntimeException("按环境查询配置失败");
         }
     }
 
+    /**
+     * 获取环境的配置包（仅含配置键、值、类型与修订号），以CBOR或Smile序列化
+     * 同一修订号的配置包只构建一次；请求头 Accept-Encoding 支持gzip、deflate，If-None-Match 与强ETag一致时返回304
+     */
+    @GetMapping("/bundle")
+    public ResponseEntity<byte[]> getConfigBundle(
+            @RequestParam String environment,
+            @RequestParam(required = false) List<String> groups,
+            @RequestParam(required = false) String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        try {
+            ConfigBundleService.Bundle bundle =
+                    configBundleService.getBundle(environment, groups, ConfigBundleService.Format.of(format));
+            String coding = bundle.selectCoding(acceptEncoding);
+            String etag = bundle.getETag(coding);
+            if (etag.equals(ifNoneMatch)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(etag)
+                        .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                        .build();
+            }
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType(bundle.getFormat().getMediaType()))
+                    .eTag(etag)
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (coding != null) {
+                response.header(HttpHeaders.CONTENT_ENCODING, coding);
+            }
+            return response.body(bundle.getEncodedBody(coding));
+        } catch (IllegalArgumentException e) {
+            log.warn("获取配置包失败: {}", e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            log.error("获取配置包异常", e);
+            throw new RuntimeException("获取配置包失败");
+        }
+    }
+
+    /**
+     * 获取指定环境在某修订号之后的增量变更
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<ConfigDTO.ConfigDelta> getConfigChanges(
+            @RequestParam("env") String environment,
+            @RequestParam(defaultValue = "0") long sinceRevision) {
+        try {
+            ConfigDTO.ConfigDelta result = configService.getConfigChanges(environment, sinceRevision);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            log.warn("获取增量配置失败: {}", e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            log.error("获取增量配置异常", e);
+            throw new RuntimeException("获取增量配置失败");
+        }
+    }
+
     /**
      * 配置热更新
      */
@@ -189,14 +331,27 @@ public class ConfigController {
         }
     }
 
+    /**
+     * 批量删除配置项
+     */
+    @PostMapping("/batch-delete")
+    public ResponseEntity<Void> batchDeleteConfigs(@RequestBody Map<String, Object> request) {
+        try {
+            configService.batchDeleteConfigs(toIdList(request.get("ids")));
+            return ResponseEntity.ok().build();
+        } catch (Exception e) {
+            log.error("批量删除配置异常", e);
+            throw new RuntimeException("批量删除配置失败");
+        }
+    }
+
     /**
      * 批量更新配置状态
      */
     @PostMapping("/batch-status")
     public ResponseEntity<Void> batchUpdateStatus(@RequestBody Map<String, Object> request) {
         try {
-            @SuppressWarnings("unchecked")
-            List<Long> ids = (List<Long>) request.get("ids");
+            List<Long> ids = toIdList(request.get("ids"));
             String status = (String) request.get("status");
             String operator = (String) request.get("operator");
             
@@ -222,20 +377,206 @@ public class ConfigController {
         }
     }
 
+    /**
+     * 一组配置发布到多个目标环境
+     */
+    @PostMapping("/publish-set")
+    public ResponseEntity<ConfigDTO.ConfigPublishResult> publishConfigSet(
+            @Valid @RequestBody ConfigDTO.ConfigPublishSetRequest request) {
+        try {
+            ConfigDTO.ConfigPublishResult result = configService.publishConfigSet(request);
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            log.error("配置集合发布异常", e);
+            throw new RuntimeException("配置集合发布失败");
+        }
+    }
+
+    /**
+     * 与外部配置中心增量同步
+     * 需要部署方提供RemoteConfigStore实现，未配置时返回503
+     */
+    @PostMapping("/sync")
+    public ResponseEntity<ConfigDTO.ConfigSyncResult> syncConfigCenter(
+            @RequestParam String environment,
+            @RequestParam(defaultValue = "PUSH") String direction) {
+        try {
+            ConfigDTO.ConfigSyncResult result = configService.syncConfigCenter(environment, direction);
+            return ResponseEntity.ok(result);
+        } catch (IllegalStateException e) {
+            log.warn("配置中心同步不可用: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        } catch (Exception e) {
+            log.error("配置中心同步异常", e);
+            throw new RuntimeException("配置中心同步失败");
+        }
+    }
+
+    /**
+     * 启动密钥轮换，将加密配置项以当前密钥重新加密，从上次检查点继续
+     */
+    @PostMapping("/crypto/rotation")
+    public ResponseEntity<ConfigDTO.KeyRotationStatus> startKeyRotation() {
+        try {
+            return ResponseEntity.ok(configKeyRotationJob.start());
+        } catch (IllegalStateException e) {
+            log.warn("启动密钥轮换失败: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(configKeyRotationJob.getStatus());
+        } catch (Exception e) {
+            log.error("启动密钥轮换异常", e);
+            throw new RuntimeException("启动密钥轮换失败");
+        }
+    }
+
+    /**
+     * 查询当前密钥版本的轮换进度
+     */
+    @GetMapping("/crypto/rotation")
+    public ResponseEntity<ConfigDTO.KeyRotationStatus> getKeyRotationStatus() {
+        try {
+            ConfigDTO.KeyRotationStatus status = configKeyRotationJob.getStatus();
+            return status != null ? ResponseEntity.ok(status) : ResponseEntity.notFound().build();
+        } catch (Exception e) {
+            log.error("查询密钥轮换进度异常", e);
+            throw new RuntimeException("查询密钥轮换进度失败");
+        }
+    }
+
+    /**
+     * 写入覆盖层配置（GLOBAL、ENVIRONMENT、APPLICATION、INSTANCE）
+     */
+    @PostMapping("/overlay")
+    public ResponseEntity<ConfigDTO> saveOverlayConfig(@Valid @RequestBody ConfigDTO.ConfigOverlayRequest request) {
+        try {
+            ConfigDTO result = configService.saveOverlayConfig(request);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            log.warn("写入覆盖层配置失败: {}", e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            log.error("写入覆盖层配置异常", e);
+            throw new RuntimeException("写入覆盖层配置失败");
+        }
+    }
+
+    /**
+     * 删除覆盖层配置，删除后由下一层的配置生效
+     */
+    @DeleteMapping("/overlay")
+    public ResponseEntity<Void> removeOverlayConfig(
+            @RequestParam String level,
+            @RequestParam String key,
+            @RequestParam(required = false) String environment,
+            @RequestParam(required = false) String application,
+            @RequestParam(required = false) String instanceId) {
+        try {
+            configService.removeOverlayConfig(level, environment, application, instanceId, key);
+            return ResponseEntity.noContent().build();
+        } catch (IllegalArgumentException e) {
+            log.warn("删除覆盖层配置失败: {}", e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            log.error("删除覆盖层配置异常", e);
+            throw new RuntimeException("删除覆盖层配置失败");
+        }
+    }
+
+    /**
+     * 获取应用在环境下的全部生效配置及各键的来源层
+     */
+    @GetMapping("/effective")
+    public ResponseEntity<ConfigDTO.EffectiveConfig> getEffectiveConfig(
+            @RequestParam String application,
+            @RequestParam String environment,
+            @RequestParam(required = false) String instanceId,
+            @RequestParam(required = false) String callerId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        try {
+            ConfigDTO.EffectiveConfig result =
+                    configService.getEffectiveConfig(application, environment, instanceId, callerId);
+            // 以参与合并的最大修订号作为ETag，未变更时返回304
+            String etag = "\"" + environment + "@" + application
+                    + (instanceId != null ? "@" + instanceId : "") + "-" + result.getRevision() + "\"";
+            if (etag.equals(ifNoneMatch)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+            return ResponseEntity.ok().eTag(etag).body(result);
+        } catch (Exception e) {
+            log.error("获取生效配置异常", e);
+            throw new RuntimeException("获取生效配置失败");
+        }
+    }
+
+    /**
+     * 获取单个配置键的生效值
+     */
+    @GetMapping("/effective/value")
+    public ResponseEntity<Map<String, String>> getEffectiveValue(
+            @RequestParam String key,
+            @RequestParam String application,
+            @RequestParam String environment,
+            @RequestParam(required = false) String instanceId,
+            @RequestParam(required = false) String callerId) {
+        try {
+            String value = configService.getEffectiveValue(key, application, environment, instanceId, callerId);
+            Map<String, String> result = new HashMap<>();
+            result.put("key", key);
+            result.put("application", application);
+            result.put("environment", environment);
+            result.put("value", value);
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            log.error("获取生效配置值异常", e);
+            throw new RuntimeException("获取生效配置值失败");
+        }
+    }
+
     /**
      * 配置灰度发布
      */
     @PostMapping("/gray-release")
-    public ResponseEntity<Void> grayReleaseConfig(@Valid @RequestBody ConfigDTO.ConfigPublishRequest request) {
+    public ResponseEntity<ConfigDTO> grayReleaseConfig(@Valid @RequestBody ConfigDTO.ConfigPublishRequest request) {
         try {
-            configService.grayReleaseConfig(request);
-            return ResponseEntity.ok().build();
+            ConfigDTO result = configService.grayReleaseConfig(request);
+            return ResponseEntity.ok(result);
         } catch (Exception e) {
             log.error("配置灰度发布异常", e);
             throw new RuntimeException("配置灰度发布失败");
         }
     }
 
+    /**
+     * 灰度全量
+     */
+    @PostMapping("/{id}/gray-release/promote")
+    public ResponseEntity<ConfigDTO> promoteGrayRelease(
+            @PathVariable Long id,
+            @RequestParam String operator) {
+        try {
+            ConfigDTO result = configService.promoteGrayRelease(id, operator);
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            log.error("灰度全量异常", e);
+            throw new RuntimeException("灰度全量失败");
+        }
+    }
+
+    /**
+     * 终止灰度
+     */
+    @PostMapping("/{id}/gray-release/abort")
+    public ResponseEntity<ConfigDTO> abortGrayRelease(
+            @PathVariable Long id,
+            @RequestParam String operator) {
+        try {
+            ConfigDTO result = configService.abortGrayRelease(id, operator);
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            log.error("终止灰度异常", e);
+            throw new RuntimeException("终止灰度失败");
+        }
+    }
+
     /**
      * 配置回滚
      */
@@ -257,9 +598,12 @@ public class ConfigController {
      * 获取配置历史版本
      */
     @GetMapping("/{id}/history")
-    public ResponseEntity<List<ConfigDTO.ConfigVersion>> getConfigHistory(@PathVariable Long id) {
+    public ResponseEntity<List<ConfigDTO.ConfigVersion>> getConfigHistory(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
         try {
-            List<ConfigDTO.ConfigVersion> result = configService.getConfigHistory(id);
+            List<ConfigDTO.ConfigVersion> result = configService.getConfigHistory(id, page, size);
             return ResponseEntity.ok(result);
         } catch (Exception e) {
             log.error("获取配置历史异常", e);
@@ -271,12 +615,12 @@ public class ConfigController {
      * 获取配置操作日志
      */
     @GetMapping("/{id}/logs")
-    public ResponseEntity<List<Object>> getConfigOperationLogs(
+    public ResponseEntity<List<ConfigOperationLog>> getConfigOperationLogs(
             @PathVariable Long id,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
         try {
-            List<Object> result = configService.getConfigOperationLogs(id, page, size);
+            List<ConfigOperationLog> result = configService.getConfigOperationLogs(id, page, size);
             return ResponseEntity.ok(result);
         } catch (Exception e) {
             log.error("获取操作日志异常", e);
@@ -317,6 +661,41 @@ public class ConfigController {
         }
     }
 
+    /**
+     * 流式导出配置（NDJSON格式）
+     */
+    @PostMapping(value = "/export/stream", produces = NDJSON_MEDIA_TYPE)
+    public void exportConfigsStream(@RequestBody ConfigDTO.ConfigQuery query, HttpServletResponse response) {
+        try {
+            response.setContentType(NDJSON_MEDIA_TYPE);
+            response.setCharacterEncoding("UTF-8");
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"configs.ndjson\"");
+            configService.exportConfigs(query, response.getOutputStream());
+            response.flushBuffer();
+        } catch (Exception e) {
+            log.error("流式导出配置异常", e);
+            throw new RuntimeException("流式导出配置失败");
+        }
+    }
+
+    /**
+     * 流式导入配置（NDJSON或JSON数组格式）
+     */
+    @PostMapping(value = "/import/stream", consumes = {NDJSON_MEDIA_TYPE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<Map<String, Object>> importConfigsStream(@RequestParam String operator,
+                                                                   HttpServletRequest request) {
+        try {
+            int imported = configService.importConfigs(request.getInputStream(), operator);
+            Map<String, Object> result = new HashMap<>();
+            result.put("imported", imported);
+            result.put("timestamp", System.currentTimeMillis());
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            log.error("流式导入配置异常", e);
+            throw new RuntimeException("流式导入配置失败");
+        }
+    }
+
     /**
      * 获取支持的环境列表
      */
@@ -388,4 +767,21 @@ public class ConfigController {
         result.put("timestamp", System.currentTimeMillis());
         return ResponseEntity.ok(result);
     }
-}
\ No newline at end of file
+
+    /**
+     * JSON数组中的数字默认反序列化为Integer，统一转换为Long
+     */
+    private List<Long> toIdList(Object value) {
+        List<Long> ids = new ArrayList<>();
+        if (value instanceof List) {
+            for (Object id : (List<?>) value) {
+                if (id instanceof Number) {
+                    ids.add(((Number) id).longValue());
+                } else if (id != null) {
+                    ids.add(Long.valueOf(id.toString()));
+                }
+            }
+        }
+        return ids;
+    }
+}
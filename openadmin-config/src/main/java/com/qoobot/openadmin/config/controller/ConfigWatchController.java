@@ -0,0 +1,83 @@
+package com.qoobot.openadmin.config.controller;
+
+import com.qoobot.openadmin.config.dto.ConfigDTO;
+import com.qoobot.openadmin.config.watch.ConfigWatchManager;
+import lombok.extern.slf4j.Slf4j;
+
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 配置变更订阅控制器
+ * 提供长轮询与SSE两种方式订阅配置变更，替代客户端定时轮询配置值
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/config/watch")
+public class ConfigWatchController {
+
+    // 长轮询最长挂起时间（毫秒）
+    private static final long MAX_LONG_POLL_TIMEOUT = 60_000L;
+
+    // SSE连接最长保持时间（毫秒），超时后客户端应携带最新修订号重连
+    private static final long MAX_STREAM_TIMEOUT = 30 * 60_000L;
+
+    @Autowired
+    private ConfigWatchManager configWatchManager;
+
+    /**
+     * 长轮询订阅配置变更
+     * 有变更立即返回变更列表，否则挂起直到变更或超时返回空列表
+     */
+    @GetMapping
+    public DeferredResult<List<ConfigDTO.ConfigChangeEvent>> longPoll(
+            @RequestParam String environment,
+            @RequestParam List<String> keys,
+            @RequestParam(defaultValue = "0") long sinceRevision,
+            @RequestParam(defaultValue = "30000") long timeout) {
+        validateKeys(keys);
+        long timeoutMillis = Math.max(1L, Math.min(timeout, MAX_LONG_POLL_TIMEOUT));
+        return configWatchManager.longPoll(environment, keys, sinceRevision, timeoutMillis);
+    }
+
+    /**
+     * SSE订阅配置变更
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(
+            @RequestParam String environment,
+            @RequestParam List<String> keys,
+            @RequestParam(defaultValue = "0") long sinceRevision,
+            @RequestParam(defaultValue = "300000") long timeout) {
+        validateKeys(keys);
+        long timeoutMillis = Math.max(1L, Math.min(timeout, MAX_STREAM_TIMEOUT));
+        return configWatchManager.stream(environment, keys, sinceRevision, timeoutMillis);
+    }
+
+    /**
+     * 获取当前配置修订号
+     */
+    @GetMapping("/revision")
+    public ResponseEntity<Map<String, Object>> getCurrentRevision() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("revision", configWatchManager.getCurrentRevision());
+        result.put("timestamp", System.currentTimeMillis());
+        return ResponseEntity.ok(result);
+    }
+
+    private void validateKeys(List<String> keys) {
+        if (keys == null || keys.isEmpty()) {
+            log.warn("订阅配置变更失败: 未指定配置键");
+            throw new IllegalArgumentException("订阅的配置键不能为空");
+        }
+    }
+}
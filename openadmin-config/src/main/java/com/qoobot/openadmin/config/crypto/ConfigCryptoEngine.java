@@ -0,0 +1,235 @@
+package com.qoobot.openadmin.config.crypto;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Cipher;
+import javax.crypto.NoSuchPaddingException;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 配置加解密引擎
+ * 基于AES-256-GCM，密钥只构建一次，Cipher按线程复用，并短时缓存解密结果。
+ * <p>
+ * 支持多版本密钥：openadmin.config.crypto.secret-key 为版本0（历史密钥），
+ * openadmin.config.crypto.keys.&lt;版本&gt; 配置其余版本，active-key-version 指定加密使用的版本。
+ * 版本0的密文为 Base64(IV + 密文)，其余版本在前面加上 {v版本号} 头，解密时按头部选择密钥，
+ * 因此轮换期间新旧密文可同时读取
+ */
+@Slf4j
+@Component
+public class ConfigCryptoEngine {
+
+    private static final String ALGORITHM = "AES/GCM/NoPadding";
+    private static final int GCM_IV_LENGTH = 12;
+    private static final int GCM_TAG_LENGTH = 16;
+
+    public static final int LEGACY_KEY_VERSION = 0;
+    private static final String VERSION_PREFIX = "{v";
+    private static final char VERSION_SUFFIX = '}';
+
+    // 密钥版本 -> 密钥，均可用于解密
+    private final Map<Integer, SecretKey> keys;
+    private final int activeKeyVersion;
+    private final SecretKey activeKey;
+    private final String activePrefix;
+
+    // SecureRandom线程安全，所有线程共享同一个随机数源生成IV
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    // Cipher非线程安全，每个线程持有一个实例并在每次调用时重新init
+    private final ThreadLocal<Cipher> cipherHolder = ThreadLocal.withInitial(ConfigCryptoEngine::newCipher);
+
+    // 解密结果缓存，以密文为键（密文String的hash会被缓存），同一密文总是对应同一明文
+    private final Cache<String, String> plaintextCache;
+
+    @Autowired
+    public ConfigCryptoEngine(
+            @Value("${openadmin.config.crypto.secret-key:your-secret-key-here-32-bytes-long!!}") String secret,
+            @Value("${openadmin.config.crypto.active-key-version:0}") int activeKeyVersion,
+            @Value("${openadmin.config.crypto.plaintext-cache-ttl-seconds:30}") long plaintextCacheTtlSeconds,
+            @Value("${openadmin.config.crypto.plaintext-cache-size:10000}") long plaintextCacheSize,
+            Environment environment) {
+        this(secret, Binder.get(environment)
+                        .bind("openadmin.config.crypto.keys", Bindable.mapOf(Integer.class, String.class))
+                        .orElse(Collections.emptyMap()),
+                activeKeyVersion, plaintextCacheTtlSeconds, plaintextCacheSize);
+    }
+
+    /**
+     * 仅使用历史密钥（版本0）
+     */
+    public ConfigCryptoEngine(String secret, long plaintextCacheTtlSeconds, long plaintextCacheSize) {
+        this(secret, Collections.emptyMap(), LEGACY_KEY_VERSION, plaintextCacheTtlSeconds, plaintextCacheSize);
+    }
+
+    /**
+     * @param secret 版本0的密钥
+     * @param versionedSecrets 版本号（大于0）到密钥的映射
+     * @param activeKeyVersion 加密使用的密钥版本
+     */
+    public ConfigCryptoEngine(String secret, Map<Integer, String> versionedSecrets, int activeKeyVersion,
+                              long plaintextCacheTtlSeconds, long plaintextCacheSize) {
+        Map<Integer, SecretKey> built = new HashMap<>();
+        built.put(LEGACY_KEY_VERSION, buildSecretKey(secret));
+        for (Map.Entry<Integer, String> entry : versionedSecrets.entrySet()) {
+            if (entry.getKey() == null || entry.getKey() <= LEGACY_KEY_VERSION) {
+                throw new IllegalArgumentException("密钥版本必须大于0: " + entry.getKey());
+            }
+            built.put(entry.getKey(), buildSecretKey(entry.getValue()));
+        }
+        if (!built.containsKey(activeKeyVersion)) {
+            throw new IllegalArgumentException("未配置当前密钥版本: " + activeKeyVersion);
+        }
+        this.keys = Collections.unmodifiableMap(built);
+        this.activeKeyVersion = activeKeyVersion;
+        this.activeKey = built.get(activeKeyVersion);
+        this.activePrefix = activeKeyVersion == LEGACY_KEY_VERSION ? "" : VERSION_PREFIX + activeKeyVersion + VERSION_SUFFIX;
+        this.plaintextCache = Caffeine.newBuilder()
+                .maximumSize(plaintextCacheSize)
+                .expireAfterWrite(Duration.ofSeconds(plaintextCacheTtlSeconds))
+                .build();
+    }
+
+    /**
+     * 加密配置值，返回密钥版本头 + Base64编码的 IV + 密文
+     */
+    public String encrypt(String plainValue) {
+        String encoded = encryptUncached(plainValue);
+        plaintextCache.put(encoded, plainValue);
+        return encoded;
+    }
+
+    /**
+     * 以当前密钥重新加密，已使用当前密钥的密文原样返回。
+     * 不经过明文缓存，批量轮换不会挤占在线读取的缓存
+     */
+    public String reencrypt(String encryptedValue) {
+        if (encryptedValue == null || keyVersionOf(encryptedValue) == activeKeyVersion) {
+            return encryptedValue;
+        }
+        return encryptUncached(decryptUncached(encryptedValue));
+    }
+
+    /**
+     * 密文使用的密钥版本
+     */
+    public int keyVersionOf(String encryptedValue) {
+        if (!encryptedValue.startsWith(VERSION_PREFIX)) {
+            return LEGACY_KEY_VERSION;
+        }
+        int end = encryptedValue.indexOf(VERSION_SUFFIX);
+        try {
+            return Integer.parseInt(encryptedValue.substring(VERSION_PREFIX.length(), end));
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("密文密钥版本头格式错误");
+        }
+    }
+
+    public int getActiveKeyVersion() {
+        return activeKeyVersion;
+    }
+
+    private String encryptUncached(String plainValue) {
+        try {
+            byte[] plain = plainValue.getBytes(StandardCharsets.UTF_8);
+            byte[] iv = new byte[GCM_IV_LENGTH];
+            secureRandom.nextBytes(iv);
+
+            Cipher cipher = cipherHolder.get();
+            cipher.init(Cipher.ENCRYPT_MODE, activeKey, new GCMParameterSpec(GCM_TAG_LENGTH * 8, iv));
+
+            // 密文直接写入IV之后的位置，避免再次拼接拷贝
+            byte[] result = new byte[GCM_IV_LENGTH + cipher.getOutputSize(plain.length)];
+            System.arraycopy(iv, 0, result, 0, GCM_IV_LENGTH);
+            cipher.doFinal(plain, 0, plain.length, result, GCM_IV_LENGTH);
+
+            return activePrefix + Base64.getEncoder().encodeToString(result);
+        } catch (Exception e) {
+            log.error("配置加密失败", e);
+            throw new RuntimeException("配置加密失败", e);
+        }
+    }
+
+    /**
+     * 解密配置值，优先读取短时明文缓存
+     */
+    public String decrypt(String encryptedValue) {
+        String cached = plaintextCache.getIfPresent(encryptedValue);
+        if (cached != null) {
+            return cached;
+        }
+        String plainValue = decryptUncached(encryptedValue);
+        plaintextCache.put(encryptedValue, plainValue);
+        return plainValue;
+    }
+
+    /**
+     * 不经过缓存直接解密
+     */
+    String decryptUncached(String encryptedValue) {
+        int keyVersion = keyVersionOf(encryptedValue);
+        SecretKey key = keys.get(keyVersion);
+        if (key == null) {
+            throw new IllegalStateException("未配置密钥版本: " + keyVersion);
+        }
+        try {
+            String body = keyVersion == LEGACY_KEY_VERSION
+                    ? encryptedValue : encryptedValue.substring(encryptedValue.indexOf(VERSION_SUFFIX) + 1);
+            byte[] decoded = Base64.getDecoder().decode(body);
+
+            // IV与密文均直接引用解码后的数组，不做中间拷贝
+            ByteBuffer input = ByteBuffer.wrap(decoded, GCM_IV_LENGTH, decoded.length - GCM_IV_LENGTH);
+            Cipher cipher = cipherHolder.get();
+            cipher.init(Cipher.DECRYPT_MODE, key,
+                    new GCMParameterSpec(GCM_TAG_LENGTH * 8, decoded, 0, GCM_IV_LENGTH));
+
+            ByteBuffer output = ByteBuffer.allocate(cipher.getOutputSize(input.remaining()));
+            cipher.doFinal(input, output);
+            return new String(output.array(), 0, output.position(), StandardCharsets.UTF_8);
+        } catch (Exception e) {
+            log.error("配置解密失败", e);
+            throw new RuntimeException("配置解密失败", e);
+        }
+    }
+
+    private static Cipher newCipher() {
+        try {
+            return Cipher.getInstance(ALGORITHM);
+        } catch (NoSuchAlgorithmException | NoSuchPaddingException e) {
+            throw new IllegalStateException("不支持的加密算法: " + ALGORITHM, e);
+        }
+    }
+
+    private static SecretKey buildSecretKey(String secret) {
+        byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+        if (keyBytes.length != 16 && keyBytes.length != 24 && keyBytes.length != 32) {
+            // 非AES标准长度的密钥通过SHA-256派生为256位密钥
+            try {
+                keyBytes = MessageDigest.getInstance("SHA-256").digest(keyBytes);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("不支持的摘要算法: SHA-256", e);
+            }
+        }
+        return new SecretKeySpec(keyBytes, "AES");
+    }
+}
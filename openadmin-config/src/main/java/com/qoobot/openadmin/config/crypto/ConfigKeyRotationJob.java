@@ -0,0 +1,407 @@
+package com.qoobot.openadmin.config.crypto;
+
+import com.qoobot.openadmin.config.cache.ConfigItemCache;
+import com.qoobot.openadmin.config.dto.ConfigDTO;
+import com.qoobot.openadmin.config.entity.ConfigItem;
+import com.qoobot.openadmin.config.entity.ConfigKeyRotation;
+import com.qoobot.openadmin.config.entity.ConfigVersionRecord;
+import com.qoobot.openadmin.config.mapper.ConfigKeyRotationMapper;
+import com.qoobot.openadmin.config.snapshot.ConfigLocalSnapshotStore;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+/**
+ * 密钥轮换重新加密任务
+ * 按ID游标分页扫描加密配置项，每页拆分为若干块在重新加密线程池中并行解密并以当前密钥加密，
+ * 再以JDBC批量写回。写回以修订号做比较交换，扫描期间被并发修改的配置项已由写入方以当前密钥加密，直接跳过。
+ * 配置项扫描完成后以同样的方式扫描加密配置的版本历史（均为完整密文的快照），
+ * 完成后旧密钥不再被任何数据引用，可以从配置中移除。
+ * 每页的写回与检查点在同一事务中提交，任务中断或失败后再次启动从检查点继续；
+ * 当前密钥版本已完成轮换时再次启动将从头扫描。
+ * 重新加密不改变明文，因此不递增修订号，也不产生变更通知；
+ * 本地快照与读取缓存中的旧密文由任务在每页提交后自行清除
+ */
+@Slf4j
+@Component
+public class ConfigKeyRotationJob {
+
+    public static final String STATUS_RUNNING = "RUNNING";
+    public static final String STATUS_STOPPED = "STOPPED";
+    public static final String STATUS_COMPLETED = "COMPLETED";
+    public static final String STATUS_FAILED = "FAILED";
+
+    private static final String UPDATE_SQL = "UPDATE config_items SET config_value = ?, gray_value = ? "
+            + "WHERE id = ? AND encrypted = true AND COALESCE(revision, 0) = ?";
+
+    // 版本记录只追加不修改，按ID直接写回
+    private static final String UPDATE_VERSION_SQL = "UPDATE config_versions SET content = ? WHERE id = ?";
+
+    @Autowired
+    private ConfigCryptoEngine configCryptoEngine;
+
+    @Autowired
+    private ConfigKeyRotationMapper configKeyRotationMapper;
+
+    @Autowired
+    private ConfigItemCache configItemCache;
+
+    @Autowired
+    private ConfigLocalSnapshotStore configLocalSnapshotStore;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    @Qualifier("configReencryptExecutor")
+    private Executor configReencryptExecutor;
+
+    // 每页扫描的配置项数，即每次批量写回与检查点的粒度
+    @Value("${openadmin.config.crypto.reencrypt.page-size:500}")
+    private int pageSize = 500;
+
+    // 每个并行任务处理的配置项数
+    @Value("${openadmin.config.crypto.reencrypt.chunk-size:50}")
+    private int chunkSize = 50;
+
+    // 页间暂停时间，用于限制轮换对数据库的压力
+    @Value("${openadmin.config.crypto.reencrypt.pause-ms:0}")
+    private long pauseMillis;
+
+    private Thread worker;
+    private volatile boolean running;
+    // 运行中任务的进度快照，每页提交后替换
+    private volatile ConfigKeyRotation progress;
+
+    /**
+     * 启动重新加密，目标为当前密钥版本
+     */
+    public synchronized ConfigDTO.KeyRotationStatus start() {
+        if (worker != null && worker.isAlive()) {
+            throw new IllegalStateException("密钥轮换任务正在执行");
+        }
+        int keyVersion = configCryptoEngine.getActiveKeyVersion();
+        ConfigKeyRotation checkpoint = configKeyRotationMapper.selectByKeyVersion(keyVersion);
+        LocalDateTime now = LocalDateTime.now();
+        if (checkpoint == null) {
+            checkpoint = new ConfigKeyRotation();
+            checkpoint.setKeyVersion(keyVersion);
+            checkpoint.setStatus(STATUS_RUNNING);
+            checkpoint.setStartedAt(now);
+            checkpoint.setUpdatedAt(now);
+            configKeyRotationMapper.insert(checkpoint);
+        } else {
+            if (STATUS_COMPLETED.equals(checkpoint.getStatus())) {
+                // 已完成的轮换从头扫描，处理完成后仍以旧密钥写入的配置项
+                resetCounters(checkpoint);
+                checkpoint.setStartedAt(now);
+            }
+            checkpoint.setStatus(STATUS_RUNNING);
+            checkpoint.setUpdatedAt(now);
+            configKeyRotationMapper.update(checkpoint);
+        }
+        log.info("密钥轮换开始: keyVersion={}, 起始ID {}, 起始版本记录ID {}",
+                keyVersion, checkpoint.getLastId(), checkpoint.getLastVersionId());
+
+        ConfigKeyRotation state = checkpoint;
+        progress = copyOf(state);
+        running = true;
+        worker = new Thread(() -> run(state), "config-key-rotation");
+        worker.setDaemon(true);
+        worker.start();
+        return toStatus(progress, true);
+    }
+
+    /**
+     * 查询当前密钥版本的轮换进度，从未执行过时返回null
+     */
+    public ConfigDTO.KeyRotationStatus getStatus() {
+        int keyVersion = configCryptoEngine.getActiveKeyVersion();
+        ConfigKeyRotation current = progress;
+        boolean active = isRunning();
+        if (current != null && current.getKeyVersion() == keyVersion) {
+            return toStatus(current, active);
+        }
+        ConfigKeyRotation checkpoint = configKeyRotationMapper.selectByKeyVersion(keyVersion);
+        return checkpoint != null ? toStatus(checkpoint, false) : null;
+    }
+
+    public synchronized boolean isRunning() {
+        return worker != null && worker.isAlive();
+    }
+
+    /**
+     * 停止任务，当前页提交后退出，进度保留在检查点
+     */
+    @PreDestroy
+    public void stop() {
+        Thread current;
+        synchronized (this) {
+            running = false;
+            current = worker;
+        }
+        if (current != null) {
+            try {
+                current.join(30_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void run(ConfigKeyRotation checkpoint) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        try {
+            boolean itemsDone = false;
+            while (running) {
+                if (!itemsDone) {
+                    List<ConfigItem> page = transactionTemplate.execute(status -> processPage(checkpoint));
+                    progress = copyOf(checkpoint);
+                    if (page == null) {
+                        itemsDone = true;
+                        continue;
+                    }
+                    // 本地快照与缓存中仍是旧密文：先移除快照条目并标记重写，再失效缓存按新密文重新加载
+                    configLocalSnapshotStore.evictAll(page);
+                    configItemCache.invalidateAll(page);
+                } else {
+                    Boolean more = transactionTemplate.execute(status -> processVersionPage(checkpoint));
+                    progress = copyOf(checkpoint);
+                    if (!Boolean.TRUE.equals(more)) {
+                        checkpoint.setStatus(STATUS_COMPLETED);
+                        break;
+                    }
+                }
+                if (pauseMillis > 0) {
+                    Thread.sleep(pauseMillis);
+                }
+            }
+            if (!STATUS_COMPLETED.equals(checkpoint.getStatus())) {
+                checkpoint.setStatus(STATUS_STOPPED);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            checkpoint.setStatus(STATUS_STOPPED);
+        } catch (RuntimeException e) {
+            log.error("密钥轮换异常: keyVersion={}, 检查点ID {}, 版本记录ID {}",
+                    checkpoint.getKeyVersion(), checkpoint.getLastId(), checkpoint.getLastVersionId(), e);
+            checkpoint.setStatus(STATUS_FAILED);
+        }
+        checkpoint.setUpdatedAt(LocalDateTime.now());
+        try {
+            configKeyRotationMapper.update(checkpoint);
+        } catch (RuntimeException e) {
+            log.error("密钥轮换检查点保存异常: keyVersion={}", checkpoint.getKeyVersion(), e);
+        }
+        progress = copyOf(checkpoint);
+        log.info("密钥轮换结束: keyVersion={}, 状态 {}, 扫描 {}, 重新加密 {}, 跳过 {}, 失败 {}",
+                checkpoint.getKeyVersion(), checkpoint.getStatus(), checkpoint.getScanned(),
+                checkpoint.getReencrypted(), checkpoint.getSkipped(), checkpoint.getFailed());
+    }
+
+    /**
+     * 处理检查点之后的一页，在事务中执行；没有剩余配置项时返回null
+     */
+    private List<ConfigItem> processPage(ConfigKeyRotation checkpoint) {
+        List<ConfigItem> page = configKeyRotationMapper.selectEncryptedAfter(checkpoint.getLastId(), pageSize);
+        if (page.isEmpty()) {
+            return null;
+        }
+        List<Reencrypted> results = reencryptInParallel(page, this::reencryptChunk);
+        int written = writeBack(UPDATE_SQL, results, (ps, result) -> {
+            ps.setString(1, result.configValue);
+            ps.setString(2, result.grayValue);
+            ps.setLong(3, result.id);
+            ps.setLong(4, result.revision);
+        });
+        checkpoint.setLastId(page.get(page.size() - 1).getId());
+        advance(checkpoint, results, written);
+        return page;
+    }
+
+    /**
+     * 处理版本记录检查点之后的一页，在事务中执行；没有剩余版本记录时返回false
+     */
+    private Boolean processVersionPage(ConfigKeyRotation checkpoint) {
+        List<ConfigVersionRecord> page =
+                configKeyRotationMapper.selectEncryptedVersionsAfter(checkpoint.getLastVersionId(), pageSize);
+        if (page.isEmpty()) {
+            return false;
+        }
+        List<Reencrypted> results = reencryptInParallel(page, this::reencryptVersionChunk);
+        int written = writeBack(UPDATE_VERSION_SQL, results, (ps, result) -> {
+            ps.setString(1, result.configValue);
+            ps.setLong(2, result.id);
+        });
+        checkpoint.setLastVersionId(page.get(page.size() - 1).getId());
+        advance(checkpoint, results, written);
+        return true;
+    }
+
+    /**
+     * 分块并行加解密，并发度由重新加密线程池限定
+     */
+    private <T> List<Reencrypted> reencryptInParallel(List<T> page, Function<List<T>, List<Reencrypted>> task) {
+        List<CompletableFuture<List<Reencrypted>>> futures = new ArrayList<>();
+        for (int from = 0; from < page.size(); from += chunkSize) {
+            List<T> chunk = page.subList(from, Math.min(from + chunkSize, page.size()));
+            futures.add(CompletableFuture.supplyAsync(() -> task.apply(chunk), configReencryptExecutor));
+        }
+        List<Reencrypted> results = new ArrayList<>(page.size());
+        for (CompletableFuture<List<Reencrypted>> future : futures) {
+            results.addAll(future.join());
+        }
+        return results;
+    }
+
+    /**
+     * 批量写回密文发生变化的记录，返回实际写入的行数
+     */
+    private int writeBack(String sql, List<Reencrypted> results,
+                          ParameterizedPreparedStatementSetter<Reencrypted> setter) {
+        List<Reencrypted> changed = new ArrayList<>();
+        for (Reencrypted result : results) {
+            if (!result.failed && result.changed) {
+                changed.add(result);
+            }
+        }
+        if (changed.isEmpty()) {
+            return 0;
+        }
+        int written = 0;
+        for (int[] batch : jdbcTemplate.batchUpdate(sql, changed, changed.size(), setter)) {
+            for (int count : batch) {
+                // 0表示扫描后被并发修改，负数为驱动未返回行数
+                if (count != 0) {
+                    written++;
+                }
+            }
+        }
+        return written;
+    }
+
+    private void advance(ConfigKeyRotation checkpoint, List<Reencrypted> results, int written) {
+        int failed = 0;
+        for (Reencrypted result : results) {
+            if (result.failed) {
+                failed++;
+            }
+        }
+        checkpoint.setScanned(checkpoint.getScanned() + results.size());
+        checkpoint.setReencrypted(checkpoint.getReencrypted() + written);
+        checkpoint.setSkipped(checkpoint.getSkipped() + results.size() - failed - written);
+        checkpoint.setFailed(checkpoint.getFailed() + failed);
+        checkpoint.setUpdatedAt(LocalDateTime.now());
+        configKeyRotationMapper.update(checkpoint);
+    }
+
+    private List<Reencrypted> reencryptChunk(List<ConfigItem> chunk) {
+        List<Reencrypted> results = new ArrayList<>(chunk.size());
+        for (ConfigItem item : chunk) {
+            Reencrypted result = new Reencrypted();
+            result.id = item.getId();
+            result.revision = item.getRevision() != null ? item.getRevision() : 0L;
+            try {
+                result.configValue = configCryptoEngine.reencrypt(item.getConfigValue());
+                result.grayValue = configCryptoEngine.reencrypt(item.getGrayValue());
+                result.changed = !Objects.equals(result.configValue, item.getConfigValue())
+                        || !Objects.equals(result.grayValue, item.getGrayValue());
+            } catch (RuntimeException e) {
+                // 密文损坏或缺少对应版本的密钥，不中断整个任务
+                log.warn("配置项重新加密失败: id={}, configKey={}, environment={} - {}",
+                        item.getId(), item.getConfigKey(), item.getEnvironment(), e.getMessage());
+                result.failed = true;
+            }
+            results.add(result);
+        }
+        return results;
+    }
+
+    private List<Reencrypted> reencryptVersionChunk(List<ConfigVersionRecord> chunk) {
+        List<Reencrypted> results = new ArrayList<>(chunk.size());
+        for (ConfigVersionRecord record : chunk) {
+            Reencrypted result = new Reencrypted();
+            result.id = record.getId();
+            try {
+                result.configValue = configCryptoEngine.reencrypt(record.getContent());
+                result.changed = !Objects.equals(result.configValue, record.getContent());
+            } catch (RuntimeException e) {
+                log.warn("版本记录重新加密失败: id={}, configId={}, version={} - {}",
+                        record.getId(), record.getConfigId(), record.getVersion(), e.getMessage());
+                result.failed = true;
+            }
+            results.add(result);
+        }
+        return results;
+    }
+
+    private static void resetCounters(ConfigKeyRotation checkpoint) {
+        checkpoint.setLastId(0L);
+        checkpoint.setLastVersionId(0L);
+        checkpoint.setScanned(0L);
+        checkpoint.setReencrypted(0L);
+        checkpoint.setSkipped(0L);
+        checkpoint.setFailed(0L);
+    }
+
+    private static ConfigKeyRotation copyOf(ConfigKeyRotation source) {
+        ConfigKeyRotation copy = new ConfigKeyRotation();
+        copy.setKeyVersion(source.getKeyVersion());
+        copy.setLastId(source.getLastId());
+        copy.setLastVersionId(source.getLastVersionId());
+        copy.setScanned(source.getScanned());
+        copy.setReencrypted(source.getReencrypted());
+        copy.setSkipped(source.getSkipped());
+        copy.setFailed(source.getFailed());
+        copy.setStatus(source.getStatus());
+        copy.setStartedAt(source.getStartedAt());
+        copy.setUpdatedAt(source.getUpdatedAt());
+        return copy;
+    }
+
+    private static ConfigDTO.KeyRotationStatus toStatus(ConfigKeyRotation rotation, boolean active) {
+        ConfigDTO.KeyRotationStatus status = new ConfigDTO.KeyRotationStatus();
+        status.setKeyVersion(rotation.getKeyVersion());
+        status.setStatus(rotation.getStatus());
+        status.setRunning(active);
+        status.setLastId(rotation.getLastId());
+        status.setLastVersionId(rotation.getLastVersionId());
+        status.setScanned(rotation.getScanned());
+        status.setReencrypted(rotation.getReencrypted());
+        status.setSkipped(rotation.getSkipped());
+        status.setFailed(rotation.getFailed());
+        status.setStartedAt(rotation.getStartedAt());
+        status.setUpdatedAt(rotation.getUpdatedAt());
+        return status;
+    }
+
+    /**
+     * 单个配置项的重新加密结果
+     */
+    private static class Reencrypted {
+        private long id;
+        private long revision;
+        private String configValue;
+        private String grayValue;
+        private boolean changed;
+        private boolean failed;
+    }
+}
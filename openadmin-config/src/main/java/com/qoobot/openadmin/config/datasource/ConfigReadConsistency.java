@@ -0,0 +1,126 @@
+package com.qoobot.openadmin.config.datasource;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+
+/**
+ * 读写分离的读一致性上下文
+ * 写入提交后以全局修订号作为一致性令牌，通过响应头 X-Config-Revision 返回给调用方；
+ * 后续请求携带该请求头时，只有已同步到该修订号的从库才会承接读取，否则读取主库。
+ * 非Web调用方可通过 {@link #withRequiredRevision} 指定令牌（写入返回的DTO修订号即令牌）
+ */
+public final class ConfigReadConsistency {
+
+    public static final String REVISION_HEADER = "X-Config-Revision";
+
+    private static final ThreadLocal<Long> REQUIRED_REVISION = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> REPLICA_READ = new ThreadLocal<>();
+
+    private ConfigReadConsistency() {
+    }
+
+    /**
+     * 当前读取要求的最小修订号：显式指定的令牌与请求头令牌中的较大者，均未指定时为0
+     */
+    public static long requiredRevision() {
+        Long explicit = REQUIRED_REVISION.get();
+        long required = explicit != null ? explicit : 0L;
+        HttpServletRequest request = currentRequest();
+        if (request != null) {
+            required = Math.max(required, parseRevision(request.getHeader(REVISION_HEADER)));
+        }
+        return required;
+    }
+
+    /**
+     * 以指定的一致性令牌执行读取
+     */
+    public static <T> T withRequiredRevision(long revision, Supplier<T> action) {
+        Long previous = REQUIRED_REVISION.get();
+        REQUIRED_REVISION.set(previous != null ? Math.max(previous, revision) : revision);
+        try {
+            return action.get();
+        } finally {
+            restore(REQUIRED_REVISION, previous);
+        }
+    }
+
+    /**
+     * 将当前线程的一致性令牌传递到异步任务中，用作线程池的TaskDecorator
+     */
+    public static Runnable propagate(Runnable task) {
+        long revision = requiredRevision();
+        if (revision <= 0) {
+            return task;
+        }
+        return () -> withRequiredRevision(revision, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * 写事务提交后记录修订号，处于Web请求中且响应尚未提交时写入响应头
+     */
+    public static void recordWrite(long revision) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes)) {
+            return;
+        }
+        HttpServletResponse response = ((ServletRequestAttributes) attributes).getResponse();
+        if (response == null || response.isCommitted()) {
+            return;
+        }
+        long previous = parseRevision(response.getHeader(REVISION_HEADER));
+        if (revision > previous) {
+            response.setHeader(REVISION_HEADER, Long.toString(revision));
+        }
+    }
+
+    /**
+     * 标记本次查询可由从库承接，由MyBatis拦截器在事务外的查询语句上调用
+     */
+    public static <T> T onReplica(Callable<T> query) throws Exception {
+        Boolean previous = REPLICA_READ.get();
+        REPLICA_READ.set(Boolean.TRUE);
+        try {
+            return query.call();
+        } finally {
+            restore(REPLICA_READ, previous);
+        }
+    }
+
+    public static boolean isReplicaRead() {
+        return Boolean.TRUE.equals(REPLICA_READ.get());
+    }
+
+    private static HttpServletRequest currentRequest() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes instanceof ServletRequestAttributes ? ((ServletRequestAttributes) attributes).getRequest() : null;
+    }
+
+    private static long parseRevision(String value) {
+        if (value == null || value.isBlank()) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+    }
+
+    private static <T> void restore(ThreadLocal<T> holder, T previous) {
+        if (previous != null) {
+            holder.set(previous);
+        } else {
+            holder.remove();
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.qoobot.openadmin.config.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * 配置读写分离数据源
+ * 写入及事务内的读取使用主库；事务外被标记为可由从库承接的查询轮询选择已同步到所需修订号的从库，
+ * 没有满足条件的从库时回退主库。所需修订号取调用方的一致性令牌与本实例已提交的修订号中的较大者，
+ * 保证本实例提交的变更在从库追上之前不会被读回旧值（包括缓存失效后的重新加载）。
+ * <p>
+ * 各从库的修订号由后台线程定期读取 config_revision 表获得，读取失败的从库暂不参与路由
+ */
+@Slf4j
+public class ConfigRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    static final String PRIMARY_KEY = "primary";
+    private static final String REPLICA_KEY_PREFIX = "replica-";
+    private static final String REVISION_SQL = "SELECT revision FROM config_revision WHERE id = 1";
+
+    private final DataSource primary;
+    private final List<DataSource> replicas;
+    private final List<JdbcTemplate> replicaTemplates = new ArrayList<>();
+    private final LongSupplier committedRevision;
+    private final long lagCheckIntervalMillis;
+
+    // 各从库已同步的修订号，-1表示不可用
+    private final AtomicLongArray replicaRevisions;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private ScheduledExecutorService lagChecker;
+
+    /**
+     * @param committedRevision      本实例已提交的最大修订号
+     * @param lagCheckIntervalMillis 从库修订号检查间隔，不大于0时不启动后台检查，由调用方手动刷新
+     */
+    public ConfigRoutingDataSource(DataSource primary, List<DataSource> replicas,
+                                   LongSupplier committedRevision, long lagCheckIntervalMillis) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.committedRevision = committedRevision;
+        this.lagCheckIntervalMillis = lagCheckIntervalMillis;
+        this.replicaRevisions = new AtomicLongArray(this.replicas.size());
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY_KEY, primary);
+        for (int i = 0; i < this.replicas.size(); i++) {
+            targets.put(REPLICA_KEY_PREFIX + i, this.replicas.get(i));
+            replicaTemplates.add(new JdbcTemplate(this.replicas.get(i)));
+            replicaRevisions.set(i, -1L);
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        refreshReplicaRevisions();
+        if (lagCheckIntervalMillis > 0 && !replicas.isEmpty()) {
+            lagChecker = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "config-replica-lag-checker");
+                thread.setDaemon(true);
+                return thread;
+            });
+            lagChecker.scheduleWithFixedDelay(this::refreshReplicaRevisions,
+                    lagCheckIntervalMillis, lagCheckIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (replicas.isEmpty() || !ConfigReadConsistency.isReplicaRead()) {
+            return PRIMARY_KEY;
+        }
+        long required = Math.max(ConfigReadConsistency.requiredRevision(), committedRevision.getAsLong());
+        int size = replicas.size();
+        int start = Math.floorMod(nextReplica.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            int index = (start + i) % size;
+            long revision = replicaRevisions.get(index);
+            if (revision >= 0 && revision >= required) {
+                return REPLICA_KEY_PREFIX + index;
+            }
+        }
+        log.debug("没有同步到修订号 {} 的从库，读取主库", required);
+        return PRIMARY_KEY;
+    }
+
+    /**
+     * 读取各从库当前已同步的修订号
+     */
+    public void refreshReplicaRevisions() {
+        for (int i = 0; i < replicaTemplates.size(); i++) {
+            try {
+                Long revision = replicaTemplates.get(i).queryForObject(REVISION_SQL, Long.class);
+                replicaRevisions.set(i, revision != null ? revision : 0L);
+            } catch (Exception e) {
+                if (replicaRevisions.getAndSet(i, -1L) >= 0) {
+                    log.warn("读取从库{}修订号失败，暂停路由到该从库: {}", i, e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * 各从库已同步的修订号，-1表示不可用
+     */
+    public List<Long> getReplicaRevisions() {
+        List<Long> revisions = new ArrayList<>(replicaRevisions.length());
+        for (int i = 0; i < replicaRevisions.length(); i++) {
+            revisions.add(replicaRevisions.get(i));
+        }
+        return revisions;
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (lagChecker != null) {
+            lagChecker.shutdownNow();
+        }
+        closeQuietly(primary);
+        replicas.forEach(ConfigRoutingDataSource::closeQuietly);
+    }
+
+    private static void closeQuietly(DataSource dataSource) {
+        if (dataSource instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) dataSource).close();
+            } catch (Exception e) {
+                log.warn("关闭数据源失败: {}", e.getMessage());
+            }
+        }
+    }
+}
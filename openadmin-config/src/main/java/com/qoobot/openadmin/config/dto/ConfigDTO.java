@@ -1,7 +1,9 @@
 package com.qoobot.openadmin.config.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import java.time.LocalDateTime;
@@ -160,6 +162,38 @@ public class ConfigDTO {
     public String getSource() { return source; }
     public void setSource(String source) { this.source = source; }
 
+    /**
+     * 灰度值
+     */
+    private String grayValue;
+    
+    public String getGrayValue() { return grayValue; }
+    public void setGrayValue(String grayValue) { this.grayValue = grayValue; }
+
+    /**
+     * 灰度比例（0~1）
+     */
+    private Double grayRatio;
+    
+    public Double getGrayRatio() { return grayRatio; }
+    public void setGrayRatio(Double grayRatio) { this.grayRatio = grayRatio; }
+
+    /**
+     * 灰度批次ID，客户端可据此在本地按相同分桶规则判定
+     */
+    private Long grayReleaseId;
+    
+    public Long getGrayReleaseId() { return grayReleaseId; }
+    public void setGrayReleaseId(Long grayReleaseId) { this.grayReleaseId = grayReleaseId; }
+
+    /**
+     * 全局修订号
+     */
+    private Long revision;
+    
+    public Long getRevision() { return revision; }
+    public void setRevision(Long revision) { this.revision = revision; }
+
     /**
      * 批量操作时使用的配置列表
      */
@@ -182,6 +216,7 @@ public class ConfigDTO {
         private String keyword; // 搜索关键词
         private Integer page = 0;
         private Integer size = 10;
+        private String cursor; // 键集分页游标，由上一页结果返回
         
         // 手动添加getter/setter方法
         public String getConfigKey() { return configKey; }
@@ -210,6 +245,113 @@ public class ConfigDTO {
         
         public Integer getSize() { return size; }
         public void setSize(Integer size) { this.size = size; }
+        
+        public String getCursor() { return cursor; }
+        public void setCursor(String cursor) { this.cursor = cursor; }
+    }
+
+    /**
+     * 游标滚动查询结果
+     */
+    @Data
+    public static class ConfigScrollResult {
+        private java.util.List<ConfigDTO> content;
+        private String nextCursor; // 为空表示没有更多数据
+        private Boolean hasMore = false;
+        
+        // 手动添加getter/setter方法
+        public java.util.List<ConfigDTO> getContent() { return content; }
+        public void setContent(java.util.List<ConfigDTO> content) { this.content = content; }
+        
+        public String getNextCursor() { return nextCursor; }
+        public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+        
+        public Boolean getHasMore() { return hasMore; }
+        public void setHasMore(Boolean hasMore) { this.hasMore = hasMore; }
+    }
+
+    /**
+     * 配置变更事件
+     * 仅包含变更的配置键与修订号，客户端按需再拉取配置值
+     */
+    @Data
+    public static class ConfigChangeEvent {
+        private String configKey;
+        private String environment;
+        private Long revision;
+        private String changeType; // UPSERT, DELETE
+        
+        // 手动添加getter/setter方法
+        public String getConfigKey() { return configKey; }
+        public void setConfigKey(String configKey) { this.configKey = configKey; }
+        
+        public String getEnvironment() { return environment; }
+        public void setEnvironment(String environment) { this.environment = environment; }
+        
+        public Long getRevision() { return revision; }
+        public void setRevision(Long revision) { this.revision = revision; }
+        
+        public String getChangeType() { return changeType; }
+        public void setChangeType(String changeType) { this.changeType = changeType; }
+    }
+
+    /**
+     * 配置增量同步结果
+     */
+    @Data
+    public static class ConfigDelta {
+        private String environment;
+        private Long sinceRevision;
+        private Long revision; // 本次同步到的修订号，下次请求作为sinceRevision
+        private Boolean hasMore = false;
+        private java.util.List<ConfigDTO> upserts;
+        private java.util.List<String> deletedKeys;
+        
+        // 手动添加getter/setter方法
+        public String getEnvironment() { return environment; }
+        public void setEnvironment(String environment) { this.environment = environment; }
+        
+        public Long getSinceRevision() { return sinceRevision; }
+        public void setSinceRevision(Long sinceRevision) { this.sinceRevision = sinceRevision; }
+        
+        public Long getRevision() { return revision; }
+        public void setRevision(Long revision) { this.revision = revision; }
+        
+        public Boolean getHasMore() { return hasMore; }
+        public void setHasMore(Boolean hasMore) { this.hasMore = hasMore; }
+        
+        public java.util.List<ConfigDTO> getUpserts() { return upserts; }
+        public void setUpserts(java.util.List<ConfigDTO> upserts) { this.upserts = upserts; }
+        
+        public java.util.List<String> getDeletedKeys() { return deletedKeys; }
+        public void setDeletedKeys(java.util.List<String> deletedKeys) { this.deletedKeys = deletedKeys; }
+    }
+
+    /**
+     * 配置目录分组统计行
+     */
+    @Data
+    public static class ConfigCatalogCount {
+        private String environment;
+        private String groupName;
+        private String status;
+        private Boolean encrypted;
+        private Long itemCount;
+        
+        public String getEnvironment() { return environment; }
+        public void setEnvironment(String environment) { this.environment = environment; }
+        
+        public String getGroupName() { return groupName; }
+        public void setGroupName(String groupName) { this.groupName = groupName; }
+        
+        public String getStatus() { return status; }
+        public void setStatus(String status) { this.status = status; }
+        
+        public Boolean getEncrypted() { return encrypted; }
+        public void setEncrypted(Boolean encrypted) { this.encrypted = encrypted; }
+        
+        public Long getItemCount() { return itemCount; }
+        public void setItemCount(Long itemCount) { this.itemCount = itemCount; }
     }
 
     /**
@@ -286,6 +428,7 @@ public class ConfigDTO {
         private String targetEnvironment;
         private Boolean grayRelease = false;
         private Double grayRatio = 0.0;
+        private String grayValue; // 为空时将源配置的值灰度发布到目标环境
         private String publishReason;
         private String publisher;
         
@@ -305,10 +448,289 @@ public class ConfigDTO {
         public Double getGrayRatio() { return grayRatio; }
         public void setGrayRatio(Double grayRatio) { this.grayRatio = grayRatio; }
         
+        public String getGrayValue() { return grayValue; }
+        public void setGrayValue(String grayValue) { this.grayValue = grayValue; }
+        
+        public String getPublishReason() { return publishReason; }
+        public void setPublishReason(String publishReason) { this.publishReason = publishReason; }
+        
+        public String getPublisher() { return publisher; }
+        public void setPublisher(String publisher) { this.publisher = publisher; }
+    }
+
+    /**
+     * 批量发布请求：多个配置项发布到多个目标环境
+     */
+    @Data
+    public static class ConfigPublishSetRequest {
+        @NotEmpty(message = "配置ID不能为空")
+        private java.util.List<Long> configIds;
+        
+        @NotEmpty(message = "目标环境不能为空")
+        private java.util.List<String> targetEnvironments;
+        
+        private String publishReason;
+        private String publisher;
+        
+        public java.util.List<Long> getConfigIds() { return configIds; }
+        public void setConfigIds(java.util.List<Long> configIds) { this.configIds = configIds; }
+        
+        public java.util.List<String> getTargetEnvironments() { return targetEnvironments; }
+        public void setTargetEnvironments(java.util.List<String> targetEnvironments) { this.targetEnvironments = targetEnvironments; }
+        
         public String getPublishReason() { return publishReason; }
         public void setPublishReason(String publishReason) { this.publishReason = publishReason; }
         
         public String getPublisher() { return publisher; }
         public void setPublisher(String publisher) { this.publisher = publisher; }
     }
-}
\ No newline at end of file
+
+    /**
+     * 批量发布结果
+     */
+    @Data
+    public static class ConfigPublishResult {
+        private long revision;
+        private int inserted;
+        private int updated;
+        private int unchanged;
+        
+        public long getRevision() { return revision; }
+        public void setRevision(long revision) { this.revision = revision; }
+        
+        public int getInserted() { return inserted; }
+        public void setInserted(int inserted) { this.inserted = inserted; }
+        
+        public int getUpdated() { return updated; }
+        public void setUpdated(int updated) { this.updated = updated; }
+        
+        public int getUnchanged() { return unchanged; }
+        public void setUnchanged(int unchanged) { this.unchanged = unchanged; }
+    }
+
+    /**
+     * 外部配置中心同步结果
+     */
+    @Data
+    public static class ConfigSyncResult {
+        private String environment;
+        private String direction; // PUSH, PULL
+        private int groupsCompared;
+        private int groupsChanged;
+        private int configsTransferred;
+        private int configsRemoved;
+        private java.util.List<String> failedGroups = new java.util.ArrayList<>();
+        
+        public String getEnvironment() { return environment; }
+        public void setEnvironment(String environment) { this.environment = environment; }
+        
+        public String getDirection() { return direction; }
+        public void setDirection(String direction) { this.direction = direction; }
+        
+        public int getGroupsCompared() { return groupsCompared; }
+        public void setGroupsCompared(int groupsCompared) { this.groupsCompared = groupsCompared; }
+        
+        public int getGroupsChanged() { return groupsChanged; }
+        public void setGroupsChanged(int groupsChanged) { this.groupsChanged = groupsChanged; }
+        
+        public int getConfigsTransferred() { return configsTransferred; }
+        public void setConfigsTransferred(int configsTransferred) { this.configsTransferred = configsTransferred; }
+        
+        public int getConfigsRemoved() { return configsRemoved; }
+        public void setConfigsRemoved(int configsRemoved) { this.configsRemoved = configsRemoved; }
+        
+        public java.util.List<String> getFailedGroups() { return failedGroups; }
+        public void setFailedGroups(java.util.List<String> failedGroups) { this.failedGroups = failedGroups; }
+    }
+
+    /**
+     * 覆盖层配置写入请求
+     * level为GLOBAL、ENVIRONMENT、APPLICATION、INSTANCE之一，按层级填写环境、应用及实例标识
+     */
+    @Data
+    public static class ConfigOverlayRequest {
+        @NotBlank(message = "覆盖层级不能为空")
+        private String level;
+
+        private String environment;
+        private String application;
+        private String instanceId;
+
+        @NotBlank(message = "配置键不能为空")
+        private String configKey;
+
+        private String configValue;
+        private String configType;
+        private String description;
+        private String operator;
+        
+        public String getLevel() { return level; }
+        public void setLevel(String level) { this.level = level; }
+        
+        public String getEnvironment() { return environment; }
+        public void setEnvironment(String environment) { this.environment = environment; }
+        
+        public String getApplication() { return application; }
+        public void setApplication(String application) { this.application = application; }
+        
+        public String getInstanceId() { return instanceId; }
+        public void setInstanceId(String instanceId) { this.instanceId = instanceId; }
+        
+        public String getConfigKey() { return configKey; }
+        public void setConfigKey(String configKey) { this.configKey = configKey; }
+        
+        public String getConfigValue() { return configValue; }
+        public void setConfigValue(String configValue) { this.configValue = configValue; }
+        
+        public String getConfigType() { return configType; }
+        public void setConfigType(String configType) { this.configType = configType; }
+        
+        public String getDescription() { return description; }
+        public void setDescription(String description) { this.description = description; }
+        
+        public String getOperator() { return operator; }
+        public void setOperator(String operator) { this.operator = operator; }
+    }
+
+    /**
+     * 应用在某环境（及实例）下的生效配置
+     * values为配置键到生效值的映射，sources为配置键到胜出层级的映射
+     */
+    @Data
+    public static class EffectiveConfig {
+        private String application;
+        private String environment;
+        private String instanceId;
+        private long revision;
+        private java.util.Map<String, String> values = new java.util.LinkedHashMap<>();
+        private java.util.Map<String, String> sources = new java.util.LinkedHashMap<>();
+        
+        public String getApplication() { return application; }
+        public void setApplication(String application) { this.application = application; }
+        
+        public String getEnvironment() { return environment; }
+        public void setEnvironment(String environment) { this.environment = environment; }
+        
+        public String getInstanceId() { return instanceId; }
+        public void setInstanceId(String instanceId) { this.instanceId = instanceId; }
+        
+        public long getRevision() { return revision; }
+        public void setRevision(long revision) { this.revision = revision; }
+        
+        public java.util.Map<String, String> getValues() { return values; }
+        public void setValues(java.util.Map<String, String> values) { this.values = values; }
+        
+        public java.util.Map<String, String> getSources() { return sources; }
+        public void setSources(java.util.Map<String, String> sources) { this.sources = sources; }
+    }
+
+    /**
+     * 配置包：环境（或其中若干分组）下全部配置的精简视图，仅包含客户端运行所需字段
+     */
+    @Data
+    public static class ConfigBundle {
+        private String environment;
+        private java.util.List<String> groups;
+        private long revision;
+        private java.util.List<BundleEntry> entries = new java.util.ArrayList<>();
+        
+        public String getEnvironment() { return environment; }
+        public void setEnvironment(String environment) { this.environment = environment; }
+        
+        public java.util.List<String> getGroups() { return groups; }
+        public void setGroups(java.util.List<String> groups) { this.groups = groups; }
+        
+        public long getRevision() { return revision; }
+        public void setRevision(long revision) { this.revision = revision; }
+        
+        public java.util.List<BundleEntry> getEntries() { return entries; }
+        public void setEntries(java.util.List<BundleEntry> entries) { this.entries = entries; }
+    }
+
+    /**
+     * 配置包条目，灰度字段仅在灰度发布中出现
+     */
+    @Data
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class BundleEntry {
+        private String key;
+        private String value;
+        private String type;
+        private Long revision;
+        private String grayValue;
+        private Long grayReleaseId;
+        private Double grayRatio;
+        
+        public String getKey() { return key; }
+        public void setKey(String key) { this.key = key; }
+        
+        public String getValue() { return value; }
+        public void setValue(String value) { this.value = value; }
+        
+        public String getType() { return type; }
+        public void setType(String type) { this.type = type; }
+        
+        public Long getRevision() { return revision; }
+        public void setRevision(Long revision) { this.revision = revision; }
+        
+        public String getGrayValue() { return grayValue; }
+        public void setGrayValue(String grayValue) { this.grayValue = grayValue; }
+        
+        public Long getGrayReleaseId() { return grayReleaseId; }
+        public void setGrayReleaseId(Long grayReleaseId) { this.grayReleaseId = grayReleaseId; }
+        
+        public Double getGrayRatio() { return grayRatio; }
+        public void setGrayRatio(Double grayRatio) { this.grayRatio = grayRatio; }
+    }
+
+    /**
+     * 密钥轮换进度
+     */
+    @Data
+    public static class KeyRotationStatus {
+        private Integer keyVersion;
+        private String status;
+        private boolean running;
+        private Long lastId;
+        private Long lastVersionId;
+        private Long scanned;
+        private Long reencrypted;
+        private Long skipped;
+        private Long failed;
+        private LocalDateTime startedAt;
+        private LocalDateTime updatedAt;
+        
+        public Integer getKeyVersion() { return keyVersion; }
+        public void setKeyVersion(Integer keyVersion) { this.keyVersion = keyVersion; }
+        
+        public String getStatus() { return status; }
+        public void setStatus(String status) { this.status = status; }
+        
+        public boolean isRunning() { return running; }
+        public void setRunning(boolean running) { this.running = running; }
+        
+        public Long getLastId() { return lastId; }
+        public void setLastId(Long lastId) { this.lastId = lastId; }
+        
+        public Long getLastVersionId() { return lastVersionId; }
+        public void setLastVersionId(Long lastVersionId) { this.lastVersionId = lastVersionId; }
+        
+        public Long getScanned() { return scanned; }
+        public void setScanned(Long scanned) { this.scanned = scanned; }
+        
+        public Long getReencrypted() { return reencrypted; }
+        public void setReencrypted(Long reencrypted) { this.reencrypted = reencrypted; }
+        
+        public Long getSkipped() { return skipped; }
+        public void setSkipped(Long skipped) { this.skipped = skipped; }
+        
+        public Long getFailed() { return failed; }
+        public void setFailed(Long failed) { this.failed = failed; }
+        
+        public LocalDateTime getStartedAt() { return startedAt; }
+        public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+        
+        public LocalDateTime getUpdatedAt() { return updatedAt; }
+        public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+    }
+}
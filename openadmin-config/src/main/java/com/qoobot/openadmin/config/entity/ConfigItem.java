@@ -1,5 +1,7 @@
 package com.qoobot.openadmin.config.entity;
 
+import com.qoobot.openadmin.config.gray.GrayReleaseRule;
+import com.qoobot.openadmin.config.overlay.ConfigScope;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
@@ -7,6 +9,8 @@ import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 配置项实体类
@@ -18,7 +22,10 @@ import java.time.LocalDateTime;
 @Table(name = "config_items", indexes = {
     @Index(name = "idx_config_key_env", columnList = "configKey,environment"),
     @Index(name = "idx_group_id", columnList = "groupId"),
-    @Index(name = "idx_status", columnList = "status")
+    @Index(name = "idx_status", columnList = "status"),
+    @Index(name = "idx_updated_at_id", columnList = "updatedAt,id"),
+    @Index(name = "idx_env_revision", columnList = "environment,revision"),
+    @Index(name = "idx_revision", columnList = "revision")
 })
 public class ConfigItem {
 
@@ -76,9 +83,9 @@ public class ConfigItem {
     public void setGroupName(String groupName) { this.groupName = groupName; }
 
     /**
-     * 环境标识 (dev/test/prod)
+     * 环境标识 (dev/test/prod)，覆盖层配置项为层环境名，见 {@link ConfigScope}
      */
-    @Column(length = 20)
+    @Column(length = 128)
     private String environment;
     
     public String getEnvironment() { return environment; }
@@ -120,6 +127,66 @@ public class ConfigItem {
     public Integer getVersion() { return version; }
     public void setVersion(Integer version) { this.version = version; }
 
+    /**
+     * 全局修订号，每次写入（含删除、状态变更）时更新
+     */
+    @Column(name = "revision")
+    private Long revision = 0L;
+    
+    public Long getRevision() { return revision; }
+    public void setRevision(Long revision) { this.revision = revision; }
+
+    /**
+     * 灰度值，与稳定值使用相同的加密方式存储，为空表示没有进行中的灰度发布
+     */
+    @Column(name = "gray_value", columnDefinition = "TEXT")
+    private String grayValue;
+    
+    public String getGrayValue() { return grayValue; }
+    public void setGrayValue(String grayValue) { this.grayValue = grayValue; }
+
+    /**
+     * 灰度比例（0~1）
+     */
+    @Column(name = "gray_ratio")
+    private Double grayRatio;
+    
+    public Double getGrayRatio() { return grayRatio; }
+    public void setGrayRatio(Double grayRatio) { this.grayRatio = grayRatio; }
+
+    /**
+     * 灰度批次ID，作为分桶种子
+     */
+    @Column(name = "gray_release_id")
+    private Long grayReleaseId;
+    
+    public Long getGrayReleaseId() { return grayReleaseId; }
+    public void setGrayReleaseId(Long grayReleaseId) { this.grayReleaseId = grayReleaseId; }
+
+    /**
+     * 预计算的灰度分桶规则，随缓存项首次读取时构建
+     */
+    @Transient
+    private transient GrayReleaseRule grayRule;
+    
+    public GrayReleaseRule getGrayRule() { return grayRule; }
+    public void setGrayRule(GrayReleaseRule grayRule) { this.grayRule = grayRule; }
+
+    /**
+     * 已解析的类型化配置值，挂在缓存项上，缓存项失效或替换时一并丢弃
+     */
+    @Transient
+    private transient volatile Map<String, Object> parsedValues;
+    
+    public Map<String, Object> getParsedValues() {
+        Map<String, Object> values = parsedValues;
+        if (values == null) {
+            values = new ConcurrentHashMap<>(4);
+            parsedValues = values;
+        }
+        return values;
+    }
+
     /**
      * 标签（JSON格式存储）
      */
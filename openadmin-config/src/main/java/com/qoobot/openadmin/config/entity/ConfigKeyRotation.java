@@ -0,0 +1,100 @@
+package com.qoobot.openadmin.config.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 密钥轮换进度实体类
+ * 每个目标密钥版本一行，记录配置项及版本历史重新加密扫描到的位置，任务中断后从检查点继续
+ */
+@Data
+@Entity
+@Table(name = "config_key_rotation")
+public class ConfigKeyRotation {
+
+    /**
+     * 目标密钥版本
+     */
+    @Id
+    private Integer keyVersion;
+    
+    public Integer getKeyVersion() { return keyVersion; }
+    public void setKeyVersion(Integer keyVersion) { this.keyVersion = keyVersion; }
+
+    /**
+     * 已处理的最大配置项ID，按ID升序扫描
+     */
+    @Column(name = "last_id", nullable = false)
+    private Long lastId = 0L;
+    
+    public Long getLastId() { return lastId; }
+    public void setLastId(Long lastId) { this.lastId = lastId; }
+
+    /**
+     * 已处理的最大版本记录ID，配置项扫描完成后按ID升序扫描版本历史
+     */
+    @Column(name = "last_version_id", nullable = false)
+    private Long lastVersionId = 0L;
+    
+    public Long getLastVersionId() { return lastVersionId; }
+    public void setLastVersionId(Long lastVersionId) { this.lastVersionId = lastVersionId; }
+
+    /**
+     * 已扫描的加密配置项数
+     */
+    @Column(name = "scanned", nullable = false)
+    private Long scanned = 0L;
+    
+    public Long getScanned() { return scanned; }
+    public void setScanned(Long scanned) { this.scanned = scanned; }
+
+    /**
+     * 已重新加密的配置项数
+     */
+    @Column(name = "reencrypted", nullable = false)
+    private Long reencrypted = 0L;
+    
+    public Long getReencrypted() { return reencrypted; }
+    public void setReencrypted(Long reencrypted) { this.reencrypted = reencrypted; }
+
+    /**
+     * 跳过的配置项数（已使用目标密钥或扫描期间被并发修改）
+     */
+    @Column(name = "skipped", nullable = false)
+    private Long skipped = 0L;
+    
+    public Long getSkipped() { return skipped; }
+    public void setSkipped(Long skipped) { this.skipped = skipped; }
+
+    /**
+     * 解密失败的配置项数
+     */
+    @Column(name = "failed", nullable = false)
+    private Long failed = 0L;
+    
+    public Long getFailed() { return failed; }
+    public void setFailed(Long failed) { this.failed = failed; }
+
+    /**
+     * 状态：RUNNING、COMPLETED、FAILED
+     */
+    @Column(length = 20)
+    private String status;
+    
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+    
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
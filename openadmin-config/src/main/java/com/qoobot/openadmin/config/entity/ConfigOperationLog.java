@@ -0,0 +1,87 @@
+package com.qoobot.openadmin.config.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 配置操作日志实体类
+ */
+@Data
+@Entity
+@Table(name = "config_operation_logs", indexes = {
+    @Index(name = "idx_config_created", columnList = "configId,createdAt")
+})
+public class ConfigOperationLog {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    /**
+     * 配置项ID，批量操作时为空
+     */
+    @Column(name = "config_id")
+    private Long configId;
+    
+    public Long getConfigId() { return configId; }
+    public void setConfigId(Long configId) { this.configId = configId; }
+
+    /**
+     * 操作类型
+     */
+    @Column(name = "operation_type", nullable = false, length = 50)
+    private String operationType;
+    
+    public String getOperationType() { return operationType; }
+    public void setOperationType(String operationType) { this.operationType = operationType; }
+
+    /**
+     * 操作人
+     */
+    @Column(name = "operator", length = 100)
+    private String operator;
+    
+    public String getOperator() { return operator; }
+    public void setOperator(String operator) { this.operator = operator; }
+
+    /**
+     * 变更前的值
+     */
+    @Column(name = "old_value", columnDefinition = "TEXT")
+    private String oldValue;
+    
+    public String getOldValue() { return oldValue; }
+    public void setOldValue(String oldValue) { this.oldValue = oldValue; }
+
+    /**
+     * 变更后的值
+     */
+    @Column(name = "new_value", columnDefinition = "TEXT")
+    private String newValue;
+    
+    public String getNewValue() { return newValue; }
+    public void setNewValue(String newValue) { this.newValue = newValue; }
+
+    /**
+     * 备注
+     */
+    @Column(name = "remark", length = 500)
+    private String remark;
+    
+    public String getRemark() { return remark; }
+    public void setRemark(String remark) { this.remark = remark; }
+
+    /**
+     * 操作时间
+     */
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
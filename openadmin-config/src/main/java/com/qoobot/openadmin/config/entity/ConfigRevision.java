@@ -0,0 +1,32 @@
+package com.qoobot.openadmin.config.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+/**
+ * 配置全局修订号实体类
+ * 单行表，每次配置写入时递增，作为增量同步的全局序列
+ */
+@Data
+@Entity
+@Table(name = "config_revision")
+public class ConfigRevision {
+
+    /**
+     * 固定为1
+     */
+    @Id
+    private Long id;
+    
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    /**
+     * 当前修订号
+     */
+    @Column(name = "revision", nullable = false)
+    private Long revision = 0L;
+    
+    public Long getRevision() { return revision; }
+    public void setRevision(Long revision) { this.revision = revision; }
+}
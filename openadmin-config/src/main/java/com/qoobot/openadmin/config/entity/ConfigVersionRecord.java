@@ -0,0 +1,136 @@
+package com.qoobot.openadmin.config.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 配置版本记录实体类
+ * 追加写入的版本链：每隔固定版本数保存一次全量快照，其间只保存相对上一版本的增量
+ */
+@Data
+@Entity
+@Table(name = "config_versions", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_config_version", columnNames = {"config_id", "version"})
+})
+public class ConfigVersionRecord {
+
+    public static final String TYPE_SNAPSHOT = "SNAPSHOT";
+    public static final String TYPE_DELTA = "DELTA";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    /**
+     * 配置项ID
+     */
+    @Column(name = "config_id", nullable = false)
+    private Long configId;
+    
+    public Long getConfigId() { return configId; }
+    public void setConfigId(Long configId) { this.configId = configId; }
+
+    /**
+     * 版本号，与配置项的version一致
+     */
+    @Column(name = "version", nullable = false)
+    private Integer version;
+    
+    public Integer getVersion() { return version; }
+    public void setVersion(Integer version) { this.version = version; }
+
+    /**
+     * 所属版本链的快照版本号，快照记录等于自身版本号
+     */
+    @Column(name = "base_version", nullable = false)
+    private Integer baseVersion;
+    
+    public Integer getBaseVersion() { return baseVersion; }
+    public void setBaseVersion(Integer baseVersion) { this.baseVersion = baseVersion; }
+
+    /**
+     * 记录类型：SNAPSHOT-全量快照，DELTA-增量
+     */
+    @Column(name = "record_type", nullable = false, length = 20)
+    private String recordType;
+    
+    public String getRecordType() { return recordType; }
+    public void setRecordType(String recordType) { this.recordType = recordType; }
+
+    /**
+     * 快照为完整配置值；增量为替换上一版本中间片段的新内容
+     */
+    @Column(name = "content", columnDefinition = "LONGTEXT")
+    private String content;
+    
+    public String getContent() { return content; }
+    public void setContent(String content) { this.content = content; }
+
+    /**
+     * 增量：与上一版本相同的前缀长度
+     */
+    @Column(name = "delta_prefix")
+    private Integer deltaPrefix;
+    
+    public Integer getDeltaPrefix() { return deltaPrefix; }
+    public void setDeltaPrefix(Integer deltaPrefix) { this.deltaPrefix = deltaPrefix; }
+
+    /**
+     * 增量：与上一版本相同的后缀长度
+     */
+    @Column(name = "delta_suffix")
+    private Integer deltaSuffix;
+    
+    public Integer getDeltaSuffix() { return deltaSuffix; }
+    public void setDeltaSuffix(Integer deltaSuffix) { this.deltaSuffix = deltaSuffix; }
+
+    /**
+     * 该版本的配置描述
+     */
+    @Column(name = "description", length = 500)
+    private String description;
+    
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+
+    /**
+     * 该版本的配置类型
+     */
+    @Column(name = "config_type", length = 50)
+    private String configType;
+    
+    public String getConfigType() { return configType; }
+    public void setConfigType(String configType) { this.configType = configType; }
+
+    /**
+     * 该版本的配置值是否加密
+     */
+    @Column(name = "encrypted")
+    private Boolean encrypted = false;
+    
+    public Boolean getEncrypted() { return encrypted; }
+    public void setEncrypted(Boolean encrypted) { this.encrypted = encrypted; }
+
+    /**
+     * 操作人
+     */
+    @Column(name = "operator", length = 100)
+    private String operator;
+    
+    public String getOperator() { return operator; }
+    public void setOperator(String operator) { this.operator = operator; }
+
+    /**
+     * 创建时间
+     */
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
@@ -0,0 +1,209 @@
+package com.qoobot.openadmin.config.history;
+
+import com.qoobot.openadmin.config.codec.ConfigValueCodec;
+import com.qoobot.openadmin.config.entity.ConfigItem;
+import com.qoobot.openadmin.config.entity.ConfigVersionRecord;
+import com.qoobot.openadmin.config.mapper.ConfigVersionMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * 配置版本存储
+ * 每 snapshotInterval 个版本保存一次全量快照，其间只保存相对上一版本的单段增量
+ * （公共前缀、公共后缀长度及中间被替换的新内容），大配置的局部修改只占用修改部分的存储。
+ * 重建任意版本最多读取一个快照和 snapshotInterval - 1 个增量。
+ * 未加密的配置值解压后再计算增量，只有快照按存储规则压缩；加密配置按密文只保存快照，
+ * 每条记录可以独立地以新密钥重新加密。
+ * 重建与分页查询返回的配置值为解压后的明文，加密配置仍为密文
+ */
+@Slf4j
+@Component
+public class ConfigVersionStore {
+
+    // 批量查询与批量插入单条语句的最大行数
+    private static final int BATCH_CHUNK_SIZE = 500;
+
+    @Autowired
+    private ConfigVersionMapper configVersionMapper;
+
+    @Autowired
+    private ConfigValueCodec configValueCodec;
+
+    // 快照间隔版本数
+    @Value("${openadmin.config.history.snapshot-interval:20}")
+    private int snapshotInterval;
+
+    /**
+     * 记录配置项写入后的版本，需在写事务内调用
+     * @param current 写入后的配置项，未设置的字段沿用写入前的值
+     * @param previous 写入前的配置项，新增时为空
+     */
+    public void record(ConfigItem current, ConfigItem previous) {
+        ConfigVersionRecord latest = previous != null ? configVersionMapper.selectLatest(current.getId()) : null;
+        configVersionMapper.insert(buildRecord(current, previous, latest));
+    }
+
+    /**
+     * 为批量新增的配置项记录初始快照
+     */
+    public void recordAll(List<ConfigItem> items) {
+        recordAll(items, Collections.emptyMap());
+    }
+
+    /**
+     * 批量记录版本，一次查询各配置项的最新版本链信息，一次批量写入
+     * @param items 写入后的配置项
+     * @param previousById 写入前的配置项，按ID索引，新增的配置项不在其中
+     */
+    public void recordAll(List<ConfigItem> items, Map<Long, ConfigItem> previousById) {
+        if (items.isEmpty()) {
+            return;
+        }
+        Map<Long, ConfigVersionRecord> latestById = new HashMap<>();
+        List<Long> configIds = new ArrayList<>(previousById.keySet());
+        for (int from = 0; from < configIds.size(); from += BATCH_CHUNK_SIZE) {
+            List<Long> chunk = configIds.subList(from, Math.min(from + BATCH_CHUNK_SIZE, configIds.size()));
+            for (ConfigVersionRecord latest : configVersionMapper.selectLatestByConfigIds(chunk)) {
+                latestById.put(latest.getConfigId(), latest);
+            }
+        }
+        List<ConfigVersionRecord> records = new ArrayList<>(items.size());
+        for (ConfigItem item : items) {
+            records.add(buildRecord(item, previousById.get(item.getId()), latestById.get(item.getId())));
+        }
+        for (int from = 0; from < records.size(); from += BATCH_CHUNK_SIZE) {
+            configVersionMapper.batchInsert(records.subList(from, Math.min(from + BATCH_CHUNK_SIZE, records.size())));
+        }
+    }
+
+    /**
+     * 重建指定版本的配置项，版本不存在时返回空
+     */
+    public ConfigItem rebuild(Long configId, int version) {
+        List<ConfigVersionRecord> chain = configVersionMapper.selectChain(configId, version);
+        if (chain.isEmpty()) {
+            return null;
+        }
+        String value = null;
+        for (ConfigVersionRecord record : chain) {
+            value = apply(value, record);
+        }
+        return toItem(chain.get(chain.size() - 1), value);
+    }
+
+    /**
+     * 按版本号倒序分页查询历史版本
+     * 一次读取本页最早版本所属快照到本页最新版本的区间，顺序回放得到每个版本的配置值
+     */
+    public List<ConfigItem> history(Long configId, int offset, int limit) {
+        List<ConfigVersionRecord> page = configVersionMapper.selectPage(configId, offset, limit);
+        if (page.isEmpty()) {
+            return Collections.emptyList();
+        }
+        int fromVersion = Integer.MAX_VALUE;
+        for (ConfigVersionRecord record : page) {
+            fromVersion = Math.min(fromVersion, record.getBaseVersion());
+        }
+        Map<Integer, String> values = new HashMap<>();
+        String value = null;
+        for (ConfigVersionRecord record : configVersionMapper.selectRange(configId, fromVersion, page.get(0).getVersion())) {
+            value = apply(value, record);
+            values.put(record.getVersion(), value);
+        }
+
+        List<ConfigItem> result = new ArrayList<>(page.size());
+        for (ConfigVersionRecord record : page) {
+            result.add(toItem(record, values.get(record.getVersion())));
+        }
+        return result;
+    }
+
+    private ConfigVersionRecord buildRecord(ConfigItem current, ConfigItem previous, ConfigVersionRecord latest) {
+        ConfigVersionRecord record = new ConfigVersionRecord();
+        record.setConfigId(current.getId());
+        record.setVersion(current.getVersion());
+        record.setDescription(pick(current.getDescription(), previous != null ? previous.getDescription() : null));
+        record.setConfigType(pick(current.getConfigType(), previous != null ? previous.getConfigType() : null));
+        record.setEncrypted(pick(current.getEncrypted(), previous != null ? previous.getEncrypted() : null));
+        record.setOperator(pick(current.getUpdatedBy(), current.getCreatedBy()));
+        record.setCreatedAt(LocalDateTime.now());
+
+        boolean encrypted = Boolean.TRUE.equals(record.getEncrypted());
+        String value = nullToEmpty(historyValue(pick(current.getConfigValue(),
+                previous != null ? previous.getConfigValue() : null), encrypted));
+        // 最新记录正好是写入前的版本、前后均未加密且版本链未满时保存增量，否则保存快照
+        boolean delta = latest != null
+                && !encrypted && !Boolean.TRUE.equals(previous.getEncrypted())
+                && Objects.equals(latest.getVersion(), previous.getVersion())
+                && current.getVersion() - latest.getBaseVersion() < snapshotInterval;
+        if (delta) {
+            String base = nullToEmpty(ConfigValueCodec.decode(previous.getConfigValue()));
+            int maxCommon = Math.min(base.length(), value.length());
+            int prefix = 0;
+            while (prefix < maxCommon && base.charAt(prefix) == value.charAt(prefix)) {
+                prefix++;
+            }
+            int suffix = 0;
+            while (suffix < maxCommon - prefix
+                    && base.charAt(base.length() - 1 - suffix) == value.charAt(value.length() - 1 - suffix)) {
+                suffix++;
+            }
+            record.setRecordType(ConfigVersionRecord.TYPE_DELTA);
+            record.setBaseVersion(latest.getBaseVersion());
+            record.setDeltaPrefix(prefix);
+            record.setDeltaSuffix(suffix);
+            record.setContent(value.substring(prefix, value.length() - suffix));
+        } else {
+            record.setRecordType(ConfigVersionRecord.TYPE_SNAPSHOT);
+            record.setBaseVersion(current.getVersion());
+            record.setContent(encrypted ? value : configValueCodec.encode(value));
+        }
+        return record;
+    }
+
+    private String apply(String previousValue, ConfigVersionRecord record) {
+        String content = nullToEmpty(record.getContent());
+        if (ConfigVersionRecord.TYPE_SNAPSHOT.equals(record.getRecordType())) {
+            return Boolean.TRUE.equals(record.getEncrypted()) ? content : ConfigValueCodec.decode(content);
+        }
+        if (previousValue == null) {
+            throw new IllegalStateException("版本链缺少快照: configId=" + record.getConfigId() + ", version=" + record.getVersion());
+        }
+        return previousValue.substring(0, record.getDeltaPrefix())
+                + content
+                + previousValue.substring(previousValue.length() - record.getDeltaSuffix());
+    }
+
+    private ConfigItem toItem(ConfigVersionRecord record, String value) {
+        ConfigItem item = new ConfigItem();
+        item.setId(record.getConfigId());
+        item.setVersion(record.getVersion());
+        item.setConfigValue(value);
+        item.setDescription(record.getDescription());
+        item.setConfigType(record.getConfigType());
+        item.setEncrypted(record.getEncrypted());
+        item.setUpdatedBy(record.getOperator());
+        item.setUpdatedAt(record.getCreatedAt());
+        return item;
+    }
+
+    /**
+     * 版本链中记录的值：未加密的存储值解压为明文，密文原样记录
+     */
+    private static String historyValue(String stored, boolean encrypted) {
+        return encrypted ? stored : ConfigValueCodec.decode(stored);
+    }
+
+    private static <T> T pick(T value, T fallback) {
+        return value != null ? value : fallback;
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+}
@@ -0,0 +1,54 @@
+package com.qoobot.openadmin.config.mapper;
+
+import com.qoobot.openadmin.config.entity.ConfigItem;
+import com.qoobot.openadmin.config.entity.ConfigKeyRotation;
+import com.qoobot.openadmin.config.entity.ConfigVersionRecord;
+import org.apache.ibatis.annotations.*;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * 密钥轮换Mapper接口
+ */
+@Mapper
+@Repository
+public interface ConfigKeyRotationMapper {
+
+    /**
+     * 按ID游标分页查询加密配置项（含已删除项），仅返回重新加密所需字段
+     */
+    @Select({
+        "SELECT id, config_key, environment, config_value, gray_value, revision FROM config_items",
+        "WHERE encrypted = true AND id > #{lastId} ORDER BY id LIMIT #{limit}"
+    })
+    List<ConfigItem> selectEncryptedAfter(@Param("lastId") long lastId, @Param("limit") int limit);
+
+    /**
+     * 按ID游标分页查询加密配置的版本记录，加密配置的版本记录均为完整密文的快照
+     */
+    @Select({
+        "SELECT id, config_id, version, record_type, content FROM config_versions",
+        "WHERE encrypted = true AND record_type = 'SNAPSHOT' AND id > #{lastId} ORDER BY id LIMIT #{limit}"
+    })
+    List<ConfigVersionRecord> selectEncryptedVersionsAfter(@Param("lastId") long lastId, @Param("limit") int limit);
+
+    @Select("SELECT * FROM config_key_rotation WHERE key_version = #{keyVersion}")
+    ConfigKeyRotation selectByKeyVersion(@Param("keyVersion") int keyVersion);
+
+    @Insert({
+        "INSERT INTO config_key_rotation (key_version, last_id, last_version_id, scanned, reencrypted, skipped, failed,",
+        "status, started_at, updated_at)",
+        "VALUES (#{keyVersion}, #{lastId}, #{lastVersionId}, #{scanned}, #{reencrypted}, #{skipped}, #{failed},",
+        "#{status}, #{startedAt}, #{updatedAt})"
+    })
+    int insert(ConfigKeyRotation rotation);
+
+    @Update({
+        "UPDATE config_key_rotation SET last_id = #{lastId}, last_version_id = #{lastVersionId},",
+        "scanned = #{scanned}, reencrypted = #{reencrypted},",
+        "skipped = #{skipped}, failed = #{failed}, status = #{status}, started_at = #{startedAt}, updated_at = #{updatedAt}",
+        "WHERE key_version = #{keyVersion}"
+    })
+    int update(ConfigKeyRotation rotation);
+}
@@ -1,9 +1,14 @@
 package com.qoobot.openadmin.config.mapper;
 
+import com.qoobot.openadmin.config.dto.ConfigDTO;
 import com.qoobot.openadmin.config.entity.ConfigItem;
 import org.apache.ibatis.annotations.*;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.mapping.ResultSetType;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -22,11 +27,11 @@ public interface ConfigMapper {
         "INSERT INTO config_items (",
         "config_key, config_value, description, group_id, group_name,",
         "environment, config_type, encrypted, status, version,",
-        "tags, created_by, updated_by, source",
+        "tags, created_by, updated_by, source, revision, created_at, updated_at",
         ") VALUES (",
         "#{configKey}, #{configValue}, #{description}, #{groupId}, #{groupName},",
         "#{environment}, #{configType}, #{encrypted}, #{status}, #{version},",
-        "#{tags}, #{createdBy}, #{updatedBy}, #{source}",
+        "#{tags}, #{createdBy}, #{updatedBy}, #{source}, #{revision}, #{createdAt}, #{updatedAt}",
         ")",
         "</script>"
     })
@@ -53,7 +58,8 @@ public interface ConfigMapper {
         "<if test=\"tags != null\">tags = #{tags},</if>",
         "<if test=\"updatedBy != null\">updated_by = #{updatedBy},</if>",
         "<if test=\"source != null\">source = #{source},</if>",
-        "updated_at = NOW()",
+        "<if test=\"revision != null\">revision = #{revision},</if>",
+        "updated_at = #{updatedAt}",
         "</trim>",
         "WHERE id = #{id} AND deleted = false",
         "</script>"
@@ -63,8 +69,8 @@ public interface ConfigMapper {
     /**
      * 根据ID删除配置项（逻辑删除）
      */
-    @Update("UPDATE config_items SET deleted = true, updated_at = NOW() WHERE id = #{id}")
-    int deleteById(Long id);
+    @Update("UPDATE config_items SET deleted = true, revision = #{revision}, updated_at = NOW() WHERE id = #{id}")
+    int deleteById(@Param("id") Long id, @Param("revision") Long revision);
 
     /**
      * 根据ID查询配置项
@@ -72,12 +78,58 @@ public interface ConfigMapper {
     @Select("SELECT * FROM config_items WHERE id = #{id} AND deleted = false")
     ConfigItem selectById(Long id);
 
+    /**
+     * 根据ID列表批量查询配置项
+     */
+    @Select({
+        "<script>",
+        "SELECT * FROM config_items WHERE deleted = false AND id IN",
+        "<foreach collection=\"ids\" item=\"id\" open=\"(\" separator=\",\" close=\")\">",
+        "#{id}",
+        "</foreach>",
+        "</script>"
+    })
+    List<ConfigItem> selectByIds(@Param("ids") List<Long> ids);
+
+    /**
+     * 按ID顺序分批读取搜索索引所需字段（不含配置值）
+     */
+    @Select({
+        "SELECT id, config_key, description, tags, group_name, environment, status, config_type, encrypted, updated_at",
+        "FROM config_items WHERE deleted = false AND id > #{lastId} ORDER BY id LIMIT #{limit}"
+    })
+    List<ConfigItem> selectSearchFieldsAfterId(@Param("lastId") long lastId, @Param("limit") int limit);
+
+    /**
+     * 按修订号顺序读取某修订号之后变更的搜索索引字段（包含已逻辑删除的记录）
+     */
+    @Select({
+        "SELECT id, config_key, description, tags, group_name, environment, status, config_type, encrypted, updated_at,",
+        "revision, deleted FROM config_items WHERE revision > #{sinceRevision} ORDER BY revision LIMIT #{limit}"
+    })
+    List<ConfigItem> selectSearchFieldsChangedSince(@Param("sinceRevision") long sinceRevision,
+                                                    @Param("limit") int limit);
+
     /**
      * 根据配置键和环境查询配置项
      */
     @Select("SELECT * FROM config_items WHERE config_key = #{configKey} AND environment = #{environment} AND deleted = false")
     ConfigItem selectByKeyAndEnvironment(@Param("configKey") String configKey, @Param("environment") String environment);
 
+    /**
+     * 根据配置键列表和环境批量查询配置项
+     */
+    @Select({
+        "<script>",
+        "SELECT * FROM config_items WHERE environment = #{environment} AND deleted = false",
+        "AND config_key IN",
+        "<foreach collection=\"configKeys\" item=\"configKey\" open=\"(\" separator=\",\" close=\")\">",
+        "#{configKey}",
+        "</foreach>",
+        "</script>"
+    })
+    List<ConfigItem> selectByKeysAndEnvironment(@Param("configKeys") List<String> configKeys, @Param("environment") String environment);
+
     /**
      * 查询所有配置项
      */
@@ -99,7 +151,7 @@ public interface ConfigMapper {
         "<if test=\"keyword != null and keyword != ''\">",
         "AND (config_key LIKE CONCAT('%', #{keyword}, '%') OR description LIKE CONCAT('%', #{keyword}, '%'))",
         "</if>",
-        "ORDER BY updated_at DESC",
+        "ORDER BY updated_at DESC, id DESC",
         "LIMIT #{offset}, #{limit}",
         "</script>"
     })
@@ -113,6 +165,44 @@ public interface ConfigMapper {
                                   @Param("offset") int offset,
                                   @Param("limit") int limit);
 
+    /**
+     * 基于(updated_at, id)游标的键集分页查询
+     * 游标为空时返回第一页，适用于深度翻页场景；更新时间为空的记录按倒序排在最后
+     */
+    @Select({
+        "<script>",
+        "SELECT * FROM config_items WHERE deleted = false",
+        "<if test=\"configKey != null and configKey != ''\">AND config_key LIKE CONCAT('%', #{configKey}, '%')</if>",
+        "<if test=\"groupName != null and groupName != ''\">AND group_name LIKE CONCAT('%', #{groupName}, '%')</if>",
+        "<if test=\"environment != null and environment != ''\">AND environment = #{environment}</if>",
+        "<if test=\"status != null and status != ''\">AND status = #{status}</if>",
+        "<if test=\"configType != null and configType != ''\">AND config_type = #{configType}</if>",
+        "<if test=\"encrypted != null\">AND encrypted = #{encrypted}</if>",
+        "<if test=\"keyword != null and keyword != ''\">",
+        "AND (config_key LIKE CONCAT('%', #{keyword}, '%') OR description LIKE CONCAT('%', #{keyword}, '%'))",
+        "</if>",
+        "<if test=\"cursorUpdatedAt != null and cursorId != null\">",
+        "AND (updated_at &lt; #{cursorUpdatedAt} OR (updated_at = #{cursorUpdatedAt} AND id &lt; #{cursorId})",
+        "OR updated_at IS NULL)",
+        "</if>",
+        "<if test=\"cursorUpdatedAt == null and cursorId != null\">",
+        "AND updated_at IS NULL AND id &lt; #{cursorId}",
+        "</if>",
+        "ORDER BY updated_at DESC, id DESC",
+        "LIMIT #{limit}",
+        "</script>"
+    })
+    List<ConfigItem> selectByCursor(@Param("configKey") String configKey,
+                                    @Param("groupName") String groupName,
+                                    @Param("environment") String environment,
+                                    @Param("status") String status,
+                                    @Param("configType") String configType,
+                                    @Param("encrypted") Boolean encrypted,
+                                    @Param("keyword") String keyword,
+                                    @Param("cursorUpdatedAt") LocalDateTime cursorUpdatedAt,
+                                    @Param("cursorId") Long cursorId,
+                                    @Param("limit") int limit);
+
     /**
      * 统计配置项数量
      */
@@ -138,12 +228,70 @@ public interface ConfigMapper {
                          @Param("encrypted") Boolean encrypted,
                          @Param("keyword") String keyword);
 
+    /**
+     * 按条件以游标方式流式读取配置项
+     * fetchSize为Integer.MIN_VALUE时MySQL驱动逐行返回结果，需在事务内消费
+     */
+    @Select({
+        "<script>",
+        "SELECT * FROM config_items WHERE deleted = false",
+        "<if test=\"configKey != null and configKey != ''\">AND config_key LIKE CONCAT('%', #{configKey}, '%')</if>",
+        "<if test=\"groupName != null and groupName != ''\">AND group_name LIKE CONCAT('%', #{groupName}, '%')</if>",
+        "<if test=\"environment != null and environment != ''\">AND environment = #{environment}</if>",
+        "<if test=\"status != null and status != ''\">AND status = #{status}</if>",
+        "<if test=\"configType != null and configType != ''\">AND config_type = #{configType}</if>",
+        "<if test=\"encrypted != null\">AND encrypted = #{encrypted}</if>",
+        "<if test=\"keyword != null and keyword != ''\">",
+        "AND (config_key LIKE CONCAT('%', #{keyword}, '%') OR description LIKE CONCAT('%', #{keyword}, '%'))",
+        "</if>",
+        "ORDER BY id",
+        "</script>"
+    })
+    @Options(fetchSize = Integer.MIN_VALUE, resultSetType = ResultSetType.FORWARD_ONLY)
+    Cursor<ConfigItem> selectCursorByCondition(@Param("configKey") String configKey,
+                                               @Param("groupName") String groupName,
+                                               @Param("environment") String environment,
+                                               @Param("status") String status,
+                                               @Param("configType") String configType,
+                                               @Param("encrypted") Boolean encrypted,
+                                               @Param("keyword") String keyword);
+
+    /**
+     * 查询指定环境下已存在的配置键
+     */
+    @Select({
+        "<script>",
+        "SELECT config_key FROM config_items WHERE environment = #{environment} AND deleted = false",
+        "AND config_key IN",
+        "<foreach collection=\"configKeys\" item=\"configKey\" open=\"(\" separator=\",\" close=\")\">",
+        "#{configKey}",
+        "</foreach>",
+        "</script>"
+    })
+    List<String> selectExistingKeys(@Param("configKeys") List<String> configKeys, @Param("environment") String environment);
+
     /**
      * 根据分组ID查询配置项
      */
     @Select("SELECT * FROM config_items WHERE group_id = #{groupId} AND deleted = false ORDER BY config_key")
     List<ConfigItem> selectByGroupId(Long groupId);
 
+    /**
+     * 按环境、分组、状态、加密标识聚合统计有效配置项数量
+     */
+    @Select({
+        "SELECT environment, group_name, status, encrypted, COUNT(*) AS item_count",
+        "FROM config_items WHERE deleted = false",
+        "GROUP BY environment, group_name, status, encrypted"
+    })
+    List<ConfigDTO.ConfigCatalogCount> selectCatalogCounts();
+
+    /**
+     * 查询存在有效配置项的全部环境
+     */
+    @Select("SELECT DISTINCT environment FROM config_items WHERE deleted = false")
+    List<String> selectDistinctEnvironments();
+
     /**
      * 根据环境查询配置项
      */
@@ -158,15 +306,17 @@ public interface ConfigMapper {
         "INSERT INTO config_items (",
         "config_key, config_value, description, group_id, group_name,",
         "environment, config_type, encrypted, status, version,",
-        "tags, created_by, updated_by, source",
+        "tags, created_by, updated_by, source, revision, created_at, updated_at",
         ") VALUES ",
         "<foreach collection=\"configs\" item=\"config\" separator=\",\">",
         "(#{config.configKey}, #{config.configValue}, #{config.description}, #{config.groupId}, #{config.groupName},",
         "#{config.environment}, #{config.configType}, #{config.encrypted}, #{config.status}, #{config.version},",
-        "#{config.tags}, #{config.createdBy}, #{config.updatedBy}, #{config.source})",
+        "#{config.tags}, #{config.createdBy}, #{config.updatedBy}, #{config.source}, #{config.revision},",
+        "#{config.createdAt}, #{config.updatedAt})",
         "</foreach>",
         "</script>"
     })
+    @Options(useGeneratedKeys = true, keyProperty = "configs.id")
     int batchInsert(@Param("configs") List<ConfigItem> configs);
 
     /**
@@ -174,7 +324,7 @@ public interface ConfigMapper {
      */
     @Update({
         "<script>",
-        "UPDATE config_items SET status = #{status}, updated_at = NOW(), updated_by = #{updatedBy}",
+        "UPDATE config_items SET status = #{status}, revision = #{revision}, updated_at = #{updatedAt}, updated_by = #{updatedBy}",
         "WHERE id IN",
         "<foreach collection=\"ids\" item=\"id\" open=\"(\" separator=\",\" close=\")\">",
         "#{id}",
@@ -182,17 +332,114 @@ public interface ConfigMapper {
         "AND deleted = false",
         "</script>"
     })
-    int batchUpdateStatus(@Param("ids") List<Long> ids, @Param("status") String status, @Param("updatedBy") String updatedBy);
+    int batchUpdateStatus(@Param("ids") List<Long> ids, @Param("status") String status,
+                          @Param("updatedBy") String updatedBy, @Param("revision") Long revision,
+                          @Param("updatedAt") LocalDateTime updatedAt);
 
     /**
-     * 查询配置项的历史版本
+     * 批量逻辑删除配置项
+     */
+    @Update({
+        "<script>",
+        "UPDATE config_items SET deleted = true, revision = #{revision}, updated_at = NOW()",
+        "WHERE id IN",
+        "<foreach collection=\"ids\" item=\"id\" open=\"(\" separator=\",\" close=\")\">",
+        "#{id}",
+        "</foreach>",
+        "AND deleted = false",
+        "</script>"
+    })
+    int batchDeleteByIds(@Param("ids") List<Long> ids, @Param("revision") Long revision);
+
+    /**
+     * 查询指定环境在某修订号之后变更的配置项（包含已逻辑删除的记录）
+     * untilRevision不为空时返回该修订号及之前的全部变更，不受limit限制
      */
     @Select({
-        "SELECT c.*, ch.old_value, ch.new_value, ch.change_reason, ch.operator, ch.created_at as change_time",
-        "FROM config_items c",
-        "LEFT JOIN config_history ch ON c.id = ch.config_id",
-        "WHERE c.id = #{configId} AND c.deleted = false",
-        "ORDER BY ch.created_at DESC"
-    })
-    List<ConfigItem> selectHistoryVersions(Long configId);
-}
\ No newline at end of file
+        "<script>",
+        "SELECT * FROM config_items WHERE environment = #{environment} AND revision &gt; #{sinceRevision}",
+        "<choose>",
+        "<when test=\"untilRevision != null\">AND revision &lt;= #{untilRevision} ORDER BY revision, id</when>",
+        "<otherwise>ORDER BY revision, id LIMIT #{limit}</otherwise>",
+        "</choose>",
+        "</script>"
+    })
+    List<ConfigItem> selectChangesSince(@Param("environment") String environment,
+                                        @Param("sinceRevision") long sinceRevision,
+                                        @Param("untilRevision") Long untilRevision,
+                                        @Param("limit") int limit);
+
+    /**
+     * 查询指定环境中若干配置键在某修订号之后的变更记录（包含已逻辑删除的记录），只返回键、修订号与删除标记
+     */
+    @Select({
+        "<script>",
+        "SELECT config_key, revision, deleted FROM config_items",
+        "WHERE environment = #{environment} AND revision &gt; #{sinceRevision} AND config_key IN",
+        "<foreach collection=\"configKeys\" item=\"configKey\" open=\"(\" separator=\",\" close=\")\">",
+        "#{configKey}",
+        "</foreach>",
+        "</script>"
+    })
+    List<ConfigItem> selectKeyRevisionsSince(@Param("environment") String environment,
+                                             @Param("configKeys") Collection<String> configKeys,
+                                             @Param("sinceRevision") long sinceRevision);
+
+    /**
+     * 查询全部环境在某修订号之后变更的配置键（包含已逻辑删除的记录），只返回键、环境与修订号
+     */
+    @Select({
+        "SELECT config_key, environment, revision FROM config_items",
+        "WHERE revision > #{sinceRevision} ORDER BY revision LIMIT #{limit}"
+    })
+    List<ConfigItem> selectChangedKeysSince(@Param("sinceRevision") long sinceRevision, @Param("limit") int limit);
+
+    /**
+     * 查询指定环境的最大修订号（包含已逻辑删除的记录）
+     */
+    @Select("SELECT COALESCE(MAX(revision), 0) FROM config_items WHERE environment = #{environment}")
+    long selectMaxRevisionByEnvironment(@Param("environment") String environment);
+
+    /**
+     * 递增全局修订号
+     */
+    @Update("UPDATE config_revision SET revision = revision + 1 WHERE id = 1")
+    int incrementRevision();
+
+    /**
+     * 初始化全局修订号，以现有配置项的最大修订号为起点
+     */
+    @Insert("INSERT INTO config_revision (id, revision) SELECT 1, COALESCE(MAX(revision), 0) FROM config_items")
+    int initRevision();
+
+    /**
+     * 查询全局修订号
+     */
+    @Select("SELECT revision FROM config_revision WHERE id = 1")
+    Long selectRevision();
+
+    /**
+     * 设置或清除灰度发布信息
+     */
+    @Update({
+        "UPDATE config_items SET gray_value = #{grayValue}, gray_ratio = #{grayRatio}, gray_release_id = #{grayReleaseId},",
+        "revision = #{revision}, updated_by = #{updatedBy}, updated_at = NOW()",
+        "WHERE id = #{id} AND deleted = false"
+    })
+    int updateGrayRelease(@Param("id") Long id,
+                          @Param("grayValue") String grayValue,
+                          @Param("grayRatio") Double grayRatio,
+                          @Param("grayReleaseId") Long grayReleaseId,
+                          @Param("revision") Long revision,
+                          @Param("updatedBy") String updatedBy);
+
+    /**
+     * 灰度全量：灰度值替换稳定值并清除灰度信息
+     */
+    @Update({
+        "UPDATE config_items SET config_value = gray_value, gray_value = NULL, gray_ratio = NULL, gray_release_id = NULL,",
+        "version = COALESCE(version, 0) + 1, revision = #{revision}, updated_by = #{updatedBy}, updated_at = NOW()",
+        "WHERE id = #{id} AND gray_value IS NOT NULL AND deleted = false"
+    })
+    int promoteGrayRelease(@Param("id") Long id, @Param("revision") Long revision, @Param("updatedBy") String updatedBy);
+}
@@ -0,0 +1,27 @@
+package com.qoobot.openadmin.config.mapper;
+
+import com.qoobot.openadmin.config.entity.ConfigOperationLog;
+import org.apache.ibatis.annotations.*;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * 配置操作日志Mapper接口
+ * 日志写入由异步批量写入器通过JDBC批处理完成，此处只提供查询
+ */
+@Mapper
+@Repository
+public interface ConfigOperationLogMapper {
+
+    /**
+     * 按时间倒序分页查询配置项的操作日志，走(config_id, created_at)索引
+     */
+    @Select({
+        "SELECT * FROM config_operation_logs WHERE config_id = #{configId}",
+        "ORDER BY created_at DESC, id DESC LIMIT #{limit} OFFSET #{offset}"
+    })
+    List<ConfigOperationLog> selectByConfigId(@Param("configId") Long configId,
+                                              @Param("offset") int offset,
+                                              @Param("limit") int limit);
+}
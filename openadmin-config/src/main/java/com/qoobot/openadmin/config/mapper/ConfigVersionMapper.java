@@ -0,0 +1,100 @@
+package com.qoobot.openadmin.config.mapper;
+
+import com.qoobot.openadmin.config.entity.ConfigVersionRecord;
+import org.apache.ibatis.annotations.*;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * 配置版本记录Mapper接口
+ */
+@Mapper
+@Repository
+public interface ConfigVersionMapper {
+
+    /**
+     * 追加版本记录
+     */
+    @Insert({
+        "INSERT INTO config_versions (config_id, version, base_version, record_type, content, delta_prefix, delta_suffix,",
+        "description, config_type, encrypted, operator, created_at)",
+        "VALUES (#{configId}, #{version}, #{baseVersion}, #{recordType}, #{content}, #{deltaPrefix}, #{deltaSuffix},",
+        "#{description}, #{configType}, #{encrypted}, #{operator}, #{createdAt})"
+    })
+    @Options(useGeneratedKeys = true, keyProperty = "id")
+    int insert(ConfigVersionRecord record);
+
+    /**
+     * 批量追加版本记录
+     */
+    @Insert({
+        "<script>",
+        "INSERT INTO config_versions (config_id, version, base_version, record_type, content, delta_prefix, delta_suffix,",
+        "description, config_type, encrypted, operator, created_at) VALUES",
+        "<foreach collection=\"records\" item=\"r\" separator=\",\">",
+        "(#{r.configId}, #{r.version}, #{r.baseVersion}, #{r.recordType}, #{r.content}, #{r.deltaPrefix}, #{r.deltaSuffix},",
+        "#{r.description}, #{r.configType}, #{r.encrypted}, #{r.operator}, #{r.createdAt})",
+        "</foreach>",
+        "</script>"
+    })
+    int batchInsert(@Param("records") List<ConfigVersionRecord> records);
+
+    /**
+     * 查询最新版本的链信息（不含内容）
+     */
+    @Select({
+        "SELECT id, config_id, version, base_version, record_type FROM config_versions",
+        "WHERE config_id = #{configId} ORDER BY version DESC LIMIT 1"
+    })
+    ConfigVersionRecord selectLatest(@Param("configId") Long configId);
+
+    /**
+     * 批量查询多个配置项最新版本的链信息（不含内容）
+     */
+    @Select({
+        "<script>",
+        "SELECT v.id, v.config_id, v.version, v.base_version, v.record_type FROM config_versions v",
+        "JOIN (SELECT config_id, MAX(version) AS version FROM config_versions WHERE config_id IN",
+        "<foreach collection=\"configIds\" item=\"id\" open=\"(\" separator=\",\" close=\")\">",
+        "#{id}",
+        "</foreach>",
+        "GROUP BY config_id) m ON m.config_id = v.config_id AND m.version = v.version",
+        "</script>"
+    })
+    List<ConfigVersionRecord> selectLatestByConfigIds(@Param("configIds") List<Long> configIds);
+
+    /**
+     * 按版本号倒序分页查询版本记录（不含内容）
+     */
+    @Select({
+        "SELECT id, config_id, version, base_version, record_type, description, config_type, encrypted, operator, created_at",
+        "FROM config_versions WHERE config_id = #{configId}",
+        "ORDER BY version DESC LIMIT #{limit} OFFSET #{offset}"
+    })
+    List<ConfigVersionRecord> selectPage(@Param("configId") Long configId,
+                                         @Param("offset") int offset,
+                                         @Param("limit") int limit);
+
+    /**
+     * 查询版本区间内的全部记录，按版本号升序
+     */
+    @Select({
+        "SELECT * FROM config_versions WHERE config_id = #{configId}",
+        "AND version BETWEEN #{fromVersion} AND #{toVersion} ORDER BY version"
+    })
+    List<ConfigVersionRecord> selectRange(@Param("configId") Long configId,
+                                          @Param("fromVersion") int fromVersion,
+                                          @Param("toVersion") int toVersion);
+
+    /**
+     * 查询重建指定版本所需的记录：所属快照及其后直到该版本的增量，按版本号升序
+     */
+    @Select({
+        "SELECT v.* FROM config_versions v",
+        "JOIN config_versions t ON t.config_id = v.config_id AND t.version = #{version}",
+        "WHERE v.config_id = #{configId} AND v.version BETWEEN t.base_version AND t.version",
+        "ORDER BY v.version"
+    })
+    List<ConfigVersionRecord> selectChain(@Param("configId") Long configId, @Param("version") int version);
+}
@@ -0,0 +1,435 @@
+package com.qoobot.openadmin.config.overlay;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.qoobot.openadmin.config.dto.ConfigDTO;
+import com.qoobot.openadmin.config.entity.ConfigItem;
+import com.qoobot.openadmin.config.repository.ConfigRepository;
+import com.qoobot.openadmin.config.simple.PersistentConfigMap;
+import com.qoobot.openadmin.config.watch.ConfigWatchManager;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 配置覆盖层解析器
+ * 为每个（应用、环境）预先合并全局、环境、应用三层，得到扁平的生效视图（配置键 -> 胜出的配置项），
+ * 实例层配置通常很少，读取时先查实例层再查合并视图，单个键的生效值读取为两次哈希查找。
+ * <p>
+ * 视图与各层均为持久化映射，读取无锁；层内配置变更时变更回调只记录（层、配置键），
+ * 下次读取时批量重新加载这些键，并仅对受影响视图中的这些键重新计算胜出项。
+ * <p>
+ * 只加载存在配置项的层：没有配置项的应用、实例不查询数据库也不占用层或视图，
+ * 合并链相同的（应用、环境）共用一个视图；层与视图按最近访问淘汰，数量有上限。
+ * 出现新的层时丢弃全部视图，下次读取时重新构建。
+ * <p>
+ * 本实例的变更由变更回调即时记录；其他实例的写入按数据库修订号定期补充：
+ * 读取时每隔刷新间隔查询一次已应用修订号之后变更的配置键，变更过多时丢弃全部层与视图重新加载
+ */
+@Slf4j
+@Component
+public class ConfigOverlayResolver {
+
+    private static final String STATUS_ACTIVE = "ACTIVE";
+
+    @Autowired
+    private ConfigRepository configRepository;
+
+    @Autowired
+    private ConfigWatchManager configWatchManager;
+
+    // 已加载的层与合并视图的数量上限
+    @Value("${openadmin.config.overlay.max-layers:10000}")
+    private long maxLayers = 10000;
+
+    // 按数据库修订号补充其他实例变更的间隔
+    @Value("${openadmin.config.overlay.refresh-interval-ms:1000}")
+    private long refreshIntervalMillis = 1000;
+
+    // 每次补充读取的变更数上限，超过时整体重新加载
+    @Value("${openadmin.config.overlay.refresh-batch-size:1000}")
+    private int refreshBatchSize = 1000;
+
+    // 已加载的层：层环境名 -> 配置键 -> 有效配置项
+    private Cache<String, PersistentConfigMap<ConfigItem>> layers;
+
+    // 已登记跟踪变更的层，在加载查询之前登记
+    private final Set<String> trackedLayers = ConcurrentHashMap.newKeySet();
+
+    // 合并视图：合并链中最高的层环境名 -> 视图
+    private Cache<String, EffectiveView> views;
+
+    // 存在配置项的层环境名，首次读取时由数据库加载，之后随变更事件补充，整体重新加载时替换
+    private volatile Set<String> knownLayers = ConcurrentHashMap.newKeySet();
+    private volatile boolean knownLayersLoaded;
+
+    // 已应用到层与视图的数据库修订号，及下次补充变更的时间
+    private volatile long appliedRevision;
+    private volatile long nextRefreshAt;
+
+    // 出现新的层后置位，下次读取时丢弃全部视图
+    private volatile boolean layersAdded;
+
+    // 待应用的层变更
+    private final Queue<PendingChange> pendingChanges = new ConcurrentLinkedQueue<>();
+
+    // 加载层、构建视图及应用变更互斥执行，读取不加锁
+    private final ReentrantLock lock = new ReentrantLock();
+
+    @PostConstruct
+    public void init() {
+        layers = Caffeine.newBuilder().maximumSize(maxLayers).build();
+        views = Caffeine.newBuilder().maximumSize(maxLayers).build();
+        configWatchManager.addChangeHook(this::onChange);
+    }
+
+    /**
+     * 读取单个配置键的生效配置项，不存在时返回null
+     */
+    public ConfigItem resolve(String configKey, String application, String environment, String instanceId) {
+        EffectiveView view = view(application, environment);
+        if (instanceId != null) {
+            ConfigItem instanceItem = instanceLayer(environment, application, instanceId).get(configKey);
+            if (instanceItem != null) {
+                return instanceItem;
+            }
+        }
+        return view.items.get(configKey);
+    }
+
+    /**
+     * 读取完整生效视图，实例层覆盖合并视图中的同名键
+     */
+    public Resolved resolveAll(String application, String environment, String instanceId) {
+        EffectiveView view = view(application, environment);
+        if (instanceId == null) {
+            return new Resolved(view.items, view.revision);
+        }
+        PersistentConfigMap<ConfigItem> instanceLayer = instanceLayer(environment, application, instanceId);
+        PersistentConfigMap<ConfigItem> merged = view.items;
+        long revision = view.revision;
+        for (Map.Entry<String, ConfigItem> entry : instanceLayer.entrySet()) {
+            merged = merged.plus(entry.getKey(), entry.getValue());
+            revision = Math.max(revision, revisionOf(entry.getValue()));
+        }
+        return new Resolved(merged, revision);
+    }
+
+    /**
+     * 已构建的视图数及已加载的层数
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("views", (int) views.estimatedSize());
+        statistics.put("layers", (int) layers.estimatedSize());
+        statistics.put("knownLayers", knownLayers.size());
+        statistics.put("pendingChanges", pendingChanges.size());
+        statistics.put("appliedRevision", appliedRevision);
+        return statistics;
+    }
+
+    private EffectiveView view(String application, String environment) {
+        ConfigScope applicationScope = ConfigScope.application(environment, application);
+        refreshIfDue();
+        if (!pendingChanges.isEmpty() || layersAdded) {
+            applyPendingChanges();
+        }
+        List<String> chain = chain(applicationScope);
+        String viewKey = viewKey(chain);
+        EffectiveView view = views.getIfPresent(viewKey);
+        if (view != null) {
+            return view;
+        }
+        lock.lock();
+        try {
+            // 持锁重新计算合并链：之后新增的层会置位layersAdded，下次读取时丢弃此视图
+            chain = chain(applicationScope);
+            viewKey = viewKey(chain);
+            view = views.getIfPresent(viewKey);
+            if (view == null) {
+                view = buildView(chain);
+                views.put(viewKey, view);
+                log.debug("构建配置生效视图: {}, {} 个配置键", chain, view.items.size());
+            }
+            return view;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 实例层，没有配置项的实例不查询数据库
+     */
+    private PersistentConfigMap<ConfigItem> instanceLayer(String environment, String application, String instanceId) {
+        String layerEnvironment = ConfigScope.instance(environment, application, instanceId).getLayerEnvironment();
+        if (!hasLayer(layerEnvironment)) {
+            return PersistentConfigMap.empty();
+        }
+        PersistentConfigMap<ConfigItem> layer = layers.getIfPresent(layerEnvironment);
+        if (layer != null) {
+            return layer;
+        }
+        lock.lock();
+        try {
+            return loadLayer(layerEnvironment);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 层是否存在配置项，首次调用时加载存在配置项的层环境名
+     * 加载前已注册变更回调，加载期间新增的层由回调补充，不会遗漏
+     */
+    private boolean hasLayer(String layerEnvironment) {
+        if (!knownLayersLoaded) {
+            lock.lock();
+            try {
+                if (!knownLayersLoaded) {
+                    // 先读修订号再读层，之后的变更由补充查询覆盖
+                    appliedRevision = configRepository.getRevision();
+                    knownLayers.addAll(configRepository.findDistinctEnvironments());
+                    knownLayersLoaded = true;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return knownLayers.contains(layerEnvironment);
+    }
+
+    /**
+     * 到达刷新间隔时补充已应用修订号之后的变更（包括其他实例的写入），
+     * 已有线程在加载或刷新时直接跳过，不阻塞读取
+     */
+    private void refreshIfDue() {
+        long now = System.currentTimeMillis();
+        if (!knownLayersLoaded || now < nextRefreshAt || !lock.tryLock()) {
+            return;
+        }
+        try {
+            if (now < nextRefreshAt) {
+                return;
+            }
+            nextRefreshAt = now + refreshIntervalMillis;
+            List<ConfigItem> changed = configRepository.findChangedKeysSince(appliedRevision, refreshBatchSize);
+            if (changed.size() >= refreshBatchSize) {
+                reloadAll();
+                return;
+            }
+            for (ConfigItem item : changed) {
+                long revision = revisionOf(item);
+                record(item.getEnvironment(), item.getConfigKey(), revision);
+                appliedRevision = Math.max(appliedRevision, revision);
+            }
+        } catch (DataAccessException e) {
+            log.warn("补充配置覆盖层变更失败: {}", e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 丢弃全部层与视图，重新加载存在配置项的层环境名，需持有锁
+     */
+    private void reloadAll() {
+        long revision = configRepository.getRevision();
+        Set<String> reloaded = ConcurrentHashMap.newKeySet();
+        reloaded.addAll(configRepository.findDistinctEnvironments());
+        pendingChanges.clear();
+        views.invalidateAll();
+        layers.invalidateAll();
+        trackedLayers.clear();
+        knownLayers = reloaded;
+        layersAdded = false;
+        appliedRevision = revision;
+        log.info("配置覆盖层变更过多，已重新加载: {} 个层", reloaded.size());
+    }
+
+    /**
+     * 由低到高叠加全局、环境、应用三层，需持有锁
+     */
+    private EffectiveView buildView(List<String> chain) {
+        PersistentConfigMap<ConfigItem> items = PersistentConfigMap.empty();
+        long revision = 0;
+        for (String layerEnvironment : chain) {
+            for (Map.Entry<String, ConfigItem> entry : loadLayer(layerEnvironment).entrySet()) {
+                items = items.plus(entry.getKey(), entry.getValue());
+                revision = Math.max(revision, revisionOf(entry.getValue()));
+            }
+        }
+        return new EffectiveView(chain, items, revision);
+    }
+
+    /**
+     * 加载层，已加载时直接返回，需持有锁
+     * 先登记跟踪再查询，查询期间提交的变更会进入待应用队列，不会丢失
+     */
+    private PersistentConfigMap<ConfigItem> loadLayer(String layerEnvironment) {
+        PersistentConfigMap<ConfigItem> layer = layers.getIfPresent(layerEnvironment);
+        if (layer != null) {
+            return layer;
+        }
+        trackedLayers.add(layerEnvironment);
+        layer = PersistentConfigMap.empty();
+        for (ConfigItem item : configRepository.findByEnvironment(layerEnvironment)) {
+            if (isEffective(item)) {
+                layer = layer.plus(item.getConfigKey(), item);
+            }
+        }
+        layers.put(layerEnvironment, layer);
+        return layer;
+    }
+
+    private void onChange(ConfigDTO.ConfigChangeEvent event) {
+        record(event.getEnvironment(), event.getConfigKey(), event.getRevision() != null ? event.getRevision() : 0L);
+    }
+
+    private void record(String layerEnvironment, String configKey, long revision) {
+        if (knownLayers.add(layerEnvironment)) {
+            layersAdded = true;
+        }
+        if (trackedLayers.contains(layerEnvironment)) {
+            pendingChanges.add(new PendingChange(layerEnvironment, configKey, revision));
+        }
+    }
+
+    /**
+     * 按层批量重新加载变更的配置键，并重新计算受影响视图中的这些键；
+     * 出现新的层时各视图的合并链可能变化，丢弃全部视图
+     */
+    private void applyPendingChanges() {
+        lock.lock();
+        try {
+            if (layersAdded) {
+                layersAdded = false;
+                views.invalidateAll();
+            }
+            Map<String, Set<String>> keysByLayer = new HashMap<>();
+            long revision = 0;
+            PendingChange change;
+            while ((change = pendingChanges.poll()) != null) {
+                keysByLayer.computeIfAbsent(change.layerEnvironment, k -> new HashSet<>()).add(change.configKey);
+                revision = Math.max(revision, change.revision);
+            }
+            for (Map.Entry<String, Set<String>> entry : keysByLayer.entrySet()) {
+                reloadKeys(entry.getKey(), entry.getValue(), revision);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void reloadKeys(String layerEnvironment, Set<String> configKeys, long revision) {
+        PersistentConfigMap<ConfigItem> layer = layers.getIfPresent(layerEnvironment);
+        if (layer != null) {
+            // 直接查询数据库：其他实例的写入不会使本实例的读取缓存失效
+            Map<String, ConfigItem> loaded = new HashMap<>();
+            for (ConfigItem item : configRepository.loadByKeysAndEnvironment(configKeys, layerEnvironment)) {
+                loaded.put(item.getConfigKey(), item);
+            }
+            for (String configKey : configKeys) {
+                ConfigItem item = loaded.get(configKey);
+                layer = isEffective(item) ? layer.plus(configKey, item) : layer.minus(configKey);
+            }
+            layers.put(layerEnvironment, layer);
+        }
+
+        for (Map.Entry<String, EffectiveView> entry : views.asMap().entrySet()) {
+            EffectiveView view = entry.getValue();
+            List<String> chain = view.chain;
+            if (!chain.contains(layerEnvironment)) {
+                continue;
+            }
+            PersistentConfigMap<ConfigItem> items = view.items;
+            for (String configKey : configKeys) {
+                ConfigItem winner = null;
+                // 由高到低查找第一个包含该键的层，已被淘汰的层重新加载（加载结果已包含本次变更）
+                for (int i = chain.size() - 1; i >= 0 && winner == null; i--) {
+                    winner = loadLayer(chain.get(i)).get(configKey);
+                }
+                items = winner != null ? items.plus(configKey, winner) : items.minus(configKey);
+            }
+            views.put(entry.getKey(), new EffectiveView(chain, items, Math.max(view.revision, revision)));
+        }
+    }
+
+    /**
+     * 视图由低到高依次叠加的层，只包含存在配置项的层
+     */
+    private List<String> chain(ConfigScope applicationScope) {
+        List<String> chain = new ArrayList<>(3);
+        for (String layerEnvironment : Arrays.asList(ConfigScope.GLOBAL_ENVIRONMENT,
+                applicationScope.getEnvironment(), applicationScope.getLayerEnvironment())) {
+            if (hasLayer(layerEnvironment)) {
+                chain.add(layerEnvironment);
+            }
+        }
+        return chain;
+    }
+
+    /**
+     * 视图以合并链中最高的层命名，合并链相同的（应用、环境）共用视图
+     */
+    private static String viewKey(List<String> chain) {
+        return chain.isEmpty() ? ConfigScope.GLOBAL_ENVIRONMENT : chain.get(chain.size() - 1);
+    }
+
+    private static boolean isEffective(ConfigItem item) {
+        return item != null && item.getConfigValue() != null
+                && (item.getStatus() == null || STATUS_ACTIVE.equals(item.getStatus()));
+    }
+
+    private static long revisionOf(ConfigItem item) {
+        return item.getRevision() != null ? item.getRevision() : 0L;
+    }
+
+    /**
+     * 解析结果：配置键 -> 生效配置项，以及参与合并的最大修订号
+     */
+    public static final class Resolved {
+        private final Map<String, ConfigItem> items;
+        private final long revision;
+
+        Resolved(Map<String, ConfigItem> items, long revision) {
+            this.items = items;
+            this.revision = revision;
+        }
+
+        public Map<String, ConfigItem> getItems() { return items; }
+
+        public long getRevision() { return revision; }
+    }
+
+    private static final class EffectiveView {
+        private final List<String> chain;
+        private final PersistentConfigMap<ConfigItem> items;
+        private final long revision;
+
+        EffectiveView(List<String> chain, PersistentConfigMap<ConfigItem> items, long revision) {
+            this.chain = chain;
+            this.items = items;
+            this.revision = revision;
+        }
+    }
+
+    private static final class PendingChange {
+        private final String layerEnvironment;
+        private final String configKey;
+        private final long revision;
+
+        PendingChange(String layerEnvironment, String configKey, long revision) {
+            this.layerEnvironment = layerEnvironment;
+            this.configKey = configKey;
+            this.revision = revision;
+        }
+    }
+}
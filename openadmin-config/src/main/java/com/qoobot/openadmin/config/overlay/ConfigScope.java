@@ -0,0 +1,197 @@
+package com.qoobot.openadmin.config.overlay;
+
+import org.springframework.util.StringUtils;
+
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * 配置覆盖层作用域
+ * 生效优先级由低到高为：全局、环境、应用、实例。每一层的配置项以层环境名存储在 config_items 中，
+ * 与普通配置共用缓存、修订号、版本历史与变更通知：
+ * <ul>
+ *     <li>全局层：_global</li>
+ *     <li>环境层：环境名本身，即现有的普通配置</li>
+ *     <li>应用层：环境@应用，如 prod@order-service</li>
+ *     <li>实例层：环境@应用@实例，如 prod@order-service@order-1</li>
+ * </ul>
+ * 环境、应用与实例标识中不能包含 @。
+ * 覆盖层只通过覆盖层解析器读取，按环境读取的接口（增量变更、配置包、本地快照、读取缓存分区、目录统计）均不包含覆盖层
+ */
+public final class ConfigScope {
+
+    public static final String GLOBAL_ENVIRONMENT = "_global";
+
+    private static final char SEPARATOR = '@';
+
+    public enum Level {
+        GLOBAL, ENVIRONMENT, APPLICATION, INSTANCE
+    }
+
+    private final Level level;
+    private final String environment;
+    private final String application;
+    private final String instanceId;
+    private final String layerEnvironment;
+
+    private ConfigScope(Level level, String environment, String application, String instanceId) {
+        this.level = level;
+        this.environment = environment;
+        this.application = application;
+        this.instanceId = instanceId;
+        switch (level) {
+            case GLOBAL:
+                this.layerEnvironment = GLOBAL_ENVIRONMENT;
+                break;
+            case ENVIRONMENT:
+                this.layerEnvironment = environment;
+                break;
+            case APPLICATION:
+                this.layerEnvironment = environment + SEPARATOR + application;
+                break;
+            default:
+                this.layerEnvironment = environment + SEPARATOR + application + SEPARATOR + instanceId;
+        }
+    }
+
+    public static ConfigScope global() {
+        return new ConfigScope(Level.GLOBAL, null, null, null);
+    }
+
+    public static ConfigScope environment(String environment) {
+        return new ConfigScope(Level.ENVIRONMENT, requireName("环境", environment), null, null);
+    }
+
+    public static ConfigScope application(String environment, String application) {
+        return new ConfigScope(Level.APPLICATION, requireName("环境", environment),
+                requireName("应用", application), null);
+    }
+
+    public static ConfigScope instance(String environment, String application, String instanceId) {
+        return new ConfigScope(Level.INSTANCE, requireName("环境", environment),
+                requireName("应用", application), requireName("实例", instanceId));
+    }
+
+    /**
+     * 按层级名称及坐标构建作用域，层级名称不区分大小写
+     */
+    public static ConfigScope of(String level, String environment, String application, String instanceId) {
+        if (!StringUtils.hasText(level)) {
+            throw new IllegalArgumentException("覆盖层级不能为空");
+        }
+        Level parsed;
+        try {
+            parsed = Level.valueOf(level.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("不支持的覆盖层级: " + level);
+        }
+        switch (parsed) {
+            case GLOBAL:
+                return global();
+            case ENVIRONMENT:
+                return environment(environment);
+            case APPLICATION:
+                return application(environment, application);
+            default:
+                return instance(environment, application, instanceId);
+        }
+    }
+
+    /**
+     * 由层环境名解析作用域
+     */
+    public static ConfigScope parse(String layerEnvironment) {
+        if (GLOBAL_ENVIRONMENT.equals(layerEnvironment)) {
+            return global();
+        }
+        String[] parts = layerEnvironment.split(String.valueOf(SEPARATOR), -1);
+        switch (parts.length) {
+            case 1:
+                return environment(parts[0]);
+            case 2:
+                return application(parts[0], parts[1]);
+            case 3:
+                return instance(parts[0], parts[1], parts[2]);
+            default:
+                throw new IllegalArgumentException("无法识别的覆盖层: " + layerEnvironment);
+        }
+    }
+
+    /**
+     * 由层环境名解析作用域，无法识别时返回null，用于读取已存储的配置项
+     */
+    public static ConfigScope tryParse(String layerEnvironment) {
+        if (layerEnvironment == null) {
+            return null;
+        }
+        try {
+            return parse(layerEnvironment);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 校验环境名不是覆盖层，用于只接受普通环境的读取接口
+     *
+     * @throws IllegalArgumentException 环境名为全局、应用或实例覆盖层
+     */
+    public static String requireEnvironment(String environment) {
+        if (isOverlayLayer(environment)) {
+            throw new IllegalArgumentException("覆盖层不能作为环境读取，请使用生效配置接口: " + environment);
+        }
+        return environment;
+    }
+
+    /**
+     * 是否为全局、应用或实例覆盖层，普通环境返回false
+     */
+    public static boolean isOverlayLayer(String environment) {
+        return environment != null
+                && (GLOBAL_ENVIRONMENT.equals(environment) || environment.indexOf(SEPARATOR) >= 0);
+    }
+
+    private static String requireName(String name, String value) {
+        if (!StringUtils.hasText(value)) {
+            throw new IllegalArgumentException(name + "不能为空");
+        }
+        if (value.indexOf(SEPARATOR) >= 0 || GLOBAL_ENVIRONMENT.equals(value)) {
+            throw new IllegalArgumentException(name + "标识不合法: " + value);
+        }
+        return value;
+    }
+
+    public Level getLevel() { return level; }
+
+    public String getEnvironment() { return environment; }
+
+    public String getApplication() { return application; }
+
+    public String getInstanceId() { return instanceId; }
+
+    /**
+     * 该层配置项在 config_items 中使用的环境名
+     */
+    public String getLayerEnvironment() { return layerEnvironment; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ConfigScope)) {
+            return false;
+        }
+        return layerEnvironment.equals(((ConfigScope) o).layerEnvironment);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(layerEnvironment);
+    }
+
+    @Override
+    public String toString() {
+        return level + "(" + layerEnvironment + ")";
+    }
+}
@@ -1,11 +1,18 @@
 package com.qoobot.openadmin.config.repository;
 
+import com.qoobot.openadmin.config.dto.ConfigDTO;
 import com.qoobot.openadmin.config.entity.ConfigItem;
+import com.qoobot.openadmin.config.entity.ConfigOperationLog;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * 配置仓储接口
@@ -28,6 +35,12 @@ public interface ConfigRepository {
      */
     Optional<ConfigItem> findByConfigKeyAndEnvironment(String configKey, String environment);
 
+    /**
+     * 根据配置键列表和环境批量查找配置项
+     * 返回以配置键为key的映射，不存在的配置键不会出现在结果中
+     */
+    Map<String, ConfigItem> findAllByKeysAndEnvironment(Collection<String> configKeys, String environment);
+
     /**
      * 查找所有配置项
      */
@@ -44,6 +57,36 @@ public interface ConfigRepository {
     List<ConfigItem> findByCondition(String configKey, String groupName, String environment, 
                                    String status, String configType, Boolean encrypted, String keyword);
 
+    /**
+     * 根据条件分页查找配置项（数据库端分页）
+     */
+    List<ConfigItem> findPageByCondition(String configKey, String groupName, String environment,
+                                         String status, String configType, Boolean encrypted, String keyword,
+                                         int offset, int limit);
+
+    /**
+     * 由搜索索引分页查找配置项，一次扫描同时得到当前页与总数
+     * 非模糊查询或索引无法确认是最新的时返回空，调用方改用数据库分页与统计
+     */
+    Optional<Page<ConfigItem>> searchPageByCondition(String configKey, String groupName, String environment,
+                                                     String status, String configType, Boolean encrypted,
+                                                     String keyword, Pageable pageable);
+
+    /**
+     * 根据条件按(updatedAt, id)游标查找下一批配置项
+     * 游标为空时从最新记录开始
+     */
+    List<ConfigItem> findByConditionAfter(String configKey, String groupName, String environment,
+                                          String status, String configType, Boolean encrypted, String keyword,
+                                          LocalDateTime cursorUpdatedAt, Long cursorId, int limit);
+
+    /**
+     * 按条件流式遍历配置项，遍历期间不会将结果集整体加载到内存
+     */
+    void scanByCondition(String configKey, String groupName, String environment,
+                         String status, String configType, Boolean encrypted, String keyword,
+                         Consumer<ConfigItem> consumer);
+
     /**
      * 根据分组ID查找配置项
      */
@@ -54,6 +97,11 @@ public interface ConfigRepository {
      */
     List<ConfigItem> findByEnvironment(String environment);
 
+    /**
+     * 查找存在配置项的全部环境名，包括覆盖层的层环境名
+     */
+    List<String> findDistinctEnvironments();
+
     /**
      * 删除配置项
      */
@@ -64,6 +112,11 @@ public interface ConfigRepository {
      */
     List<ConfigItem> saveAll(List<ConfigItem> configItems);
 
+    /**
+     * 批量插入配置项（单条多值INSERT）
+     */
+    int insertAll(List<ConfigItem> configItems);
+
     /**
      * 批量删除配置项
      */
@@ -74,6 +127,11 @@ public interface ConfigRepository {
      */
     boolean existsByConfigKeyAndEnvironment(String configKey, String environment);
 
+    /**
+     * 批量查找指定环境下已存在的配置键
+     */
+    Set<String> findExistingConfigKeys(Collection<String> configKeys, String environment);
+
     /**
      * 统计配置项数量
      */
@@ -91,9 +149,35 @@ public interface ConfigRepository {
     int updateStatus(List<Long> ids, String status, String updatedBy);
 
     /**
-     * 获取配置项历史版本
+     * 按版本号倒序分页获取配置项历史版本，未加密的配置值为解压后的明文
+     */
+    List<ConfigItem> findHistoryVersions(Long configId, int page, int size);
+
+    /**
+     * 查找指定环境在某修订号之后的变更（包含已删除的配置项），按修订号升序
+     * untilRevision不为空时返回至该修订号为止的全部变更，忽略limit
      */
-    List<ConfigItem> findHistoryVersions(Long configId);
+    List<ConfigItem> findChangesSince(String environment, long sinceRevision, Long untilRevision, int limit);
+
+    /**
+     * 获取指定环境的最新修订号
+     */
+    long getEnvironmentRevision(String environment);
+
+    /**
+     * 获取全局修订号
+     */
+    long getRevision();
+
+    /**
+     * 查找全部环境在某修订号之后变更的配置键（包含已删除的配置项），按修订号升序，只包含键、环境与修订号
+     */
+    List<ConfigItem> findChangedKeysSince(long sinceRevision, int limit);
+
+    /**
+     * 根据配置键列表和环境直接查询数据库，不经过读取缓存
+     */
+    List<ConfigItem> loadByKeysAndEnvironment(Collection<String> configKeys, String environment);
 
     /**
      * 配置热更新通知
@@ -105,10 +189,29 @@ public interface ConfigRepository {
      */
     void publishConfigs(List<Long> configIds, String targetEnvironment, String publisher);
 
+    /**
+     * 将一组配置发布到多个目标环境
+     * 一次查询加载来源配置，与目标环境现有配置比对后批量新增与批量更新，整组共用一个修订号
+     */
+    ConfigDTO.ConfigPublishResult publishConfigSet(List<Long> configIds, List<String> targetEnvironments,
+                                                   String publisher);
+
     /**
      * 配置灰度发布
+     * grayValue为空时将源配置的值作为目标环境同名配置的灰度值，否则直接在该配置上灰度发布grayValue
+     */
+    ConfigItem grayReleaseConfig(Long configId, String targetEnvironment, String grayValue,
+                                 Double grayRatio, String publisher);
+
+    /**
+     * 灰度全量：灰度值转为稳定值
+     */
+    ConfigItem promoteGrayRelease(Long configId, String operator);
+
+    /**
+     * 终止灰度：丢弃灰度值
      */
-    void grayReleaseConfig(Long configId, String targetEnvironment, Double grayRatio, String publisher);
+    ConfigItem abortGrayRelease(Long configId, String operator);
 
     /**
      * 回滚配置到指定版本
@@ -116,12 +219,12 @@ public interface ConfigRepository {
     ConfigItem rollbackToVersion(Long configId, Integer version, String operator);
 
     /**
-     * 加密敏感配置
+     * 加密敏感配置，超过压缩阈值的值先压缩再加密
      */
     String encryptConfigValue(String plainValue);
 
     /**
-     * 解密配置值
+     * 解密配置值，返回解压后的明文
      */
     String decryptConfigValue(String encryptedValue);
 
@@ -134,23 +237,13 @@ public interface ConfigRepository {
     /**
      * 获取配置操作日志
      */
-    List<Object> getConfigOperationLogs(Long configId, int page, int size);
+    List<ConfigOperationLog> getConfigOperationLogs(Long configId, int page, int size);
 
     /**
      * 验证配置权限
      */
     boolean hasConfigPermission(String username, String configKey, String operation);
 
-    /**
-     * 同步配置到Nacos
-     */
-    void syncToNacos(Long configId);
-
-    /**
-     * 从Nacos同步配置
-     */
-    void syncFromNacos(String dataId, String group, String namespace);
-
     /**
      * 获取环境列表
      */
@@ -1,29 +1,46 @@
 package com.qoobot.openadmin.config.repository.impl;
 
-import com.github.benmanes.caffeine.cache.Cache;
-import com.github.benmanes.caffeine.cache.Caffeine;
+import com.qoobot.openadmin.config.audit.ConfigOperationLogWriter;
+import com.qoobot.openadmin.config.cache.ConfigItemCache;
+import com.qoobot.openadmin.config.catalog.ConfigCatalog;
+import com.qoobot.openadmin.config.codec.ConfigValueCodec;
+import com.qoobot.openadmin.config.crypto.ConfigCryptoEngine;
+import com.qoobot.openadmin.config.datasource.ConfigReadConsistency;
+import com.qoobot.openadmin.config.dto.ConfigDTO;
 import com.qoobot.openadmin.config.entity.ConfigItem;
+import com.qoobot.openadmin.config.entity.ConfigOperationLog;
+import com.qoobot.openadmin.config.history.ConfigVersionStore;
 import com.qoobot.openadmin.config.mapper.ConfigMapper;
+import com.qoobot.openadmin.config.mapper.ConfigOperationLogMapper;
 import com.qoobot.openadmin.config.repository.ConfigRepository;
+import com.qoobot.openadmin.config.search.ConfigSearchIndex;
+import com.qoobot.openadmin.config.snapshot.ConfigLocalSnapshotStore;
+import com.qoobot.openadmin.config.support.TransactionCallbacks;
+import com.qoobot.openadmin.config.watch.ConfigWatchManager;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cursor.Cursor;
 
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
-import javax.crypto.Cipher;
-import javax.crypto.SecretKey;
-import javax.crypto.spec.GCMParameterSpec;
-import javax.crypto.spec.SecretKeySpec;
-import java.nio.charset.StandardCharsets;
-import java.security.SecureRandom;
-import java.time.Duration;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Consumer;
 
 /**
  * 配置仓储实现类
@@ -36,29 +53,100 @@ public class ConfigRepositoryImpl implements ConfigRepository {
     @Autowired
     private ConfigMapper configMapper;
 
-    // 配置缓存（10分钟过期）
-    private final Cache<String, ConfigItem> configCache = Caffeine.newBuilder()
-            .maximumSize(1000)
-            .expireAfterWrite(Duration.ofMinutes(10))
-            .build();
+    @Autowired
+    private ConfigCryptoEngine configCryptoEngine;
+
+    // 大配置值压缩，加密配置在加密前压缩
+    @Autowired
+    private ConfigValueCodec configValueCodec;
+
+    @Autowired
+    private ConfigWatchManager configWatchManager;
+
+    @Autowired
+    private ConfigSearchIndex configSearchIndex;
+
+    @Autowired
+    private ConfigVersionStore configVersionStore;
+
+    @Autowired
+    private ConfigOperationLogMapper configOperationLogMapper;
+
+    @Autowired
+    private ConfigOperationLogWriter configOperationLogWriter;
+
+    @Autowired
+    private ConfigLocalSnapshotStore configLocalSnapshotStore;
+
+    @Autowired
+    private ConfigCatalog configCatalog;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // 按环境分区、按字节加权的配置缓存
+    @Autowired
+    private ConfigItemCache configCache;
 
-    // AES-256-GCM加密相关
-    private static final String ALGORITHM = "AES/GCM/NoPadding";
-    private static final int GCM_IV_LENGTH = 12;
-    private static final int GCM_TAG_LENGTH = 16;
-    private static final String SECRET_KEY = "your-secret-key-here-32-bytes-long!!"; // 实际应用中应该从配置中读取
+    // 批量查询时单条IN语句的最大键数量，避免SQL过长
+    private static final int BATCH_QUERY_CHUNK_SIZE = 500;
+
+    private static final String PUBLISH_UPDATE_SQL = "UPDATE config_items SET config_value = ?, description = ?, "
+            + "config_type = ?, encrypted = ?, group_id = ?, group_name = ?, tags = ?, status = ?, version = ?, "
+            + "updated_by = ?, revision = ?, updated_at = ? WHERE id = ? AND deleted = false";
 
     @Override
     @Transactional
     public ConfigItem save(ConfigItem configItem) {
+        encodeForStorage(configItem);
+        configItem.setRevision(nextRevision());
+        // 更新时间由应用写入，数据库行与搜索索引中的排序键保持一致
+        if (configItem.getUpdatedAt() == null) {
+            configItem.setUpdatedAt(LocalDateTime.now());
+        }
         if (configItem.getId() == null) {
+            if (configItem.getCreatedAt() == null) {
+                configItem.setCreatedAt(configItem.getUpdatedAt());
+            }
+            if (configItem.getVersion() == null) {
+                configItem.setVersion(1);
+            }
             configMapper.insert(configItem);
+            // 提交后清除该键可能存在的不存在标记，避免提交前的并发读取重新缓存旧状态
+            String configKey = configItem.getConfigKey();
+            String environment = configItem.getEnvironment();
+            TransactionCallbacks.afterCommit(() -> configCache.invalidate(configKey, environment));
+            configVersionStore.record(configItem, null);
+            configSearchIndex.index(null, configItem);
+            configCatalog.onInsert(configItem);
+            configWatchManager.publishChange(configItem.getConfigKey(), configItem.getEnvironment(),
+                                             configItem.getRevision(), null, configItem.getConfigValue());
             log.info("新增配置项: {} - {}", configItem.getConfigKey(), configItem.getEnvironment());
         } else {
+            // 读取更新前的数据，用于变更通知及键名/环境变化时清除旧缓存
+            ConfigItem previous = configMapper.selectById(configItem.getId());
+            if (previous != null) {
+                // 版本号由仓储层递增，与版本历史保持一致
+                configItem.setVersion((previous.getVersion() != null ? previous.getVersion() : 0) + 1);
+            }
             configMapper.updateById(configItem);
-            // 清除缓存
-            String cacheKey = buildCacheKey(configItem.getConfigKey(), configItem.getEnvironment());
-            configCache.invalidate(cacheKey);
+            if (previous != null) {
+                configVersionStore.record(configItem, previous);
+                configCatalog.onUpdate(previous, configItem);
+            }
+            // 提交后清除缓存，键名或环境变化时同时清除旧键
+            String configKey = configItem.getConfigKey();
+            String environment = configItem.getEnvironment();
+            TransactionCallbacks.afterCommit(() -> {
+                configCache.invalidate(configKey, environment);
+                if (previous != null) {
+                    configCache.invalidate(previous.getConfigKey(), previous.getEnvironment());
+                }
+            });
+            configSearchIndex.index(previous, configItem);
+            String oldValue = previous != null ? previous.getConfigValue() : null;
+            configWatchManager.publishChange(configItem.getConfigKey(), configItem.getEnvironment(),
+                                             configItem.getRevision(), oldValue, configItem.getConfigValue());
             log.info("更新配置项: {} - {}", configItem.getConfigKey(), configItem.getEnvironment());
         }
         
@@ -77,21 +165,49 @@ public class ConfigRepositoryImpl implements ConfigRepository {
 
     @Override
     public Optional<ConfigItem> findByConfigKeyAndEnvironment(String configKey, String environment) {
-        String cacheKey = buildCacheKey(configKey, environment);
-        
-        // 先从缓存获取
-        ConfigItem cachedConfig = configCache.getIfPresent(cacheKey);
-        if (cachedConfig != null) {
-            return Optional.of(cachedConfig);
+        try {
+            // 缓存未命中时从数据库加载（冷启动阶段使用本地快照），不存在的键同样缓存
+            return configCache.get(configKey, environment);
+        } catch (DataAccessException e) {
+            // 数据库不可用时降级为最近一次本地快照中的值
+            Optional<ConfigItem> lastKnown = configLocalSnapshotStore.findLastKnown(configKey, environment);
+            if (lastKnown.isPresent()) {
+                log.warn("数据库不可用，使用本地快照: {} - {}, {}", configKey, environment, e.getMessage());
+                return lastKnown;
+            }
+            throw e;
         }
-        
-        // 缓存未命中，从数据库查询
-        ConfigItem configItem = configMapper.selectByKeyAndEnvironment(configKey, environment);
-        if (configItem != null) {
-            configCache.put(cacheKey, configItem);
+    }
+
+    @Override
+    public Map<String, ConfigItem> findAllByKeysAndEnvironment(Collection<String> configKeys, String environment) {
+        if (configKeys == null || configKeys.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        Set<String> keys = new LinkedHashSet<>();
+        for (String configKey : configKeys) {
+            if (StringUtils.hasText(configKey)) {
+                keys.add(configKey);
+            }
+        }
+
+        try {
+            // 先批量读取缓存，仅对未命中的键查询数据库
+            return configCache.getAll(keys, environment);
+        } catch (DataAccessException e) {
+            // 数据库不可用时降级为最近一次本地快照中的值，降级结果不进入缓存
+            Map<String, ConfigItem> lastKnown = new LinkedHashMap<>();
+            for (String configKey : keys) {
+                configLocalSnapshotStore.findLastKnown(configKey, environment)
+                        .ifPresent(item -> lastKnown.put(configKey, item));
+            }
+            if (lastKnown.isEmpty()) {
+                throw e;
+            }
+            log.warn("数据库不可用，批量查询使用本地快照: 环境 {}, {}", environment, e.getMessage());
+            return lastKnown;
         }
-        
-        return Optional.ofNullable(configItem);
     }
 
     @Override
@@ -116,6 +232,54 @@ public class ConfigRepositoryImpl implements ConfigRepository {
                                        configType, encrypted, keyword, offset, limit);
     }
 
+    @Override
+    public List<ConfigItem> findPageByCondition(String configKey, String groupName, String environment,
+                                                String status, String configType, Boolean encrypted, String keyword,
+                                                int offset, int limit) {
+        return configMapper.selectByPage(configKey, groupName, environment, status,
+                                       configType, encrypted, keyword, offset, limit);
+    }
+
+    @Override
+    public Optional<Page<ConfigItem>> searchPageByCondition(String configKey, String groupName, String environment,
+                                                            String status, String configType, Boolean encrypted,
+                                                            String keyword, Pageable pageable) {
+        if (!configSearchIndex.supports(configKey, keyword)) {
+            return Optional.empty();
+        }
+        // 模糊查询由内存索引完成过滤排序与计数，仅按主键读取当前页
+        ConfigSearchIndex.SearchResult result = configSearchIndex.searchPage(configKey, groupName, environment,
+                status, configType, encrypted, keyword, (int) pageable.getOffset(), pageable.getPageSize());
+        return Optional.of(new PageImpl<>(findByIdsInOrder(result.getIds()), pageable, result.getTotal()));
+    }
+
+    @Override
+    public List<ConfigItem> findByConditionAfter(String configKey, String groupName, String environment,
+                                                 String status, String configType, Boolean encrypted, String keyword,
+                                                 LocalDateTime cursorUpdatedAt, Long cursorId, int limit) {
+        if (configSearchIndex.supports(configKey, keyword)) {
+            return findByIdsInOrder(configSearchIndex.searchAfter(configKey, groupName, environment, status,
+                    configType, encrypted, keyword, cursorUpdatedAt, cursorId, limit));
+        }
+        return configMapper.selectByCursor(configKey, groupName, environment, status,
+                                         configType, encrypted, keyword, cursorUpdatedAt, cursorId, limit);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void scanByCondition(String configKey, String groupName, String environment,
+                                String status, String configType, Boolean encrypted, String keyword,
+                                Consumer<ConfigItem> consumer) {
+        try (Cursor<ConfigItem> cursor = configMapper.selectCursorByCondition(configKey, groupName, environment,
+                status, configType, encrypted, keyword)) {
+            for (ConfigItem item : cursor) {
+                consumer.accept(item);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("关闭配置游标失败", e);
+        }
+    }
+
     @Override
     public List<ConfigItem> findByGroupId(Long groupId) {
         return configMapper.selectByGroupId(groupId);
@@ -126,15 +290,25 @@ public class ConfigRepositoryImpl implements ConfigRepository {
         return configMapper.selectByEnvironment(environment);
     }
 
+    @Override
+    public List<String> findDistinctEnvironments() {
+        return configMapper.selectDistinctEnvironments();
+    }
+
     @Override
     @Transactional
     public void deleteById(Long id) {
         ConfigItem configItem = configMapper.selectById(id);
         if (configItem != null) {
-            configMapper.deleteById(id);
-            // 清除缓存
-            String cacheKey = buildCacheKey(configItem.getConfigKey(), configItem.getEnvironment());
-            configCache.invalidate(cacheKey);
+            long revision = nextRevision();
+            configMapper.deleteById(id, revision);
+            configSearchIndex.remove(id);
+            configCatalog.onDelete(configItem, revision);
+            // 提交后清除缓存
+            TransactionCallbacks.afterCommit(() ->
+                    configCache.invalidate(configItem.getConfigKey(), configItem.getEnvironment()));
+            configWatchManager.publishDelete(configItem.getConfigKey(), configItem.getEnvironment(),
+                                             revision, configItem.getConfigValue());
             log.info("删除配置项: {} - {}", configItem.getConfigKey(), configItem.getEnvironment());
             
             // 记录操作日志
@@ -153,12 +327,73 @@ public class ConfigRepositoryImpl implements ConfigRepository {
         return savedItems;
     }
 
+    @Override
+    @Transactional
+    public int insertAll(List<ConfigItem> configItems) {
+        if (configItems == null || configItems.isEmpty()) {
+            return 0;
+        }
+        // 整批共用一个修订号
+        long revision = nextRevision();
+        for (ConfigItem item : configItems) {
+            encodeForStorage(item);
+            item.setRevision(revision);
+            if (item.getVersion() == null) {
+                item.setVersion(1);
+            }
+        }
+        int inserted = configMapper.batchInsert(configItems);
+        // 提交后清除这些键可能存在的不存在标记
+        List<ConfigItem> insertedItems = new ArrayList<>(configItems);
+        TransactionCallbacks.afterCommit(() -> configCache.invalidateAll(insertedItems));
+        configVersionStore.recordAll(configItems);
+        for (ConfigItem item : configItems) {
+            configSearchIndex.index(null, item);
+            configCatalog.onInsert(item);
+            configWatchManager.publishChange(item.getConfigKey(), item.getEnvironment(),
+                                             revision, null, item.getConfigValue());
+        }
+        log.info("批量新增配置项: {} 条", inserted);
+
+        // 整批记录一条操作日志
+        logConfigOperation("BATCH_INSERT", null, configItems.get(0).getCreatedBy(),
+                          null, null, "批量新增配置项: " + inserted + " 条");
+        return inserted;
+    }
+
     @Override
     @Transactional
     public void deleteAllById(List<Long> ids) {
-        for (Long id : ids) {
-            deleteById(id);
+        if (ids == null || ids.isEmpty()) {
+            return;
+        }
+        // 一次IN查询解析全部（键, 环境），整批共用一个修订号
+        List<ConfigItem> previousItems = selectByIdsInChunks(ids);
+        if (previousItems.isEmpty()) {
+            return;
         }
+        List<Long> existingIds = new ArrayList<>(previousItems.size());
+        for (ConfigItem item : previousItems) {
+            existingIds.add(item.getId());
+        }
+
+        long revision = nextRevision();
+        int deleted = 0;
+        for (List<Long> chunk : chunk(existingIds)) {
+            deleted += configMapper.batchDeleteByIds(chunk, revision);
+        }
+        TransactionCallbacks.afterCommit(() -> configCache.invalidateAll(previousItems));
+        for (ConfigItem item : previousItems) {
+            configSearchIndex.remove(item.getId());
+            configCatalog.onDelete(item, revision);
+            configWatchManager.publishDelete(item.getConfigKey(), item.getEnvironment(),
+                                             revision, item.getConfigValue());
+        }
+        log.info("批量删除配置项: {} 条", deleted);
+
+        // 整批记录一条操作日志
+        logConfigOperation("BATCH_DELETE", null, "system", null, null,
+                          "批量删除配置项: " + deleted + " 条, ID: " + existingIds);
     }
 
     @Override
@@ -166,6 +401,20 @@ public class ConfigRepositoryImpl implements ConfigRepository {
         return findByConfigKeyAndEnvironment(configKey, environment).isPresent();
     }
 
+    @Override
+    public Set<String> findExistingConfigKeys(Collection<String> configKeys, String environment) {
+        if (configKeys == null || configKeys.isEmpty()) {
+            return Collections.emptySet();
+        }
+        List<String> keys = new ArrayList<>(configKeys);
+        Set<String> existing = new HashSet<>();
+        for (int start = 0; start < keys.size(); start += BATCH_QUERY_CHUNK_SIZE) {
+            List<String> chunk = keys.subList(start, Math.min(start + BATCH_QUERY_CHUNK_SIZE, keys.size()));
+            existing.addAll(configMapper.selectExistingKeys(chunk, environment));
+        }
+        return existing;
+    }
+
     @Override
     public long count() {
         return configMapper.countByCondition(null, null, null, null, null, null, null);
@@ -181,143 +430,324 @@ public class ConfigRepositoryImpl implements ConfigRepository {
     @Override
     @Transactional
     public int updateStatus(List<Long> ids, String status, String updatedBy) {
-        int result = configMapper.batchUpdateStatus(ids, status, updatedBy);
-        if (result > 0) {
-            // 清除相关缓存
-            for (Long id : ids) {
-                Optional<ConfigItem> configOpt = findById(id);
-                if (configOpt.isPresent()) {
-                    ConfigItem config = configOpt.get();
-                    String cacheKey = buildCacheKey(config.getConfigKey(), config.getEnvironment());
-                    configCache.invalidate(cacheKey);
-                }
-            }
-            log.info("批量更新配置状态: {} 条记录更新为 {}", ids.size(), status);
+        if (ids == null || ids.isEmpty()) {
+            return 0;
         }
+        // 更新前一次IN查询读取原状态，用于解析缓存键与目录计数
+        List<ConfigItem> previousItems = selectByIdsInChunks(ids);
+        if (previousItems.isEmpty()) {
+            return 0;
+        }
+        List<Long> existingIds = new ArrayList<>(previousItems.size());
+        for (ConfigItem item : previousItems) {
+            existingIds.add(item.getId());
+        }
+
+        long revision = nextRevision();
+        LocalDateTime updatedAt = LocalDateTime.now();
+        int result = 0;
+        for (List<Long> chunk : chunk(existingIds)) {
+            result += configMapper.batchUpdateStatus(chunk, status, updatedBy, revision, updatedAt);
+        }
+        configSearchIndex.updateStatus(existingIds, status, updatedAt);
+        TransactionCallbacks.afterCommit(() -> configCache.invalidateAll(previousItems));
+        for (ConfigItem config : previousItems) {
+            ConfigItem updated = new ConfigItem();
+            updated.setStatus(status);
+            updated.setRevision(revision);
+            configCatalog.onUpdate(config, updated);
+            configWatchManager.publishChange(config.getConfigKey(), config.getEnvironment(),
+                                             revision, config.getConfigValue(), config.getConfigValue());
+        }
+        log.info("批量更新配置状态: {} 条记录更新为 {}", result, status);
+
+        // 整批记录一条操作日志
+        logConfigOperation("BATCH_STATUS", null, updatedBy, null, status,
+                          "批量更新配置状态: " + result + " 条, ID: " + existingIds);
         return result;
     }
 
     @Override
-    public List<ConfigItem> findHistoryVersions(Long configId) {
-        return configMapper.selectHistoryVersions(configId);
+    public List<ConfigItem> findHistoryVersions(Long configId, int page, int size) {
+        return configVersionStore.history(configId, Math.max(page, 0) * size, size);
+    }
+
+    @Override
+    public List<ConfigItem> findChangesSince(String environment, long sinceRevision, Long untilRevision, int limit) {
+        return configMapper.selectChangesSince(environment, sinceRevision, untilRevision, limit);
+    }
+
+    @Override
+    public long getEnvironmentRevision(String environment) {
+        return configMapper.selectMaxRevisionByEnvironment(environment);
+    }
+
+    @Override
+    public long getRevision() {
+        Long revision = configMapper.selectRevision();
+        return revision != null ? revision : 0L;
+    }
+
+    @Override
+    public List<ConfigItem> findChangedKeysSince(long sinceRevision, int limit) {
+        return configMapper.selectChangedKeysSince(sinceRevision, limit);
+    }
+
+    @Override
+    public List<ConfigItem> loadByKeysAndEnvironment(Collection<String> configKeys, String environment) {
+        if (configKeys == null || configKeys.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return configMapper.selectByKeysAndEnvironment(new ArrayList<>(configKeys), environment);
+    }
+
+    /**
+     * 应用启动后结束快照冷启动阶段，并以数据库中的全局修订号初始化订阅管理器
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initWatchRevision() {
+        // 启动期间可能缓存了过期的本地快照值，此后一律从数据库加载，数据库不可用时才降级到快照
+        configLocalSnapshotStore.endColdStart();
+        configCache.invalidateAll();
+        try {
+            Long current = configMapper.selectRevision();
+            if (current != null) {
+                configWatchManager.advanceRevision(current);
+            }
+        } catch (Exception e) {
+            log.warn("初始化配置修订号失败: {}", e.getMessage());
+        }
     }
 
     @Override
     public void notifyConfigChanged(String configKey, String environment) {
-        String cacheKey = buildCacheKey(configKey, environment);
-        configCache.invalidate(cacheKey);
+        configCache.invalidate(configKey, environment);
         log.info("配置变更通知: {} - {}", configKey, environment);
     }
 
     @Override
     @Transactional
     public void publishConfigs(List<Long> configIds, String targetEnvironment, String publisher) {
-        for (Long configId : configIds) {
-            Optional<ConfigItem> configOpt = findById(configId);
-            if (configOpt.isPresent()) {
-                ConfigItem originalConfig = configOpt.get();
-                ConfigItem newConfig = new ConfigItem();
-                newConfig.setConfigKey(originalConfig.getConfigKey());
-                newConfig.setConfigValue(originalConfig.getConfigValue());
-                newConfig.setDescription(originalConfig.getDescription());
-                newConfig.setGroupId(originalConfig.getGroupId());
-                newConfig.setGroupName(originalConfig.getGroupName());
-                newConfig.setEnvironment(targetEnvironment);
-                newConfig.setConfigType(originalConfig.getConfigType());
-                newConfig.setEncrypted(originalConfig.getEncrypted());
-                newConfig.setStatus("ACTIVE");
-                newConfig.setVersion(originalConfig.getVersion() + 1);
-                newConfig.setTags(originalConfig.getTags());
-                newConfig.setCreatedBy(publisher);
-                newConfig.setUpdatedBy(publisher);
-                newConfig.setSource("DATABASE");
-                
-                save(newConfig);
-                log.info("配置发布: {} 从 {} 发布到 {}", 
-                        originalConfig.getConfigKey(), originalConfig.getEnvironment(), targetEnvironment);
+        publishConfigSet(configIds, Collections.singletonList(targetEnvironment), publisher);
+    }
+
+    @Override
+    @Transactional
+    public ConfigDTO.ConfigPublishResult publishConfigSet(List<Long> configIds, List<String> targetEnvironments,
+                                                          String publisher) {
+        ConfigDTO.ConfigPublishResult result = new ConfigDTO.ConfigPublishResult();
+        if (configIds == null || configIds.isEmpty() || targetEnvironments == null || targetEnvironments.isEmpty()) {
+            return result;
+        }
+
+        // 一次查询加载全部来源配置，同一配置键只允许一个来源
+        Map<String, ConfigItem> sourceByKey = new LinkedHashMap<>();
+        for (ConfigItem source : selectByIdsInChunks(new ArrayList<>(new LinkedHashSet<>(configIds)))) {
+            if (sourceByKey.putIfAbsent(source.getConfigKey(), source) != null) {
+                throw new IllegalArgumentException("发布集合中存在重复的配置键: " + source.getConfigKey());
             }
         }
+        List<String> configKeys = new ArrayList<>(sourceByKey.keySet());
+
+        // 逐个目标环境批量读取现有配置并比对
+        List<ConfigItem> inserts = new ArrayList<>();
+        List<ConfigItem> updates = new ArrayList<>();
+        Map<Long, ConfigItem> previousById = new HashMap<>();
+        int unchanged = 0;
+        for (String environment : new LinkedHashSet<>(targetEnvironments)) {
+            Map<String, ConfigItem> existing = new HashMap<>();
+            for (List<String> chunk : chunk(configKeys)) {
+                for (ConfigItem item : configMapper.selectByKeysAndEnvironment(chunk, environment)) {
+                    existing.put(item.getConfigKey(), item);
+                }
+            }
+            for (ConfigItem source : sourceByKey.values()) {
+                if (environment.equals(source.getEnvironment())) {
+                    unchanged++;
+                    continue;
+                }
+                ConfigItem target = existing.get(source.getConfigKey());
+                if (target == null) {
+                    inserts.add(copyForPublish(source, environment, publisher));
+                } else if (publishDiffers(source, target)) {
+                    updates.add(applyPublish(source, target, publisher));
+                    previousById.put(target.getId(), target);
+                } else {
+                    unchanged++;
+                }
+            }
+        }
+        result.setUnchanged(unchanged);
+        if (inserts.isEmpty() && updates.isEmpty()) {
+            return result;
+        }
+
+        // 整组共用一个修订号，订阅方看到的是一次完整的变更
+        long revision = nextRevision();
+        for (ConfigItem item : inserts) {
+            item.setRevision(revision);
+        }
+        for (List<ConfigItem> chunk : chunk(inserts)) {
+            configMapper.batchInsert(chunk);
+        }
+        for (ConfigItem item : updates) {
+            item.setRevision(revision);
+        }
+        batchUpdatePublished(updates);
+
+        List<ConfigItem> written = new ArrayList<>(inserts.size() + updates.size());
+        written.addAll(inserts);
+        written.addAll(updates);
+        configVersionStore.recordAll(written, previousById);
+
+        for (ConfigItem item : written) {
+            ConfigItem previous = previousById.get(item.getId());
+            configSearchIndex.index(previous, item);
+            if (previous == null) {
+                configCatalog.onInsert(item);
+            } else {
+                configCatalog.onUpdate(previous, item);
+            }
+            configWatchManager.publishChange(item.getConfigKey(), item.getEnvironment(), revision,
+                                             previous != null ? previous.getConfigValue() : null, item.getConfigValue());
+        }
+        TransactionCallbacks.afterCommit(() -> configCache.invalidateAll(written));
+
+        result.setRevision(revision);
+        result.setInserted(inserts.size());
+        result.setUpdated(updates.size());
+        log.info("批量发布配置: {} 个配置项发布到 {}, 新增 {}, 更新 {}, 未变化 {}, revision={}",
+                sourceByKey.size(), targetEnvironments, inserts.size(), updates.size(), unchanged, revision);
+
+        // 整组记录一条操作日志
+        logConfigOperation("PUBLISH_SET", null, publisher, null, null,
+                          "批量发布到 " + targetEnvironments + ": 新增 " + inserts.size() + ", 更新 " + updates.size());
+        return result;
     }
 
     @Override
     @Transactional
-    public void grayReleaseConfig(Long configId, String targetEnvironment, Double grayRatio, String publisher) {
-        // 灰度发布逻辑实现
-        log.info("配置灰度发布: configId={}, environment={}, ratio={}", 
-                configId, targetEnvironment, grayRatio);
-        // 实际实现需要更复杂的灰度策略
+    public ConfigItem grayReleaseConfig(Long configId, String targetEnvironment, String grayValue,
+                                        Double grayRatio, String publisher) {
+        double ratio = normalizeGrayRatio(grayRatio);
+        ConfigItem source = configMapper.selectById(configId);
+        if (source == null) {
+            throw new IllegalArgumentException("配置项不存在");
+        }
+
+        ConfigItem target = source;
+        String storedValue;
+        if (grayValue != null) {
+            storedValue = Boolean.TRUE.equals(target.getEncrypted())
+                    ? encryptConfigValue(grayValue) : configValueCodec.encode(grayValue);
+        } else {
+            // 将源配置的值灰度发布到目标环境中已存在的同名配置
+            if (!StringUtils.hasText(targetEnvironment) || targetEnvironment.equals(source.getEnvironment())) {
+                throw new IllegalArgumentException("灰度发布需要指定灰度值或不同的目标环境");
+            }
+            target = configMapper.selectByKeyAndEnvironment(source.getConfigKey(), targetEnvironment);
+            if (target == null) {
+                throw new IllegalArgumentException("目标环境不存在该配置项，请先全量发布: " + source.getConfigKey());
+            }
+            storedValue = convertEncryption(source.getConfigValue(), Boolean.TRUE.equals(source.getEncrypted()),
+                                            Boolean.TRUE.equals(target.getEncrypted()));
+        }
+
+        long revision = nextRevision();
+        // 同一灰度值仅调整比例时沿用原批次ID作为分桶种子，已命中灰度的调用方保持命中
+        Long grayReleaseId = revision;
+        if (target.getGrayReleaseId() != null && target.getGrayValue() != null
+                && samePlainValue(target.getGrayValue(), storedValue, Boolean.TRUE.equals(target.getEncrypted()))) {
+            grayReleaseId = target.getGrayReleaseId();
+            storedValue = target.getGrayValue();
+        }
+
+        configMapper.updateGrayRelease(target.getId(), storedValue, ratio, grayReleaseId, revision, publisher);
+        ConfigItem updated = afterGrayChange(target, revision);
+        logConfigOperation("GRAY_RELEASE", target.getId(), publisher, target.getGrayValue(), storedValue,
+                          "灰度发布，比例: " + ratio);
+        log.info("配置灰度发布: configId={}, environment={}, ratio={}, releaseId={}",
+                target.getId(), target.getEnvironment(), ratio, grayReleaseId);
+        return updated;
+    }
+
+    @Override
+    @Transactional
+    public ConfigItem promoteGrayRelease(Long configId, String operator) {
+        ConfigItem current = requireGrayRelease(configId);
+        long revision = nextRevision();
+        configMapper.promoteGrayRelease(configId, revision, operator);
+        ConfigItem updated = afterGrayChange(current, revision);
+        configVersionStore.record(updated, current);
+        logConfigOperation("GRAY_PROMOTE", configId, operator, current.getConfigValue(), current.getGrayValue(), "灰度全量");
+        log.info("配置灰度全量: {} - {}", current.getConfigKey(), current.getEnvironment());
+        return updated;
+    }
+
+    @Override
+    @Transactional
+    public ConfigItem abortGrayRelease(Long configId, String operator) {
+        ConfigItem current = requireGrayRelease(configId);
+        long revision = nextRevision();
+        configMapper.updateGrayRelease(configId, null, null, null, revision, operator);
+        ConfigItem updated = afterGrayChange(current, revision);
+        logConfigOperation("GRAY_ABORT", configId, operator, current.getGrayValue(), null, "终止灰度");
+        log.info("配置灰度终止: {} - {}", current.getConfigKey(), current.getEnvironment());
+        return updated;
     }
 
     @Override
     @Transactional
     public ConfigItem rollbackToVersion(Long configId, Integer version, String operator) {
-        // 版本回滚逻辑实现
-        log.info("配置版本回滚: configId={}, version={}, operator={}", 
-                configId, version, operator);
-        return null; // 实际实现需要查询历史版本数据
+        ConfigItem current = configMapper.selectById(configId);
+        if (current == null) {
+            throw new IllegalArgumentException("配置项不存在");
+        }
+        ConfigItem target = version != null ? configVersionStore.rebuild(configId, version) : null;
+        if (target == null) {
+            throw new IllegalArgumentException("配置版本不存在: " + version);
+        }
+
+        // 以目标版本内容生成新版本，历史记录保持只追加
+        current.setConfigValue(target.getConfigValue());
+        current.setDescription(target.getDescription());
+        current.setConfigType(target.getConfigType());
+        current.setEncrypted(target.getEncrypted());
+        current.setUpdatedBy(operator);
+        ConfigItem saved = save(current);
+        log.info("配置版本回滚: configId={}, version={}, newVersion={}, operator={}", 
+                configId, version, saved.getVersion(), operator);
+        return saved;
     }
 
     @Override
     public String encryptConfigValue(String plainValue) {
-        try {
-            Cipher cipher = Cipher.getInstance(ALGORITHM);
-            SecretKey secretKey = new SecretKeySpec(SECRET_KEY.getBytes(StandardCharsets.UTF_8), "AES");
-            
-            byte[] iv = new byte[GCM_IV_LENGTH];
-            new SecureRandom().nextBytes(iv);
-            
-            GCMParameterSpec spec = new GCMParameterSpec(GCM_TAG_LENGTH * 8, iv);
-            cipher.init(Cipher.ENCRYPT_MODE, secretKey, spec);
-            
-            byte[] encrypted = cipher.doFinal(plainValue.getBytes(StandardCharsets.UTF_8));
-            
-            // 将IV和加密数据组合
-            byte[] result = new byte[iv.length + encrypted.length];
-            System.arraycopy(iv, 0, result, 0, iv.length);
-            System.arraycopy(encrypted, 0, result, iv.length, encrypted.length);
-            
-            return Base64.getEncoder().encodeToString(result);
-        } catch (Exception e) {
-            log.error("配置加密失败", e);
-            throw new RuntimeException("配置加密失败", e);
-        }
+        return configCryptoEngine.encrypt(configValueCodec.encode(plainValue));
     }
 
     @Override
     public String decryptConfigValue(String encryptedValue) {
-        try {
-            byte[] decoded = Base64.getDecoder().decode(encryptedValue);
-            
-            byte[] iv = Arrays.copyOfRange(decoded, 0, GCM_IV_LENGTH);
-            byte[] encrypted = Arrays.copyOfRange(decoded, GCM_IV_LENGTH, decoded.length);
-            
-            Cipher cipher = Cipher.getInstance(ALGORITHM);
-            SecretKey secretKey = new SecretKeySpec(SECRET_KEY.getBytes(StandardCharsets.UTF_8), "AES");
-            GCMParameterSpec spec = new GCMParameterSpec(GCM_TAG_LENGTH * 8, iv);
-            
-            cipher.init(Cipher.DECRYPT_MODE, secretKey, spec);
-            byte[] decrypted = cipher.doFinal(encrypted);
-            
-            return new String(decrypted, StandardCharsets.UTF_8);
-        } catch (Exception e) {
-            log.error("配置解密失败", e);
-            throw new RuntimeException("配置解密失败", e);
-        }
+        return ConfigValueCodec.decode(configCryptoEngine.decrypt(encryptedValue));
     }
 
     @Override
     public void logConfigOperation(String operationType, Long configId, String operator,
                                  String oldValue, String newValue, String remark) {
-        // 配置操作日志记录实现
-        log.info("配置操作日志: type={}, configId={}, operator={}, remark={}", 
-                operationType, configId, operator, remark);
-        // 实际应该保存到操作日志表中
+        ConfigOperationLog entry = new ConfigOperationLog();
+        entry.setOperationType(operationType);
+        entry.setConfigId(configId);
+        entry.setOperator(operator);
+        entry.setOldValue(oldValue);
+        entry.setNewValue(newValue);
+        entry.setRemark(remark);
+        entry.setCreatedAt(LocalDateTime.now());
+        // 事务提交后进入异步批量写入缓冲区
+        configOperationLogWriter.append(entry);
     }
 
     @Override
-    public List<Object> getConfigOperationLogs(Long configId, int page, int size) {
-        // 返回配置操作日志
-        return new ArrayList<>(); // 实际实现需要查询日志表
+    public List<ConfigOperationLog> getConfigOperationLogs(Long configId, int page, int size) {
+        return configOperationLogMapper.selectByConfigId(configId, Math.max(page, 0) * size, size);
     }
 
     @Override
@@ -327,37 +757,226 @@ public class ConfigRepositoryImpl implements ConfigRepository {
     }
 
     @Override
-    public void syncToNacos(Long configId) {
-        // 同步到Nacos的实现
-        log.info("同步配置到Nacos: configId={}", configId);
+    public List<String> getEnvironments() {
+        return configCatalog.getEnvironments();
     }
 
     @Override
-    public void syncFromNacos(String dataId, String group, String namespace) {
-        // 从Nacos同步配置的实现
-        log.info("从Nacos同步配置: dataId={}, group={}, namespace={}", dataId, group, namespace);
+    public List<String> getConfigGroups() {
+        return configCatalog.getConfigGroups();
     }
 
-    @Override
-    public List<String> getEnvironments() {
-        // 返回支持的环境列表
-        return Arrays.asList("dev", "test", "prod");
+    private ConfigItem requireGrayRelease(Long configId) {
+        ConfigItem current = configMapper.selectById(configId);
+        if (current == null) {
+            throw new IllegalArgumentException("配置项不存在");
+        }
+        if (current.getGrayValue() == null) {
+            throw new IllegalArgumentException("该配置项没有进行中的灰度发布");
+        }
+        return current;
     }
 
-    @Override
-    public List<String> getConfigGroups() {
-        // 返回配置分组列表
-        Set<String> groups = new HashSet<>();
-        List<ConfigItem> allConfigs = findAll();
-        for (ConfigItem config : allConfigs) {
-            if (StringUtils.hasText(config.getGroupName())) {
-                groups.add(config.getGroupName());
+    /**
+     * 灰度信息变更后的统一处理：事务提交后以新实例整体替换缓存项，
+     * 读取方要么看到变更前的稳定值与灰度值，要么看到变更后的，不会出现混合状态
+     */
+    private ConfigItem afterGrayChange(ConfigItem previous, long revision) {
+        ConfigItem updated = configMapper.selectById(previous.getId());
+        TransactionCallbacks.afterCommit(() -> configCache.put(updated));
+        configSearchIndex.index(previous, updated);
+        configWatchManager.publishChange(updated.getConfigKey(), updated.getEnvironment(),
+                                         revision, previous.getConfigValue(), updated.getConfigValue());
+        return updated;
+    }
+
+    /**
+     * 灰度比例支持0~1的小数或1~100的百分比
+     */
+    private double normalizeGrayRatio(Double grayRatio) {
+        if (grayRatio == null || grayRatio <= 0 || grayRatio > 100) {
+            throw new IllegalArgumentException("灰度比例必须在(0, 1]或(0, 100]范围内");
+        }
+        return grayRatio > 1 ? grayRatio / 100 : grayRatio;
+    }
+
+    private String convertEncryption(String value, boolean sourceEncrypted, boolean targetEncrypted) {
+        if (value == null || sourceEncrypted == targetEncrypted) {
+            return value;
+        }
+        return sourceEncrypted
+                ? configValueCodec.encode(decryptConfigValue(value))
+                : encryptConfigValue(ConfigValueCodec.decode(value));
+    }
+
+    /**
+     * 未加密的配置值按阈值压缩为存储形式，加密值在加密时已压缩
+     */
+    private void encodeForStorage(ConfigItem item) {
+        if (!Boolean.TRUE.equals(item.getEncrypted())) {
+            item.setConfigValue(configValueCodec.encode(item.getConfigValue()));
+        }
+    }
+
+    private boolean samePlainValue(String storedA, String storedB, boolean encrypted) {
+        if (!encrypted) {
+            return storedA.equals(storedB);
+        }
+        return Objects.equals(decryptConfigValue(storedA), decryptConfigValue(storedB));
+    }
+
+
+    /**
+     * 分配下一个全局修订号，需在写事务内调用
+     * 修订号行被更新锁定直到事务提交，保证修订号按提交顺序单调递增
+     */
+    private long nextRevision() {
+        if (configMapper.incrementRevision() == 0) {
+            try {
+                configMapper.initRevision();
+            } catch (DuplicateKeyException e) {
+                log.debug("全局修订号已由其他实例初始化");
+            }
+            configMapper.incrementRevision();
+        }
+        long revision = configMapper.selectRevision();
+        // 提交后将修订号作为读一致性令牌返回给调用方
+        TransactionCallbacks.afterCommit(() -> ConfigReadConsistency.recordWrite(revision));
+        return revision;
+    }
+
+    /**
+     * 按主键批量读取配置项，并保持传入ID的顺序
+     */
+    private List<ConfigItem> findByIdsInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, ConfigItem> byId = new HashMap<>();
+        for (ConfigItem item : configMapper.selectByIds(ids)) {
+            byId.put(item.getId(), item);
+        }
+        List<ConfigItem> ordered = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            ConfigItem item = byId.get(id);
+            if (item != null) {
+                ordered.add(item);
             }
         }
-        return new ArrayList<>(groups);
+        return ordered;
+    }
+
+    private ConfigItem copyForPublish(ConfigItem source, String environment, String publisher) {
+        ConfigItem item = new ConfigItem();
+        item.setConfigKey(source.getConfigKey());
+        item.setConfigValue(source.getConfigValue());
+        item.setDescription(source.getDescription());
+        item.setGroupId(source.getGroupId());
+        item.setGroupName(source.getGroupName());
+        item.setEnvironment(environment);
+        item.setConfigType(source.getConfigType());
+        item.setEncrypted(source.getEncrypted());
+        item.setStatus("ACTIVE");
+        item.setVersion(1);
+        item.setTags(source.getTags());
+        item.setCreatedBy(publisher);
+        item.setUpdatedBy(publisher);
+        item.setSource("DATABASE");
+        LocalDateTime now = LocalDateTime.now();
+        item.setCreatedAt(now);
+        item.setUpdatedAt(now);
+        return item;
     }
 
-    private String buildCacheKey(String configKey, String environment) {
-        return configKey + ":" + environment;
+    private ConfigItem applyPublish(ConfigItem source, ConfigItem target, String publisher) {
+        ConfigItem item = new ConfigItem();
+        item.setId(target.getId());
+        item.setConfigKey(target.getConfigKey());
+        item.setEnvironment(target.getEnvironment());
+        item.setConfigValue(source.getConfigValue());
+        item.setDescription(source.getDescription());
+        item.setGroupId(source.getGroupId());
+        item.setGroupName(source.getGroupName());
+        item.setConfigType(source.getConfigType());
+        item.setEncrypted(source.getEncrypted());
+        item.setStatus("ACTIVE");
+        item.setVersion((target.getVersion() != null ? target.getVersion() : 0) + 1);
+        item.setTags(source.getTags());
+        item.setCreatedBy(target.getCreatedBy());
+        item.setCreatedAt(target.getCreatedAt());
+        item.setUpdatedBy(publisher);
+        item.setUpdatedAt(LocalDateTime.now());
+        item.setSource(target.getSource());
+        item.setGrayValue(target.getGrayValue());
+        item.setGrayRatio(target.getGrayRatio());
+        item.setGrayReleaseId(target.getGrayReleaseId());
+        return item;
+    }
+
+    /**
+     * 目标配置与来源配置的内容是否不同，加密值按明文比较
+     */
+    private boolean publishDiffers(ConfigItem source, ConfigItem target) {
+        boolean sourceEncrypted = Boolean.TRUE.equals(source.getEncrypted());
+        if (sourceEncrypted != Boolean.TRUE.equals(target.getEncrypted())) {
+            return true;
+        }
+        boolean sameValue = sourceEncrypted
+                ? Objects.equals(decryptConfigValue(source.getConfigValue()), decryptConfigValue(target.getConfigValue()))
+                : Objects.equals(source.getConfigValue(), target.getConfigValue());
+        return !sameValue
+                || !"ACTIVE".equals(target.getStatus())
+                || !Objects.equals(source.getDescription(), target.getDescription())
+                || !Objects.equals(source.getConfigType(), target.getConfigType())
+                || !Objects.equals(source.getGroupId(), target.getGroupId())
+                || !Objects.equals(source.getGroupName(), target.getGroupName())
+                || !Objects.equals(source.getTags(), target.getTags());
+    }
+
+    /**
+     * JDBC批量更新发布内容，参与当前事务
+     */
+    private void batchUpdatePublished(List<ConfigItem> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(PUBLISH_UPDATE_SQL, items, BATCH_QUERY_CHUNK_SIZE, (ps, item) -> {
+            ps.setString(1, item.getConfigValue());
+            ps.setString(2, item.getDescription());
+            ps.setString(3, item.getConfigType());
+            ps.setBoolean(4, Boolean.TRUE.equals(item.getEncrypted()));
+            if (item.getGroupId() != null) {
+                ps.setLong(5, item.getGroupId());
+            } else {
+                ps.setNull(5, Types.BIGINT);
+            }
+            ps.setString(6, item.getGroupName());
+            ps.setString(7, item.getTags());
+            ps.setString(8, item.getStatus());
+            ps.setInt(9, item.getVersion());
+            ps.setString(10, item.getUpdatedBy());
+            ps.setLong(11, item.getRevision());
+            ps.setTimestamp(12, Timestamp.valueOf(item.getUpdatedAt()));
+            ps.setLong(13, item.getId());
+        });
+    }
+
+    /**
+     * 按ID分块批量查询，单条IN语句不超过BATCH_QUERY_CHUNK_SIZE个ID
+     */
+    private List<ConfigItem> selectByIdsInChunks(List<Long> ids) {
+        List<ConfigItem> items = new ArrayList<>(ids.size());
+        for (List<Long> chunk : chunk(ids)) {
+            items.addAll(configMapper.selectByIds(chunk));
+        }
+        return items;
+    }
+
+    private static <T> List<List<T>> chunk(List<T> values) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int start = 0; start < values.size(); start += BATCH_QUERY_CHUNK_SIZE) {
+            chunks.add(values.subList(start, Math.min(start + BATCH_QUERY_CHUNK_SIZE, values.size())));
+        }
+        return chunks;
     }
 }
\ No newline at end of file
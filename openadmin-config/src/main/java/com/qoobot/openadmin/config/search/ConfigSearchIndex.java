@@ -0,0 +1,502 @@
+package com.qoobot.openadmin.config.search;
+
+import com.qoobot.openadmin.config.entity.ConfigItem;
+import com.qoobot.openadmin.config.mapper.ConfigMapper;
+import com.qoobot.openadmin.config.support.TransactionCallbacks;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 配置关键词搜索索引
+ * 基于三元组(trigram)倒排索引，覆盖配置键、描述与标签。文档按(updatedAt, id)倒序常驻有序集合，
+ * 模糊查询在内存中一次扫描同时得到当前页与总数，调用方只需按主键回表读取当前页。
+ * 索引随本实例写入在事务提交后增量维护，并按数据库修订号补充其他实例的变更；
+ * 无法确认索引是最新的（构建中、补充失败或正由其他线程补充）时查询回退到数据库
+ */
+@Slf4j
+@Component
+public class ConfigSearchIndex {
+
+    private static final int GRAM_SIZE = 3;
+
+    // 启动时全量构建索引的分批大小
+    private static final int BUILD_BATCH_SIZE = 5000;
+
+    // 候选集不超过全部文档的该比例时，直接过滤候选集并取前若干条，否则按有序集合顺序扫描
+    private static final int SELECTIVE_CANDIDATE_RATIO = 8;
+
+    private static final Comparator<IndexedConfig> LATEST_FIRST = Comparator
+            .comparing((IndexedConfig doc) -> doc.updatedAt, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(doc -> doc.id, Comparator.reverseOrder());
+
+    @Autowired
+    private ConfigMapper configMapper;
+
+    @Autowired
+    @Qualifier("configQueryExecutor")
+    private Executor configQueryExecutor;
+
+    // 按数据库修订号补充其他实例变更的间隔
+    @Value("${openadmin.config.search.refresh-interval-ms:1000}")
+    private long refreshIntervalMillis = 1000;
+
+    // 每次补充读取的变更数上限，超过时在后台全量重建
+    @Value("${openadmin.config.search.refresh-batch-size:1000}")
+    private int refreshBatchSize = 1000;
+
+    // 配置ID -> 索引文档
+    private final Map<Long, IndexedConfig> docs = new ConcurrentHashMap<>();
+
+    // 按(updatedAt, id)倒序排列的索引文档，随docs一同维护
+    private final NavigableSet<IndexedConfig> ordered = new ConcurrentSkipListSet<>(LATEST_FIRST);
+
+    // 三元组 -> 包含该三元组的配置ID集合
+    private final Map<Long, Set<Long>> postings = new ConcurrentHashMap<>();
+
+    // 构建期间被增量更新过的配置ID，构建时不再用扫描到的旧数据覆盖
+    private final Set<Long> touchedDuringBuild = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean building = false;
+    private volatile boolean ready = false;
+
+    // 索引已包含的数据库修订号，以及在此之前无需再次检查数据库的时间
+    private volatile long indexedRevision = 0L;
+    private volatile long verifiedUntil = 0L;
+
+    // 串行化全量构建与按修订号补充
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    /**
+     * 应用启动后在后台构建索引，构建完成前查询回退到数据库
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildAsync() {
+        configQueryExecutor.execute(this::rebuild);
+    }
+
+    /**
+     * 全量重建索引
+     * 构建前记录数据库修订号，构建期间其他实例的变更由之后的补充读取覆盖
+     */
+    public void rebuild() {
+        refreshLock.lock();
+        try {
+            doRebuild();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private void doRebuild() {
+        long start = System.currentTimeMillis();
+        ready = false;
+        building = true;
+        touchedDuringBuild.clear();
+        docs.clear();
+        ordered.clear();
+        postings.clear();
+        try {
+            Long revision = configMapper.selectRevision();
+            indexedRevision = revision != null ? revision : 0L;
+            verifiedUntil = 0L;
+            long lastId = 0L;
+            List<ConfigItem> batch;
+            do {
+                batch = configMapper.selectSearchFieldsAfterId(lastId, BUILD_BATCH_SIZE);
+                for (ConfigItem item : batch) {
+                    if (!touchedDuringBuild.contains(item.getId())) {
+                        put(IndexedConfig.of(item));
+                    }
+                    lastId = item.getId();
+                }
+            } while (batch.size() == BUILD_BATCH_SIZE);
+            ready = true;
+            log.info("配置搜索索引构建完成: {} 条, revision={}, 耗时 {} ms",
+                    docs.size(), indexedRevision, System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("配置搜索索引构建失败，模糊查询将回退到数据库", e);
+        } finally {
+            building = false;
+            touchedDuringBuild.clear();
+        }
+    }
+
+    /**
+     * 索引是否可服务该查询：仅对包含模糊匹配条件的查询，且索引已确认包含数据库当前修订号时使用索引
+     */
+    public boolean supports(String configKey, String keyword) {
+        return (StringUtils.hasText(configKey) || StringUtils.hasText(keyword)) && ready && isCurrent();
+    }
+
+    /**
+     * 检查间隔内直接认为索引是最新的；到期后由一个查询线程补充读取修订号之后的变更，
+     * 补充期间或补充失败时其余查询回退到数据库
+     */
+    private boolean isCurrent() {
+        long now = System.currentTimeMillis();
+        if (now < verifiedUntil) {
+            return true;
+        }
+        if (!refreshLock.tryLock()) {
+            return false;
+        }
+        try {
+            if (!ready || !catchUp()) {
+                return false;
+            }
+            verifiedUntil = now + refreshIntervalMillis;
+            return true;
+        } catch (Exception e) {
+            log.warn("按修订号补充配置搜索索引失败，模糊查询回退到数据库: {}", e.getMessage());
+            return false;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * 读取索引修订号之后变更的配置项（包括其他实例的写入）并应用到索引
+     * 变更过多时在后台全量重建，返回false
+     */
+    private boolean catchUp() {
+        List<ConfigItem> changed = configMapper.selectSearchFieldsChangedSince(indexedRevision, refreshBatchSize);
+        if (changed.size() >= refreshBatchSize) {
+            log.info("修订号 {} 之后的配置变更超过 {} 条，后台重建搜索索引", indexedRevision, refreshBatchSize);
+            ready = false;
+            configQueryExecutor.execute(this::rebuild);
+            return false;
+        }
+        long revision = indexedRevision;
+        for (ConfigItem item : changed) {
+            apply(item.getId(), Boolean.TRUE.equals(item.getDeleted()) ? null : IndexedConfig.of(item));
+            if (item.getRevision() != null) {
+                revision = Math.max(revision, item.getRevision());
+            }
+        }
+        indexedRevision = revision;
+        return true;
+    }
+
+    /**
+     * 新增或更新配置项索引，changes中为空的字段沿用previous的值
+     */
+    public void index(ConfigItem previous, ConfigItem changes) {
+        IndexedConfig doc = IndexedConfig.merge(previous, changes);
+        TransactionCallbacks.afterCommit(() -> apply(doc.id, doc));
+    }
+
+    /**
+     * 移除配置项索引
+     */
+    public void remove(Long id) {
+        TransactionCallbacks.afterCommit(() -> apply(id, null));
+    }
+
+    /**
+     * 更新配置项状态，updatedAt为写入数据库行的更新时间
+     */
+    public void updateStatus(Collection<Long> ids, String status, LocalDateTime updatedAt) {
+        TransactionCallbacks.afterCommit(() -> {
+            for (Long id : ids) {
+                IndexedConfig doc = docs.get(id);
+                if (doc != null) {
+                    apply(id, doc.withStatus(status, updatedAt));
+                }
+            }
+        });
+    }
+
+    /**
+     * 按条件分页搜索，返回按(updatedAt, id)倒序排列的当前页配置ID与匹配总数
+     */
+    public SearchResult searchPage(String configKey, String groupName, String environment, String status,
+                                   String configType, Boolean encrypted, String keyword, int offset, int limit) {
+        return scan(configKey, groupName, environment, status, configType, encrypted, keyword,
+                null, null, offset, limit, true);
+    }
+
+    /**
+     * 按条件搜索游标之后的至多limit条记录，返回按(updatedAt, id)倒序排列的配置ID
+     */
+    public List<Long> searchAfter(String configKey, String groupName, String environment, String status,
+                                  String configType, Boolean encrypted, String keyword,
+                                  LocalDateTime cursorUpdatedAt, Long cursorId, int limit) {
+        return scan(configKey, groupName, environment, status, configType, encrypted, keyword,
+                cursorUpdatedAt, cursorId, 0, limit, false).getIds();
+    }
+
+    /**
+     * 候选集较小时过滤候选集并用有界堆保留前offset+limit条；否则按有序集合顺序扫描，
+     * 直接得到排好序的当前页，无需统计总数时取满即停
+     */
+    private SearchResult scan(String configKey, String groupName, String environment, String status,
+                              String configType, Boolean encrypted, String keyword,
+                              LocalDateTime cursorUpdatedAt, Long cursorId, int offset, int limit,
+                              boolean countTotal) {
+        String keyFilter = StringUtils.hasText(configKey) ? configKey.toLowerCase(Locale.ROOT) : null;
+        String keywordFilter = StringUtils.hasText(keyword) ? keyword.toLowerCase(Locale.ROOT) : null;
+        String groupFilter = StringUtils.hasText(groupName) ? groupName.toLowerCase(Locale.ROOT) : null;
+        Set<Long> candidates = candidates(keyFilter, keywordFilter);
+        if (candidates != null && candidates.isEmpty()) {
+            return new SearchResult(new ArrayList<>(), 0L);
+        }
+
+        long total = 0;
+        List<Long> ids = new ArrayList<>(Math.min(limit, 1024));
+        if (candidates != null && candidates.size() * SELECTIVE_CANDIDATE_RATIO <= docs.size()) {
+            int keep = (int) Math.min((long) offset + limit, Integer.MAX_VALUE);
+            // 堆顶为已保留记录中排序最靠后的一条
+            PriorityQueue<IndexedConfig> top = new PriorityQueue<>(Math.min(keep, candidates.size()) + 1,
+                    LATEST_FIRST.reversed());
+            for (Long id : candidates) {
+                IndexedConfig doc = docs.get(id);
+                if (doc == null || (cursorId != null && !isBefore(doc, cursorUpdatedAt, cursorId))
+                        || !matches(doc, keyFilter, keywordFilter, groupFilter,
+                                    environment, status, configType, encrypted)) {
+                    continue;
+                }
+                total++;
+                top.offer(doc);
+                if (top.size() > keep) {
+                    top.poll();
+                }
+            }
+            List<IndexedConfig> kept = new ArrayList<>(top);
+            kept.sort(LATEST_FIRST);
+            for (int i = offset; i < kept.size(); i++) {
+                ids.add(kept.get(i).id);
+            }
+            return new SearchResult(ids, total);
+        }
+
+        Iterable<IndexedConfig> walk = cursorId != null
+                ? ordered.tailSet(IndexedConfig.cursor(cursorUpdatedAt, cursorId), false) : ordered;
+        for (IndexedConfig doc : walk) {
+            if ((candidates != null && !candidates.contains(doc.id))
+                    || !matches(doc, keyFilter, keywordFilter, groupFilter,
+                                environment, status, configType, encrypted)) {
+                continue;
+            }
+            if (total >= offset && ids.size() < limit) {
+                ids.add(doc.id);
+            }
+            total++;
+            if (!countTotal && ids.size() >= limit) {
+                break;
+            }
+        }
+        return new SearchResult(ids, total);
+    }
+
+    private static boolean matches(IndexedConfig doc, String keyFilter, String keywordFilter, String groupFilter,
+                                   String environment, String status, String configType, Boolean encrypted) {
+        return (keyFilter == null || doc.keyText.contains(keyFilter))
+                && (keywordFilter == null || doc.keyText.contains(keywordFilter)
+                    || doc.descriptionText.contains(keywordFilter) || doc.tagsText.contains(keywordFilter))
+                && (groupFilter == null || doc.groupText.contains(groupFilter))
+                && (!StringUtils.hasText(environment) || environment.equals(doc.environment))
+                && (!StringUtils.hasText(status) || status.equals(doc.status))
+                && (!StringUtils.hasText(configType) || configType.equals(doc.configType))
+                && (encrypted == null || encrypted == doc.encrypted);
+    }
+
+    /**
+     * 取所有查询词三元组中倒排列表最短的一个作为候选集，查询词不足三个字符时返回null表示扫描全部文档
+     */
+    private Set<Long> candidates(String keyFilter, String keywordFilter) {
+        Set<Long> best = null;
+        for (String term : new String[] {keyFilter, keywordFilter}) {
+            if (term == null || term.length() < GRAM_SIZE) {
+                continue;
+            }
+            for (long gram : grams(term)) {
+                Set<Long> posting = postings.get(gram);
+                if (posting == null) {
+                    return Collections.emptySet();
+                }
+                if (best == null || posting.size() < best.size()) {
+                    best = posting;
+                }
+            }
+        }
+        return best;
+    }
+
+    private void apply(Long id, IndexedConfig doc) {
+        if (building) {
+            touchedDuringBuild.add(id);
+        }
+        IndexedConfig[] replaced = new IndexedConfig[1];
+        // 在同一配置ID的更新内替换有序集合中的文档，避免并发更新残留旧文档
+        docs.compute(id, (key, previousDoc) -> {
+            if (previousDoc != null) {
+                ordered.remove(previousDoc);
+            }
+            if (doc != null) {
+                ordered.add(doc);
+            }
+            replaced[0] = previousDoc;
+            return doc;
+        });
+        IndexedConfig previous = replaced[0];
+        Set<Long> oldGrams = previous != null ? grams(previous.searchText()) : Collections.emptySet();
+        Set<Long> newGrams = doc != null ? grams(doc.searchText()) : Collections.emptySet();
+        for (long gram : newGrams) {
+            if (!oldGrams.contains(gram)) {
+                postings.computeIfAbsent(gram, k -> ConcurrentHashMap.newKeySet()).add(id);
+            }
+        }
+        for (long gram : oldGrams) {
+            if (!newGrams.contains(gram)) {
+                postings.computeIfPresent(gram, (k, ids) -> {
+                    ids.remove(id);
+                    return ids.isEmpty() ? null : ids;
+                });
+            }
+        }
+    }
+
+    private void put(IndexedConfig doc) {
+        docs.put(doc.id, doc);
+        ordered.add(doc);
+        for (long gram : grams(doc.searchText())) {
+            postings.computeIfAbsent(gram, k -> ConcurrentHashMap.newKeySet()).add(doc.id);
+        }
+    }
+
+    /**
+     * 与LATEST_FIRST一致：更新时间为空的记录排在所有非空记录之后
+     */
+    private static boolean isBefore(IndexedConfig doc, LocalDateTime cursorUpdatedAt, Long cursorId) {
+        if (cursorUpdatedAt == null) {
+            return doc.updatedAt == null && doc.id < cursorId;
+        }
+        if (doc.updatedAt == null) {
+            return true;
+        }
+        int cmp = doc.updatedAt.compareTo(cursorUpdatedAt);
+        return cmp < 0 || (cmp == 0 && doc.id < cursorId);
+    }
+
+    /**
+     * 将文本切分为三元组，每个三元组的三个字符打包为一个long
+     */
+    private static Set<Long> grams(String text) {
+        if (text.length() < GRAM_SIZE) {
+            return Collections.emptySet();
+        }
+        Set<Long> grams = new HashSet<>(text.length() * 2);
+        for (int i = 0; i + GRAM_SIZE <= text.length(); i++) {
+            grams.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+        }
+        return grams;
+    }
+
+    /**
+     * 搜索结果：当前页配置ID与匹配总数
+     */
+    public static final class SearchResult {
+        private final List<Long> ids;
+        private final long total;
+
+        SearchResult(List<Long> ids, long total) {
+            this.ids = ids;
+            this.total = total;
+        }
+
+        public List<Long> getIds() { return ids; }
+        public long getTotal() { return total; }
+    }
+
+    /**
+     * 索引文档，仅保存搜索与过滤所需字段，文本统一转为小写
+     */
+    private static final class IndexedConfig {
+        private final Long id;
+        private final String keyText;
+        private final String descriptionText;
+        private final String tagsText;
+        private final String groupText;
+        private final String environment;
+        private final String status;
+        private final String configType;
+        private final boolean encrypted;
+        private final LocalDateTime updatedAt;
+
+        private IndexedConfig(Long id, String keyText, String descriptionText, String tagsText, String groupText,
+                              String environment, String status, String configType, boolean encrypted,
+                              LocalDateTime updatedAt) {
+            this.id = id;
+            this.keyText = keyText;
+            this.descriptionText = descriptionText;
+            this.tagsText = tagsText;
+            this.groupText = groupText;
+            this.environment = environment;
+            this.status = status;
+            this.configType = configType;
+            this.encrypted = encrypted;
+            this.updatedAt = updatedAt;
+        }
+
+        static IndexedConfig of(ConfigItem item) {
+            return new IndexedConfig(item.getId(), lower(item.getConfigKey()), lower(item.getDescription()),
+                    lower(item.getTags()), lower(item.getGroupName()), item.getEnvironment(), item.getStatus(),
+                    item.getConfigType(), Boolean.TRUE.equals(item.getEncrypted()), item.getUpdatedAt());
+        }
+
+        /**
+         * 游标位置，仅用于在有序集合中定位
+         */
+        static IndexedConfig cursor(LocalDateTime updatedAt, Long id) {
+            return new IndexedConfig(id, "", "", "", "", null, null, null, false, updatedAt);
+        }
+
+        static IndexedConfig merge(ConfigItem previous, ConfigItem changes) {
+            if (previous == null) {
+                IndexedConfig doc = of(changes);
+                return doc.updatedAt != null ? doc : doc.withStatus(doc.status, LocalDateTime.now());
+            }
+            return new IndexedConfig(previous.getId(),
+                    lower(pick(changes.getConfigKey(), previous.getConfigKey())),
+                    lower(pick(changes.getDescription(), previous.getDescription())),
+                    lower(pick(changes.getTags(), previous.getTags())),
+                    lower(pick(changes.getGroupName(), previous.getGroupName())),
+                    pick(changes.getEnvironment(), previous.getEnvironment()),
+                    pick(changes.getStatus(), previous.getStatus()),
+                    pick(changes.getConfigType(), previous.getConfigType()),
+                    Boolean.TRUE.equals(pick(changes.getEncrypted(), previous.getEncrypted())),
+                    // 与写入数据库行的更新时间一致，否则索引排序与客户端持有的游标不一致
+                    changes.getUpdatedAt() != null ? changes.getUpdatedAt() : LocalDateTime.now());
+        }
+
+        IndexedConfig withStatus(String newStatus, LocalDateTime newUpdatedAt) {
+            return new IndexedConfig(id, keyText, descriptionText, tagsText, groupText,
+                    environment, newStatus, configType, encrypted, newUpdatedAt);
+        }
+
+        String searchText() {
+            return keyText + '\n' + descriptionText + '\n' + tagsText;
+        }
+
+        private static <T> T pick(T value, T fallback) {
+            return value != null ? value : fallback;
+        }
+
+        private static String lower(String value) {
+            return value != null ? value.toLowerCase(Locale.ROOT) : "";
+        }
+    }
+}
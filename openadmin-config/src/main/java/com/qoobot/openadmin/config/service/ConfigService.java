@@ -2,8 +2,12 @@ package com.qoobot.openadmin.config.service;
 
 import com.qoobot.openadmin.config.dto.ConfigDTO;
 import com.qoobot.openadmin.config.entity.ConfigItem;
+import com.qoobot.openadmin.config.entity.ConfigOperationLog;
 import org.springframework.data.domain.Page;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 
@@ -28,6 +32,11 @@ public interface ConfigService {
      */
     void deleteConfig(Long id);
 
+    /**
+     * 批量删除配置项
+     */
+    void batchDeleteConfigs(List<Long> ids);
+
     /**
      * 根据ID获取配置项
      */
@@ -38,16 +47,68 @@ public interface ConfigService {
      */
     String getConfigValue(String configKey, String environment);
 
+    /**
+     * 根据配置键、环境及调用方标识获取配置值，存在灰度发布时按调用方分桶返回灰度值或稳定值
+     */
+    String getConfigValue(String configKey, String environment, String callerId);
+
+    /**
+     * 获取配置值的deflate压缩字节（zlib格式），可直接作为 Content-Encoding: deflate 的响应体；
+     * 配置不存在、未压缩或已加密时返回null，由调用方回退到明文读取
+     */
+    byte[] getCompressedConfigValue(String configKey, String environment, String callerId);
+
+    /**
+     * 获取整数配置，配置不存在时返回默认值
+     */
+    int getInt(String configKey, String environment, int defaultValue);
+
+    /**
+     * 获取长整数配置，配置不存在时返回默认值
+     */
+    long getLong(String configKey, String environment, long defaultValue);
+
+    /**
+     * 获取布尔配置，配置不存在时返回默认值
+     */
+    boolean getBoolean(String configKey, String environment, boolean defaultValue);
+
+    /**
+     * 获取时长配置，支持PT30S、500ms、30s、5m等格式，配置不存在时返回默认值
+     */
+    Duration getDuration(String configKey, String environment, Duration defaultValue);
+
+    /**
+     * 获取JSON配置并反序列化为指定类型，配置不存在时返回空
+     * 每次调用返回新的对象，调用方可以修改而不影响其他调用方
+     */
+    <T> T getJson(String configKey, String environment, Class<T> type);
+
+    /**
+     * 获取列表配置，支持JSON字符串数组或逗号分隔，配置不存在时返回空列表
+     */
+    List<String> getList(String configKey, String environment);
+
     /**
      * 批量获取配置值
      */
     Map<String, String> batchGetConfigValues(List<String> configKeys, String environment);
 
+    /**
+     * 按调用方标识批量获取配置值
+     */
+    Map<String, String> batchGetConfigValues(List<String> configKeys, String environment, String callerId);
+
     /**
      * 分页查询配置项
      */
     Page<ConfigDTO> getConfigsByPage(ConfigDTO.ConfigQuery query);
 
+    /**
+     * 基于游标滚动查询配置项，适用于深度翻页
+     */
+    ConfigDTO.ConfigScrollResult scrollConfigs(ConfigDTO.ConfigQuery query);
+
     /**
      * 根据分组获取配置项
      */
@@ -58,6 +119,16 @@ public interface ConfigService {
      */
     List<ConfigDTO> getConfigsByEnvironment(String environment);
 
+    /**
+     * 获取指定环境的最新修订号，用于全量列表的ETag
+     */
+    long getEnvironmentRevision(String environment);
+
+    /**
+     * 获取指定环境在某修订号之后的增量变更
+     */
+    ConfigDTO.ConfigDelta getConfigChanges(String environment, long sinceRevision);
+
     /**
      * 配置热更新
      */
@@ -73,10 +144,25 @@ public interface ConfigService {
      */
     void publishConfig(ConfigDTO.ConfigPublishRequest request);
 
+    /**
+     * 一组配置发布到多个目标环境，整组共用一个修订号
+     */
+    ConfigDTO.ConfigPublishResult publishConfigSet(ConfigDTO.ConfigPublishSetRequest request);
+
     /**
      * 配置灰度发布
      */
-    void grayReleaseConfig(ConfigDTO.ConfigPublishRequest request);
+    ConfigDTO grayReleaseConfig(ConfigDTO.ConfigPublishRequest request);
+
+    /**
+     * 灰度全量
+     */
+    ConfigDTO promoteGrayRelease(Long configId, String operator);
+
+    /**
+     * 终止灰度
+     */
+    ConfigDTO abortGrayRelease(Long configId, String operator);
 
     /**
      * 配置回滚
@@ -84,9 +170,9 @@ public interface ConfigService {
     ConfigDTO rollbackConfig(Long configId, Integer version, String operator);
 
     /**
-     * 获取配置历史版本
+     * 按版本号倒序分页获取配置历史版本
      */
-    List<ConfigDTO.ConfigVersion> getConfigHistory(Long configId);
+    List<ConfigDTO.ConfigVersion> getConfigHistory(Long configId, int page, int size);
 
     /**
      * 加密配置值
@@ -101,7 +187,7 @@ public interface ConfigService {
     /**
      * 获取配置操作日志
      */
-    List<Object> getConfigOperationLogs(Long configId, int page, int size);
+    List<ConfigOperationLog> getConfigOperationLogs(Long configId, int page, int size);
 
     /**
      * 验证配置权限
@@ -109,15 +195,50 @@ public interface ConfigService {
     boolean hasConfigPermission(String username, String configKey, String operation);
 
     /**
-     * 同步配置到Nacos
+     * 同步配置到Nacos，未配置远程配置中心时仅记录日志
      */
     void syncToNacos(Long configId);
 
     /**
-     * 从Nacos同步配置
+     * 从Nacos同步配置，未配置远程配置中心时仅记录日志
      */
     void syncFromNacos(String dataId, String group, String namespace);
 
+    /**
+     * 按分组校验和与外部配置中心增量同步整个环境
+     * @param direction PUSH 推送本地配置，PULL 拉取远程配置
+     * @throws IllegalStateException 未配置远程配置中心（RemoteConfigStore）
+     */
+    ConfigDTO.ConfigSyncResult syncConfigCenter(String environment, String direction);
+
+    /**
+     * 写入覆盖层配置，同一层中已存在该配置键时更新
+     */
+    ConfigDTO saveOverlayConfig(ConfigDTO.ConfigOverlayRequest request);
+
+    /**
+     * 删除覆盖层中的配置键
+     */
+    void removeOverlayConfig(String level, String environment, String application, String instanceId,
+                             String configKey);
+
+    /**
+     * 读取单个配置键在应用、环境及实例（可为空）下的生效值，按实例、应用、环境、全局的优先级取第一个存在的值
+     */
+    String getEffectiveValue(String configKey, String application, String environment, String instanceId,
+                             String callerId);
+
+    /**
+     * 读取应用在环境及实例（可为空）下的完整生效配置
+     */
+    ConfigDTO.EffectiveConfig getEffectiveConfig(String application, String environment, String instanceId,
+                                                 String callerId);
+
+    /**
+     * 构建环境的配置包，groups为空时包含全部分组；返回非灰度的明文值，按配置键排序
+     */
+    ConfigDTO.ConfigBundle getConfigBundle(String environment, List<String> groups);
+
     /**
      * 获取支持的环境列表
      */
@@ -133,11 +254,23 @@ public interface ConfigService {
      */
     String exportConfigs(ConfigDTO.ConfigQuery query);
 
+    /**
+     * 以NDJSON格式流式导出配置到输出流
+     * @return 导出的记录数
+     */
+    long exportConfigs(ConfigDTO.ConfigQuery query, OutputStream outputStream);
+
     /**
      * 导入配置
      */
     void importConfigs(String jsonData, String operator);
 
+    /**
+     * 从输入流分块导入配置，支持NDJSON或JSON数组格式
+     * @return 导入的记录数
+     */
+    int importConfigs(InputStream inputStream, String operator);
+
     /**
      * 配置备份
      */
@@ -1,15 +1,31 @@
 package com.qoobot.openadmin.config.service.impl;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.qoobot.openadmin.config.cache.ConfigItemCache;
+import com.qoobot.openadmin.config.catalog.ConfigCatalog;
+import com.qoobot.openadmin.config.codec.ConfigValueCodec;
 import com.qoobot.openadmin.config.dto.ConfigDTO;
 import com.qoobot.openadmin.config.entity.ConfigItem;
+import com.qoobot.openadmin.config.entity.ConfigOperationLog;
+import com.qoobot.openadmin.config.gray.GrayReleaseRule;
+import com.qoobot.openadmin.config.overlay.ConfigOverlayResolver;
+import com.qoobot.openadmin.config.overlay.ConfigScope;
 import com.qoobot.openadmin.config.repository.ConfigRepository;
 import com.qoobot.openadmin.config.service.ConfigService;
+import com.qoobot.openadmin.config.support.ConfigValueParsers;
+import com.qoobot.openadmin.config.sync.ConfigSyncEngine;
+import com.qoobot.openadmin.config.watch.ConfigWatchManager;
 import lombok.extern.slf4j.Slf4j;
 
 
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -18,9 +34,18 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -37,8 +62,44 @@ public class ConfigServiceImpl implements ConfigService {
     @Autowired
     private ObjectMapper objectMapper;
 
-    // 配置变更监听器注册表
-    private final Map<String, List<ConfigChangeListener>> listeners = new ConcurrentHashMap<>();
+    @Autowired
+    private ConfigWatchManager configWatchManager;
+
+    @Autowired
+    private ConfigCatalog configCatalog;
+
+    @Autowired
+    private ConfigSyncEngine configSyncEngine;
+
+    @Autowired
+    private ConfigItemCache configItemCache;
+
+    @Autowired
+    private ConfigOverlayResolver configOverlayResolver;
+
+    @Autowired
+    @Qualifier("configQueryExecutor")
+    private Executor configQueryExecutor;
+
+    // 分页查询默认及最大每页条数
+    private static final int DEFAULT_PAGE_SIZE = 10;
+    private static final int MAX_PAGE_SIZE = 500;
+
+    // 增量同步单次返回的最大变更条数
+    private static final int DELTA_PAGE_SIZE = 1000;
+
+    // 流式导入导出的分块大小
+    private static final int STREAM_CHUNK_SIZE = 500;
+
+    // 游标中更新时间与ID的分隔符
+    private static final String CURSOR_SEPARATOR = "|";
+
+    // 缓存项上解压结果及压缩字节的键，与类型化解析结果共用同一映射
+    private static final String INFLATED_VALUE_KEY = "inflated:value";
+    private static final String INFLATED_GRAY_KEY = "inflated:gray";
+    private static final String DEFLATED_VALUE_KEY = "deflated:value";
+    private static final String DEFLATED_GRAY_KEY = "deflated:gray";
+
 
     @Override
     @Transactional
@@ -84,8 +145,6 @@ public class ConfigServiceImpl implements ConfigService {
         ConfigItem existingItem = configRepository.findById(configDTO.getId())
                 .orElseThrow(() -> new IllegalArgumentException("配置项不存在"));
 
-        String oldValue = existingItem.getConfigValue();
-
         // 敏感配置处理
         if (shouldEncrypt(configDTO) && !Boolean.TRUE.equals(existingItem.getEncrypted())) {
             configDTO.setConfigValue(configRepository.encryptConfigValue(configDTO.getConfigValue()));
@@ -97,11 +156,9 @@ public class ConfigServiceImpl implements ConfigService {
         configItem.setCreatedAt(existingItem.getCreatedAt());
         configItem.setUpdatedAt(LocalDateTime.now());
 
+        // 保存后由仓储层在事务提交后异步触发配置变更监听
         ConfigItem updatedItem = configRepository.save(configItem);
 
-        // 触发配置变更监听
-        notifyConfigChange(configDTO.getConfigKey(), configDTO.getEnvironment(), oldValue, configDTO.getConfigValue());
-
         // 转换为DTO返回
         ConfigDTO result = convertToDTO(updatedItem);
 
@@ -116,6 +173,13 @@ public class ConfigServiceImpl implements ConfigService {
         log.info("删除配置项成功: id={}", id);
     }
 
+    @Override
+    @Transactional
+    public void batchDeleteConfigs(List<Long> ids) {
+        configRepository.deleteAllById(ids);
+        log.info("批量删除配置项成功: {} 个ID", ids != null ? ids.size() : 0);
+    }
+
     @Override
     public ConfigDTO getConfigById(Long id) {
         ConfigItem configItem = configRepository.findById(id)
@@ -125,18 +189,111 @@ public class ConfigServiceImpl implements ConfigService {
 
     @Override
     public String getConfigValue(String configKey, String environment) {
+        return getConfigValue(configKey, environment, null);
+    }
+
+    @Override
+    public String getConfigValue(String configKey, String environment, String callerId) {
         return configRepository.findByConfigKeyAndEnvironment(configKey, environment)
-                .map(this::decryptIfEncrypted)
+                .map(item -> resolveValue(item, callerId))
                 .orElse(null);
     }
 
+    @Override
+    public byte[] getCompressedConfigValue(String configKey, String environment, String callerId) {
+        ConfigItem item = configRepository.findByConfigKeyAndEnvironment(configKey, environment).orElse(null);
+        if (item == null || Boolean.TRUE.equals(item.getEncrypted())) {
+            return null;
+        }
+        boolean gray = isGrayCaller(item, callerId);
+        String stored = gray ? item.getGrayValue() : item.getConfigValue();
+        if (!ConfigValueCodec.isCompressed(stored)) {
+            return null;
+        }
+        return (byte[]) item.getParsedValues().computeIfAbsent(gray ? DEFLATED_GRAY_KEY : DEFLATED_VALUE_KEY,
+                k -> ConfigValueCodec.compressedBytes(stored));
+    }
+
+    @Override
+    public int getInt(String configKey, String environment, int defaultValue) {
+        Integer value = getParsedValue(configKey, environment, "int", ConfigValueParsers::parseInt);
+        return value != null ? value : defaultValue;
+    }
+
+    @Override
+    public long getLong(String configKey, String environment, long defaultValue) {
+        Long value = getParsedValue(configKey, environment, "long", ConfigValueParsers::parseLong);
+        return value != null ? value : defaultValue;
+    }
+
+    @Override
+    public boolean getBoolean(String configKey, String environment, boolean defaultValue) {
+        Boolean value = getParsedValue(configKey, environment, "boolean", ConfigValueParsers::parseBoolean);
+        return value != null ? value : defaultValue;
+    }
+
+    @Override
+    public Duration getDuration(String configKey, String environment, Duration defaultValue) {
+        Duration value = getParsedValue(configKey, environment, "duration", ConfigValueParsers::parseDuration);
+        return value != null ? value : defaultValue;
+    }
+
+    @Override
+    public <T> T getJson(String configKey, String environment, Class<T> type) {
+        // 缓存只读的JSON树，每次调用转换为新的对象，调用方修改返回值不影响共享缓存
+        JsonNode tree = getParsedValue(configKey, environment, "json", raw -> {
+            try {
+                JsonNode node = objectMapper.readTree(raw);
+                if (node == null || node.isMissingNode()) {
+                    throw new IllegalArgumentException("不是有效的JSON: " + configKey);
+                }
+                return node;
+            } catch (IOException e) {
+                throw new IllegalArgumentException("不是有效的JSON: " + configKey, e);
+            }
+        });
+        if (tree == null) {
+            return null;
+        }
+        try {
+            return objectMapper.treeToValue(tree, type);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("JSON配置无法转换为" + type.getSimpleName() + ": " + configKey, e);
+        }
+    }
+
+    @Override
+    public List<String> getList(String configKey, String environment) {
+        List<String> value = getParsedValue(configKey, environment, "list", raw -> {
+            if (!raw.trim().startsWith("[")) {
+                return ConfigValueParsers.parseList(raw);
+            }
+            try {
+                return List.of(objectMapper.readValue(raw, String[].class));
+            } catch (IOException e) {
+                throw new IllegalArgumentException("不是有效的JSON数组: " + configKey, e);
+            }
+        });
+        return value != null ? value : Collections.emptyList();
+    }
+
     @Override
     public Map<String, String> batchGetConfigValues(List<String> configKeys, String environment) {
+        return batchGetConfigValues(configKeys, environment, null);
+    }
+
+    @Override
+    public Map<String, String> batchGetConfigValues(List<String> configKeys, String environment, String callerId) {
         Map<String, String> result = new HashMap<>();
-        for (String configKey : configKeys) {
-            String value = getConfigValue(configKey, environment);
+        if (configKeys == null || configKeys.isEmpty()) {
+            return result;
+        }
+        // 一次批量查询获取所有配置项，避免逐个键访问数据库
+        Map<String, ConfigItem> items = configRepository.findAllByKeysAndEnvironment(configKeys, environment);
+        for (Map.Entry<String, ConfigItem> entry : items.entrySet()) {
+            String value = resolveValue(entry.getValue(), callerId);
             if (value != null) {
-                result.put(configKey, value);
+                result.put(entry.getKey(), value);
             }
         }
         return result;
@@ -144,9 +301,29 @@ public class ConfigServiceImpl implements ConfigService {
 
     @Override
     public Page<ConfigDTO> getConfigsByPage(ConfigDTO.ConfigQuery query) {
-        Pageable pageable = PageRequest.of(query.getPage(), query.getSize());
-        
-        List<ConfigItem> items = configRepository.findByCondition(
+        int page = query.getPage() != null ? Math.max(query.getPage(), 0) : 0;
+        Pageable pageable = PageRequest.of(page, normalizePageSize(query.getSize()));
+        if (pageable.getOffset() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("分页偏移量过大，请使用游标分页");
+        }
+
+        // 模糊查询优先由搜索索引一次得到当前页与总数
+        Optional<Page<ConfigItem>> indexed = configRepository.searchPageByCondition(
+                query.getConfigKey(),
+                query.getGroupName(),
+                query.getEnvironment(),
+                query.getStatus(),
+                query.getConfigType(),
+                query.getEncrypted(),
+                query.getKeyword(),
+                pageable
+        );
+        if (indexed.isPresent()) {
+            return indexed.get().map(this::convertToDTO);
+        }
+
+        // 总数统计与分页查询并行执行
+        CompletableFuture<Long> totalFuture = CompletableFuture.supplyAsync(() -> configRepository.countByCondition(
                 query.getConfigKey(),
                 query.getGroupName(),
                 query.getEnvironment(),
@@ -154,18 +331,72 @@ public class ConfigServiceImpl implements ConfigService {
                 query.getConfigType(),
                 query.getEncrypted(),
                 query.getKeyword()
+        ), configQueryExecutor);
+
+        List<ConfigItem> items = configRepository.findPageByCondition(
+                query.getConfigKey(),
+                query.getGroupName(),
+                query.getEnvironment(),
+                query.getStatus(),
+                query.getConfigType(),
+                query.getEncrypted(),
+                query.getKeyword(),
+                (int) pageable.getOffset(),
+                pageable.getPageSize()
         );
 
-        List<ConfigDTO> dtos = items.stream()
+        List<ConfigDTO> pageContent = items.stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
 
-        // 简化分页实现
-        int start = (int) pageable.getOffset();
-        int end = Math.min(start + pageable.getPageSize(), dtos.size());
-        List<ConfigDTO> pageContent = dtos.subList(start, end);
-        
-        return new PageImpl<>(pageContent, pageable, dtos.size());
+        return new PageImpl<>(pageContent, pageable, totalFuture.join());
+    }
+
+    @Override
+    public ConfigDTO.ConfigScrollResult scrollConfigs(ConfigDTO.ConfigQuery query) {
+        int size = normalizePageSize(query.getSize());
+        LocalDateTime cursorUpdatedAt = null;
+        Long cursorId = null;
+        if (StringUtils.hasText(query.getCursor())) {
+            String[] cursor = decodeCursor(query.getCursor());
+            try {
+                // 更新时间为空的记录排在最后，游标中以空串表示
+                cursorUpdatedAt = cursor[0].isEmpty() ? null : LocalDateTime.parse(cursor[0]);
+                cursorId = Long.valueOf(cursor[1]);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("无效的分页游标", e);
+            }
+        }
+
+        // 多取一条用于判断是否还有下一页
+        List<ConfigItem> items = configRepository.findByConditionAfter(
+                query.getConfigKey(),
+                query.getGroupName(),
+                query.getEnvironment(),
+                query.getStatus(),
+                query.getConfigType(),
+                query.getEncrypted(),
+                query.getKeyword(),
+                cursorUpdatedAt,
+                cursorId,
+                size + 1
+        );
+
+        boolean hasMore = items.size() > size;
+        if (hasMore) {
+            items = items.subList(0, size);
+        }
+
+        ConfigDTO.ConfigScrollResult result = new ConfigDTO.ConfigScrollResult();
+        result.setContent(items.stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList()));
+        result.setHasMore(hasMore);
+        if (hasMore) {
+            ConfigItem last = items.get(items.size() - 1);
+            result.setNextCursor(encodeCursor(last.getUpdatedAt(), last.getId()));
+        }
+        return result;
     }
 
     @Override
@@ -184,6 +415,58 @@ public class ConfigServiceImpl implements ConfigService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public long getEnvironmentRevision(String environment) {
+        return configRepository.getEnvironmentRevision(environment);
+    }
+
+    @Override
+    public ConfigDTO.ConfigDelta getConfigChanges(String environment, long sinceRevision) {
+        ConfigScope.requireEnvironment(environment);
+        // 多取一条用于判断是否还有更多变更
+        List<ConfigItem> changes = configRepository.findChangesSince(environment, sinceRevision, null, DELTA_PAGE_SIZE + 1);
+        boolean hasMore = changes.size() > DELTA_PAGE_SIZE;
+        if (hasMore) {
+            // 同一修订号的变更必须在同一批返回，否则下次以该修订号续传会遗漏
+            long lastRevision = changes.get(DELTA_PAGE_SIZE - 1).getRevision();
+            if (changes.get(0).getRevision() == lastRevision) {
+                changes = configRepository.findChangesSince(environment, sinceRevision, lastRevision, 0);
+            } else {
+                int end = DELTA_PAGE_SIZE;
+                while (changes.get(end - 1).getRevision() == lastRevision) {
+                    end--;
+                }
+                changes = changes.subList(0, end);
+            }
+        }
+
+        // 按修订号顺序合并，同一配置键只保留最新状态
+        Map<String, ConfigItem> latest = new LinkedHashMap<>();
+        for (ConfigItem item : changes) {
+            latest.remove(item.getConfigKey());
+            latest.put(item.getConfigKey(), item);
+        }
+
+        List<ConfigDTO> upserts = new ArrayList<>();
+        List<String> deletedKeys = new ArrayList<>();
+        for (ConfigItem item : latest.values()) {
+            if (Boolean.TRUE.equals(item.getDeleted())) {
+                deletedKeys.add(item.getConfigKey());
+            } else {
+                upserts.add(convertToDTO(item));
+            }
+        }
+
+        ConfigDTO.ConfigDelta delta = new ConfigDTO.ConfigDelta();
+        delta.setEnvironment(environment);
+        delta.setSinceRevision(sinceRevision);
+        delta.setRevision(changes.isEmpty() ? sinceRevision : changes.get(changes.size() - 1).getRevision());
+        delta.setHasMore(hasMore);
+        delta.setUpserts(upserts);
+        delta.setDeletedKeys(deletedKeys);
+        return delta;
+    }
+
     @Override
     public void hotReloadConfig(Long configId) {
         ConfigItem configItem = configRepository.findById(configId)
@@ -214,15 +497,42 @@ public class ConfigServiceImpl implements ConfigService {
 
     @Override
     @Transactional
-    public void grayReleaseConfig(ConfigDTO.ConfigPublishRequest request) {
-        configRepository.grayReleaseConfig(
+    public ConfigDTO.ConfigPublishResult publishConfigSet(ConfigDTO.ConfigPublishSetRequest request) {
+        ConfigDTO.ConfigPublishResult result = configRepository.publishConfigSet(
+                request.getConfigIds(),
+                request.getTargetEnvironments(),
+                request.getPublisher()
+        );
+        log.info("配置集合发布成功: {} 个配置, targetEnvs={}, revision={}",
+                request.getConfigIds().size(), request.getTargetEnvironments(), result.getRevision());
+        return result;
+    }
+
+    @Override
+    @Transactional
+    public ConfigDTO grayReleaseConfig(ConfigDTO.ConfigPublishRequest request) {
+        ConfigItem item = configRepository.grayReleaseConfig(
                 request.getConfigId(),
                 request.getTargetEnvironment(),
+                request.getGrayValue(),
                 request.getGrayRatio(),
                 request.getPublisher()
         );
         log.info("配置灰度发布: configId={}, ratio={}", 
                 request.getConfigId(), request.getGrayRatio());
+        return convertToDTO(item);
+    }
+
+    @Override
+    @Transactional
+    public ConfigDTO promoteGrayRelease(Long configId, String operator) {
+        return convertToDTO(configRepository.promoteGrayRelease(configId, operator));
+    }
+
+    @Override
+    @Transactional
+    public ConfigDTO abortGrayRelease(Long configId, String operator) {
+        return convertToDTO(configRepository.abortGrayRelease(configId, operator));
     }
 
     @Override
@@ -237,14 +547,17 @@ public class ConfigServiceImpl implements ConfigService {
     }
 
     @Override
-    public List<ConfigDTO.ConfigVersion> getConfigHistory(Long configId) {
-        List<ConfigItem> historyItems = configRepository.findHistoryVersions(configId);
+    public List<ConfigDTO.ConfigVersion> getConfigHistory(Long configId, int page, int size) {
+        List<ConfigItem> historyItems = configRepository.findHistoryVersions(
+                configId, Math.max(page, 0), normalizePageSize(size));
         return historyItems.stream()
                 .map(item -> {
                     ConfigDTO.ConfigVersion version = new ConfigDTO.ConfigVersion();
                     version.setConfigId(item.getId());
                     version.setVersion(item.getVersion());
-                    version.setConfigValue(decryptIfEncrypted(item));
+                    // 历史版本中未加密的值已是解压后的明文
+                    version.setConfigValue(Boolean.TRUE.equals(item.getEncrypted())
+                            ? configRepository.decryptConfigValue(item.getConfigValue()) : item.getConfigValue());
                     version.setDescription(item.getDescription());
                     version.setUpdatedBy(item.getUpdatedBy());
                     version.setUpdatedAt(item.getUpdatedAt());
@@ -264,8 +577,8 @@ public class ConfigServiceImpl implements ConfigService {
     }
 
     @Override
-    public List<Object> getConfigOperationLogs(Long configId, int page, int size) {
-        return configRepository.getConfigOperationLogs(configId, page, size);
+    public List<ConfigOperationLog> getConfigOperationLogs(Long configId, int page, int size) {
+        return configRepository.getConfigOperationLogs(configId, Math.max(page, 0), normalizePageSize(size));
     }
 
     @Override
@@ -275,12 +588,133 @@ public class ConfigServiceImpl implements ConfigService {
 
     @Override
     public void syncToNacos(Long configId) {
-        configRepository.syncToNacos(configId);
+        if (!configSyncEngine.isRemoteConfigured()) {
+            log.info("未配置远程配置中心，跳过同步配置到Nacos: configId={}", configId);
+            return;
+        }
+        configSyncEngine.pushConfig(configId);
     }
 
     @Override
     public void syncFromNacos(String dataId, String group, String namespace) {
-        configRepository.syncFromNacos(dataId, group, namespace);
+        if (!configSyncEngine.isRemoteConfigured()) {
+            log.info("未配置远程配置中心，跳过从Nacos同步配置: dataId={}, group={}, namespace={}",
+                    dataId, group, namespace);
+            return;
+        }
+        configSyncEngine.pullConfig(dataId, group, namespace);
+    }
+
+    @Override
+    public ConfigDTO.ConfigSyncResult syncConfigCenter(String environment, String direction) {
+        if (ConfigSyncEngine.DIRECTION_PUSH.equalsIgnoreCase(direction)) {
+            return configSyncEngine.push(environment);
+        }
+        if (ConfigSyncEngine.DIRECTION_PULL.equalsIgnoreCase(direction)) {
+            return configSyncEngine.pull(environment);
+        }
+        throw new IllegalArgumentException("不支持的同步方向: " + direction);
+    }
+
+    @Override
+    @Transactional
+    public ConfigDTO saveOverlayConfig(ConfigDTO.ConfigOverlayRequest request) {
+        ConfigScope scope = ConfigScope.of(request.getLevel(), request.getEnvironment(),
+                request.getApplication(), request.getInstanceId());
+        ConfigDTO configDTO = new ConfigDTO();
+        configDTO.setConfigKey(request.getConfigKey());
+        configDTO.setConfigValue(request.getConfigValue());
+        configDTO.setConfigType(StringUtils.hasText(request.getConfigType()) ? request.getConfigType() : "STRING");
+        configDTO.setDescription(request.getDescription());
+        configDTO.setEnvironment(scope.getLayerEnvironment());
+        configDTO.setUpdatedBy(request.getOperator());
+
+        Optional<ConfigItem> existing = configRepository.findByConfigKeyAndEnvironment(
+                request.getConfigKey(), scope.getLayerEnvironment());
+        if (existing.isPresent()) {
+            ConfigItem current = existing.get();
+            configDTO.setId(current.getId());
+            configDTO.setGroupId(current.getGroupId());
+            configDTO.setGroupName(current.getGroupName());
+            configDTO.setTags(current.getTags());
+            configDTO.setCreatedBy(current.getCreatedBy());
+            return updateConfig(configDTO);
+        }
+        configDTO.setCreatedBy(request.getOperator());
+        return createConfig(configDTO);
+    }
+
+    @Override
+    @Transactional
+    public void removeOverlayConfig(String level, String environment, String application, String instanceId,
+                                    String configKey) {
+        ConfigScope scope = ConfigScope.of(level, environment, application, instanceId);
+        ConfigItem item = configRepository.findByConfigKeyAndEnvironment(configKey, scope.getLayerEnvironment())
+                .orElseThrow(() -> new IllegalArgumentException("覆盖层中不存在该配置键: " + configKey));
+        configRepository.deleteById(item.getId());
+        log.info("删除覆盖层配置: {} - {}", configKey, scope);
+    }
+
+    @Override
+    public String getEffectiveValue(String configKey, String application, String environment, String instanceId,
+                                    String callerId) {
+        ConfigItem item = configOverlayResolver.resolve(configKey, application, environment, instanceId);
+        return item != null ? resolveValue(item, callerId) : null;
+    }
+
+    @Override
+    public ConfigDTO.EffectiveConfig getEffectiveConfig(String application, String environment, String instanceId,
+                                                        String callerId) {
+        ConfigOverlayResolver.Resolved resolved =
+                configOverlayResolver.resolveAll(application, environment, instanceId);
+        ConfigDTO.EffectiveConfig result = new ConfigDTO.EffectiveConfig();
+        result.setApplication(application);
+        result.setEnvironment(environment);
+        result.setInstanceId(instanceId);
+        result.setRevision(resolved.getRevision());
+        Map<String, ConfigItem> sorted = new TreeMap<>(resolved.getItems());
+        for (Map.Entry<String, ConfigItem> entry : sorted.entrySet()) {
+            ConfigItem item = entry.getValue();
+            result.getValues().put(entry.getKey(), resolveValue(item, callerId));
+            ConfigScope scope = ConfigScope.tryParse(item.getEnvironment());
+            result.getSources().put(entry.getKey(), scope != null ? scope.getLevel().name() : null);
+        }
+        return result;
+    }
+
+    @Override
+    public ConfigDTO.ConfigBundle getConfigBundle(String environment, List<String> groups) {
+        ConfigScope.requireEnvironment(environment);
+        Set<String> groupFilter = groups == null || groups.isEmpty() ? null : new TreeSet<>(groups);
+        List<ConfigItem> items = new ArrayList<>(configRepository.findByEnvironment(environment));
+        items.sort(Comparator.comparing(ConfigItem::getConfigKey));
+
+        ConfigDTO.ConfigBundle bundle = new ConfigDTO.ConfigBundle();
+        bundle.setEnvironment(environment);
+        bundle.setGroups(groupFilter != null ? new ArrayList<>(groupFilter) : null);
+        long revision = 0;
+        for (ConfigItem item : items) {
+            if (groupFilter != null && !groupFilter.contains(item.getGroupName())) {
+                continue;
+            }
+            ConfigDTO.BundleEntry entry = new ConfigDTO.BundleEntry();
+            entry.setKey(item.getConfigKey());
+            entry.setValue(resolveValue(item, null));
+            entry.setType(item.getConfigType());
+            entry.setRevision(item.getRevision());
+            // 灰度中的配置附带灰度值与分桶参数，客户端按相同规则在本地判定
+            if (item.getGrayValue() != null && item.getGrayReleaseId() != null && item.getGrayRatio() != null) {
+                entry.setGrayValue(plainValue(item, true));
+                entry.setGrayReleaseId(item.getGrayReleaseId());
+                entry.setGrayRatio(item.getGrayRatio());
+            }
+            bundle.getEntries().add(entry);
+            if (item.getRevision() != null) {
+                revision = Math.max(revision, item.getRevision());
+            }
+        }
+        bundle.setRevision(revision);
+        return bundle;
     }
 
     @Override
@@ -317,17 +751,69 @@ public class ConfigServiceImpl implements ConfigService {
         }
     }
 
+    @Override
+    public long exportConfigs(ConfigDTO.ConfigQuery query, OutputStream outputStream) {
+        long[] exported = {0};
+        try {
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            try (SequenceWriter writer = objectMapper.writerFor(ConfigDTO.class)
+                    .withRootValueSeparator("\n")
+                    .writeValues(generator)) {
+                configRepository.scanByCondition(
+                        query.getConfigKey(),
+                        query.getGroupName(),
+                        query.getEnvironment(),
+                        query.getStatus(),
+                        query.getConfigType(),
+                        query.getEncrypted(),
+                        query.getKeyword(),
+                        item -> {
+                            try {
+                                writer.write(convertToDTO(item));
+                                if (++exported[0] % STREAM_CHUNK_SIZE == 0) {
+                                    writer.flush();
+                                }
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                        });
+            }
+            log.info("流式导出配置成功: {} 条记录", exported[0]);
+            return exported[0];
+        } catch (Exception e) {
+            log.error("导出配置失败", e);
+            throw new RuntimeException("导出配置失败", e);
+        }
+    }
+
     @Override
     @Transactional
     public void importConfigs(String jsonData, String operator) {
-        try {
-            List<ConfigDTO> configs = Arrays.asList(objectMapper.readValue(jsonData, ConfigDTO[].class));
-            for (ConfigDTO configDTO : configs) {
+        importConfigs(new ByteArrayInputStream(jsonData.getBytes(StandardCharsets.UTF_8)), operator);
+    }
+
+    @Override
+    @Transactional
+    public int importConfigs(InputStream inputStream, String operator) {
+        int imported = 0;
+        try (MappingIterator<ConfigDTO> iterator = objectMapper.readerFor(ConfigDTO.class).readValues(inputStream)) {
+            List<ConfigDTO> chunk = new ArrayList<>(STREAM_CHUNK_SIZE);
+            while (iterator.hasNextValue()) {
+                ConfigDTO configDTO = iterator.nextValue();
                 configDTO.setCreatedBy(operator);
                 configDTO.setUpdatedBy(operator);
-                createConfig(configDTO);
+                chunk.add(configDTO);
+                if (chunk.size() >= STREAM_CHUNK_SIZE) {
+                    imported += importChunk(chunk);
+                    chunk.clear();
+                }
             }
-            log.info("导入配置成功: {} 条记录", configs.size());
+            if (!chunk.isEmpty()) {
+                imported += importChunk(chunk);
+            }
+            log.info("导入配置成功: {} 条记录", imported);
+            return imported;
         } catch (Exception e) {
             log.error("导入配置失败", e);
             throw new RuntimeException("导入配置失败", e);
@@ -348,12 +834,11 @@ public class ConfigServiceImpl implements ConfigService {
 
     @Override
     public Map<String, Object> getConfigStatistics() {
-        Map<String, Object> stats = new HashMap<>();
-        stats.put("total", configRepository.count());
-        stats.put("environments", getEnvironments());
-        stats.put("groups", getConfigGroups());
-        stats.put("encrypted", configRepository.countByCondition(null, null, null, null, null, true, null));
-        return stats;
+        // 统计数据由配置目录增量维护，不再逐次执行COUNT查询
+        Map<String, Object> statistics = new LinkedHashMap<>(configCatalog.getStatistics());
+        statistics.put("cache", configItemCache.getStatistics());
+        statistics.put("overlay", configOverlayResolver.getStatistics());
+        return statistics;
     }
 
     @Override
@@ -365,15 +850,18 @@ public class ConfigServiceImpl implements ConfigService {
         try {
             switch (configType.toUpperCase()) {
                 case "NUMBER":
-                    Double.parseDouble(configValue);
+                    ConfigValueParsers.parseNumber(configValue);
                     break;
                 case "BOOLEAN":
-                    if (!"true".equalsIgnoreCase(configValue) && !"false".equalsIgnoreCase(configValue)) {
-                        return false;
-                    }
+                    ConfigValueParsers.parseBoolean(configValue);
                     break;
                 case "JSON":
-                    objectMapper.readTree(configValue);
+                    // 流式扫描校验语法，不构建丢弃的树
+                    try (JsonParser parser = objectMapper.getFactory().createParser(configValue)) {
+                        while (parser.nextToken() != null) {
+                            // 逐个读取token
+                        }
+                    }
                     break;
                 default:
                     // STRING类型无需特殊验证
@@ -387,11 +875,35 @@ public class ConfigServiceImpl implements ConfigService {
 
     @Override
     public void monitorConfigChanges(String configKey, String environment, ConfigChangeListener listener) {
-        String key = configKey + ":" + environment;
-        listeners.computeIfAbsent(key, k -> new ArrayList<>()).add(listener);
+        configWatchManager.addListener(configKey, environment, listener);
     }
 
     // 私有辅助方法
+    private int normalizePageSize(Integer size) {
+        if (size == null || size <= 0) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(size, MAX_PAGE_SIZE);
+    }
+
+    private String encodeCursor(LocalDateTime updatedAt, Long id) {
+        String raw = (updatedAt != null ? updatedAt.toString() : "") + CURSOR_SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separatorIndex = raw.lastIndexOf(CURSOR_SEPARATOR);
+            if (separatorIndex < 0) {
+                throw new IllegalArgumentException("无效的分页游标");
+            }
+            return new String[] {raw.substring(0, separatorIndex), raw.substring(separatorIndex + 1)};
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("无效的分页游标", e);
+        }
+    }
+
     private void validateConfigDTO(ConfigDTO configDTO) {
         if (!StringUtils.hasText(configDTO.getConfigKey())) {
             throw new IllegalArgumentException("配置键不能为空");
@@ -404,6 +916,45 @@ public class ConfigServiceImpl implements ConfigService {
         }
     }
 
+    /**
+     * 导入一个数据块：逐项校验与加密，按环境批量检查重复，最后批量插入。
+     * 块内重复在内存中检查；之前的块已在同一事务中插入，与它们的重复由数据库检查发现，
+     * 因此内存占用只与块大小有关
+     */
+    private int importChunk(List<ConfigDTO> chunk) {
+        Set<String> chunkKeys = new HashSet<>(chunk.size() * 2);
+        Map<String, List<String>> keysByEnvironment = new HashMap<>();
+        for (ConfigDTO configDTO : chunk) {
+            validateConfigDTO(configDTO);
+            if (!chunkKeys.add(configDTO.getConfigKey() + ":" + configDTO.getEnvironment())) {
+                throw new IllegalArgumentException("导入数据中存在重复的配置键: " + configDTO.getConfigKey());
+            }
+            keysByEnvironment.computeIfAbsent(configDTO.getEnvironment(), k -> new ArrayList<>())
+                    .add(configDTO.getConfigKey());
+        }
+
+        for (Map.Entry<String, List<String>> entry : keysByEnvironment.entrySet()) {
+            Set<String> existingKeys = configRepository.findExistingConfigKeys(entry.getValue(), entry.getKey());
+            if (!existingKeys.isEmpty()) {
+                throw new IllegalArgumentException("配置键已存在: " + existingKeys.iterator().next());
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<ConfigItem> items = new ArrayList<>(chunk.size());
+        for (ConfigDTO configDTO : chunk) {
+            if (shouldEncrypt(configDTO)) {
+                configDTO.setConfigValue(configRepository.encryptConfigValue(configDTO.getConfigValue()));
+                configDTO.setEncrypted(true);
+            }
+            ConfigItem item = convertToEntity(configDTO);
+            item.setCreatedAt(now);
+            item.setUpdatedAt(now);
+            items.add(item);
+        }
+        return configRepository.insertAll(items);
+    }
+
     private boolean shouldEncrypt(ConfigDTO configDTO) {
         // 根据配置键判断是否需要加密
         String key = configDTO.getConfigKey().toLowerCase();
@@ -411,11 +962,70 @@ public class ConfigServiceImpl implements ConfigService {
                key.contains("key") || key.contains("credential");
     }
 
-    private String decryptIfEncrypted(ConfigItem item) {
-        if (Boolean.TRUE.equals(item.getEncrypted())) {
-            return configRepository.decryptConfigValue(item.getConfigValue());
+    /**
+     * 读取并解析配置值，解析结果按类型缓存在配置缓存项上，
+     * 配置变更导致缓存项失效或替换时解析结果随之丢弃，无需单独失效。
+     * 格式错误时抛出IllegalArgumentException且不缓存
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T getParsedValue(String configKey, String environment, String typeKey, Function<String, T> parser) {
+        ConfigItem item = configRepository.findByConfigKeyAndEnvironment(configKey, environment).orElse(null);
+        if (item == null) {
+            return null;
+        }
+        Map<String, Object> parsedValues = item.getParsedValues();
+        Object value = parsedValues.get(typeKey);
+        if (value == null) {
+            String raw = resolveValue(item, null);
+            if (raw == null) {
+                return null;
+            }
+            value = parser.apply(raw);
+            parsedValues.put(typeKey, value);
+        }
+        return (T) value;
+    }
+
+    /**
+     * 选择调用方可见的配置值：命中灰度桶返回灰度值，否则返回稳定值。
+     * 分桶规则随缓存项构建一次，判定过程不访问数据库
+     */
+    private String resolveValue(ConfigItem item, String callerId) {
+        return plainValue(item, isGrayCaller(item, callerId));
+    }
+
+    /**
+     * 灰度值或稳定值的明文
+     */
+    private String plainValue(ConfigItem item, boolean gray) {
+        String value = gray ? item.getGrayValue() : item.getConfigValue();
+        if (value != null && Boolean.TRUE.equals(item.getEncrypted())) {
+            return configRepository.decryptConfigValue(value);
         }
-        return item.getConfigValue();
+        return inflate(item, value, gray ? INFLATED_GRAY_KEY : INFLATED_VALUE_KEY);
+    }
+
+    private boolean isGrayCaller(ConfigItem item, String callerId) {
+        if (callerId == null || item.getGrayValue() == null) {
+            return false;
+        }
+        GrayReleaseRule rule = item.getGrayRule();
+        if (rule == null) {
+            rule = GrayReleaseRule.of(item.getGrayReleaseId(), item.getGrayRatio());
+            item.setGrayRule(rule);
+        }
+        return rule.isGray(callerId);
+    }
+
+    /**
+     * 解压未加密的存储值，缓存项保存压缩形式，首次读取时解压一次并挂在缓存项上。
+     * 加密值的明文不挂在缓存项上，仍由加解密引擎短时缓存
+     */
+    private static String inflate(ConfigItem item, String stored, String cacheKey) {
+        if (!ConfigValueCodec.isCompressed(stored)) {
+            return stored;
+        }
+        return (String) item.getParsedValues().computeIfAbsent(cacheKey, k -> ConfigValueCodec.decode(stored));
     }
 
     private String decryptIfEncrypted(ConfigDTO dto) {
@@ -434,20 +1044,10 @@ public class ConfigServiceImpl implements ConfigService {
     private ConfigDTO convertToDTO(ConfigItem item) {
         ConfigDTO dto = new ConfigDTO();
         BeanUtils.copyProperties(item, dto);
-        return dto;
-    }
-
-    private void notifyConfigChange(String configKey, String environment, String oldValue, String newValue) {
-        String key = configKey + ":" + environment;
-        List<ConfigChangeListener> configListeners = listeners.get(key);
-        if (configListeners != null) {
-            for (ConfigChangeListener listener : configListeners) {
-                try {
-                    listener.onConfigChanged(configKey, environment, oldValue, newValue);
-                } catch (Exception e) {
-                    log.error("配置变更监听器执行失败", e);
-                }
-            }
+        if (!Boolean.TRUE.equals(item.getEncrypted())) {
+            dto.setConfigValue(inflate(item, item.getConfigValue(), INFLATED_VALUE_KEY));
+            dto.setGrayValue(inflate(item, item.getGrayValue(), INFLATED_GRAY_KEY));
         }
+        return dto;
     }
 }
\ No newline at end of file
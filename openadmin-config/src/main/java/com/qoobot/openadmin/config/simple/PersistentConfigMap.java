@@ -0,0 +1,373 @@
+package com.qoobot.openadmin.config.simple;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * 不可变持久化映射（哈希数组映射前缀树，HAMT）
+ * 每次修改只复制根到叶子路径上的节点，其余节点在新旧版本之间共享，
+ * 因此旧版本可以被并发读取而无需加锁或整体复制。
+ * 作为 {@link Map} 使用时为只读视图，修改操作抛出 UnsupportedOperationException，键与值均不能为空
+ */
+public final class PersistentConfigMap<V> extends AbstractMap<String, V> {
+
+    private static final PersistentConfigMap<?> EMPTY = new PersistentConfigMap<>(null, 0);
+
+    private final Node root;
+    private final int size;
+    private Set<Map.Entry<String, V>> entrySet;
+
+    private PersistentConfigMap(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <V> PersistentConfigMap<V> empty() {
+        return (PersistentConfigMap<V>) EMPTY;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        if (root == null || !(key instanceof String)) {
+            return null;
+        }
+        return (V) root.find(0, hash(key), key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 返回包含新键值的映射，当前映射不变
+     */
+    public PersistentConfigMap<V> plus(String key, V value) {
+        if (key == null || value == null) {
+            throw new IllegalArgumentException("键和值不能为空");
+        }
+        boolean[] added = new boolean[1];
+        Node start = root != null ? root : BitmapNode.EMPTY;
+        Node newRoot = start.assoc(0, hash(key), key, value, added);
+        if (newRoot == root) {
+            return this;
+        }
+        return new PersistentConfigMap<>(newRoot, added[0] ? size + 1 : size);
+    }
+
+    /**
+     * 返回移除指定键后的映射，当前映射不变
+     */
+    public PersistentConfigMap<V> minus(String key) {
+        if (root == null || key == null) {
+            return this;
+        }
+        Node newRoot = root.without(0, hash(key), key);
+        if (newRoot == root) {
+            return this;
+        }
+        return new PersistentConfigMap<>(newRoot, size - 1);
+    }
+
+    @Override
+    public Set<Map.Entry<String, V>> entrySet() {
+        Set<Map.Entry<String, V>> entries = entrySet;
+        if (entries == null) {
+            entries = new AbstractSet<>() {
+                @Override
+                public Iterator<Map.Entry<String, V>> iterator() {
+                    return new EntryIterator<>(root);
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+            entrySet = entries;
+        }
+        return entries;
+    }
+
+    private static int hash(Object key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private static int bitFor(int hash, int shift) {
+        return 1 << ((hash >>> shift) & 31);
+    }
+
+    /**
+     * 节点内部以 [键, 值] 成对存放，键为空时值为子节点
+     */
+    private interface Node {
+        Object find(int shift, int hash, Object key);
+
+        Node assoc(int shift, int hash, String key, Object value, boolean[] added);
+
+        /**
+         * @return 移除后的节点，节点为空时返回null，键不存在时返回自身
+         */
+        Node without(int shift, int hash, String key);
+
+        Object[] array();
+    }
+
+    private static final class BitmapNode implements Node {
+
+        static final BitmapNode EMPTY = new BitmapNode(0, new Object[0]);
+
+        private final int bitmap;
+        private final Object[] array;
+
+        BitmapNode(int bitmap, Object[] array) {
+            this.bitmap = bitmap;
+            this.array = array;
+        }
+
+        private int index(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        @Override
+        public Object find(int shift, int hash, Object key) {
+            int bit = bitFor(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return null;
+            }
+            int idx = index(bit) * 2;
+            Object k = array[idx];
+            Object v = array[idx + 1];
+            if (k == null) {
+                return ((Node) v).find(shift + 5, hash, key);
+            }
+            return key.equals(k) ? v : null;
+        }
+
+        @Override
+        public Node assoc(int shift, int hash, String key, Object value, boolean[] added) {
+            int bit = bitFor(hash, shift);
+            int idx = index(bit) * 2;
+            if ((bitmap & bit) != 0) {
+                Object k = array[idx];
+                Object v = array[idx + 1];
+                if (k == null) {
+                    Node child = ((Node) v).assoc(shift + 5, hash, key, value, added);
+                    return child == v ? this : with(idx + 1, child);
+                }
+                if (key.equals(k)) {
+                    return v == value ? this : with(idx + 1, value);
+                }
+                added[0] = true;
+                Node child = createNode(shift + 5, (String) k, v, hash, key, value);
+                Object[] copy = array.clone();
+                copy[idx] = null;
+                copy[idx + 1] = child;
+                return new BitmapNode(bitmap, copy);
+            }
+            added[0] = true;
+            Object[] copy = new Object[array.length + 2];
+            System.arraycopy(array, 0, copy, 0, idx);
+            copy[idx] = key;
+            copy[idx + 1] = value;
+            System.arraycopy(array, idx, copy, idx + 2, array.length - idx);
+            return new BitmapNode(bitmap | bit, copy);
+        }
+
+        @Override
+        public Node without(int shift, int hash, String key) {
+            int bit = bitFor(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return this;
+            }
+            int idx = index(bit) * 2;
+            Object k = array[idx];
+            Object v = array[idx + 1];
+            if (k == null) {
+                Node child = ((Node) v).without(shift + 5, hash, key);
+                if (child == v) {
+                    return this;
+                }
+                if (child != null) {
+                    return with(idx + 1, child);
+                }
+                return remove(bit, idx);
+            }
+            return key.equals(k) ? remove(bit, idx) : this;
+        }
+
+        @Override
+        public Object[] array() {
+            return array;
+        }
+
+        private BitmapNode with(int idx, Object value) {
+            Object[] copy = array.clone();
+            copy[idx] = value;
+            return new BitmapNode(bitmap, copy);
+        }
+
+        private BitmapNode remove(int bit, int idx) {
+            if (bitmap == bit) {
+                return null;
+            }
+            Object[] copy = new Object[array.length - 2];
+            System.arraycopy(array, 0, copy, 0, idx);
+            System.arraycopy(array, idx + 2, copy, idx, array.length - idx - 2);
+            return new BitmapNode(bitmap ^ bit, copy);
+        }
+
+        private static Node createNode(int shift, String key1, Object value1, int hash2, String key2, Object value2) {
+            int hash1 = hash(key1);
+            if (hash1 == hash2) {
+                return new CollisionNode(hash1, new Object[]{key1, value1, key2, value2});
+            }
+            boolean[] added = new boolean[1];
+            return EMPTY.assoc(shift, hash1, key1, value1, added).assoc(shift, hash2, key2, value2, added);
+        }
+    }
+
+    /**
+     * 完整哈希值相同的键，线性存放
+     */
+    private static final class CollisionNode implements Node {
+
+        private final int hash;
+        private final Object[] array;
+
+        CollisionNode(int hash, Object[] array) {
+            this.hash = hash;
+            this.array = array;
+        }
+
+        private int indexOf(Object key) {
+            for (int i = 0; i < array.length; i += 2) {
+                if (key.equals(array[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        public Object find(int shift, int hash, Object key) {
+            int idx = indexOf(key);
+            return idx >= 0 ? array[idx + 1] : null;
+        }
+
+        @Override
+        public Node assoc(int shift, int hash, String key, Object value, boolean[] added) {
+            if (hash != this.hash) {
+                // 哈希不同时提升为位图节点
+                return new BitmapNode(bitFor(this.hash, shift), new Object[]{null, this})
+                        .assoc(shift, hash, key, value, added);
+            }
+            int idx = indexOf(key);
+            if (idx >= 0) {
+                if (array[idx + 1] == value) {
+                    return this;
+                }
+                Object[] copy = array.clone();
+                copy[idx + 1] = value;
+                return new CollisionNode(hash, copy);
+            }
+            added[0] = true;
+            Object[] copy = new Object[array.length + 2];
+            System.arraycopy(array, 0, copy, 0, array.length);
+            copy[array.length] = key;
+            copy[array.length + 1] = value;
+            return new CollisionNode(hash, copy);
+        }
+
+        @Override
+        public Node without(int shift, int hash, String key) {
+            int idx = indexOf(key);
+            if (idx < 0) {
+                return this;
+            }
+            if (array.length == 2) {
+                return null;
+            }
+            Object[] copy = new Object[array.length - 2];
+            System.arraycopy(array, 0, copy, 0, idx);
+            System.arraycopy(array, idx + 2, copy, idx, array.length - idx - 2);
+            return new CollisionNode(hash, copy);
+        }
+
+        @Override
+        public Object[] array() {
+            return array;
+        }
+    }
+
+    /**
+     * 深度优先遍历，不复制节点数据
+     */
+    private static final class EntryIterator<V> implements Iterator<Map.Entry<String, V>> {
+
+        private final Deque<Object[]> arrays = new ArrayDeque<>();
+        private final Deque<int[]> positions = new ArrayDeque<>();
+        private Map.Entry<String, V> next;
+
+        EntryIterator(Node root) {
+            if (root != null) {
+                arrays.push(root.array());
+                positions.push(new int[1]);
+            }
+            advance();
+        }
+
+        @SuppressWarnings("unchecked")
+        private void advance() {
+            next = null;
+            while (!arrays.isEmpty()) {
+                Object[] array = arrays.peek();
+                int[] position = positions.peek();
+                if (position[0] >= array.length) {
+                    arrays.pop();
+                    positions.pop();
+                    continue;
+                }
+                Object k = array[position[0]];
+                Object v = array[position[0] + 1];
+                position[0] += 2;
+                if (k == null) {
+                    arrays.push(((Node) v).array());
+                    positions.push(new int[1]);
+                } else {
+                    next = new AbstractMap.SimpleImmutableEntry<>((String) k, (V) v);
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Map.Entry<String, V> next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            Map.Entry<String, V> current = next;
+            advance();
+            return current;
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package com.qoobot.openadmin.config.simple;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+
+/**
+ * 简化版配置服务的本地追加日志
+ * 文件格式（大端）：魔数(4) | 格式版本(4) | 基线版本号(8)，其后为若干记录，
+ * 每条记录为 数据长度(4) | CRC32(4) | 数据，数据依次为版本号、操作类型、存储键及配置条目。
+ * <p>
+ * 写入方先发布内存快照再追加日志，并发写入的追加顺序可能与版本号顺序不一致，
+ * 因此回放时同一存储键只应用版本号更大的记录。压缩时以当前快照重写日志，
+ * 快照版本号作为新文件的基线，基线及之前版本的增量记录已包含在快照中，回放时跳过。
+ * 末尾不完整或校验失败的记录（写入中断）在回放时截断
+ */
+@Slf4j
+public class SimpleConfigJournal implements Closeable {
+
+    private static final int MAGIC = 0x4F41534A; // "OASJ"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+
+    private static final byte OP_PUT = 1;
+    private static final byte OP_DELETE = 2;
+    private static final byte OP_SNAPSHOT = 3;
+
+    private final Path path;
+    private final ReentrantLock lock = new ReentrantLock();
+    private FileChannel channel;
+    private volatile long recordsSinceCompaction;
+
+    public SimpleConfigJournal(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * 回放日志到entries中
+     * @return 回放得到的最大版本号，日志不存在或无法识别时返回-1
+     */
+    public long replay(Map<String, SimpleConfigService.ConfigEntry> entries) throws IOException {
+        if (!Files.exists(path)) {
+            return -1;
+        }
+        long validLength = HEADER_SIZE;
+        long maxVersion;
+        long records = 0;
+        try (InputStream file = Files.newInputStream(path);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(file))) {
+            long baseVersion;
+            try {
+                if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                    log.warn("简化配置日志格式不匹配，忽略: {}", path);
+                    return -1;
+                }
+                baseVersion = in.readLong();
+            } catch (EOFException e) {
+                log.warn("简化配置日志头不完整，忽略: {}", path);
+                return -1;
+            }
+            maxVersion = baseVersion;
+            Map<String, Long> keyVersions = new HashMap<>();
+            byte[] payload;
+            while ((payload = readRecord(in)) != null) {
+                validLength += 8 + payload.length;
+                DataInputStream record = new DataInputStream(new ByteArrayInputStream(payload));
+                long version = record.readLong();
+                byte op = record.readByte();
+                String storeKey = readString(record);
+                maxVersion = Math.max(maxVersion, version);
+                if (op == OP_SNAPSHOT) {
+                    entries.put(storeKey, readEntry(record));
+                    continue;
+                }
+                records++;
+                if (version > baseVersion && version > keyVersions.getOrDefault(storeKey, baseVersion)) {
+                    keyVersions.put(storeKey, version);
+                    if (op == OP_PUT) {
+                        entries.put(storeKey, readEntry(record));
+                    } else {
+                        entries.remove(storeKey);
+                    }
+                }
+            }
+        }
+        if (Files.size(path) > validLength) {
+            log.warn("简化配置日志末尾存在不完整记录，截断至 {} 字节: {}", validLength, path);
+            try (FileChannel truncate = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                truncate.truncate(validLength);
+            }
+        }
+        recordsSinceCompaction = records;
+        return maxVersion;
+    }
+
+    /**
+     * 打开日志用于追加，日志不存在时创建
+     */
+    public void open() throws IOException {
+        lock.lock();
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            if (!Files.exists(path) || Files.size(path) < HEADER_SIZE) {
+                writeFile(path, 0L, PersistentConfigMap.empty());
+            }
+            channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void appendPut(long version, String storeKey, SimpleConfigService.ConfigEntry entry) throws IOException {
+        append(encode(version, OP_PUT, storeKey, entry));
+    }
+
+    public void appendDelete(long version, String storeKey) throws IOException {
+        append(encode(version, OP_DELETE, storeKey, null));
+    }
+
+    /**
+     * 自上次压缩以来追加的增量记录数
+     */
+    public long getRecordsSinceCompaction() {
+        return recordsSinceCompaction;
+    }
+
+    /**
+     * 以当前快照重写日志
+     * 快照在持有日志锁后读取，保证锁释放前已追加的记录都包含在快照中
+     */
+    public void compact(Supplier<SimpleConfigService.Snapshot> snapshotSupplier) throws IOException {
+        lock.lock();
+        try {
+            SimpleConfigService.Snapshot snapshot = snapshotSupplier.get();
+            Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+            writeFile(temp, snapshot.getVersion(), snapshot.getEntries());
+            if (channel != null) {
+                channel.close();
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            recordsSinceCompaction = 0;
+            log.info("简化配置日志压缩完成: {} 条配置, version={}", snapshot.getEntries().size(), snapshot.getVersion());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (channel != null) {
+                channel.force(false);
+                channel.close();
+                channel = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void append(ByteBuffer record) throws IOException {
+        lock.lock();
+        try {
+            if (channel == null) {
+                throw new IOException("简化配置日志未打开: " + path);
+            }
+            while (record.hasRemaining()) {
+                channel.write(record);
+            }
+            recordsSinceCompaction++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static void writeFile(Path target, long baseVersion,
+                                  Map<String, SimpleConfigService.ConfigEntry> entries) throws IOException {
+        try (FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(FORMAT_VERSION).putLong(baseVersion).flip();
+            while (header.hasRemaining()) {
+                out.write(header);
+            }
+            for (Map.Entry<String, SimpleConfigService.ConfigEntry> entry : entries.entrySet()) {
+                ByteBuffer record = encode(baseVersion, OP_SNAPSHOT, entry.getKey(), entry.getValue());
+                while (record.hasRemaining()) {
+                    out.write(record);
+                }
+            }
+            out.force(true);
+        }
+    }
+
+    private static ByteBuffer encode(long version, byte op, String storeKey,
+                                     SimpleConfigService.ConfigEntry entry) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeLong(version);
+        out.writeByte(op);
+        writeString(out, storeKey);
+        if (entry != null) {
+            writeString(out, entry.getKey());
+            writeString(out, entry.getValue());
+            writeString(out, entry.getDescription());
+            writeString(out, entry.getEnvironment());
+            out.writeBoolean(entry.isEncrypted());
+            writeString(out, entry.getStatus());
+        }
+        out.flush();
+        byte[] payload = bytes.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        ByteBuffer record = ByteBuffer.allocate(8 + payload.length);
+        record.putInt(payload.length).putInt((int) crc.getValue()).put(payload).flip();
+        return record;
+    }
+
+    /**
+     * 读取一条完整且校验通过的记录，到达末尾或记录损坏时返回null
+     */
+    private static byte[] readRecord(DataInputStream in) throws IOException {
+        try {
+            int length = in.readInt();
+            int checksum = in.readInt();
+            if (length < 0 || length > (64 << 20)) {
+                return null;
+            }
+            byte[] payload = new byte[length];
+            in.readFully(payload);
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            return (int) crc.getValue() == checksum ? payload : null;
+        } catch (EOFException e) {
+            return null;
+        }
+    }
+
+    private static SimpleConfigService.ConfigEntry readEntry(DataInputStream in) throws IOException {
+        SimpleConfigService.ConfigEntry entry = new SimpleConfigService.ConfigEntry();
+        entry.setKey(readString(in));
+        entry.setValue(readString(in));
+        entry.setDescription(readString(in));
+        entry.setEnvironment(readString(in));
+        entry.setEncrypted(in.readBoolean());
+        entry.setStatus(readString(in));
+        return entry;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
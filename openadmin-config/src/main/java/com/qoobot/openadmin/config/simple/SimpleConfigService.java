@@ -1,26 +1,101 @@
 package com.qoobot.openadmin.config.simple;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.util.HashMap;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * 简化版配置服务
  * 实现基本的配置管理功能
+ * <p>
+ * 配置保存在不可变持久化映射中，通过原子引用发布带版本号的快照：读取不加锁，
+ * 写入以CAS替换快照，{@link #getAllConfigs()} 直接返回当前快照而不复制。
+ * 快照中的配置条目视为不可变，写入时总是创建新条目。
+ * 启用本地日志时每次写入追加到日志，定期以当前快照压缩日志，重启后回放恢复
  */
 @Slf4j
 @Service
 public class SimpleConfigService {
 
+    private final AtomicReference<Snapshot> current = new AtomicReference<>(new Snapshot(0L, PersistentConfigMap.empty()));
+    private final SimpleConfigJournal journal;
+    private final long compactionMinRecords;
+    private final long compactionIntervalMillis;
+    private ScheduledExecutorService compactor;
 
-    // 模拟配置存储
-    private final Map<String, ConfigEntry> configStore = new HashMap<>();
+    public SimpleConfigService(
+            @Value("${openadmin.config.simple.journal-enabled:true}") boolean journalEnabled,
+            @Value("${openadmin.config.simple.journal-path:./config-cache/simple-config.journal}") String journalPath,
+            @Value("${openadmin.config.simple.compaction-min-records:1000}") long compactionMinRecords,
+            @Value("${openadmin.config.simple.compaction-interval-ms:60000}") long compactionIntervalMillis) {
+        this.journal = journalEnabled ? new SimpleConfigJournal(Paths.get(journalPath)) : null;
+        this.compactionMinRecords = compactionMinRecords;
+        this.compactionIntervalMillis = compactionIntervalMillis;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (journal == null) {
+            addDefaultConfigs();
+            return;
+        }
+        try {
+            Map<String, ConfigEntry> entries = new LinkedHashMap<>();
+            long version = journal.replay(entries);
+            if (version < 0) {
+                addDefaultConfigs();
+            } else {
+                PersistentConfigMap<ConfigEntry> map = PersistentConfigMap.empty();
+                for (Map.Entry<String, ConfigEntry> entry : entries.entrySet()) {
+                    map = map.plus(entry.getKey(), entry.getValue());
+                }
+                current.set(new Snapshot(version, map));
+                log.info("从本地日志恢复简化配置: {} 条, version={}", map.size(), version);
+            }
+            // 启动时以恢复结果重写日志，丢弃历史增量与无法识别的内容
+            journal.open();
+            journal.compact(current::get);
+        } catch (IOException e) {
+            throw new UncheckedIOException("简化配置日志初始化失败", e);
+        }
+        compactor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "simple-config-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        compactor.scheduleWithFixedDelay(this::compactIfNeeded,
+                compactionIntervalMillis, compactionIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (compactor != null) {
+            compactor.shutdownNow();
+        }
+        if (journal != null) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                log.warn("关闭简化配置日志失败", e);
+            }
+        }
+    }
 
-    public SimpleConfigService() {
+    private void addDefaultConfigs() {
         // 初始化示例配置
         addConfig("app.name", "OpenAdmin", "应用名称", "dev");
         addConfig("app.version", "10.3.0", "应用版本", "dev");
@@ -37,14 +112,15 @@ public class SimpleConfigService {
         entry.setEnvironment(environment);
         entry.setEncrypted(false);
         entry.setStatus("ACTIVE");
-        configStore.put(key + ":" + environment, entry);
+        Snapshot snapshot = current.get();
+        current.set(new Snapshot(snapshot.getVersion() + 1, snapshot.getEntries().plus(key + ":" + environment, entry)));
     }
 
     /**
      * 获取配置值
      */
     public String getConfigValue(String key, String environment) {
-        ConfigEntry entry = configStore.get(key + ":" + environment);
+        ConfigEntry entry = current.get().getEntries().get(key + ":" + environment);
         if (entry != null) {
             log.debug("获取配置: {}:{} = {}", key, environment, entry.getValue());
             return entry.getValue();
@@ -56,16 +132,30 @@ public class SimpleConfigService {
      * 设置配置值
      */
     public void setConfigValue(String key, String value, String environment, String description) {
-        ConfigEntry entry = configStore.get(key + ":" + environment);
-        if (entry == null) {
+        String storeKey = key + ":" + environment;
+        Snapshot previous;
+        Snapshot next;
+        ConfigEntry entry;
+        do {
+            previous = current.get();
+            ConfigEntry existing = previous.getEntries().get(storeKey);
             entry = new ConfigEntry();
             entry.setKey(key);
             entry.setEnvironment(environment);
+            entry.setEncrypted(existing != null && existing.isEncrypted());
+            entry.setValue(value);
+            entry.setDescription(description);
+            entry.setStatus("ACTIVE");
+            next = new Snapshot(previous.getVersion() + 1, previous.getEntries().plus(storeKey, entry));
+        } while (!current.compareAndSet(previous, next));
+
+        if (journal != null) {
+            try {
+                journal.appendPut(next.getVersion(), storeKey, entry);
+            } catch (IOException e) {
+                throw new UncheckedIOException("写入简化配置日志失败: " + storeKey, e);
+            }
         }
-        entry.setValue(value);
-        entry.setDescription(description);
-        entry.setStatus("ACTIVE");
-        configStore.put(key + ":" + environment, entry);
         log.info("设置配置: {}:{} = {}", key, environment, value);
     }
 
@@ -73,26 +163,87 @@ public class SimpleConfigService {
      * 删除配置
      */
     public boolean deleteConfig(String key, String environment) {
-        ConfigEntry removed = configStore.remove(key + ":" + environment);
-        if (removed != null) {
-            log.info("删除配置: {}:{}", key, environment);
-            return true;
+        String storeKey = key + ":" + environment;
+        Snapshot previous;
+        Snapshot next;
+        do {
+            previous = current.get();
+            if (!previous.getEntries().containsKey(storeKey)) {
+                return false;
+            }
+            next = new Snapshot(previous.getVersion() + 1, previous.getEntries().minus(storeKey));
+        } while (!current.compareAndSet(previous, next));
+
+        if (journal != null) {
+            try {
+                journal.appendDelete(next.getVersion(), storeKey);
+            } catch (IOException e) {
+                throw new UncheckedIOException("写入简化配置日志失败: " + storeKey, e);
+            }
         }
-        return false;
+        log.info("删除配置: {}:{}", key, environment);
+        return true;
     }
 
     /**
      * 获取所有配置
+     * 返回当前快照的只读视图，后续写入不会影响已返回的结果
      */
     public Map<String, ConfigEntry> getAllConfigs() {
-        return new HashMap<>(configStore);
+        return current.get().getEntries();
     }
 
     /**
      * 检查配置是否存在
      */
     public boolean exists(String key, String environment) {
-        return configStore.containsKey(key + ":" + environment);
+        return current.get().getEntries().containsKey(key + ":" + environment);
+    }
+
+    /**
+     * 当前快照版本号，每次写入递增
+     */
+    public long getVersion() {
+        return current.get().getVersion();
+    }
+
+    /**
+     * 日志增量记录数超过阈值且超过当前配置数时压缩日志
+     */
+    void compactIfNeeded() {
+        if (journal == null) {
+            return;
+        }
+        long records = journal.getRecordsSinceCompaction();
+        if (records < compactionMinRecords || records < current.get().getEntries().size()) {
+            return;
+        }
+        try {
+            journal.compact(current::get);
+        } catch (IOException | RuntimeException e) {
+            log.warn("简化配置日志压缩失败", e);
+        }
+    }
+
+    /**
+     * 带版本号的不可变配置快照
+     */
+    static final class Snapshot {
+        private final long version;
+        private final PersistentConfigMap<ConfigEntry> entries;
+
+        Snapshot(long version, PersistentConfigMap<ConfigEntry> entries) {
+            this.version = version;
+            this.entries = entries;
+        }
+
+        long getVersion() {
+            return version;
+        }
+
+        PersistentConfigMap<ConfigEntry> getEntries() {
+            return entries;
+        }
     }
 
     /**
@@ -0,0 +1,432 @@
+package com.qoobot.openadmin.config.snapshot;
+
+import com.qoobot.openadmin.config.entity.ConfigItem;
+import com.qoobot.openadmin.config.mapper.ConfigMapper;
+import com.qoobot.openadmin.config.overlay.ConfigScope;
+import com.qoobot.openadmin.config.watch.ConfigWatchManager;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * 配置本地快照存储
+ * 每个环境在本地磁盘保存一份紧凑的二进制快照，修订号变化后合并写入，
+ * 先写临时文件再原子替换。启动时通过内存映射读取并校验，
+ * 使服务在应用就绪（数据库连接池可用）前即可提供配置值；就绪后读取一律查询数据库，
+ * 快照只在数据库不可用时提供最近一次的值。
+ * <p>
+ * 文件格式（大端）：魔数(4) | 格式版本(4) | 修订号(8) | 条目数(4) | 数据长度(4) | CRC32(8) | 数据，
+ * 每个条目依次为ID、配置键、配置值、配置类型、标志位、版本号、修订号、状态、分组、描述、标签、
+ * 创建与更新信息及可选的灰度信息，读取的配置项与数据库查询结果一致，可直接放入缓存；
+ * 魔数、版本、长度或校验和不匹配的快照（过期格式或写入中断）会被丢弃。
+ * 文件名为百分号编码的环境名加 .snapshot 后缀，可逆地还原环境名。
+ * 只保存普通环境，全局、应用及实例覆盖层由覆盖层解析器读取，不写入快照
+ */
+@Slf4j
+@Component
+public class ConfigLocalSnapshotStore {
+
+    private static final int MAGIC = 0x4F414353; // "OACS"
+    private static final int FORMAT_VERSION = 2;
+    private static final int HEADER_SIZE = 32;
+    private static final String FILE_SUFFIX = ".snapshot";
+
+    private static final int FLAG_ENCRYPTED = 1;
+    private static final int FLAG_GRAY = 1 << 1;
+
+    @Autowired
+    private ConfigMapper configMapper;
+
+    @Autowired
+    private ConfigWatchManager configWatchManager;
+
+    @Value("${openadmin.config.local-cache-enabled:true}")
+    private boolean enabled;
+
+    @Value("${openadmin.config.local-cache-path:./config-cache}")
+    private String cachePath;
+
+    // 变更合并写入的延迟时间
+    @Value("${openadmin.config.local-cache-write-delay-ms:1000}")
+    private long writeDelayMillis;
+
+    private final Map<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+    private final Set<String> dirtyEnvironments = ConcurrentHashMap.newKeySet();
+    // 应用就绪前为冷启动阶段，此时缓存可直接使用快照
+    private volatile boolean coldStart = true;
+    private ScheduledExecutorService writer;
+    private Path directory;
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+        directory = Paths.get(cachePath);
+        writer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "config-snapshot-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        loadAll();
+        configWatchManager.addChangeHook(event -> markDirty(event.getEnvironment()));
+    }
+
+    /**
+     * 应用就绪后为缺失或落后于数据库的环境重写快照
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void refreshStaleSnapshots() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Long revision = configMapper.selectRevision();
+            long current = revision != null ? revision : 0L;
+            for (String environment : configMapper.selectDistinctEnvironments()) {
+                Snapshot snapshot = snapshots.get(environment);
+                if (snapshot == null || snapshot.revision < current) {
+                    markDirty(environment);
+                }
+            }
+        } catch (Exception e) {
+            log.warn("检查本地配置快照失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 冷启动阶段返回快照中的配置项；应用就绪后始终返回空，由数据库加载。
+     * 快照无法得知其他实例的写入，不能作为就绪后的常规数据源
+     */
+    public Optional<ConfigItem> findDuringColdStart(String configKey, String environment) {
+        if (!coldStart) {
+            return Optional.empty();
+        }
+        Snapshot snapshot = snapshots.get(environment);
+        return snapshot != null ? Optional.ofNullable(snapshot.items.get(configKey)) : Optional.empty();
+    }
+
+    /**
+     * 结束冷启动阶段，由仓储层在应用就绪后调用，之后的缓存加载不再使用快照
+     */
+    public void endColdStart() {
+        coldStart = false;
+    }
+
+    /**
+     * 返回最近一次快照中的配置项，不检查是否过期，用于数据库不可用时降级
+     */
+    public Optional<ConfigItem> findLastKnown(String configKey, String environment) {
+        Snapshot snapshot = snapshots.get(environment);
+        return snapshot != null ? Optional.ofNullable(snapshot.items.get(configKey)) : Optional.empty();
+    }
+
+    /**
+     * 从内存快照中移除配置项并标记所在环境需要重写。
+     * 用于不递增修订号、不产生变更通知的原地改写（如密钥轮换），避免降级读取返回已被替换的旧值
+     */
+    public void evictAll(Collection<ConfigItem> items) {
+        if (!enabled) {
+            return;
+        }
+        Map<String, Set<String>> keysByEnvironment = new HashMap<>();
+        for (ConfigItem item : items) {
+            keysByEnvironment.computeIfAbsent(item.getEnvironment(), env -> new HashSet<>()).add(item.getConfigKey());
+        }
+        keysByEnvironment.forEach((environment, configKeys) -> {
+            snapshots.computeIfPresent(environment, (env, snapshot) -> snapshot.without(configKeys));
+            markDirty(environment);
+        });
+    }
+
+    /**
+     * 标记环境快照需要重写，短时间内的多次变更合并为一次写入
+     */
+    public void markDirty(String environment) {
+        if (!enabled || environment == null || ConfigScope.isOverlayLayer(environment)) {
+            return;
+        }
+        scheduleWrite(environment, writeDelayMillis);
+    }
+
+    private void scheduleWrite(String environment, long delayMillis) {
+        if (dirtyEnvironments.add(environment)) {
+            writer.schedule(() -> write(environment), delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void write(String environment) {
+        dirtyEnvironments.remove(environment);
+        try {
+            // 先读修订号再读数据，快照内容不早于记录的修订号
+            Long revision = configMapper.selectRevision();
+            List<ConfigItem> items = configMapper.selectByEnvironment(environment);
+            Snapshot snapshot = new Snapshot(revision != null ? revision : 0L, toMap(items));
+            writeFile(environment, snapshot);
+            snapshots.put(environment, snapshot);
+            log.debug("本地配置快照已更新: environment={}, revision={}, size={}",
+                    environment, snapshot.revision, items.size());
+        } catch (Exception e) {
+            log.warn("写入本地配置快照失败: environment={}, {}", environment, e.getMessage());
+            // 数据库不可用时延长重试间隔
+            scheduleWrite(environment, writeDelayMillis * 10);
+        }
+    }
+
+    private void writeFile(String environment, Snapshot snapshot) throws IOException {
+        ByteArrayOutputStream payloadBytes = new ByteArrayOutputStream();
+        DataOutputStream payload = new DataOutputStream(payloadBytes);
+        for (ConfigItem item : snapshot.items.values()) {
+            payload.writeLong(item.getId() != null ? item.getId() : 0L);
+            writeString(payload, item.getConfigKey());
+            writeString(payload, item.getConfigValue());
+            writeString(payload, item.getConfigType());
+            boolean gray = item.getGrayValue() != null && item.getGrayRatio() != null && item.getGrayReleaseId() != null;
+            int flags = (Boolean.TRUE.equals(item.getEncrypted()) ? FLAG_ENCRYPTED : 0) | (gray ? FLAG_GRAY : 0);
+            payload.writeByte(flags);
+            payload.writeInt(item.getVersion() != null ? item.getVersion() : 0);
+            payload.writeLong(item.getRevision() != null ? item.getRevision() : 0L);
+            writeString(payload, item.getStatus());
+            payload.writeLong(item.getGroupId() != null ? item.getGroupId() : -1L);
+            writeString(payload, item.getGroupName());
+            writeString(payload, item.getDescription());
+            writeString(payload, item.getTags());
+            writeString(payload, item.getCreatedBy());
+            writeString(payload, item.getUpdatedBy());
+            writeString(payload, item.getCreatedAt() != null ? item.getCreatedAt().toString() : null);
+            writeString(payload, item.getUpdatedAt() != null ? item.getUpdatedAt().toString() : null);
+            if (gray) {
+                writeString(payload, item.getGrayValue());
+                payload.writeDouble(item.getGrayRatio());
+                payload.writeLong(item.getGrayReleaseId());
+            }
+        }
+        payload.flush();
+        byte[] data = payloadBytes.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(data);
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(FORMAT_VERSION).putLong(snapshot.revision)
+              .putInt(snapshot.items.size()).putInt(data.length).putLong(crc.getValue());
+        header.flip();
+
+        Files.createDirectories(directory);
+        Path target = directory.resolve(fileName(environment));
+        Path temp = Files.createTempFile(directory, fileName(environment), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                ByteBuffer body = ByteBuffer.wrap(data);
+                while (header.hasRemaining() || body.hasRemaining()) {
+                    channel.write(new ByteBuffer[]{header, body});
+                }
+                channel.force(true);
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private void loadAll() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + FILE_SUFFIX)) {
+            for (Path file : files) {
+                try {
+                    String environment = environmentOf(file.getFileName().toString());
+                    if (ConfigScope.isOverlayLayer(environment)) {
+                        // 旧版本写入的覆盖层快照
+                        Files.deleteIfExists(file);
+                        continue;
+                    }
+                    Snapshot snapshot = readFile(file, environment);
+                    if (snapshot != null) {
+                        snapshots.put(environment, snapshot);
+                        log.info("加载本地配置快照: environment={}, revision={}, size={}",
+                                environment, snapshot.revision, snapshot.items.size());
+                    }
+                } catch (Exception e) {
+                    log.warn("本地配置快照损坏，已忽略: {}, {}", file, e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            log.warn("读取本地配置快照目录失败: {}", e.getMessage());
+        }
+    }
+
+    private Snapshot readFile(Path file, String environment) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) {
+                log.warn("本地配置快照不完整，已忽略: {}", file);
+                return null;
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+            log.warn("本地配置快照格式不匹配，已忽略: {}", file);
+            return null;
+        }
+        long revision = buffer.getLong();
+        int count = buffer.getInt();
+        int length = buffer.getInt();
+        long checksum = buffer.getLong();
+        if (length != buffer.remaining()) {
+            log.warn("本地配置快照长度不匹配，已忽略: {}", file);
+            return null;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate());
+        if (crc.getValue() != checksum) {
+            log.warn("本地配置快照校验和不匹配，已忽略: {}", file);
+            return null;
+        }
+
+        List<ConfigItem> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ConfigItem item = new ConfigItem();
+            item.setId(buffer.getLong());
+            item.setEnvironment(environment);
+            item.setConfigKey(readString(buffer));
+            item.setConfigValue(readString(buffer));
+            item.setConfigType(readString(buffer));
+            int flags = buffer.get();
+            item.setEncrypted((flags & FLAG_ENCRYPTED) != 0);
+            item.setVersion(buffer.getInt());
+            item.setRevision(buffer.getLong());
+            item.setStatus(readString(buffer));
+            long groupId = buffer.getLong();
+            item.setGroupId(groupId >= 0 ? groupId : null);
+            item.setGroupName(readString(buffer));
+            item.setDescription(readString(buffer));
+            item.setTags(readString(buffer));
+            item.setCreatedBy(readString(buffer));
+            item.setUpdatedBy(readString(buffer));
+            item.setCreatedAt(readDateTime(buffer));
+            item.setUpdatedAt(readDateTime(buffer));
+            if ((flags & FLAG_GRAY) != 0) {
+                item.setGrayValue(readString(buffer));
+                item.setGrayRatio(buffer.getDouble());
+                item.setGrayReleaseId(buffer.getLong());
+            }
+            items.add(item);
+        }
+        return new Snapshot(revision, toMap(items));
+    }
+
+    private static Map<String, ConfigItem> toMap(List<ConfigItem> items) {
+        Map<String, ConfigItem> map = new HashMap<>(items.size() * 4 / 3 + 1);
+        for (ConfigItem item : items) {
+            map.put(item.getConfigKey(), item);
+        }
+        return Collections.unmodifiableMap(map);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static LocalDateTime readDateTime(ByteBuffer buffer) {
+        String value = readString(buffer);
+        return value != null ? LocalDateTime.parse(value) : null;
+    }
+
+    /**
+     * 环境名按UTF-8字节百分号编码为文件名，只保留字母、数字、点和连字符，
+     * 避免路径穿越，且不同环境名不会映射到同一文件
+     */
+    static String fileName(String environment) {
+        StringBuilder name = new StringBuilder(environment.length() + FILE_SUFFIX.length());
+        for (byte b : environment.getBytes(StandardCharsets.UTF_8)) {
+            char c = (char) (b & 0xFF);
+            if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '.' || c == '-') {
+                name.append(c);
+            } else {
+                name.append('%').append(Character.toUpperCase(Character.forDigit(c >> 4, 16)))
+                    .append(Character.toUpperCase(Character.forDigit(c & 0xF, 16)));
+            }
+        }
+        return name.append(FILE_SUFFIX).toString();
+    }
+
+    /**
+     * 由快照文件名还原环境名
+     *
+     * @throws IllegalArgumentException 文件名不是合法的编码形式
+     */
+    static String environmentOf(String fileName) {
+        String environment = URLDecoder.decode(
+                fileName.substring(0, fileName.length() - FILE_SUFFIX.length()), StandardCharsets.UTF_8);
+        if (!fileName(environment).equals(fileName)) {
+            throw new IllegalArgumentException("快照文件名不是规范编码: " + fileName);
+        }
+        return environment;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (writer != null) {
+            writer.shutdown();
+        }
+    }
+
+    private static final class Snapshot {
+        private final long revision;
+        private final Map<String, ConfigItem> items;
+
+        private Snapshot(long revision, Map<String, ConfigItem> items) {
+            this.revision = revision;
+            this.items = items;
+        }
+
+        private Snapshot without(Set<String> configKeys) {
+            Map<String, ConfigItem> remaining = new HashMap<>(items);
+            remaining.keySet().removeAll(configKeys);
+            return new Snapshot(revision, Collections.unmodifiableMap(remaining));
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.qoobot.openadmin.config.sync;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * 配置校验和工具类
+ * 单条配置取内容的MD5，与Nacos长轮询协议一致；
+ * 分组校验和为按dataId排序后各 dataId、MD5 拼接串的MD5，分组内任一配置增删改都会改变分组校验和
+ */
+public final class ConfigChecksums {
+
+    private static final char WORD_SEPARATOR = '\u0002';
+    private static final char LINE_SEPARATOR = '\u0001';
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private ConfigChecksums() {
+    }
+
+    public static String md5Hex(String content) {
+        return toHex(newDigest().digest(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * @param configChecksums 按dataId排序的 dataId -> MD5
+     */
+    public static String groupChecksum(SortedMap<String, String> configChecksums) {
+        MessageDigest digest = newDigest();
+        StringBuilder line = new StringBuilder();
+        for (Map.Entry<String, String> entry : configChecksums.entrySet()) {
+            line.setLength(0);
+            line.append(entry.getKey()).append(WORD_SEPARATOR).append(entry.getValue()).append(LINE_SEPARATOR);
+            digest.update(line.toString().getBytes(StandardCharsets.UTF_8));
+        }
+        return toHex(digest.digest());
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5算法不可用", e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = HEX[(bytes[i] >> 4) & 0xF];
+            chars[i * 2 + 1] = HEX[bytes[i] & 0xF];
+        }
+        return new String(chars);
+    }
+}
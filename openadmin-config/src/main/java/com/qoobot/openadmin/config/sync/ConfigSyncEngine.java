@@ -0,0 +1,386 @@
+package com.qoobot.openadmin.config.sync;
+
+import com.qoobot.openadmin.config.codec.ConfigValueCodec;
+import com.qoobot.openadmin.config.dto.ConfigDTO;
+import com.qoobot.openadmin.config.entity.ConfigItem;
+import com.qoobot.openadmin.config.repository.ConfigRepository;
+import com.qoobot.openadmin.config.watch.ConfigWatchManager;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 外部配置中心增量同步引擎
+ * 环境对应远程命名空间，配置分组对应远程分组，配置键对应dataId。
+ * 本地按环境缓存各分组及各配置的校验和，配置变更时失效；每次同步先比较分组校验和，
+ * 对不一致的分组再比较分组内各配置的校验和，只传输内容不同的配置。
+ * 不一致的分组在同步线程池中并行处理，远程调用失败按退避重试，单个分组失败不影响其他分组。
+ * 加密配置以密文同步，不在远程配置中心暴露明文
+ */
+@Slf4j
+@Component
+public class ConfigSyncEngine {
+
+    public static final String DEFAULT_GROUP = "DEFAULT_GROUP";
+    public static final String DIRECTION_PUSH = "PUSH";
+    public static final String DIRECTION_PULL = "PULL";
+
+    @Autowired
+    private ConfigRepository configRepository;
+
+    @Autowired
+    private ConfigWatchManager configWatchManager;
+
+    @Autowired(required = false)
+    private RemoteConfigStore remoteConfigStore;
+
+    @Autowired
+    @Qualifier("configSyncExecutor")
+    private Executor configSyncExecutor;
+
+    // 单次远程调用的最大尝试次数
+    @Value("${openadmin.config.sync.max-attempts:3}")
+    private int maxAttempts = 3;
+
+    // 重试退避基数，第n次重试前等待 n * backoff
+    @Value("${openadmin.config.sync.retry-backoff-ms:200}")
+    private long retryBackoffMillis = 200;
+
+    // 是否删除对端多出的配置，默认只新增和更新
+    @Value("${openadmin.config.sync.prune:false}")
+    private boolean prune;
+
+    private final Map<String, LocalChecksums> localChecksums = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        configWatchManager.addChangeHook(event -> invalidate(event.getEnvironment()));
+    }
+
+    /**
+     * 是否配置了远程配置中心，未配置时同步调用抛出IllegalStateException
+     */
+    public boolean isRemoteConfigured() {
+        return remoteConfigStore != null;
+    }
+
+    /**
+     * 失效指定环境的本地校验和，下次同步时重新计算
+     */
+    public void invalidate(String environment) {
+        generations.computeIfAbsent(environment, env -> new AtomicLong()).incrementAndGet();
+    }
+
+    /**
+     * 将本地环境推送到远程命名空间
+     */
+    public ConfigDTO.ConfigSyncResult push(String environment) {
+        RemoteConfigStore remote = requireRemote();
+        LocalChecksums local = localChecksums(environment);
+        Map<String, String> remoteGroups = withRetry("读取分组校验和", () -> remote.groupChecksums(environment));
+
+        Set<String> groups = new TreeSet<>(local.groupChecksums.keySet());
+        if (prune) {
+            groups.addAll(remoteGroups.keySet());
+        }
+        return syncGroups(environment, DIRECTION_PUSH, groups, local, remoteGroups,
+                group -> pushGroup(remote, environment, group, local.configs(group)));
+    }
+
+    /**
+     * 将远程命名空间拉取到本地环境
+     */
+    public ConfigDTO.ConfigSyncResult pull(String environment) {
+        RemoteConfigStore remote = requireRemote();
+        LocalChecksums local = localChecksums(environment);
+        Map<String, String> remoteGroups = withRetry("读取分组校验和", () -> remote.groupChecksums(environment));
+
+        Set<String> groups = new TreeSet<>(remoteGroups.keySet());
+        if (prune) {
+            groups.addAll(local.groupChecksums.keySet());
+        }
+        return syncGroups(environment, DIRECTION_PULL, groups, local, remoteGroups,
+                group -> pullGroup(remote, environment, group, local.configs(group)));
+    }
+
+    /**
+     * 推送单个配置，远程内容一致时不传输
+     */
+    public boolean pushConfig(Long configId) {
+        RemoteConfigStore remote = requireRemote();
+        ConfigItem item = configRepository.findById(configId)
+                .orElseThrow(() -> new IllegalArgumentException("配置不存在: " + configId));
+        if (item.getConfigValue() == null) {
+            return false;
+        }
+        String group = groupOf(item);
+        Map<String, String> remoteChecksums = withRetry("读取配置校验和",
+                () -> remote.configChecksums(item.getEnvironment(), group));
+        if (ConfigChecksums.md5Hex(contentOf(item)).equals(remoteChecksums.get(item.getConfigKey()))) {
+            return false;
+        }
+        withRetry("发布配置", () -> {
+            remote.publishConfig(item.getEnvironment(), group, item.getConfigKey(), contentOf(item));
+            return null;
+        });
+        log.info("同步配置到远程配置中心: {} - {}", item.getConfigKey(), item.getEnvironment());
+        return true;
+    }
+
+    /**
+     * 拉取单个配置，本地内容一致时不写入
+     */
+    public boolean pullConfig(String dataId, String group, String namespace) {
+        RemoteConfigStore remote = requireRemote();
+        String remoteGroup = StringUtils.hasText(group) ? group : DEFAULT_GROUP;
+        String content = withRetry("读取配置", () -> remote.getConfig(namespace, remoteGroup, dataId));
+        if (content == null) {
+            throw new IllegalArgumentException("远程配置不存在: " + dataId);
+        }
+        boolean changed = upsert(namespace, remoteGroup, dataId, content);
+        log.info("从远程配置中心同步配置: dataId={}, group={}, namespace={}, changed={}",
+                dataId, remoteGroup, namespace, changed);
+        return changed;
+    }
+
+    private ConfigDTO.ConfigSyncResult syncGroups(String environment, String direction, Set<String> groups,
+                                                  LocalChecksums local, Map<String, String> remoteGroups,
+                                                  GroupTask task) {
+        ConfigDTO.ConfigSyncResult result = new ConfigDTO.ConfigSyncResult();
+        result.setEnvironment(environment);
+        result.setDirection(direction);
+        result.setGroupsCompared(groups.size());
+
+        List<String> changedGroups = new ArrayList<>();
+        for (String group : groups) {
+            if (!Objects.equals(local.groupChecksums.get(group), remoteGroups.get(group))) {
+                changedGroups.add(group);
+            }
+        }
+        result.setGroupsChanged(changedGroups.size());
+
+        // 不一致的分组并行同步，并发度由同步线程池限定
+        Map<String, CompletableFuture<int[]>> futures = new LinkedHashMap<>();
+        for (String group : changedGroups) {
+            futures.put(group, CompletableFuture.supplyAsync(() -> task.sync(group), configSyncExecutor));
+        }
+        for (Map.Entry<String, CompletableFuture<int[]>> entry : futures.entrySet()) {
+            try {
+                int[] counts = entry.getValue().join();
+                result.setConfigsTransferred(result.getConfigsTransferred() + counts[0]);
+                result.setConfigsRemoved(result.getConfigsRemoved() + counts[1]);
+            } catch (RuntimeException e) {
+                log.error("配置分组同步失败: environment={}, group={}, direction={}",
+                        environment, entry.getKey(), direction, e);
+                result.getFailedGroups().add(entry.getKey());
+            }
+        }
+        log.info("配置中心同步完成: environment={}, direction={}, 比较分组 {}, 变化分组 {}, 传输 {}, 删除 {}, 失败分组 {}",
+                environment, direction, result.getGroupsCompared(), result.getGroupsChanged(),
+                result.getConfigsTransferred(), result.getConfigsRemoved(), result.getFailedGroups());
+        return result;
+    }
+
+    private int[] pushGroup(RemoteConfigStore remote, String environment, String group,
+                            SortedMap<String, String> localConfigs) {
+        Map<String, String> remoteConfigs = withRetry("读取配置校验和", () -> remote.configChecksums(environment, group));
+        List<String> changedKeys = new ArrayList<>();
+        for (Map.Entry<String, String> entry : localConfigs.entrySet()) {
+            if (!entry.getValue().equals(remoteConfigs.get(entry.getKey()))) {
+                changedKeys.add(entry.getKey());
+            }
+        }
+
+        int transferred = 0;
+        Map<String, ConfigItem> items = configRepository.findAllByKeysAndEnvironment(changedKeys, environment);
+        for (String configKey : changedKeys) {
+            ConfigItem item = items.get(configKey);
+            if (item == null || item.getConfigValue() == null) {
+                continue;
+            }
+            withRetry("发布配置", () -> {
+                remote.publishConfig(environment, group, configKey, contentOf(item));
+                return null;
+            });
+            transferred++;
+        }
+
+        int removed = 0;
+        if (prune) {
+            for (String dataId : remoteConfigs.keySet()) {
+                if (!localConfigs.containsKey(dataId)) {
+                    withRetry("删除配置", () -> {
+                        remote.removeConfig(environment, group, dataId);
+                        return null;
+                    });
+                    removed++;
+                }
+            }
+        }
+        return new int[]{transferred, removed};
+    }
+
+    private int[] pullGroup(RemoteConfigStore remote, String environment, String group,
+                            SortedMap<String, String> localConfigs) {
+        Map<String, String> remoteConfigs = withRetry("读取配置校验和", () -> remote.configChecksums(environment, group));
+        int transferred = 0;
+        for (Map.Entry<String, String> entry : new TreeMap<>(remoteConfigs).entrySet()) {
+            if (entry.getValue().equals(localConfigs.get(entry.getKey()))) {
+                continue;
+            }
+            String dataId = entry.getKey();
+            String content = withRetry("读取配置", () -> remote.getConfig(environment, group, dataId));
+            if (content != null) {
+                upsert(environment, group, dataId, content);
+                transferred++;
+            }
+        }
+
+        int removed = 0;
+        if (prune) {
+            List<String> missingKeys = new ArrayList<>();
+            for (String configKey : localConfigs.keySet()) {
+                if (!remoteConfigs.containsKey(configKey)) {
+                    missingKeys.add(configKey);
+                }
+            }
+            List<Long> ids = new ArrayList<>();
+            for (ConfigItem item : configRepository.findAllByKeysAndEnvironment(missingKeys, environment).values()) {
+                ids.add(item.getId());
+            }
+            configRepository.deleteAllById(ids);
+            removed = ids.size();
+        }
+        return new int[]{transferred, removed};
+    }
+
+    /**
+     * 写入远程配置内容，加密标志沿用本地配置
+     */
+    private boolean upsert(String environment, String group, String configKey, String content) {
+        ConfigItem existing = configRepository.findAllByKeysAndEnvironment(List.of(configKey), environment).get(configKey);
+        ConfigItem item;
+        if (existing == null) {
+            item = new ConfigItem();
+            item.setConfigKey(configKey);
+            item.setEnvironment(environment);
+            item.setConfigType("STRING");
+            item.setEncrypted(false);
+            item.setStatus("ACTIVE");
+            item.setCreatedBy("config-sync");
+            item.setSource("NACOS");
+        } else {
+            // 读取数据库中的最新数据，避免修改缓存中共享的实例
+            item = configRepository.findById(existing.getId()).orElse(null);
+            if (item == null || (content.equals(contentOf(item)) && group.equals(groupOf(item)))) {
+                return false;
+            }
+        }
+        item.setConfigValue(content);
+        if (!group.equals(groupOf(item))) {
+            item.setGroupName(group);
+        }
+        item.setUpdatedBy("config-sync");
+        configRepository.save(item);
+        return true;
+    }
+
+    private LocalChecksums localChecksums(String environment) {
+        long generation = generations.computeIfAbsent(environment, env -> new AtomicLong()).get();
+        LocalChecksums cached = localChecksums.get(environment);
+        if (cached != null && cached.generation == generation) {
+            return cached;
+        }
+        LocalChecksums loaded = new LocalChecksums(generation, configRepository.findByEnvironment(environment));
+        localChecksums.put(environment, loaded);
+        return loaded;
+    }
+
+    private RemoteConfigStore requireRemote() {
+        if (remoteConfigStore == null) {
+            throw new IllegalStateException("未配置远程配置中心（RemoteConfigStore）");
+        }
+        return remoteConfigStore;
+    }
+
+    private <T> T withRetry(String action, Supplier<T> call) {
+        RuntimeException failure = null;
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            try {
+                return call.get();
+            } catch (RuntimeException e) {
+                failure = e;
+                log.warn("远程配置中心{}失败，第 {}/{} 次: {}", action, attempt, maxAttempts, e.getMessage());
+                if (attempt < maxAttempts) {
+                    backoff(attempt);
+                }
+            }
+        }
+        throw failure != null ? failure : new IllegalStateException("远程配置中心" + action + "失败");
+    }
+
+    private void backoff(int attempt) {
+        try {
+            Thread.sleep(retryBackoffMillis * attempt);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("配置同步被中断", e);
+        }
+    }
+
+    static String groupOf(ConfigItem item) {
+        return StringUtils.hasText(item.getGroupName()) ? item.getGroupName() : DEFAULT_GROUP;
+    }
+
+    /**
+     * 远程配置中心保存解压后的内容，本地压缩存储的值先解压再计算校验和及传输
+     */
+    static String contentOf(ConfigItem item) {
+        return ConfigValueCodec.decode(item.getConfigValue());
+    }
+
+    @FunctionalInterface
+    private interface GroupTask {
+        /**
+         * @return [传输的配置数, 删除的配置数]
+         */
+        int[] sync(String group);
+    }
+
+    /**
+     * 一个环境的本地校验和视图
+     */
+    private static final class LocalChecksums {
+        final long generation;
+        final Map<String, SortedMap<String, String>> configChecksums = new HashMap<>();
+        final Map<String, String> groupChecksums = new HashMap<>();
+
+        LocalChecksums(long generation, List<ConfigItem> items) {
+            this.generation = generation;
+            for (ConfigItem item : items) {
+                if (item.getConfigValue() != null) {
+                    configChecksums.computeIfAbsent(groupOf(item), g -> new TreeMap<>())
+                            .put(item.getConfigKey(), ConfigChecksums.md5Hex(contentOf(item)));
+                }
+            }
+            configChecksums.forEach((group, checksums) ->
+                    groupChecksums.put(group, ConfigChecksums.groupChecksum(checksums)));
+        }
+
+        SortedMap<String, String> configs(String group) {
+            return configChecksums.getOrDefault(group, Collections.emptySortedMap());
+        }
+    }
+}
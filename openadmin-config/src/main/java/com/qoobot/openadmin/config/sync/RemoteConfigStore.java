@@ -0,0 +1,36 @@
+package com.qoobot.openadmin.config.sync;
+
+import java.util.Map;
+
+/**
+ * 外部配置中心SPI
+ * 以（命名空间, 分组, dataId）定位一条配置，内容校验和统一使用 {@link ConfigChecksums} 的算法，
+ * 同步引擎先比较分组校验和，再比较分组内各配置的校验和，只传输内容不同的配置
+ */
+public interface RemoteConfigStore {
+
+    /**
+     * 命名空间下各分组的校验和，分组名 -> 校验和
+     */
+    Map<String, String> groupChecksums(String namespace);
+
+    /**
+     * 分组内各配置的内容校验和，dataId -> MD5
+     */
+    Map<String, String> configChecksums(String namespace, String group);
+
+    /**
+     * 读取配置内容，不存在时返回空
+     */
+    String getConfig(String namespace, String group, String dataId);
+
+    /**
+     * 发布配置内容
+     */
+    void publishConfig(String namespace, String group, String dataId, String content);
+
+    /**
+     * 删除配置
+     */
+    void removeConfig(String namespace, String group, String dataId);
+}
@@ -0,0 +1,360 @@
+package com.qoobot.openadmin.config.watch;
+
+import com.qoobot.openadmin.config.codec.ConfigValueCodec;
+import com.qoobot.openadmin.config.dto.ConfigDTO;
+import com.qoobot.openadmin.config.entity.ConfigItem;
+import com.qoobot.openadmin.config.mapper.ConfigMapper;
+import com.qoobot.openadmin.config.service.ConfigService;
+import com.qoobot.openadmin.config.support.TransactionCallbacks;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * 配置变更订阅管理器
+ * 跟踪配置修订号，在事务提交后通过有界线程池异步分发变更，
+ * 支持进程内监听器、长轮询与SSE订阅，空闲订阅者不占用线程。
+ * 内存中只保留本实例提交的最近事件，订阅开始时的补发以数据库中各配置键的修订号为准，
+ * 覆盖重启期间与其他实例写入的变更；其他实例的写入在客户端下一次轮询时返回
+ */
+@Slf4j
+@Component
+public class ConfigWatchManager {
+
+    public static final String CHANGE_TYPE_UPSERT = "UPSERT";
+    public static final String CHANGE_TYPE_DELETE = "DELETE";
+
+    private static final String SSE_EVENT_NAME = "config-change";
+
+    private final Executor notifyExecutor;
+
+    private final ConfigMapper configMapper;
+
+    // 已知的最大全局修订号（由数据库修订号序列分配）
+    private final AtomicLong revision = new AtomicLong();
+
+    // 每个配置键最近一次变更事件
+    private final Map<String, ConfigDTO.ConfigChangeEvent> lastEvents = new ConcurrentHashMap<>();
+
+    // 进程内监听器，注册少、读取多，使用写时复制集合
+    private final Map<String, Set<ConfigService.ConfigChangeListener>> listeners = new ConcurrentHashMap<>();
+
+    // 远程订阅者，长轮询会频繁注册注销，使用并发集合
+    private final Map<String, Set<Watcher>> watchers = new ConcurrentHashMap<>();
+
+    // 全局变更回调，每个已提交的变更都会调用
+    private final List<Consumer<ConfigDTO.ConfigChangeEvent>> changeHooks = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    public ConfigWatchManager(@Qualifier("configNotifyExecutor") Executor notifyExecutor, ConfigMapper configMapper) {
+        this.notifyExecutor = notifyExecutor;
+        this.configMapper = configMapper;
+    }
+
+    /**
+     * 获取当前修订号
+     */
+    public long getCurrentRevision() {
+        return revision.get();
+    }
+
+    /**
+     * 推进已知修订号，用于启动时以数据库修订号初始化
+     */
+    public void advanceRevision(long newRevision) {
+        revision.accumulateAndGet(newRevision, Math::max);
+    }
+
+    /**
+     * 注册进程内配置变更监听器
+     */
+    public void addListener(String configKey, String environment, ConfigService.ConfigChangeListener listener) {
+        listeners.computeIfAbsent(buildKey(configKey, environment), k -> new CopyOnWriteArraySet<>()).add(listener);
+    }
+
+    /**
+     * 注册全局变更回调，在事务提交后由提交线程同步调用，回调内不应执行耗时操作
+     */
+    public void addChangeHook(Consumer<ConfigDTO.ConfigChangeEvent> hook) {
+        changeHooks.add(hook);
+    }
+
+    /**
+     * 发布配置新增或更新事件，存在事务时在提交后分发
+     */
+    public void publishChange(String configKey, String environment, long changeRevision,
+                              String oldValue, String newValue) {
+        TransactionCallbacks.afterCommit(() ->
+                dispatch(configKey, environment, changeRevision, oldValue, newValue, CHANGE_TYPE_UPSERT));
+    }
+
+    /**
+     * 发布配置删除事件，存在事务时在提交后分发
+     */
+    public void publishDelete(String configKey, String environment, long changeRevision, String oldValue) {
+        TransactionCallbacks.afterCommit(() ->
+                dispatch(configKey, environment, changeRevision, oldValue, null, CHANGE_TYPE_DELETE));
+    }
+
+    /**
+     * 获取指定配置键在某修订号之后的变更
+     * 本实例内存中没有对应事件的配置键按数据库中的修订号判断（重启前或其他实例的写入）；
+     * 客户端修订号大于服务端或数据库不可用时，视为这些配置键均已变更，由客户端重新读取
+     */
+    public List<ConfigDTO.ConfigChangeEvent> getChangesSince(String environment, Collection<String> configKeys,
+                                                             long sinceRevision) {
+        long current = revision.get();
+        boolean reset = sinceRevision > current;
+        List<ConfigDTO.ConfigChangeEvent> changes = new ArrayList<>();
+        List<String> remaining = new ArrayList<>();
+        for (String configKey : configKeys) {
+            ConfigDTO.ConfigChangeEvent event = lastEvents.get(buildKey(configKey, environment));
+            if (event != null && event.getRevision() > sinceRevision) {
+                changes.add(event);
+            } else {
+                remaining.add(configKey);
+            }
+        }
+        if (remaining.isEmpty()) {
+            return changes;
+        }
+        if (!reset) {
+            try {
+                changes.addAll(loadChangesSince(environment, remaining, sinceRevision));
+                return changes;
+            } catch (DataAccessException e) {
+                log.warn("查询配置变更修订号失败，通知客户端重新读取: 环境 {}, {}", environment, e.getMessage());
+            }
+        }
+        for (String configKey : remaining) {
+            changes.add(buildEvent(configKey, environment, current, CHANGE_TYPE_UPSERT));
+        }
+        return changes;
+    }
+
+    /**
+     * 按数据库中的修订号生成变更事件，同一配置键取最新的记录（删除后重建的键可能有多条）
+     */
+    private List<ConfigDTO.ConfigChangeEvent> loadChangesSince(String environment, List<String> configKeys,
+                                                               long sinceRevision) {
+        Map<String, ConfigItem> latest = new HashMap<>();
+        for (ConfigItem item : configMapper.selectKeyRevisionsSince(environment, configKeys, sinceRevision)) {
+            latest.merge(item.getConfigKey(), item, (previous, current) ->
+                    current.getRevision() > previous.getRevision() ? current : previous);
+        }
+        List<ConfigDTO.ConfigChangeEvent> changes = new ArrayList<>(latest.size());
+        for (ConfigItem item : latest.values()) {
+            changes.add(buildEvent(item.getConfigKey(), environment, item.getRevision(),
+                    Boolean.TRUE.equals(item.getDeleted()) ? CHANGE_TYPE_DELETE : CHANGE_TYPE_UPSERT));
+        }
+        return changes;
+    }
+
+    /**
+     * 长轮询订阅：已有变更立即返回，否则挂起直到变更或超时（超时返回空列表）
+     */
+    public DeferredResult<List<ConfigDTO.ConfigChangeEvent>> longPoll(String environment, List<String> configKeys,
+                                                                      long sinceRevision, long timeoutMillis) {
+        DeferredResult<List<ConfigDTO.ConfigChangeEvent>> result =
+                new DeferredResult<>(timeoutMillis, Collections.emptyList());
+        LongPollWatcher watcher = new LongPollWatcher(environment, configKeys, result);
+        result.onCompletion(watcher::close);
+
+        // 先注册再检查，避免检查与注册之间的变更被遗漏
+        watcher.register();
+        List<ConfigDTO.ConfigChangeEvent> pending = getChangesSince(environment, configKeys, sinceRevision);
+        if (!pending.isEmpty()) {
+            watcher.deliver(pending);
+        }
+        return result;
+    }
+
+    /**
+     * SSE订阅：持续推送指定配置键的变更直到连接关闭或超时
+     */
+    public SseEmitter stream(String environment, List<String> configKeys, long sinceRevision, long timeoutMillis) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        StreamWatcher watcher = new StreamWatcher(environment, configKeys, emitter);
+        emitter.onCompletion(watcher::close);
+        emitter.onTimeout(watcher::close);
+        emitter.onError(e -> watcher.close());
+
+        watcher.register();
+        List<ConfigDTO.ConfigChangeEvent> pending = getChangesSince(environment, configKeys, sinceRevision);
+        if (!pending.isEmpty()) {
+            watcher.deliver(pending);
+        }
+        return emitter;
+    }
+
+    private void dispatch(String configKey, String environment, long changeRevision,
+                          String oldValue, String newValue, String changeType) {
+        String key = buildKey(configKey, environment);
+        advanceRevision(changeRevision);
+        ConfigDTO.ConfigChangeEvent event = buildEvent(configKey, environment, changeRevision, changeType);
+        lastEvents.merge(key, event, (previous, current) ->
+                current.getRevision() > previous.getRevision() ? current : previous);
+
+        for (Consumer<ConfigDTO.ConfigChangeEvent> hook : changeHooks) {
+            try {
+                hook.accept(event);
+            } catch (Exception e) {
+                log.error("配置变更回调执行失败", e);
+            }
+        }
+
+        Set<ConfigService.ConfigChangeListener> keyListeners = listeners.get(key);
+        if (keyListeners != null && !keyListeners.isEmpty()) {
+            notifyExecutor.execute(() -> {
+                // 监听器收到解压后的值，加密值保持密文
+                String oldPlain = ConfigValueCodec.decode(oldValue);
+                String newPlain = ConfigValueCodec.decode(newValue);
+                for (ConfigService.ConfigChangeListener listener : keyListeners) {
+                    try {
+                        listener.onConfigChanged(configKey, environment, oldPlain, newPlain);
+                    } catch (Exception e) {
+                        log.error("配置变更监听器执行失败", e);
+                    }
+                }
+            });
+        }
+
+        Set<Watcher> keyWatchers = watchers.get(key);
+        if (keyWatchers != null && !keyWatchers.isEmpty()) {
+            List<ConfigDTO.ConfigChangeEvent> events = Collections.singletonList(event);
+            notifyExecutor.execute(() -> {
+                for (Watcher watcher : keyWatchers) {
+                    watcher.deliver(events);
+                }
+            });
+        }
+        log.debug("配置变更分发: {} revision={}", key, event.getRevision());
+    }
+
+    private ConfigDTO.ConfigChangeEvent buildEvent(String configKey, String environment, long eventRevision,
+                                                   String changeType) {
+        ConfigDTO.ConfigChangeEvent event = new ConfigDTO.ConfigChangeEvent();
+        event.setConfigKey(configKey);
+        event.setEnvironment(environment);
+        event.setRevision(eventRevision);
+        event.setChangeType(changeType);
+        return event;
+    }
+
+    private String buildKey(String configKey, String environment) {
+        return configKey + ":" + environment;
+    }
+
+    /**
+     * 远程订阅者
+     */
+    private abstract class Watcher {
+        private final String environment;
+        private final List<String> configKeys;
+        protected final AtomicBoolean closed = new AtomicBoolean(false);
+
+        Watcher(String environment, List<String> configKeys) {
+            this.environment = environment;
+            this.configKeys = configKeys;
+        }
+
+        abstract void deliver(List<ConfigDTO.ConfigChangeEvent> events);
+
+        void register() {
+            for (String configKey : configKeys) {
+                watchers.compute(buildKey(configKey, environment), (k, keyWatchers) -> {
+                    Set<Watcher> target = keyWatchers != null ? keyWatchers : ConcurrentHashMap.newKeySet();
+                    target.add(this);
+                    return target;
+                });
+            }
+        }
+
+        void close() {
+            if (closed.compareAndSet(false, true)) {
+                unregister();
+            }
+        }
+
+        void unregister() {
+            for (String configKey : configKeys) {
+                watchers.computeIfPresent(buildKey(configKey, environment), (k, keyWatchers) -> {
+                    keyWatchers.remove(this);
+                    return keyWatchers.isEmpty() ? null : keyWatchers;
+                });
+            }
+        }
+    }
+
+    /**
+     * 长轮询订阅者，收到第一批变更后即完成
+     */
+    private class LongPollWatcher extends Watcher {
+        private final DeferredResult<List<ConfigDTO.ConfigChangeEvent>> result;
+
+        LongPollWatcher(String environment, List<String> configKeys,
+                        DeferredResult<List<ConfigDTO.ConfigChangeEvent>> result) {
+            super(environment, configKeys);
+            this.result = result;
+        }
+
+        @Override
+        void deliver(List<ConfigDTO.ConfigChangeEvent> events) {
+            if (closed.compareAndSet(false, true)) {
+                unregister();
+                result.setResult(events);
+            }
+        }
+    }
+
+    /**
+     * SSE订阅者，持续推送变更
+     */
+    private class StreamWatcher extends Watcher {
+        private final SseEmitter emitter;
+
+        StreamWatcher(String environment, List<String> configKeys, SseEmitter emitter) {
+            super(environment, configKeys);
+            this.emitter = emitter;
+        }
+
+        @Override
+        void deliver(List<ConfigDTO.ConfigChangeEvent> events) {
+            if (closed.get()) {
+                return;
+            }
+            try {
+                for (ConfigDTO.ConfigChangeEvent event : events) {
+                    emitter.send(SseEmitter.event()
+                            .name(SSE_EVENT_NAME)
+                            .id(String.valueOf(event.getRevision()))
+                            .data(event));
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("SSE订阅已断开: {}", e.getMessage());
+                close();
+                emitter.completeWithError(e);
+            }
+        }
+    }
+}
@@ -10,13 +10,21 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 /**
@@ -207,26 +215,108 @@ class ConfigServiceTest {
         item2.setConfigValue("value2");
         item2.setEncrypted(false);
 
-        // Mock行为
-        when(configRepository.findByConfigKeyAndEnvironment("key1", "dev"))
-                .thenReturn(Optional.of(item1));
-        when(configRepository.findByConfigKeyAndEnvironment("key2", "dev"))
-                .thenReturn(Optional.of(item2));
-        when(configRepository.findByConfigKeyAndEnvironment("key3", "dev"))
-                .thenReturn(Optional.empty());
+        Map<String, ConfigItem> found = new HashMap<>();
+        found.put("key1", item1);
+        found.put("key2", item2);
+
+        // Mock行为：一次批量查询返回全部命中的配置项
+        ReflectionTestUtils.setField(configService, "configRepository", configRepository);
+        when(configRepository.findAllByKeysAndEnvironment(keys, environment))
+                .thenReturn(found);
 
         // 执行测试
-        // Map<String, String> result = configService.batchGetConfigValues(keys, environment);
+        Map<String, String> result = configService.batchGetConfigValues(keys, environment);
 
         // 验证结果
-        // assertEquals(2, result.size());
-        // assertEquals("value1", result.get("key1"));
-        // assertEquals("value2", result.get("key2"));
-        // assertFalse(result.containsKey("key3"));
+        assertEquals(2, result.size());
+        assertEquals("value1", result.get("key1"));
+        assertEquals("value2", result.get("key2"));
+        assertFalse(result.containsKey("key3"));
         
-        verify(configRepository).findByConfigKeyAndEnvironment("key1", "dev");
-        verify(configRepository).findByConfigKeyAndEnvironment("key2", "dev");
-        verify(configRepository).findByConfigKeyAndEnvironment("key3", "dev");
+        verify(configRepository).findAllByKeysAndEnvironment(keys, environment);
+        verify(configRepository, never()).findByConfigKeyAndEnvironment(any(), any());
+    }
+
+    @Test
+    void testScrollCursorRoundTripWithNullUpdatedAt() {
+        ReflectionTestUtils.setField(configService, "configRepository", configRepository);
+        LocalDateTime updatedAt = LocalDateTime.of(2024, 3, 1, 8, 30, 15, 123456789);
+        ConfigDTO.ConfigQuery query = new ConfigDTO.ConfigQuery();
+        query.setSize(2);
+
+        // 第一页末条的更新时间为空，游标以空串表示
+        when(configRepository.findByConditionAfter(isNull(), isNull(), isNull(), isNull(), isNull(), isNull(),
+                isNull(), isNull(), isNull(), eq(3)))
+                .thenReturn(Arrays.asList(item(5L, updatedAt), item(9L, null), item(7L, null)));
+        ConfigDTO.ConfigScrollResult first = configService.scrollConfigs(query);
+        assertTrue(first.getHasMore());
+        assertEquals(2, first.getContent().size());
+        assertNotNull(first.getNextCursor());
+
+        when(configRepository.findByConditionAfter(isNull(), isNull(), isNull(), isNull(), isNull(), isNull(),
+                isNull(), isNull(), eq(9L), eq(3)))
+                .thenReturn(Arrays.asList(item(7L, null)));
+        query.setCursor(first.getNextCursor());
+        ConfigDTO.ConfigScrollResult second = configService.scrollConfigs(query);
+        assertFalse(second.getHasMore());
+        assertNull(second.getNextCursor());
+        assertEquals(7L, second.getContent().get(0).getId());
+
+        // 非空更新时间按纳秒精度还原
+        query.setCursor(null);
+        query.setSize(1);
+        when(configRepository.findByConditionAfter(isNull(), isNull(), isNull(), isNull(), isNull(), isNull(),
+                isNull(), isNull(), isNull(), eq(2)))
+                .thenReturn(Arrays.asList(item(5L, updatedAt), item(9L, null)));
+        query.setCursor(configService.scrollConfigs(query).getNextCursor());
+        when(configRepository.findByConditionAfter(isNull(), isNull(), isNull(), isNull(), isNull(), isNull(),
+                isNull(), eq(updatedAt), eq(5L), eq(2)))
+                .thenReturn(Arrays.asList(item(9L, null)));
+        assertEquals(9L, configService.scrollConfigs(query).getContent().get(0).getId());
+
+        query.setCursor("not-a-cursor");
+        assertThrows(IllegalArgumentException.class, () -> configService.scrollConfigs(query));
+    }
+
+    @Test
+    void testDeltaPageEndsBeforeSplitRevisionGroup() {
+        ReflectionTestUtils.setField(configService, "configRepository", configRepository);
+        // 前998条各自一个修订号，第999~1001条同属修订号2000，第1000条恰好是分页边界
+        List<ConfigItem> changes = new ArrayList<>();
+        for (long i = 1; i <= 998; i++) {
+            changes.add(change(i, i));
+        }
+        for (long i = 999; i <= 1001; i++) {
+            changes.add(change(i, 2000L));
+        }
+        when(configRepository.findChangesSince("prod", 0L, null, 1001)).thenReturn(changes);
+
+        ConfigDTO.ConfigDelta delta = configService.getConfigChanges("prod", 0L);
+
+        assertTrue(delta.getHasMore());
+        assertEquals(998L, delta.getRevision());
+        assertEquals(998, delta.getUpserts().size());
+        assertTrue(delta.getUpserts().stream().noneMatch(dto -> dto.getRevision() == 2000L));
+        verify(configRepository, never()).findChangesSince(eq("prod"), eq(0L), eq(2000L), anyInt());
+    }
+
+    @Test
+    void testDeltaPageReturnsWholeOversizedRevisionGroup() {
+        ReflectionTestUtils.setField(configService, "configRepository", configRepository);
+        // 同一修订号的变更超过一页时整组返回，包括组内被删除的配置项
+        List<ConfigItem> group = new ArrayList<>();
+        for (long i = 1; i <= 1200; i++) {
+            group.add(change(i, 7L));
+        }
+        group.get(1199).setDeleted(true);
+        when(configRepository.findChangesSince("prod", 5L, null, 1001)).thenReturn(group.subList(0, 1001));
+        when(configRepository.findChangesSince("prod", 5L, 7L, 0)).thenReturn(group);
+
+        ConfigDTO.ConfigDelta delta = configService.getConfigChanges("prod", 5L);
+
+        assertEquals(7L, delta.getRevision());
+        assertEquals(1199, delta.getUpserts().size());
+        assertEquals(List.of("key1200"), delta.getDeletedKeys());
     }
 
     @Test
@@ -263,4 +353,22 @@ class ConfigServiceTest {
         
         verify(configRepository).getConfigGroups();
     }
-}
\ No newline at end of file
+
+    private static ConfigItem change(Long id, Long revision) {
+        ConfigItem item = item(id, null);
+        item.setRevision(revision);
+        item.setDeleted(false);
+        return item;
+    }
+
+    private static ConfigItem item(Long id, LocalDateTime updatedAt) {
+        ConfigItem item = new ConfigItem();
+        item.setId(id);
+        item.setConfigKey("key" + id);
+        item.setEnvironment("dev");
+        item.setConfigValue("value" + id);
+        item.setEncrypted(false);
+        item.setUpdatedAt(updatedAt);
+        return item;
+    }
+}
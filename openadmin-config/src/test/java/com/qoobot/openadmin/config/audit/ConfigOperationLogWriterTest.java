@@ -0,0 +1,114 @@
+package com.qoobot.openadmin.config.audit;
+
+import com.qoobot.openadmin.config.entity.ConfigOperationLog;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 操作日志写入器测试
+ * 关闭时缓冲区剩余日志全部写入，与关闭并发提交的日志不丢失
+ */
+class ConfigOperationLogWriterTest {
+
+    // 模拟数据库中已写入的日志
+    private final ConcurrentLinkedQueue<ConfigOperationLog> stored = new ConcurrentLinkedQueue<>();
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.batchUpdate(startsWith("INSERT INTO config_operation_logs"), anyCollection(), anyInt(), any()))
+                .thenAnswer(invocation -> {
+                    // 写入线程会复用批次列表，需复制
+                    stored.addAll(new ArrayList<>((Collection<ConfigOperationLog>) invocation.getArgument(1)));
+                    return new int[0][];
+                });
+    }
+
+    @Test
+    void testShutdownFlushesBufferedEntries() {
+        ConfigOperationLogWriter writer = writer(1024);
+        writer.start();
+        for (int i = 0; i < 100; i++) {
+            writer.append(entry(i));
+        }
+        writer.shutdown();
+        assertEquals(100, stored.size());
+
+        // 关闭后提交的日志直接写入
+        writer.append(entry(100));
+        assertEquals(101, stored.size());
+    }
+
+    @Test
+    void testEntriesAppendedDuringShutdownAreNotLost() throws Exception {
+        ConfigOperationLogWriter writer = writer(1 << 16);
+        writer.start();
+
+        int threads = 4;
+        CountDownLatch started = new CountDownLatch(threads);
+        AtomicInteger appended = new AtomicInteger();
+        List<Thread> appenders = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread appender = new Thread(() -> {
+                started.countDown();
+                for (int i = 0; i < 5000; i++) {
+                    writer.append(entry(i));
+                    appended.incrementAndGet();
+                }
+            });
+            appenders.add(appender);
+            appender.start();
+        }
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        writer.shutdown();
+        for (Thread appender : appenders) {
+            appender.join();
+        }
+        assertEquals(appended.get(), stored.size());
+    }
+
+    @Test
+    void testFullBufferDropsWithoutBlocking() {
+        // 未启动写入线程，缓冲区不会被消费
+        ConfigOperationLogWriter writer = writer(1);
+        writer.append(entry(1));
+        long begin = System.nanoTime();
+        writer.append(entry(2));
+        assertTrue(System.nanoTime() - begin < TimeUnit.MILLISECONDS.toNanos(40));
+        assertTrue(stored.isEmpty());
+    }
+
+    @SuppressWarnings("unchecked")
+    private ConfigOperationLogWriter writer(int bufferSize) {
+        ObjectProvider<MeterRegistry> meterRegistry = mock(ObjectProvider.class);
+        return new ConfigOperationLogWriter(jdbcTemplate, meterRegistry, bufferSize, 200, 60_000L);
+    }
+
+    private static ConfigOperationLog entry(long configId) {
+        ConfigOperationLog entry = new ConfigOperationLog();
+        entry.setConfigId(configId);
+        entry.setOperationType("UPDATE");
+        entry.setOperator("admin");
+        entry.setCreatedAt(LocalDateTime.now());
+        return entry;
+    }
+}
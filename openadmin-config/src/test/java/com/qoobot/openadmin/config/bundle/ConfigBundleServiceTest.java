@@ -0,0 +1,104 @@
+package com.qoobot.openadmin.config.bundle;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.qoobot.openadmin.config.dto.ConfigDTO;
+import com.qoobot.openadmin.config.service.ConfigService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 配置包构建与缓存测试
+ */
+@ExtendWith(MockitoExtension.class)
+class ConfigBundleServiceTest {
+
+    @Mock
+    private ConfigService configService;
+
+    private ConfigBundleService bundleService;
+
+    @BeforeEach
+    void setUp() {
+        bundleService = new ConfigBundleService(16, 600, 1024);
+        ReflectionTestUtils.setField(bundleService, "configService", configService);
+        lenient().when(configService.getConfigBundle(eq("prod"), anyList())).thenAnswer(invocation -> {
+            ConfigDTO.ConfigBundle bundle = new ConfigDTO.ConfigBundle();
+            bundle.setEnvironment("prod");
+            for (int i = 0; i < 100; i++) {
+                ConfigDTO.BundleEntry entry = new ConfigDTO.BundleEntry();
+                entry.setKey("key." + i);
+                entry.setValue("value-" + i);
+                entry.setType("STRING");
+                entry.setRevision((long) i);
+                bundle.getEntries().add(entry);
+            }
+            bundle.setRevision(99);
+            return bundle;
+        });
+    }
+
+    @Test
+    void testBundleIsBuiltOncePerRevision() {
+        when(configService.getEnvironmentRevision("prod")).thenReturn(120L);
+        ConfigBundleService.Bundle first = bundleService.getBundle("prod", List.of("b", "a"), ConfigBundleService.Format.CBOR);
+        ConfigBundleService.Bundle second = bundleService.getBundle("prod", List.of("a", "b"), ConfigBundleService.Format.CBOR);
+        assertSame(first, second);
+        assertEquals(120L, first.getRevision());
+        verify(configService, times(1)).getConfigBundle(eq("prod"), anyList());
+
+        when(configService.getEnvironmentRevision("prod")).thenReturn(121L);
+        ConfigBundleService.Bundle third = bundleService.getBundle("prod", List.of("a", "b"), ConfigBundleService.Format.CBOR);
+        assertNotSame(first, third);
+        verify(configService, times(2)).getConfigBundle(eq("prod"), anyList());
+    }
+
+    @Test
+    void testCborRoundTrip() throws Exception {
+        when(configService.getEnvironmentRevision("prod")).thenReturn(120L);
+        ConfigBundleService.Bundle bundle = bundleService.getBundle("prod", null, ConfigBundleService.Format.CBOR);
+        ConfigDTO.ConfigBundle decoded = new ObjectMapper(new CBORFactory())
+                .readValue(bundle.getBody(), ConfigDTO.ConfigBundle.class);
+        assertEquals(100, decoded.getEntries().size());
+        assertEquals("value-7", decoded.getEntries().get(7).getValue());
+        assertEquals(120L, decoded.getRevision());
+    }
+
+    @Test
+    void testCompressionAndStrongETag() throws Exception {
+        when(configService.getEnvironmentRevision("prod")).thenReturn(120L);
+        ConfigBundleService.Bundle bundle = bundleService.getBundle("prod", null, ConfigBundleService.Format.SMILE);
+
+        assertEquals("gzip", bundle.selectCoding("gzip, deflate"));
+        assertEquals("deflate", bundle.selectCoding("gzip;q=0, deflate"));
+        assertNull(bundle.selectCoding(null));
+        assertNotEquals(bundle.getETag(null), bundle.getETag("gzip"));
+        assertTrue(bundle.getETag(null).startsWith("\""));
+
+        byte[] gzipped = bundle.getEncodedBody("gzip");
+        assertTrue(gzipped.length < bundle.getBody().length);
+        assertSame(gzipped, bundle.getEncodedBody("gzip"));
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            assertArrayEquals(bundle.getBody(), in.readAllBytes());
+        }
+    }
+
+    @Test
+    void testUnknownFormatIsRejected() {
+        assertEquals(ConfigBundleService.Format.CBOR, ConfigBundleService.Format.of(null));
+        assertEquals(ConfigBundleService.Format.SMILE, ConfigBundleService.Format.of("smile"));
+        assertThrows(IllegalArgumentException.class, () -> ConfigBundleService.Format.of("xml"));
+    }
+}
@@ -0,0 +1,141 @@
+package com.qoobot.openadmin.config.cache;
+
+import com.qoobot.openadmin.config.entity.ConfigItem;
+import com.qoobot.openadmin.config.mapper.ConfigMapper;
+import com.qoobot.openadmin.config.snapshot.ConfigLocalSnapshotStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 配置项读取缓存测试
+ * 验证批量加载按分块查询数据库，未命中的键负缓存，未配置的环境共用共享分区，覆盖层不进入缓存
+ */
+@ExtendWith(MockitoExtension.class)
+class ConfigItemCacheTest {
+
+    @Mock
+    private ConfigMapper configMapper;
+
+    @Mock
+    private ConfigLocalSnapshotStore configLocalSnapshotStore;
+
+    @Mock
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    private ConfigItemCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ConfigItemCache(configMapper, configLocalSnapshotStore, new MockEnvironment(),
+                (Executor) Runnable::run, meterRegistry, 32L * 1024 * 1024, "5m", "30s", 500, "dev,prod");
+        lenient().when(configLocalSnapshotStore.findDuringColdStart(anyString(), anyString())).thenReturn(Optional.empty());
+        lenient().when(configMapper.selectByKeysAndEnvironment(anyList(), eq("dev"))).thenAnswer(invocation -> {
+            List<String> keys = invocation.getArgument(0);
+            List<ConfigItem> items = new ArrayList<>();
+            for (String key : keys) {
+                // 偶数编号的键存在
+                if (Integer.parseInt(key.substring(4)) % 2 == 0) {
+                    items.add(item(key));
+                }
+            }
+            return items;
+        });
+    }
+
+    @Test
+    void testGetAllQueriesDatabaseInChunks() {
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < 1201; i++) {
+            keys.add("key." + i);
+        }
+
+        Map<String, ConfigItem> result = cache.getAll(keys, "dev");
+
+        assertEquals(601, result.size());
+        assertTrue(result.containsKey("key.1200"));
+        assertFalse(result.containsKey("key.1"));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<String>> chunks = ArgumentCaptor.forClass(List.class);
+        verify(configMapper, times(3)).selectByKeysAndEnvironment(chunks.capture(), eq("dev"));
+        List<Integer> sizes = new ArrayList<>();
+        for (List<String> chunk : chunks.getAllValues()) {
+            sizes.add(chunk.size());
+        }
+        assertEquals(List.of(500, 500, 201), sizes);
+
+        // 再次读取全部命中缓存，包括负缓存的不存在键
+        cache.getAll(keys, "dev");
+        verify(configMapper, times(3)).selectByKeysAndEnvironment(anyList(), eq("dev"));
+    }
+
+    @Test
+    void testUnknownEnvironmentsShareOnePartition() {
+        when(configMapper.selectByKeyAndEnvironment(anyString(), anyString())).thenAnswer(invocation -> {
+            ConfigItem item = item(invocation.getArgument(0), invocation.getArgument(1));
+            item.setConfigValue(invocation.getArgument(1));
+            return item;
+        });
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals("tenant-" + i, cache.get("key.0", "tenant-" + i).orElseThrow().getConfigValue());
+        }
+        // 相同配置键在不同环境下互不覆盖
+        assertEquals("tenant-7", cache.get("key.0", "tenant-7").orElseThrow().getConfigValue());
+        verify(configMapper, times(100)).selectByKeyAndEnvironment(anyString(), anyString());
+
+        Map<String, Map<String, Object>> statistics = cache.getStatistics();
+        assertEquals(List.of(ConfigItemCache.SHARED_PARTITION, "dev", "prod"), new ArrayList<>(statistics.keySet()));
+        assertEquals(100L, statistics.get(ConfigItemCache.SHARED_PARTITION).get("size"));
+
+        cache.invalidate("key.0", "tenant-7");
+        cache.get("key.0", "tenant-7");
+        verify(configMapper, times(101)).selectByKeyAndEnvironment(anyString(), anyString());
+
+        // 批量读取共享分区时按原配置键返回，未命中的键按环境批量查询
+        Map<String, ConfigItem> batch = cache.getAll(List.of("key.0", "key.2"), "tenant-1");
+        assertEquals(List.of("key.0"), new ArrayList<>(batch.keySet()));
+        verify(configMapper).selectByKeysAndEnvironment(List.of("key.2"), "tenant-1");
+    }
+
+    @Test
+    void testOverlayLayersBypassCache() {
+        when(configMapper.selectByKeyAndEnvironment("key.0", "prod@order")).thenReturn(item("key.0", "prod@order"));
+
+        assertTrue(cache.get("key.0", "prod@order").isPresent());
+        assertTrue(cache.get("key.0", "prod@order").isPresent());
+
+        // 覆盖层由覆盖层解析器缓存，不占用任何分区
+        verify(configMapper, times(2)).selectByKeyAndEnvironment("key.0", "prod@order");
+        assertEquals(0L, cache.getStatistics().get(ConfigItemCache.SHARED_PARTITION).get("size"));
+    }
+
+    private static ConfigItem item(String key) {
+        return item(key, "dev");
+    }
+
+    private static ConfigItem item(String key, String environment) {
+        ConfigItem item = new ConfigItem();
+        item.setConfigKey(key);
+        item.setEnvironment(environment);
+        item.setConfigValue("v");
+        return item;
+    }
+}
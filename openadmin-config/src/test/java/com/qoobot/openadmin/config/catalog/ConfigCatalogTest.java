@@ -0,0 +1,106 @@
+package com.qoobot.openadmin.config.catalog;
+
+import com.qoobot.openadmin.config.dto.ConfigDTO;
+import com.qoobot.openadmin.config.entity.ConfigItem;
+import com.qoobot.openadmin.config.mapper.ConfigMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 配置目录测试
+ * 验证按构建快照的修订号过滤增量，以及定期重新聚合校正其他实例的写入
+ */
+class ConfigCatalogTest {
+
+    private final ConfigMapper configMapper = mock(ConfigMapper.class);
+
+    private final ConfigCatalog catalog = new ConfigCatalog();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(catalog, "configMapper", configMapper);
+        ReflectionTestUtils.setField(catalog, "transactionManager", mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(catalog, "configQueryExecutor", (Executor) Runnable::run);
+    }
+
+    @Test
+    void testDeltasAtOrBelowRebuildRevisionAreDropped() {
+        when(configMapper.selectRevision()).thenReturn(10L);
+        when(configMapper.selectCatalogCounts()).thenReturn(List.of(count("prod", "db", 3)));
+        catalog.rebuild();
+
+        // 修订号10的写入已包含在聚合结果中
+        catalog.onInsert(item("prod", "db", 10L));
+        catalog.onInsert(item("prod", "db", 11L));
+        catalog.onDelete(item("prod", "db", 5L), 12L);
+
+        assertEquals(3L, environmentCounts().get("prod"));
+    }
+
+    @Test
+    void testDeltasDuringRebuildAreReplayedAboveSnapshot() {
+        when(configMapper.selectRevision()).thenReturn(20L);
+        when(configMapper.selectCatalogCounts()).thenAnswer(invocation -> {
+            // 聚合期间本实例提交的写入：修订号20已在快照中，21在快照之后
+            catalog.onInsert(item("prod", "db", 20L));
+            catalog.onInsert(item("prod", "db", 21L));
+            return List.of(count("prod", "db", 4));
+        });
+
+        catalog.rebuild();
+
+        assertEquals(5L, environmentCounts().get("prod"));
+    }
+
+    @Test
+    void testPeriodicReconcileCorrectsOtherInstanceWrites() {
+        when(configMapper.selectRevision()).thenReturn(1L, 8L);
+        when(configMapper.selectCatalogCounts()).thenReturn(
+                List.of(count("prod", "db", 2)),
+                List.of(count("prod", "db", 2), count("staging", "db", 6)));
+        ReflectionTestUtils.setField(catalog, "reconcileIntervalMillis", 60000L);
+        catalog.rebuild();
+        assertNull(environmentCounts().get("staging"));
+
+        // 其他实例写入不产生增量，到期后重新聚合
+        ReflectionTestUtils.setField(catalog, "nextReconcileAt", 0L);
+        catalog.getStatistics();
+
+        assertEquals(6L, environmentCounts().get("staging"));
+        assertTrue(catalog.getEnvironments().contains("staging"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Long> environmentCounts() {
+        return (Map<String, Long>) catalog.getStatistics().get("environmentCounts");
+    }
+
+    private static ConfigDTO.ConfigCatalogCount count(String environment, String groupName, long itemCount) {
+        ConfigDTO.ConfigCatalogCount count = new ConfigDTO.ConfigCatalogCount();
+        count.setEnvironment(environment);
+        count.setGroupName(groupName);
+        count.setStatus("ACTIVE");
+        count.setEncrypted(false);
+        count.setItemCount(itemCount);
+        return count;
+    }
+
+    private static ConfigItem item(String environment, String groupName, Long revision) {
+        ConfigItem item = new ConfigItem();
+        item.setEnvironment(environment);
+        item.setGroupName(groupName);
+        item.setStatus("ACTIVE");
+        item.setEncrypted(false);
+        item.setRevision(revision);
+        return item;
+    }
+}
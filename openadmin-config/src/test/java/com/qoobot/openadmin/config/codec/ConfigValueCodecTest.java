@@ -0,0 +1,83 @@
+package com.qoobot.openadmin.config.codec;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.InflaterInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 配置值压缩编解码测试
+ */
+class ConfigValueCodecTest {
+
+    private final ConfigValueCodec codec = new ConfigValueCodec(true, 1024, 6);
+
+    private static String routingTable() {
+        return "{\"routes\":[" + "{\"id\":\"svc\",\"uri\":\"lb://svc\",\"predicates\":[\"Path=/svc/**\"]},".repeat(200) + "]}";
+    }
+
+    @Test
+    void testLargeValueIsCompressedAndRestored() {
+        String value = routingTable();
+        String stored = codec.encode(value);
+
+        assertTrue(ConfigValueCodec.isCompressed(stored));
+        assertTrue(stored.length() < value.length());
+        assertEquals(value, ConfigValueCodec.decode(stored));
+    }
+
+    @Test
+    void testSmallValueIsStoredAsIs() {
+        assertEquals("8080", codec.encode("8080"));
+        assertEquals("8080", ConfigValueCodec.decode("8080"));
+        assertNull(ConfigValueCodec.compressedBytes("8080"));
+    }
+
+    @Test
+    void testPlainValueWithPrefixRoundTrips() {
+        String value = ConfigValueCodec.PREFIX + "not-compressed";
+        String stored = codec.encode(value);
+
+        assertNotEquals(value, stored);
+        assertEquals(value, ConfigValueCodec.decode(stored));
+    }
+
+    @Test
+    void testPlainValueThatLooksCompressedRoundTrips() {
+        // 用户输入恰好是另一个值的合法压缩形式，仍按明文存储与读取
+        String value = codec.encode(routingTable());
+        assertTrue(ConfigValueCodec.isCompressed(value));
+
+        String stored = codec.encode(value);
+
+        assertNotEquals(value, stored);
+        assertEquals(value, ConfigValueCodec.decode(stored));
+    }
+
+    @Test
+    void testPrefixedValueIsEncodedWhenCompressionDisabled() {
+        ConfigValueCodec disabled = new ConfigValueCodec(false, 1024, 6);
+        String large = routingTable();
+        assertEquals(large, disabled.encode(large));
+
+        String value = ConfigValueCodec.PREFIX + "eJzLSM3JyQcABiwCFQ==";
+        String stored = disabled.encode(value);
+
+        assertNotEquals(value, stored);
+        assertEquals(value, ConfigValueCodec.decode(stored));
+    }
+
+    @Test
+    void testCompressedBytesAreHttpDeflate() throws IOException {
+        String value = routingTable();
+        byte[] compressed = ConfigValueCodec.compressedBytes(codec.encode(value));
+
+        try (InflaterInputStream in = new InflaterInputStream(new ByteArrayInputStream(compressed))) {
+            assertEquals(value, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+}
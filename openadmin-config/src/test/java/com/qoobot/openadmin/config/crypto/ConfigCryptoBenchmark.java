@@ -0,0 +1,104 @@
+package com.qoobot.openadmin.config.crypto;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 配置加解密基准测试
+ * 对比每次调用都重建Cipher/密钥/随机数源的旧实现与ConfigCryptoEngine的吞吐量
+ *
+ * 运行方式: mvn -pl :openadmin-config test-compile exec:java
+ *          -Dexec.classpathScope=test -Dexec.mainClass=com.qoobot.openadmin.config.crypto.ConfigCryptoBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConfigCryptoBenchmark {
+
+    private static final String SECRET = "your-secret-key-here-32-bytes-long!!";
+    private static final String ALGORITHM = "AES/GCM/NoPadding";
+    private static final int GCM_IV_LENGTH = 12;
+    private static final int GCM_TAG_LENGTH = 16;
+
+    @Param({"32", "1024"})
+    private int valueLength;
+
+    private ConfigCryptoEngine engine;
+    private byte[] legacyKey;
+    private String plainValue;
+    private String encryptedValue;
+
+    @Setup
+    public void setUp() throws Exception {
+        engine = new ConfigCryptoEngine(SECRET, 30, 10_000);
+        legacyKey = MessageDigest.getInstance("SHA-256").digest(SECRET.getBytes(StandardCharsets.UTF_8));
+        char[] chars = new char[valueLength];
+        Arrays.fill(chars, 'x');
+        plainValue = new String(chars);
+        encryptedValue = engine.encrypt(plainValue);
+    }
+
+    @Benchmark
+    public String legacyEncrypt() throws Exception {
+        Cipher cipher = Cipher.getInstance(ALGORITHM);
+        SecretKey secretKey = new SecretKeySpec(legacyKey, "AES");
+        byte[] iv = new byte[GCM_IV_LENGTH];
+        new SecureRandom().nextBytes(iv);
+        cipher.init(Cipher.ENCRYPT_MODE, secretKey, new GCMParameterSpec(GCM_TAG_LENGTH * 8, iv));
+        byte[] encrypted = cipher.doFinal(plainValue.getBytes(StandardCharsets.UTF_8));
+        byte[] result = new byte[iv.length + encrypted.length];
+        System.arraycopy(iv, 0, result, 0, iv.length);
+        System.arraycopy(encrypted, 0, result, iv.length, encrypted.length);
+        return Base64.getEncoder().encodeToString(result);
+    }
+
+    @Benchmark
+    public String engineEncrypt() {
+        return engine.encrypt(plainValue);
+    }
+
+    @Benchmark
+    public String legacyDecrypt() throws Exception {
+        byte[] decoded = Base64.getDecoder().decode(encryptedValue);
+        byte[] iv = Arrays.copyOfRange(decoded, 0, GCM_IV_LENGTH);
+        byte[] encrypted = Arrays.copyOfRange(decoded, GCM_IV_LENGTH, decoded.length);
+        Cipher cipher = Cipher.getInstance(ALGORITHM);
+        SecretKey secretKey = new SecretKeySpec(legacyKey, "AES");
+        cipher.init(Cipher.DECRYPT_MODE, secretKey, new GCMParameterSpec(GCM_TAG_LENGTH * 8, iv));
+        return new String(cipher.doFinal(encrypted), StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public String engineDecryptUncached() {
+        return engine.decryptUncached(encryptedValue);
+    }
+
+    @Benchmark
+    public String engineDecryptCached() {
+        return engine.decrypt(encryptedValue);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(ConfigCryptoBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
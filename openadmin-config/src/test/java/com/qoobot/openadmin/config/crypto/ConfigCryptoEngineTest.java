@@ -0,0 +1,60 @@
+package com.qoobot.openadmin.config.crypto;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 配置加解密引擎测试
+ * 验证多版本密钥的密文头、历史密文的兼容解密与重新加密
+ */
+class ConfigCryptoEngineTest {
+
+    private static final String LEGACY_SECRET = "your-secret-key-here-32-bytes-long!!";
+    private static final String SECRET_V2 = "rotated-secret-key-version-two";
+
+    @Test
+    void testLegacyCiphertextHasNoVersionHeader() {
+        ConfigCryptoEngine engine = new ConfigCryptoEngine(LEGACY_SECRET, 30, 100);
+        String encrypted = engine.encrypt("s3cret");
+        assertFalse(encrypted.startsWith("{v"));
+        assertEquals(ConfigCryptoEngine.LEGACY_KEY_VERSION, engine.keyVersionOf(encrypted));
+        assertEquals("s3cret", engine.decryptUncached(encrypted));
+    }
+
+    @Test
+    void testRotatedEngineReadsOldAndNewCiphertext() {
+        String legacy = new ConfigCryptoEngine(LEGACY_SECRET, 30, 100).encrypt("s3cret");
+        ConfigCryptoEngine engine = new ConfigCryptoEngine(LEGACY_SECRET, Map.of(2, SECRET_V2), 2, 30, 100);
+
+        String encrypted = engine.encrypt("s3cret");
+        assertTrue(encrypted.startsWith("{v2}"));
+        assertEquals(2, engine.keyVersionOf(encrypted));
+        assertEquals("s3cret", engine.decryptUncached(encrypted));
+        assertEquals("s3cret", engine.decryptUncached(legacy));
+    }
+
+    @Test
+    void testReencryptMovesCiphertextToActiveKey() {
+        String legacy = new ConfigCryptoEngine(LEGACY_SECRET, 30, 100).encrypt("s3cret");
+        ConfigCryptoEngine engine = new ConfigCryptoEngine(LEGACY_SECRET, Map.of(2, SECRET_V2), 2, 30, 100);
+
+        String rotated = engine.reencrypt(legacy);
+        assertEquals(2, engine.keyVersionOf(rotated));
+        assertEquals("s3cret", engine.decryptUncached(rotated));
+        // 已使用当前密钥的密文原样返回
+        assertSame(rotated, engine.reencrypt(rotated));
+        assertNull(engine.reencrypt(null));
+    }
+
+    @Test
+    void testUnknownKeyVersionIsRejected() {
+        String rotated = new ConfigCryptoEngine(LEGACY_SECRET, Map.of(2, SECRET_V2), 2, 30, 100).encrypt("s3cret");
+        ConfigCryptoEngine legacyOnly = new ConfigCryptoEngine(LEGACY_SECRET, 30, 100);
+        assertThrows(IllegalStateException.class, () -> legacyOnly.decryptUncached(rotated));
+        assertThrows(IllegalArgumentException.class,
+                () -> new ConfigCryptoEngine(LEGACY_SECRET, Map.of(2, SECRET_V2), 3, 30, 100));
+    }
+}
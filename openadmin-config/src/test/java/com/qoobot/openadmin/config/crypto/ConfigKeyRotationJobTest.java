@@ -0,0 +1,181 @@
+package com.qoobot.openadmin.config.crypto;
+
+import com.qoobot.openadmin.config.cache.ConfigItemCache;
+import com.qoobot.openadmin.config.entity.ConfigItem;
+import com.qoobot.openadmin.config.entity.ConfigKeyRotation;
+import com.qoobot.openadmin.config.mapper.ConfigKeyRotationMapper;
+import com.qoobot.openadmin.config.mapper.ConfigMapper;
+import com.qoobot.openadmin.config.snapshot.ConfigLocalSnapshotStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.lang.reflect.Proxy;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 密钥轮换任务测试
+ * 轮换完成后移除旧密钥，经缓存与本地快照读取的配置值仍可解密
+ */
+class ConfigKeyRotationJobTest {
+
+    private static final String LEGACY_SECRET = "your-secret-key-here-32-bytes-long!!";
+    private static final String OLD_SECRET = "old-secret-key-version-two";
+    private static final String NEW_SECRET = "new-secret-key-version-three";
+
+    @TempDir
+    Path directory;
+
+    // 模拟数据库中的配置项
+    private final ConfigItem stored = new ConfigItem();
+
+    private final ConfigMapper configMapper = mock(ConfigMapper.class);
+    private final ScheduledExecutorService snapshotWriter = mock(ScheduledExecutorService.class);
+
+    private ConfigLocalSnapshotStore snapshotStore;
+    private ConfigItemCache cache;
+
+    @BeforeEach
+    void setUp() {
+        ConfigCryptoEngine oldEngine = new ConfigCryptoEngine(LEGACY_SECRET, Map.of(2, OLD_SECRET), 2, 30, 100);
+        stored.setId(1L);
+        stored.setConfigKey("db.password");
+        stored.setEnvironment("prod");
+        stored.setEncrypted(true);
+        stored.setRevision(5L);
+        stored.setVersion(1);
+        stored.setStatus("ACTIVE");
+        stored.setConfigValue(oldEngine.encrypt("s3cret"));
+
+        when(configMapper.selectRevision()).thenReturn(5L);
+        when(configMapper.selectByEnvironment("prod")).thenAnswer(invocation -> List.of(copy(stored)));
+        when(configMapper.selectByKeyAndEnvironment("db.password", "prod")).thenAnswer(invocation -> copy(stored));
+
+        snapshotStore = new ConfigLocalSnapshotStore();
+        ReflectionTestUtils.setField(snapshotStore, "configMapper", configMapper);
+        ReflectionTestUtils.setField(snapshotStore, "enabled", true);
+        ReflectionTestUtils.setField(snapshotStore, "directory", directory);
+        ReflectionTestUtils.setField(snapshotStore, "writer", snapshotWriter);
+        ReflectionTestUtils.invokeMethod(snapshotStore, "write", "prod");
+        snapshotStore.endColdStart();
+
+        @SuppressWarnings("unchecked")
+        ObjectProvider<MeterRegistry> meterRegistry = mock(ObjectProvider.class);
+        cache = new ConfigItemCache(configMapper, snapshotStore, new MockEnvironment(),
+                (Executor) Runnable::run, meterRegistry, 32L * 1024 * 1024, "5m", "30s", 500, "dev,prod");
+    }
+
+    @Test
+    void testRotatedValuesDecryptAfterOldKeyIsRemoved() {
+        // 轮换前读取一次，缓存中为旧密文
+        assertEquals(2, new ConfigCryptoEngine(LEGACY_SECRET, Map.of(2, OLD_SECRET), 2, 30, 100)
+                .keyVersionOf(cache.get("db.password", "prod").orElseThrow().getConfigValue()));
+
+        ConfigCryptoEngine rotating = new ConfigCryptoEngine(LEGACY_SECRET,
+                Map.of(2, OLD_SECRET, 3, NEW_SECRET), 3, 30, 100);
+        ConfigKeyRotation checkpoint = new ConfigKeyRotation();
+        checkpoint.setKeyVersion(3);
+        ReflectionTestUtils.invokeMethod(job(rotating), "run", checkpoint);
+        assertEquals(ConfigKeyRotationJob.STATUS_COMPLETED, checkpoint.getStatus());
+        assertEquals(1L, checkpoint.getReencrypted());
+
+        // 移除旧密钥后经缓存读取
+        ConfigCryptoEngine withoutOldKey = new ConfigCryptoEngine(LEGACY_SECRET, Map.of(3, NEW_SECRET), 3, 30, 100);
+        assertEquals("s3cret", withoutOldKey.decrypt(cache.get("db.password", "prod").orElseThrow().getConfigValue()));
+
+        // 快照中的旧密文已移除，重写后降级读取与重新启动加载的均为新密文
+        assertTrue(snapshotStore.findLastKnown("db.password", "prod").isEmpty());
+        verify(snapshotWriter).schedule(any(Runnable.class), anyLong(), eq(TimeUnit.MILLISECONDS));
+        ReflectionTestUtils.invokeMethod(snapshotStore, "write", "prod");
+        assertEquals("s3cret", withoutOldKey.decrypt(
+                snapshotStore.findLastKnown("db.password", "prod").orElseThrow().getConfigValue()));
+
+        ConfigLocalSnapshotStore restarted = new ConfigLocalSnapshotStore();
+        ReflectionTestUtils.setField(restarted, "directory", directory);
+        ReflectionTestUtils.invokeMethod(restarted, "loadAll");
+        assertEquals("s3cret", withoutOldKey.decrypt(
+                restarted.findDuringColdStart("db.password", "prod").orElseThrow().getConfigValue()));
+    }
+
+    private ConfigKeyRotationJob job(ConfigCryptoEngine engine) {
+        ConfigKeyRotationMapper rotationMapper = mock(ConfigKeyRotationMapper.class);
+        when(rotationMapper.selectEncryptedAfter(anyLong(), anyInt())).thenAnswer(invocation ->
+                invocation.<Long>getArgument(0) < stored.getId() ? List.of(copy(stored)) : List.of());
+
+        ConfigKeyRotationJob job = new ConfigKeyRotationJob();
+        ReflectionTestUtils.setField(job, "configCryptoEngine", engine);
+        ReflectionTestUtils.setField(job, "configKeyRotationMapper", rotationMapper);
+        ReflectionTestUtils.setField(job, "configItemCache", cache);
+        ReflectionTestUtils.setField(job, "configLocalSnapshotStore", snapshotStore);
+        ReflectionTestUtils.setField(job, "jdbcTemplate", jdbcTemplate());
+        ReflectionTestUtils.setField(job, "transactionManager", mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(job, "configReencryptExecutor", (Executor) Runnable::run);
+        ReflectionTestUtils.setField(job, "running", true);
+        return job;
+    }
+
+    /**
+     * 将配置项的批量写回应用到模拟数据库
+     */
+    @SuppressWarnings("unchecked")
+    private JdbcTemplate jdbcTemplate() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.batchUpdate(startsWith("UPDATE config_items"), anyCollection(), anyInt(), any()))
+                .thenAnswer(invocation -> {
+                    List<Object> rows = new ArrayList<>((Collection<Object>) invocation.getArgument(1));
+                    ParameterizedPreparedStatementSetter<Object> setter = invocation.getArgument(3);
+                    int[] counts = new int[rows.size()];
+                    for (int i = 0; i < rows.size(); i++) {
+                        Map<Integer, Object> parameters = new HashMap<>();
+                        setter.setValues(statement(parameters), rows.get(i));
+                        if (stored.getId().equals(parameters.get(3)) && stored.getRevision().equals(parameters.get(4))) {
+                            stored.setConfigValue((String) parameters.get(1));
+                            stored.setGrayValue((String) parameters.get(2));
+                            counts[i] = 1;
+                        }
+                    }
+                    return new int[][]{counts};
+                });
+        return jdbcTemplate;
+    }
+
+    private static PreparedStatement statement(Map<Integer, Object> parameters) {
+        return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> {
+                    if (method.getName().startsWith("set") && args != null && args.length == 2) {
+                        parameters.put((Integer) args[0], args[1]);
+                    }
+                    return null;
+                });
+    }
+
+    private static ConfigItem copy(ConfigItem item) {
+        ConfigItem copy = new ConfigItem();
+        copy.setId(item.getId());
+        copy.setConfigKey(item.getConfigKey());
+        copy.setEnvironment(item.getEnvironment());
+        copy.setConfigValue(item.getConfigValue());
+        copy.setGrayValue(item.getGrayValue());
+        copy.setEncrypted(item.getEncrypted());
+        copy.setRevision(item.getRevision());
+        copy.setVersion(item.getVersion());
+        copy.setStatus(item.getStatus());
+        return copy;
+    }
+}
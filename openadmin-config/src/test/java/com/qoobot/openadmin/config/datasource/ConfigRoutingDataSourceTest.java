@@ -0,0 +1,113 @@
+package com.qoobot.openadmin.config.datasource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 读写分离数据源测试
+ * 使用两个H2内存库分别作为主库与从库，以库中的名称标记判断实际路由到的数据库
+ */
+class ConfigRoutingDataSourceTest {
+
+    private final AtomicLong committedRevision = new AtomicLong();
+    private JdbcTemplate primaryJdbc;
+    private JdbcTemplate replicaJdbc;
+    private ConfigRoutingDataSource routing;
+    private JdbcTemplate routedJdbc;
+
+    @BeforeEach
+    void setUp() {
+        primaryJdbc = new JdbcTemplate(h2("routing_primary"));
+        replicaJdbc = new JdbcTemplate(h2("routing_replica"));
+        init(primaryJdbc, "primary", 5);
+        init(replicaJdbc, "replica", 3);
+
+        routing = new ConfigRoutingDataSource(primaryJdbc.getDataSource(), List.of(replicaJdbc.getDataSource()),
+                committedRevision::get, 0);
+        routing.afterPropertiesSet();
+        routedJdbc = new JdbcTemplate(routing);
+    }
+
+    @AfterEach
+    void tearDown() {
+        primaryJdbc.execute("DROP ALL OBJECTS");
+        replicaJdbc.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void testUnmarkedStatementsUsePrimary() {
+        assertEquals("primary", currentDatabase());
+    }
+
+    @Test
+    void testMarkedReadUsesReplica() throws Exception {
+        assertEquals(List.of(3L), routing.getReplicaRevisions());
+        assertEquals("replica", ConfigReadConsistency.onReplica(this::currentDatabase));
+    }
+
+    @Test
+    void testTokenAheadOfReplicaReadsPrimaryUntilCaughtUp() throws Exception {
+        String beforeCatchUp = ConfigReadConsistency.withRequiredRevision(5, this::readOnReplica);
+        assertEquals("primary", beforeCatchUp);
+
+        replicaJdbc.update("UPDATE config_revision SET revision = 5 WHERE id = 1");
+        routing.refreshReplicaRevisions();
+        assertEquals("replica", ConfigReadConsistency.withRequiredRevision(5, this::readOnReplica));
+    }
+
+    @Test
+    void testLocalCommitsAreNotReadFromLaggingReplica() {
+        committedRevision.set(4);
+        assertEquals("primary", readOnReplica());
+    }
+
+    @Test
+    void testUnavailableReplicaFallsBackToPrimary() {
+        replicaJdbc.execute("DROP TABLE config_revision");
+        routing.refreshReplicaRevisions();
+        assertEquals(List.of(-1L), routing.getReplicaRevisions());
+        assertEquals("primary", readOnReplica());
+    }
+
+    @Test
+    void testTransactionKeepsPrimaryConnection() {
+        TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(routing));
+        assertEquals("primary", transaction.execute(status -> readOnReplica()));
+    }
+
+    private String readOnReplica() {
+        try {
+            return ConfigReadConsistency.onReplica(this::currentDatabase);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String currentDatabase() {
+        return routedJdbc.queryForObject("SELECT name FROM routing_marker", String.class);
+    }
+
+    private static JdbcDataSource h2(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+        return dataSource;
+    }
+
+    private static void init(JdbcTemplate jdbc, String name, long revision) {
+        jdbc.execute("CREATE TABLE routing_marker (name VARCHAR(32))");
+        jdbc.update("INSERT INTO routing_marker (name) VALUES (?)", name);
+        jdbc.execute("CREATE TABLE config_revision (id BIGINT PRIMARY KEY, revision BIGINT NOT NULL)");
+        jdbc.update("INSERT INTO config_revision (id, revision) VALUES (1, ?)", revision);
+    }
+}
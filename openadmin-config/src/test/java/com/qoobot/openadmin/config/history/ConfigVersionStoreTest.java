@@ -0,0 +1,268 @@
+package com.qoobot.openadmin.config.history;
+
+import com.qoobot.openadmin.config.codec.ConfigValueCodec;
+import com.qoobot.openadmin.config.entity.ConfigItem;
+import com.qoobot.openadmin.config.entity.ConfigVersionRecord;
+import com.qoobot.openadmin.config.mapper.ConfigVersionMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 配置版本存储单元测试
+ * 使用内存中的版本记录模拟ConfigVersionMapper，按Mapper的SQL语义返回结果
+ */
+class ConfigVersionStoreTest {
+
+    private static final long CONFIG_ID = 1L;
+    private static final int SNAPSHOT_INTERVAL = 5;
+
+    private final List<ConfigVersionRecord> records = new ArrayList<>();
+
+    private final ConfigValueCodec codec = new ConfigValueCodec(true, 1024, 6);
+
+    private ConfigVersionStore store;
+
+    private ConfigItem current;
+
+    @BeforeEach
+    void setUp() {
+        ConfigVersionMapper mapper = mock(ConfigVersionMapper.class);
+        when(mapper.insert(any())).thenAnswer(invocation -> {
+            records.add(invocation.getArgument(0));
+            return 1;
+        });
+        when(mapper.batchInsert(anyList())).thenAnswer(invocation -> {
+            List<ConfigVersionRecord> batch = invocation.getArgument(0);
+            records.addAll(batch);
+            return batch.size();
+        });
+        when(mapper.selectLatest(anyLong())).thenAnswer(invocation -> latest(invocation.getArgument(0)));
+        when(mapper.selectLatestByConfigIds(anyList())).thenAnswer(invocation -> {
+            List<Long> configIds = invocation.getArgument(0);
+            return configIds.stream().map(this::latest).filter(Objects::nonNull).collect(Collectors.toList());
+        });
+        when(mapper.selectPage(anyLong(), anyInt(), anyInt())).thenAnswer(invocation -> {
+            Long configId = invocation.getArgument(0);
+            int offset = invocation.getArgument(1);
+            int limit = invocation.getArgument(2);
+            return records.stream()
+                    .filter(r -> r.getConfigId().equals(configId))
+                    .sorted(Comparator.comparing(ConfigVersionRecord::getVersion).reversed())
+                    .skip(offset)
+                    .limit(limit)
+                    .collect(Collectors.toList());
+        });
+        when(mapper.selectRange(anyLong(), anyInt(), anyInt())).thenAnswer(invocation ->
+                range(invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2)));
+        when(mapper.selectChain(anyLong(), anyInt())).thenAnswer(invocation -> {
+            Long configId = invocation.getArgument(0);
+            int version = invocation.getArgument(1);
+            return records.stream()
+                    .filter(r -> r.getConfigId().equals(configId) && r.getVersion() == version)
+                    .findFirst()
+                    .map(target -> range(configId, target.getBaseVersion(), version))
+                    .orElse(Collections.emptyList());
+        });
+
+        store = new ConfigVersionStore();
+        ReflectionTestUtils.setField(store, "configVersionMapper", mapper);
+        ReflectionTestUtils.setField(store, "configValueCodec", codec);
+        ReflectionTestUtils.setField(store, "snapshotInterval", SNAPSHOT_INTERVAL);
+    }
+
+    @Test
+    void testSnapshotEveryInterval() {
+        for (int version = 1; version <= 12; version++) {
+            write("value-" + version);
+        }
+
+        List<Integer> snapshots = records.stream()
+                .filter(r -> ConfigVersionRecord.TYPE_SNAPSHOT.equals(r.getRecordType()))
+                .map(ConfigVersionRecord::getVersion)
+                .collect(Collectors.toList());
+        assertEquals(Arrays.asList(1, 6, 11), snapshots);
+        for (ConfigVersionRecord record : records) {
+            // 每条记录都指向所属版本链的快照，链长不超过快照间隔
+            assertTrue(record.getVersion() - record.getBaseVersion() < SNAPSHOT_INTERVAL);
+            assertTrue(snapshots.contains(record.getBaseVersion()));
+        }
+    }
+
+    @Test
+    void testDeltaStoresOnlyChangedPart() {
+        String base = "server.port=8080\n" + "x".repeat(1000) + "\nserver.host=localhost";
+        write(base);
+        write(base.replace("8080", "9090"));
+
+        ConfigVersionRecord delta = records.get(1);
+        assertEquals(ConfigVersionRecord.TYPE_DELTA, delta.getRecordType());
+        assertEquals(1, delta.getBaseVersion());
+        assertTrue(delta.getContent().length() <= 4);
+        assertEquals(base.replace("8080", "9090"), store.rebuild(CONFIG_ID, 2).getConfigValue());
+        assertEquals(base, store.rebuild(CONFIG_ID, 1).getConfigValue());
+    }
+
+    @Test
+    void testDeltaRoundTripsEdgeValues() {
+        List<String> values = Arrays.asList(
+                "abc",
+                "abc",          // 与上一版本相同
+                "",             // 清空
+                "",             // 空值再次写入
+                "aaaa",         // 由空变为非空
+                "aa",           // 公共前缀与后缀重叠
+                "xaay",         // 两端插入
+                "中文配置值",
+                "中文配置");
+        for (String value : values) {
+            write(value);
+        }
+
+        ConfigVersionRecord identical = records.get(1);
+        assertEquals(ConfigVersionRecord.TYPE_DELTA, identical.getRecordType());
+        assertEquals("", identical.getContent());
+        for (int i = 0; i < values.size(); i++) {
+            assertEquals(values.get(i), store.rebuild(CONFIG_ID, i + 1).getConfigValue(), "version " + (i + 1));
+        }
+    }
+
+    @Test
+    void testCompressedValuesAreDiffedAsPlainText() {
+        // 仓储层写入的是压缩后的存储形式，版本记录按明文计算增量
+        String base = "{\"routes\":[" + "{\"id\":\"svc\",\"uri\":\"lb://svc\"},".repeat(200) + "]}";
+        String changed = base.replaceFirst("svc", "order");
+        write(codec.encode(base));
+        write(codec.encode(changed));
+
+        ConfigVersionRecord snapshot = records.get(0);
+        assertTrue(ConfigValueCodec.isCompressed(snapshot.getContent()));
+        ConfigVersionRecord delta = records.get(1);
+        assertEquals(ConfigVersionRecord.TYPE_DELTA, delta.getRecordType());
+        assertTrue(delta.getContent().length() < 10);
+        assertEquals(base, store.rebuild(CONFIG_ID, 1).getConfigValue());
+        assertEquals(changed, store.rebuild(CONFIG_ID, 2).getConfigValue());
+        assertEquals(changed, store.history(CONFIG_ID, 0, 1).get(0).getConfigValue());
+    }
+
+    @Test
+    void testEncryptedValuesAreStoredAsSnapshots() {
+        // 密文各自独立保存，密钥轮换时每条记录可单独重新加密
+        write("plain");
+        current.setEncrypted(true);
+        write("ENC(v1:first)");
+        write("ENC(v1:second)");
+        current.setEncrypted(false);
+        write("plain again");
+
+        assertEquals(Arrays.asList(ConfigVersionRecord.TYPE_SNAPSHOT, ConfigVersionRecord.TYPE_SNAPSHOT,
+                        ConfigVersionRecord.TYPE_SNAPSHOT, ConfigVersionRecord.TYPE_SNAPSHOT),
+                records.stream().map(ConfigVersionRecord::getRecordType).collect(Collectors.toList()));
+        assertEquals("ENC(v1:second)", records.get(2).getContent());
+        assertEquals("plain again", store.rebuild(CONFIG_ID, 4).getConfigValue());
+    }
+
+    @Test
+    void testNullValueKeepsPreviousValue() {
+        write("keep-me");
+        ConfigItem previous = copy(current);
+        current.setVersion(current.getVersion() + 1);
+        current.setConfigValue(null);
+        current.setDescription("only description changed");
+        store.record(current, previous);
+
+        ConfigItem rebuilt = store.rebuild(CONFIG_ID, 2);
+        assertEquals("keep-me", rebuilt.getConfigValue());
+        assertEquals("only description changed", rebuilt.getDescription());
+    }
+
+    @Test
+    void testHistoryPageAcrossSnapshotBoundary() {
+        for (int version = 1; version <= 12; version++) {
+            write("value-" + version);
+        }
+
+        // 第二页为版本8到4，跨越版本6的快照，最早版本属于版本1开始的版本链
+        List<ConfigItem> page = store.history(CONFIG_ID, 4, 5);
+        assertEquals(Arrays.asList(8, 7, 6, 5, 4),
+                page.stream().map(ConfigItem::getVersion).collect(Collectors.toList()));
+        for (ConfigItem item : page) {
+            assertEquals("value-" + item.getVersion(), item.getConfigValue());
+        }
+
+        List<ConfigItem> all = store.history(CONFIG_ID, 0, 20);
+        assertEquals(12, all.size());
+        for (ConfigItem item : all) {
+            assertEquals("value-" + item.getVersion(), item.getConfigValue());
+        }
+        assertTrue(store.history(CONFIG_ID, 12, 5).isEmpty());
+    }
+
+    @Test
+    void testRecordAllContinuesExistingChains() {
+        write("first");
+        ConfigItem previous = copy(current);
+        ConfigItem next = copy(current);
+        next.setVersion(2);
+        next.setConfigValue("second");
+        ConfigItem created = new ConfigItem();
+        created.setId(2L);
+        created.setVersion(1);
+        created.setConfigValue("new");
+
+        store.recordAll(Arrays.asList(next, created), Collections.singletonMap(CONFIG_ID, previous));
+
+        assertEquals(ConfigVersionRecord.TYPE_DELTA, latest(CONFIG_ID).getRecordType());
+        assertEquals(ConfigVersionRecord.TYPE_SNAPSHOT, latest(2L).getRecordType());
+        assertEquals("second", store.rebuild(CONFIG_ID, 2).getConfigValue());
+        assertEquals("new", store.rebuild(2L, 1).getConfigValue());
+        assertNull(store.rebuild(CONFIG_ID, 3));
+    }
+
+    private void write(String value) {
+        ConfigItem previous = current != null ? copy(current) : null;
+        if (current == null) {
+            current = new ConfigItem();
+            current.setId(CONFIG_ID);
+            current.setVersion(1);
+            current.setConfigType("STRING");
+        } else {
+            current.setVersion(current.getVersion() + 1);
+        }
+        current.setConfigValue(value);
+        store.record(current, previous);
+    }
+
+    private ConfigVersionRecord latest(Long configId) {
+        return records.stream()
+                .filter(r -> r.getConfigId().equals(configId))
+                .max(Comparator.comparing(ConfigVersionRecord::getVersion))
+                .orElse(null);
+    }
+
+    private List<ConfigVersionRecord> range(Long configId, int fromVersion, int toVersion) {
+        return records.stream()
+                .filter(r -> r.getConfigId().equals(configId)
+                        && r.getVersion() >= fromVersion && r.getVersion() <= toVersion)
+                .sorted(Comparator.comparing(ConfigVersionRecord::getVersion))
+                .collect(Collectors.toList());
+    }
+
+    private static ConfigItem copy(ConfigItem item) {
+        ConfigItem copy = new ConfigItem();
+        copy.setId(item.getId());
+        copy.setVersion(item.getVersion());
+        copy.setConfigValue(item.getConfigValue());
+        copy.setConfigType(item.getConfigType());
+        copy.setDescription(item.getDescription());
+        copy.setEncrypted(item.getEncrypted());
+        return copy;
+    }
+}
@@ -0,0 +1,216 @@
+package com.qoobot.openadmin.config.overlay;
+
+import com.qoobot.openadmin.config.dto.ConfigDTO;
+import com.qoobot.openadmin.config.entity.ConfigItem;
+import com.qoobot.openadmin.config.repository.ConfigRepository;
+import com.qoobot.openadmin.config.watch.ConfigWatchManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 配置覆盖层解析测试
+ * 使用内存中的层数据，验证优先级合并与变更后的增量更新
+ */
+@ExtendWith(MockitoExtension.class)
+class ConfigOverlayResolverTest {
+
+    @Mock
+    private ConfigRepository configRepository;
+
+    @Mock
+    private ConfigWatchManager configWatchManager;
+
+    private final Map<String, Map<String, ConfigItem>> store = new HashMap<>();
+    private ConfigOverlayResolver resolver;
+    private Consumer<ConfigDTO.ConfigChangeEvent> hook;
+    private long revision;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        put("_global", "timeout", "1000");
+        put("_global", "region", "cn");
+        put("prod", "timeout", "2000");
+        put("prod@order", "pool.size", "32");
+        put("prod@order@order-1", "pool.size", "64");
+
+        resolver = new ConfigOverlayResolver();
+        ReflectionTestUtils.setField(resolver, "configRepository", configRepository);
+        ReflectionTestUtils.setField(resolver, "configWatchManager", configWatchManager);
+        resolver.init();
+        ArgumentCaptor<Consumer<ConfigDTO.ConfigChangeEvent>> captor = ArgumentCaptor.forClass(Consumer.class);
+        verify(configWatchManager).addChangeHook(captor.capture());
+        hook = captor.getValue();
+
+        lenient().when(configRepository.findDistinctEnvironments()).thenAnswer(invocation -> new ArrayList<>(store.keySet()));
+        lenient().when(configRepository.findByEnvironment(anyString())).thenAnswer(invocation ->
+                new ArrayList<>(store.getOrDefault(invocation.<String>getArgument(0), Map.of()).values()));
+        lenient().when(configRepository.loadByKeysAndEnvironment(anyCollection(), anyString())).thenAnswer(invocation -> {
+            Collection<String> keys = invocation.getArgument(0);
+            Map<String, ConfigItem> layer = store.getOrDefault(invocation.<String>getArgument(1), Map.of());
+            List<ConfigItem> result = new ArrayList<>();
+            for (String key : keys) {
+                if (layer.containsKey(key)) {
+                    result.add(layer.get(key));
+                }
+            }
+            return result;
+        });
+    }
+
+    @Test
+    void testHigherLayerWins() {
+        assertEquals("2000", value(resolver.resolve("timeout", "order", "prod", null)));
+        assertEquals("cn", value(resolver.resolve("region", "order", "prod", null)));
+        assertEquals("32", value(resolver.resolve("pool.size", "order", "prod", null)));
+        assertEquals("64", value(resolver.resolve("pool.size", "order", "prod", "order-1")));
+        assertNull(resolver.resolve("pool.size", "payment", "prod", null));
+    }
+
+    @Test
+    void testResolveAllMergesInstanceLayer() {
+        ConfigOverlayResolver.Resolved resolved = resolver.resolveAll("order", "prod", "order-1");
+        assertEquals(3, resolved.getItems().size());
+        assertEquals("64", value(resolved.getItems().get("pool.size")));
+        assertEquals(ConfigScope.Level.INSTANCE,
+                ConfigScope.tryParse(resolved.getItems().get("pool.size").getEnvironment()).getLevel());
+        assertEquals(revision, resolved.getRevision());
+    }
+
+    @Test
+    void testChangesAreAppliedIncrementally() {
+        assertEquals("2000", value(resolver.resolve("timeout", "order", "prod", null)));
+        clearInvocations(configRepository);
+
+        put("prod@order", "timeout", "3000");
+        change("prod@order", "timeout");
+        assertEquals("3000", value(resolver.resolve("timeout", "order", "prod", null)));
+
+        store.get("prod").remove("timeout");
+        store.get("prod@order").remove("timeout");
+        change("prod", "timeout");
+        change("prod@order", "timeout");
+        assertEquals("1000", value(resolver.resolve("timeout", "order", "prod", null)));
+
+        // 只按变更的键重新加载，不重新加载整层
+        verify(configRepository, never()).findByEnvironment(anyString());
+        verify(configRepository, times(2)).loadByKeysAndEnvironment(anyCollection(), eq("prod@order"));
+    }
+
+    @Test
+    void testChangesOfUntrackedLayersAreIgnored() {
+        resolver.resolve("timeout", "order", "prod", null);
+        change("test", "timeout");
+        assertEquals(0, resolver.getStatistics().get("pendingChanges"));
+    }
+
+    @Test
+    void testLayersWithoutItemsAreNotLoaded() {
+        for (int i = 0; i < 50; i++) {
+            assertEquals("2000", value(resolver.resolve("timeout", "app-" + i, "prod", "instance-" + i)));
+            assertEquals(2, resolver.resolveAll("app-" + i, "prod", "instance-" + i).getItems().size());
+        }
+
+        // 没有配置项的应用与实例共用（全局、环境）视图，不查询数据库
+        assertEquals(1, resolver.getStatistics().get("views"));
+        assertEquals(2, resolver.getStatistics().get("layers"));
+        verify(configRepository, times(1)).findDistinctEnvironments();
+        verify(configRepository, never()).findByEnvironment(startsWith("prod@"));
+    }
+
+    @Test
+    void testNewLayerIsPickedUp() {
+        assertEquals("2000", value(resolver.resolve("timeout", "payment", "prod", null)));
+
+        put("prod@payment", "timeout", "5000");
+        change("prod@payment", "timeout");
+        assertEquals("5000", value(resolver.resolve("timeout", "payment", "prod", null)));
+        assertEquals("2000", value(resolver.resolve("timeout", "order", "prod", null)));
+
+        put("prod@payment@payment-1", "timeout", "6000");
+        change("prod@payment@payment-1", "timeout");
+        assertEquals("6000", value(resolver.resolve("timeout", "payment", "prod", "payment-1")));
+    }
+
+    @Test
+    void testChangesFromOtherInstancesAreRefreshedByRevision() {
+        ReflectionTestUtils.setField(resolver, "refreshIntervalMillis", 0L);
+        assertEquals("2000", value(resolver.resolve("timeout", "order", "prod", null)));
+
+        // 其他实例写入，本实例没有变更回调
+        put("prod@order", "timeout", "3000");
+        ConfigItem changed = store.get("prod@order").get("timeout");
+        when(configRepository.findChangedKeysSince(anyLong(), anyInt())).thenAnswer(invocation ->
+                invocation.<Long>getArgument(0) < changed.getRevision() ? List.of(changed) : List.of());
+        assertEquals("3000", value(resolver.resolve("timeout", "order", "prod", null)));
+        assertEquals(changed.getRevision(), resolver.getStatistics().get("appliedRevision"));
+    }
+
+    @Test
+    void testTooManyChangesReloadEverything() {
+        ReflectionTestUtils.setField(resolver, "refreshIntervalMillis", 0L);
+        ReflectionTestUtils.setField(resolver, "refreshBatchSize", 2);
+        assertEquals("2000", value(resolver.resolve("timeout", "order", "prod", null)));
+
+        store.get("prod").remove("timeout");
+        put("prod@order", "timeout", "3000");
+        when(configRepository.findChangedKeysSince(anyLong(), anyInt())).thenReturn(
+                List.of(store.get("prod@order").get("timeout"), store.get("prod@order").get("timeout")));
+        assertEquals("3000", value(resolver.resolve("timeout", "order", "prod", null)));
+        verify(configRepository, times(2)).findDistinctEnvironments();
+    }
+
+    @Test
+    void testScopeLayerEnvironment() {
+        assertEquals("_global", ConfigScope.of("global", null, null, null).getLayerEnvironment());
+        assertEquals("prod@order@order-1", ConfigScope.of("INSTANCE", "prod", "order", "order-1").getLayerEnvironment());
+        assertEquals(ConfigScope.application("prod", "order"), ConfigScope.parse("prod@order"));
+        assertTrue(ConfigScope.isOverlayLayer("prod@order"));
+        assertFalse(ConfigScope.isOverlayLayer("prod"));
+        assertThrows(IllegalArgumentException.class, () -> ConfigScope.of("APPLICATION", "prod", "a@b", null));
+        // 存储中无法识别的层环境名不抛出异常
+        assertNull(ConfigScope.tryParse("prod@a@b@c"));
+        assertNull(ConfigScope.tryParse("prod@"));
+        assertEquals("prod", ConfigScope.requireEnvironment("prod"));
+        assertThrows(IllegalArgumentException.class, () -> ConfigScope.requireEnvironment("prod@order"));
+        assertThrows(IllegalArgumentException.class, () -> ConfigScope.requireEnvironment("_global"));
+    }
+
+    private void put(String layerEnvironment, String key, String value) {
+        ConfigItem item = new ConfigItem();
+        item.setConfigKey(key);
+        item.setConfigValue(value);
+        item.setEnvironment(layerEnvironment);
+        item.setStatus("ACTIVE");
+        item.setRevision(++revision);
+        store.computeIfAbsent(layerEnvironment, k -> new HashMap<>()).put(key, item);
+    }
+
+    private void change(String layerEnvironment, String key) {
+        ConfigDTO.ConfigChangeEvent event = new ConfigDTO.ConfigChangeEvent();
+        event.setEnvironment(layerEnvironment);
+        event.setConfigKey(key);
+        event.setRevision(++revision);
+        hook.accept(event);
+    }
+
+    private static String value(ConfigItem item) {
+        return item != null ? item.getConfigValue() : null;
+    }
+}
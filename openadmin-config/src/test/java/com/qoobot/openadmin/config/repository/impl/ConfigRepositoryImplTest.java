@@ -0,0 +1,200 @@
+package com.qoobot.openadmin.config.repository.impl;
+
+import com.qoobot.openadmin.config.audit.ConfigOperationLogWriter;
+import com.qoobot.openadmin.config.cache.ConfigItemCache;
+import com.qoobot.openadmin.config.catalog.ConfigCatalog;
+import com.qoobot.openadmin.config.dto.ConfigDTO;
+import com.qoobot.openadmin.config.entity.ConfigItem;
+import com.qoobot.openadmin.config.history.ConfigVersionStore;
+import com.qoobot.openadmin.config.mapper.ConfigMapper;
+import com.qoobot.openadmin.config.search.ConfigSearchIndex;
+import com.qoobot.openadmin.config.watch.ConfigWatchManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 配置仓储实现测试
+ * 验证批量写入按IN列表分块读取与写入，并在同一修订号下整批失效缓存；
+ * 批量发布在一个修订号下同时包含新增与更新
+ */
+class ConfigRepositoryImplTest {
+
+    private static final long REVISION = 42L;
+
+    private final ConfigMapper configMapper = mock(ConfigMapper.class);
+    private final ConfigItemCache configCache = mock(ConfigItemCache.class);
+    private final ConfigCatalog configCatalog = mock(ConfigCatalog.class);
+    private final ConfigWatchManager configWatchManager = mock(ConfigWatchManager.class);
+    private final ConfigSearchIndex configSearchIndex = mock(ConfigSearchIndex.class);
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+    // 模拟数据库中的配置项
+    private final Map<Long, ConfigItem> rows = new HashMap<>();
+
+    private final ConfigRepositoryImpl repository = new ConfigRepositoryImpl();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(repository, "configMapper", configMapper);
+        ReflectionTestUtils.setField(repository, "configCache", configCache);
+        ReflectionTestUtils.setField(repository, "configCatalog", configCatalog);
+        ReflectionTestUtils.setField(repository, "configWatchManager", configWatchManager);
+        ReflectionTestUtils.setField(repository, "configSearchIndex", configSearchIndex);
+        ReflectionTestUtils.setField(repository, "configVersionStore", mock(ConfigVersionStore.class));
+        ReflectionTestUtils.setField(repository, "configOperationLogWriter", mock(ConfigOperationLogWriter.class));
+        ReflectionTestUtils.setField(repository, "jdbcTemplate", jdbcTemplate);
+
+        when(configMapper.incrementRevision()).thenReturn(1);
+        when(configMapper.selectRevision()).thenReturn(REVISION);
+        when(configMapper.selectByIds(anyList())).thenAnswer(invocation -> {
+            List<Long> ids = invocation.getArgument(0);
+            return ids.stream().map(rows::get).filter(Objects::nonNull).collect(Collectors.toList());
+        });
+    }
+
+    @Test
+    void testDeleteAllByIdChunksInListsAndInvalidatesOnce() {
+        for (long id = 1; id <= 1200; id++) {
+            rows.put(id, row(id, "dev"));
+        }
+        // 最后一个ID不存在
+        List<Long> ids = LongStream.rangeClosed(1, 1201).boxed().collect(Collectors.toList());
+
+        repository.deleteAllById(ids);
+
+        assertEquals(List.of(500, 500, 201), chunkSizes(selectedIdChunks(3)));
+        ArgumentCaptor<List<Long>> deleted = listCaptor();
+        verify(configMapper, times(3)).batchDeleteByIds(deleted.capture(), eq(REVISION));
+        assertEquals(List.of(500, 500, 200), chunkSizes(deleted.getAllValues()));
+        verify(configMapper, times(1)).incrementRevision();
+
+        assertEquals(1200, invalidatedOnce().size());
+        verify(configCatalog, times(1200)).onDelete(any(ConfigItem.class), eq(REVISION));
+        verify(configWatchManager, times(1200)).publishDelete(anyString(), eq("dev"), eq(REVISION), any());
+        verify(configWatchManager, never()).publishDelete(eq("key1201"), anyString(), anyLong(), any());
+    }
+
+    @Test
+    void testUpdateStatusChunksInListsAndInvalidatesOnce() {
+        for (long id = 1; id <= 1001; id++) {
+            rows.put(id, row(id, id % 2 == 0 ? "dev" : "prod"));
+        }
+        List<Long> ids = LongStream.rangeClosed(1, 1001).boxed().collect(Collectors.toList());
+        when(configMapper.batchUpdateStatus(anyList(), anyString(), anyString(), anyLong(), any()))
+                .thenAnswer(invocation -> invocation.<List<Long>>getArgument(0).size());
+
+        assertEquals(1001, repository.updateStatus(ids, "INACTIVE", "admin"));
+
+        ArgumentCaptor<List<Long>> updated = listCaptor();
+        verify(configMapper, times(3)).batchUpdateStatus(updated.capture(), eq("INACTIVE"), eq("admin"),
+                eq(REVISION), any());
+        assertEquals(List.of(500, 500, 1), chunkSizes(updated.getAllValues()));
+        assertEquals(List.of(500, 500, 1), chunkSizes(selectedIdChunks(3)));
+
+        Collection<ConfigItem> invalidated = invalidatedOnce();
+        assertEquals(1001, invalidated.size());
+        assertEquals(Set.of("dev", "prod"),
+                invalidated.stream().map(ConfigItem::getEnvironment).collect(Collectors.toSet()));
+        verify(configSearchIndex).updateStatus(eq(ids), eq("INACTIVE"), any());
+        verify(configCatalog, times(1001)).onUpdate(any(ConfigItem.class),
+                argThat(item -> "INACTIVE".equals(item.getStatus()) && REVISION == item.getRevision()));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testPublishSetMixesInsertsAndUpdatesUnderOneRevision() {
+        rows.put(1L, row(1L, "dev", "a", "1"));
+        rows.put(2L, row(2L, "dev", "b", "2"));
+        rows.put(3L, row(3L, "dev", "c", "3"));
+        // test环境中a内容相同，b内容不同，c不存在；prod环境中全部不存在
+        ConfigItem sameA = row(10L, "test", "a", "1");
+        ConfigItem staleB = row(20L, "test", "b", "old");
+        staleB.setVersion(4);
+        when(configMapper.selectByKeysAndEnvironment(anyList(), eq("test"))).thenReturn(List.of(sameA, staleB));
+        when(configMapper.selectByKeysAndEnvironment(anyList(), eq("prod"))).thenReturn(List.of());
+
+        ConfigDTO.ConfigPublishResult result = repository.publishConfigSet(List.of(1L, 2L, 3L),
+                List.of("test", "prod"), "publisher");
+
+        assertEquals(4, result.getInserted());
+        assertEquals(1, result.getUpdated());
+        assertEquals(1, result.getUnchanged());
+        assertEquals(REVISION, result.getRevision());
+        verify(configMapper, times(1)).incrementRevision();
+
+        ArgumentCaptor<List<ConfigItem>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(configMapper, times(1)).batchInsert(inserted.capture());
+        assertEquals(Set.of("test:c", "prod:a", "prod:b", "prod:c"), scopedKeys(inserted.getValue()));
+        assertTrue(inserted.getValue().stream().allMatch(item -> REVISION == item.getRevision()));
+
+        ArgumentCaptor<Collection<ConfigItem>> updated = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate).batchUpdate(startsWith("UPDATE config_items"), updated.capture(), eq(500), any());
+        ConfigItem update = updated.getValue().iterator().next();
+        assertEquals(1, updated.getValue().size());
+        assertEquals(20L, update.getId());
+        assertEquals("2", update.getConfigValue());
+        assertEquals(5, update.getVersion());
+        assertEquals(REVISION, update.getRevision());
+
+        assertEquals(5, invalidatedOnce().size());
+        verify(configCatalog, times(4)).onInsert(any(ConfigItem.class));
+        verify(configCatalog).onUpdate(same(staleB), same(update));
+        verify(configWatchManager, times(5)).publishChange(anyString(), anyString(), eq(REVISION), any(), any());
+        verify(configWatchManager).publishChange("b", "test", REVISION, "old", "2");
+    }
+
+    private Collection<ConfigItem> invalidatedOnce() {
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<ConfigItem>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(configCache, times(1)).invalidateAll(captor.capture());
+        verify(configCache, never()).invalidate(anyString(), anyString());
+        return captor.getValue();
+    }
+
+    private List<List<Long>> selectedIdChunks(int times) {
+        ArgumentCaptor<List<Long>> captor = listCaptor();
+        verify(configMapper, times(times)).selectByIds(captor.capture());
+        return captor.getAllValues();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArgumentCaptor<List<Long>> listCaptor() {
+        return ArgumentCaptor.forClass(List.class);
+    }
+
+    private static List<Integer> chunkSizes(List<List<Long>> chunks) {
+        return chunks.stream().map(List::size).collect(Collectors.toList());
+    }
+
+    private static Set<String> scopedKeys(Collection<ConfigItem> items) {
+        return items.stream().map(item -> item.getEnvironment() + ":" + item.getConfigKey()).collect(Collectors.toSet());
+    }
+
+    private static ConfigItem row(long id, String environment) {
+        return row(id, environment, "key" + id, "value" + id);
+    }
+
+    private static ConfigItem row(long id, String environment, String configKey, String configValue) {
+        ConfigItem item = new ConfigItem();
+        item.setId(id);
+        item.setConfigKey(configKey);
+        item.setEnvironment(environment);
+        item.setConfigValue(configValue);
+        item.setStatus("ACTIVE");
+        item.setEncrypted(false);
+        item.setRevision(1L);
+        item.setVersion(1);
+        return item;
+    }
+}
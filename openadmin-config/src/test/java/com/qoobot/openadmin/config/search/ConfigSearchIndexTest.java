@@ -0,0 +1,107 @@
+package com.qoobot.openadmin.config.search;
+
+import com.qoobot.openadmin.config.entity.ConfigItem;
+import com.qoobot.openadmin.config.mapper.ConfigMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 配置搜索索引测试
+ * 验证分页与总数来自同一次扫描，以及其他实例的变更按数据库修订号补充到索引
+ */
+class ConfigSearchIndexTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private final ConfigMapper configMapper = mock(ConfigMapper.class);
+
+    private final ConfigSearchIndex index = new ConfigSearchIndex();
+
+    @BeforeEach
+    void setUp() {
+        List<ConfigItem> rows = new ArrayList<>();
+        for (long id = 1; id <= 30; id++) {
+            // 每三条共用一个更新时间，最后三条更新时间为空
+            rows.add(row(id, "service.timeout." + id, id > 27 ? null : BASE.plusMinutes(id / 3), 1L));
+        }
+        rows.add(row(31L, "service.url", BASE, 1L));
+        when(configMapper.selectRevision()).thenReturn(1L);
+        when(configMapper.selectSearchFieldsAfterId(anyLong(), anyInt())).thenReturn(rows, List.of());
+        when(configMapper.selectSearchFieldsChangedSince(anyLong(), anyInt())).thenReturn(List.of());
+
+        ReflectionTestUtils.setField(index, "configMapper", configMapper);
+        ReflectionTestUtils.setField(index, "configQueryExecutor", (Executor) Runnable::run);
+        ReflectionTestUtils.setField(index, "refreshIntervalMillis", 0L);
+        index.rebuild();
+    }
+
+    @Test
+    void testPageAndTotalFromOneScan() {
+        assertTrue(index.supports("timeout", null));
+
+        ConfigSearchIndex.SearchResult first = index.searchPage("timeout", null, null, null, null, null, null, 0, 4);
+        assertEquals(30L, first.getTotal());
+        assertEquals(List.of(27L, 26L, 25L, 24L), first.getIds());
+
+        // 更新时间为空的记录排在最后
+        ConfigSearchIndex.SearchResult last = index.searchPage("timeout", null, null, null, null, null, null, 26, 4);
+        assertEquals(30L, last.getTotal());
+        assertEquals(List.of(1L, 30L, 29L, 28L), last.getIds());
+
+        // 游标位于同一更新时间的分组内
+        assertEquals(List.of(23L, 22L, 21L), index.searchAfter("timeout", null, null, null, null, null, null,
+                BASE.plusMinutes(8), 24L, 3));
+        assertEquals(List.of(29L, 28L), index.searchAfter("timeout", null, null, null, null, null, null,
+                null, 30L, 10));
+    }
+
+    @Test
+    void testChangesFromOtherInstancesAreAppliedByRevision() {
+        ConfigItem renamed = row(2L, "service.retries", BASE.plusMinutes(30), 5L);
+        ConfigItem removed = row(3L, "service.timeout.3", BASE, 6L);
+        removed.setDeleted(true);
+        ConfigItem added = row(40L, "service.timeout.40", BASE.plusMinutes(40), 7L);
+        when(configMapper.selectSearchFieldsChangedSince(eq(1L), anyInt())).thenReturn(List.of(renamed, removed, added));
+
+        assertTrue(index.supports("timeout", null));
+        ConfigSearchIndex.SearchResult result = index.searchPage("timeout", null, null, null, null, null, null, 0, 2);
+        assertEquals(29L, result.getTotal());
+        assertEquals(List.of(40L, 27L), result.getIds());
+        assertEquals(List.of(2L), index.searchPage("retries", null, null, null, null, null, null, 0, 10).getIds());
+
+        // 下一次检查从已应用的修订号继续
+        index.supports("timeout", null);
+        verify(configMapper).selectSearchFieldsChangedSince(eq(7L), anyInt());
+    }
+
+    @Test
+    void testFailedRefreshFallsBackToDatabase() {
+        when(configMapper.selectSearchFieldsChangedSince(anyLong(), anyInt()))
+                .thenThrow(new IllegalStateException("connection refused"));
+
+        assertFalse(index.supports("timeout", null));
+    }
+
+    private static ConfigItem row(long id, String key, LocalDateTime updatedAt, long revision) {
+        ConfigItem item = new ConfigItem();
+        item.setId(id);
+        item.setConfigKey(key);
+        item.setEnvironment("prod");
+        item.setStatus("ACTIVE");
+        item.setConfigType("STRING");
+        item.setEncrypted(false);
+        item.setUpdatedAt(updatedAt);
+        item.setRevision(revision);
+        item.setDeleted(false);
+        return item;
+    }
+}
@@ -0,0 +1,132 @@
+package com.qoobot.openadmin.config.simple;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 持久化配置映射测试
+ * 覆盖哈希冲突、移除至空映射，以及混合写入后与HashMap模型对比迭代结果和大小
+ */
+class PersistentConfigMapTest {
+
+    // "Aa"与"BB"哈希值相同，由二者拼接的键两两冲突
+    private static final List<String> COLLIDING = List.of("AaAa", "AaBB", "BBAa", "BBBB");
+
+    @Test
+    void testCollidingKeys() {
+        assertEquals(COLLIDING.get(0).hashCode(), COLLIDING.get(3).hashCode());
+        PersistentConfigMap<String> map = PersistentConfigMap.empty();
+        for (String key : COLLIDING) {
+            map = map.plus(key, key + "-1");
+        }
+        assertEquals(4, map.size());
+        for (String key : COLLIDING) {
+            assertEquals(key + "-1", map.get(key));
+        }
+
+        // 替换冲突键的值不改变大小，不存在的冲突键不影响映射
+        PersistentConfigMap<String> replaced = map.plus("AaBB", "AaBB-2");
+        assertEquals(4, replaced.size());
+        assertEquals("AaBB-2", replaced.get("AaBB"));
+        assertEquals("AaBB-1", map.get("AaBB"));
+        assertSame(map, map.minus("AaAaAa"));
+        assertNull(map.get("BBBBBB"));
+
+        // 与冲突键哈希不同的键共存
+        PersistentConfigMap<String> mixed = replaced.plus("other", "o");
+        assertEquals(5, mixed.size());
+        assertEquals("o", mixed.get("other"));
+        assertEquals(Set.of("AaAa", "AaBB", "BBAa", "BBBB", "other"), mixed.keySet());
+
+        PersistentConfigMap<String> removed = mixed.minus("BBAa").minus("AaAa");
+        assertEquals(3, removed.size());
+        assertNull(removed.get("BBAa"));
+        assertEquals("AaBB-2", removed.get("AaBB"));
+        assertEquals("BBBB-1", removed.get("BBBB"));
+        assertEquals(5, mixed.size());
+    }
+
+    @Test
+    void testRemoveDownToEmpty() {
+        List<String> keys = new ArrayList<>(COLLIDING);
+        for (int i = 0; i < 200; i++) {
+            keys.add("app.key." + i);
+        }
+        PersistentConfigMap<Integer> map = PersistentConfigMap.empty();
+        for (int i = 0; i < keys.size(); i++) {
+            map = map.plus(keys.get(i), i);
+        }
+        assertEquals(keys.size(), map.size());
+
+        PersistentConfigMap<Integer> full = map;
+        Collections.shuffle(keys, new Random(7));
+        for (String key : keys) {
+            map = map.minus(key);
+            assertFalse(map.containsKey(key));
+        }
+        assertEquals(0, map.size());
+        assertTrue(map.isEmpty());
+        assertFalse(map.entrySet().iterator().hasNext());
+        assertSame(map, map.minus("app.key.1"));
+
+        // 移除至空后可继续写入，原映射不受影响
+        map = map.plus("AaAa", 1);
+        assertEquals(1, map.size());
+        assertEquals(Map.of("AaAa", 1), new HashMap<>(map));
+        assertEquals(keys.size(), full.size());
+    }
+
+    @Test
+    void testMixedOperationsMatchHashMap() {
+        Random random = new Random(42);
+        List<String> pool = new ArrayList<>(COLLIDING);
+        for (int i = 0; i < 500; i++) {
+            pool.add("dev:config." + i);
+        }
+
+        Map<String, Integer> model = new HashMap<>();
+        PersistentConfigMap<Integer> map = PersistentConfigMap.empty();
+        PersistentConfigMap<Integer> checkpoint = map;
+        Map<String, Integer> checkpointModel = new HashMap<>();
+        for (int step = 0; step < 20000; step++) {
+            String key = pool.get(random.nextInt(pool.size()));
+            if (random.nextInt(3) == 0) {
+                model.remove(key);
+                map = map.minus(key);
+            } else {
+                int value = random.nextInt(1000);
+                model.put(key, value);
+                map = map.plus(key, value);
+            }
+            assertEquals(model.size(), map.size());
+            assertEquals(model.get(key), map.get(key));
+
+            if (step % 1000 == 0) {
+                assertMatches(model, map);
+                // 之前的版本保持不变
+                assertMatches(checkpointModel, checkpoint);
+                checkpoint = map;
+                checkpointModel = new HashMap<>(model);
+            }
+        }
+        assertMatches(model, map);
+    }
+
+    private static void assertMatches(Map<String, Integer> model, PersistentConfigMap<Integer> map) {
+        assertEquals(model.size(), map.size());
+        Map<String, Integer> iterated = new HashMap<>();
+        int count = 0;
+        for (Map.Entry<String, Integer> entry : map.entrySet()) {
+            assertNull(iterated.put(entry.getKey(), entry.getValue()), "重复迭代的键: " + entry.getKey());
+            count++;
+        }
+        assertEquals(model.size(), count);
+        assertEquals(model, iterated);
+        for (Map.Entry<String, Integer> entry : model.entrySet()) {
+            assertEquals(entry.getValue(), map.get(entry.getKey()));
+        }
+    }
+}
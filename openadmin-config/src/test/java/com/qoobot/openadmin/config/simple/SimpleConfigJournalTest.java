@@ -0,0 +1,165 @@
+package com.qoobot.openadmin.config.simple;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 简化版配置服务本地日志测试
+ */
+class SimpleConfigJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testReplayRestoresWrites() throws IOException {
+        Path path = directory.resolve("simple.journal");
+        try (SimpleConfigJournal journal = new SimpleConfigJournal(path)) {
+            journal.open();
+            journal.appendPut(1, "dev:a", entry("a", "1"));
+            journal.appendPut(2, "dev:b", entry("b", "2"));
+            journal.appendPut(3, "dev:a", entry("a", "3"));
+            journal.appendDelete(4, "dev:b");
+            assertEquals(4, journal.getRecordsSinceCompaction());
+        }
+
+        Map<String, SimpleConfigService.ConfigEntry> entries = new HashMap<>();
+        SimpleConfigJournal journal = new SimpleConfigJournal(path);
+        assertEquals(4, journal.replay(entries));
+        assertEquals(1, entries.size());
+        assertEquals("3", entries.get("dev:a").getValue());
+        assertEquals("dev", entries.get("dev:a").getEnvironment());
+        assertEquals(4, journal.getRecordsSinceCompaction());
+    }
+
+    @Test
+    void testReplayKeepsHigherVersionWhenAppendedOutOfOrder() throws IOException {
+        Path path = directory.resolve("simple.journal");
+        try (SimpleConfigJournal journal = new SimpleConfigJournal(path)) {
+            journal.open();
+            journal.appendPut(2, "dev:a", entry("a", "new"));
+            journal.appendPut(1, "dev:a", entry("a", "old"));
+        }
+
+        Map<String, SimpleConfigService.ConfigEntry> entries = new HashMap<>();
+        assertEquals(2, new SimpleConfigJournal(path).replay(entries));
+        assertEquals("new", entries.get("dev:a").getValue());
+    }
+
+    @Test
+    void testCompactThenReplay() throws IOException {
+        Path path = directory.resolve("simple.journal");
+        try (SimpleConfigJournal journal = new SimpleConfigJournal(path)) {
+            journal.open();
+            journal.appendPut(1, "dev:a", entry("a", "1"));
+            journal.appendPut(2, "dev:b", entry("b", "2"));
+            long sizeBeforeCompaction = Files.size(path);
+
+            PersistentConfigMap<SimpleConfigService.ConfigEntry> snapshot = PersistentConfigMap
+                    .<SimpleConfigService.ConfigEntry>empty()
+                    .plus("dev:a", entry("a", "1"))
+                    .plus("dev:b", entry("b", "2"));
+            journal.compact(() -> new SimpleConfigService.Snapshot(2, snapshot));
+            assertEquals(0, journal.getRecordsSinceCompaction());
+            assertTrue(Files.size(path) <= sizeBeforeCompaction);
+
+            // 压缩后继续追加，版本号不大于基线的记录回放时跳过
+            journal.appendPut(3, "dev:c", entry("c", "3"));
+            journal.appendDelete(4, "dev:a");
+            journal.appendPut(2, "dev:b", entry("b", "stale"));
+        }
+
+        Map<String, SimpleConfigService.ConfigEntry> entries = new HashMap<>();
+        SimpleConfigJournal journal = new SimpleConfigJournal(path);
+        assertEquals(4, journal.replay(entries));
+        assertEquals(2, entries.size());
+        assertFalse(entries.containsKey("dev:a"));
+        assertEquals("2", entries.get("dev:b").getValue());
+        assertEquals("3", entries.get("dev:c").getValue());
+        assertEquals(3, journal.getRecordsSinceCompaction());
+    }
+
+    @Test
+    void testCorruptTailIsTruncatedOnReplay() throws IOException {
+        Path path = directory.resolve("simple.journal");
+        long validLength;
+        try (SimpleConfigJournal journal = new SimpleConfigJournal(path)) {
+            journal.open();
+            journal.appendPut(1, "dev:a", entry("a", "1"));
+            journal.appendPut(2, "dev:b", entry("b", "2"));
+            validLength = Files.size(path);
+            journal.appendPut(3, "dev:c", entry("c", "3"));
+        }
+        // 模拟写入中断：最后一条记录只写入一部分
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(Files.size(path) - 3);
+        }
+
+        Map<String, SimpleConfigService.ConfigEntry> entries = new HashMap<>();
+        SimpleConfigJournal journal = new SimpleConfigJournal(path);
+        assertEquals(2, journal.replay(entries));
+        assertEquals(2, entries.size());
+        assertFalse(entries.containsKey("dev:c"));
+        assertEquals(validLength, Files.size(path));
+
+        // 截断后追加的记录可以正常回放
+        journal.open();
+        journal.appendPut(3, "dev:c", entry("c", "3"));
+        journal.close();
+        entries.clear();
+        assertEquals(3, new SimpleConfigJournal(path).replay(entries));
+        assertEquals("3", entries.get("dev:c").getValue());
+    }
+
+    @Test
+    void testChecksumMismatchStopsReplay() throws IOException {
+        Path path = directory.resolve("simple.journal");
+        long firstRecordEnd;
+        try (SimpleConfigJournal journal = new SimpleConfigJournal(path)) {
+            journal.open();
+            journal.appendPut(1, "dev:a", entry("a", "1"));
+            firstRecordEnd = Files.size(path);
+            journal.appendPut(2, "dev:b", entry("b", "2"));
+        }
+        // 翻转最后一个字节，使第二条记录校验失败
+        byte[] bytes = Files.readAllBytes(path);
+        bytes[bytes.length - 1] ^= 0x7F;
+        Files.write(path, bytes);
+
+        Map<String, SimpleConfigService.ConfigEntry> entries = new HashMap<>();
+        assertEquals(1, new SimpleConfigJournal(path).replay(entries));
+        assertEquals(1, entries.size());
+        assertEquals("1", entries.get("dev:a").getValue());
+        assertEquals(firstRecordEnd, Files.size(path));
+    }
+
+    @Test
+    void testMissingOrForeignFileIsIgnored() throws IOException {
+        Map<String, SimpleConfigService.ConfigEntry> entries = new HashMap<>();
+        assertEquals(-1, new SimpleConfigJournal(directory.resolve("missing.journal")).replay(entries));
+
+        Path foreign = directory.resolve("foreign.journal");
+        Files.write(foreign, new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16});
+        assertEquals(-1, new SimpleConfigJournal(foreign).replay(entries));
+        assertTrue(entries.isEmpty());
+    }
+
+    private static SimpleConfigService.ConfigEntry entry(String key, String value) {
+        SimpleConfigService.ConfigEntry entry = new SimpleConfigService.ConfigEntry();
+        entry.setKey(key);
+        entry.setValue(value);
+        entry.setEnvironment("dev");
+        entry.setStatus("ACTIVE");
+        return entry;
+    }
+}
@@ -0,0 +1,119 @@
+package com.qoobot.openadmin.config.simple;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 简化版配置服务并发读写基准测试
+ * 对比加锁HashMap（读取加锁、getAllConfigs整体复制）与持久化快照实现在不同线程数下的吞吐量，
+ * 写入分别测量仅内存与追加本地日志两种模式
+ *
+ * 运行方式: mvn -pl :openadmin-config test-compile exec:java
+ *          -Dexec.classpathScope=test -Dexec.mainClass=com.qoobot.openadmin.config.simple.SimpleConfigServiceBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SimpleConfigServiceBenchmark {
+
+    private static final int KEY_COUNT = 1000;
+
+    @Param({"false", "true"})
+    private boolean journalEnabled;
+
+    private SimpleConfigService service;
+    private Path journalDirectory;
+    private final Map<String, String> lockedMap = new HashMap<>();
+    private final String[] keys = new String[KEY_COUNT];
+
+    @Setup
+    public void setUp() throws IOException {
+        journalDirectory = Files.createTempDirectory("simple-config-bench");
+        service = new SimpleConfigService(journalEnabled, journalDirectory.resolve("simple-config.journal").toString(),
+                10_000, 1_000);
+        service.init();
+        for (int i = 0; i < KEY_COUNT; i++) {
+            keys[i] = "bench.key." + i;
+            service.setConfigValue(keys[i], "value-" + i, "dev", null);
+            lockedMap.put(keys[i] + ":dev", "value-" + i);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        service.shutdown();
+        try (var files = Files.walk(journalDirectory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    private String randomKey() {
+        return keys[ThreadLocalRandom.current().nextInt(KEY_COUNT)];
+    }
+
+    @Benchmark
+    public String lockedRead() {
+        String storeKey = randomKey() + ":dev";
+        synchronized (lockedMap) {
+            return lockedMap.get(storeKey);
+        }
+    }
+
+    @Benchmark
+    public String snapshotRead() {
+        return service.getConfigValue(randomKey(), "dev");
+    }
+
+    @Benchmark
+    public int lockedGetAll() {
+        synchronized (lockedMap) {
+            return new HashMap<>(lockedMap).size();
+        }
+    }
+
+    @Benchmark
+    public int snapshotGetAll() {
+        return service.getAllConfigs().size();
+    }
+
+    @Benchmark
+    public void lockedWrite() {
+        String storeKey = randomKey() + ":dev";
+        synchronized (lockedMap) {
+            lockedMap.put(storeKey, "updated");
+        }
+    }
+
+    @Benchmark
+    public void snapshotWrite() {
+        service.setConfigValue(randomKey(), "updated", "dev", null);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int threads : new TreeSet<>(List.of(1, Math.min(2, cores), Math.min(4, cores), cores))) {
+            Options options = new OptionsBuilder()
+                    .include(SimpleConfigServiceBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
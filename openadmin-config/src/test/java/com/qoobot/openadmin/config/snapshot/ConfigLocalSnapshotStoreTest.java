@@ -0,0 +1,90 @@
+package com.qoobot.openadmin.config.snapshot;
+
+import com.qoobot.openadmin.config.entity.ConfigItem;
+import com.qoobot.openadmin.config.mapper.ConfigMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 配置本地快照测试
+ * 验证文件名编码，以及快照只在冷启动阶段和数据库不可用时提供配置值
+ */
+class ConfigLocalSnapshotStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testSnapshotServesOnlyDuringColdStart() {
+        ConfigMapper configMapper = mock(ConfigMapper.class);
+        when(configMapper.selectRevision()).thenReturn(7L);
+        when(configMapper.selectByEnvironment("prod")).thenReturn(List.of(item("server.port", "8080")));
+        ConfigLocalSnapshotStore store = store(configMapper);
+
+        ReflectionTestUtils.invokeMethod(store, "write", "prod");
+        assertTrue(Files.exists(directory.resolve(ConfigLocalSnapshotStore.fileName("prod"))));
+        assertEquals("8080", store.findDuringColdStart("server.port", "prod").orElseThrow().getConfigValue());
+
+        // 就绪后缓存一律从数据库加载，快照只作为数据库不可用时的降级
+        store.endColdStart();
+        assertTrue(store.findDuringColdStart("server.port", "prod").isEmpty());
+        assertEquals("8080", store.findLastKnown("server.port", "prod").orElseThrow().getConfigValue());
+
+        // 重新启动时从文件加载
+        ConfigLocalSnapshotStore restarted = store(configMapper);
+        ReflectionTestUtils.invokeMethod(restarted, "loadAll");
+        assertEquals("8080", restarted.findDuringColdStart("server.port", "prod").orElseThrow().getConfigValue());
+    }
+
+    @Test
+    void testFileNameRoundTrips() {
+        for (String environment : new String[]{"prod", "prod@order-service", "a_b", "a b", "../etc", "测试", "x%41"}) {
+            String fileName = ConfigLocalSnapshotStore.fileName(environment);
+            assertTrue(fileName.matches("[A-Za-z0-9.%-]+\\.snapshot"), fileName);
+            assertEquals(environment, ConfigLocalSnapshotStore.environmentOf(fileName));
+        }
+    }
+
+    @Test
+    void testDistinctEnvironmentsDoNotCollide() {
+        assertNotEquals(ConfigLocalSnapshotStore.fileName("prod@order-service"),
+                ConfigLocalSnapshotStore.fileName("prod_order-service"));
+        assertNotEquals(ConfigLocalSnapshotStore.fileName("a_b"), ConfigLocalSnapshotStore.fileName("a@b"));
+        assertFalse(ConfigLocalSnapshotStore.fileName("../etc").contains("/"));
+    }
+
+    @Test
+    void testNonCanonicalFileNameIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> ConfigLocalSnapshotStore.environmentOf("a+b.snapshot"));
+        assertThrows(IllegalArgumentException.class, () -> ConfigLocalSnapshotStore.environmentOf("a%4.snapshot"));
+        assertThrows(IllegalArgumentException.class, () -> ConfigLocalSnapshotStore.environmentOf("prod_order.snapshot"));
+    }
+
+    private ConfigLocalSnapshotStore store(ConfigMapper configMapper) {
+        ConfigLocalSnapshotStore store = new ConfigLocalSnapshotStore();
+        ReflectionTestUtils.setField(store, "configMapper", configMapper);
+        ReflectionTestUtils.setField(store, "enabled", true);
+        ReflectionTestUtils.setField(store, "directory", directory);
+        return store;
+    }
+
+    private static ConfigItem item(String key, String value) {
+        ConfigItem item = new ConfigItem();
+        item.setId(1L);
+        item.setConfigKey(key);
+        item.setConfigValue(value);
+        item.setEnvironment("prod");
+        item.setVersion(1);
+        item.setRevision(7L);
+        item.setStatus("ACTIVE");
+        return item;
+    }
+}
@@ -0,0 +1,129 @@
+package com.qoobot.openadmin.config.sync;
+
+import com.qoobot.openadmin.config.dto.ConfigDTO;
+import com.qoobot.openadmin.config.entity.ConfigItem;
+import com.qoobot.openadmin.config.repository.ConfigRepository;
+import com.qoobot.openadmin.config.watch.ConfigWatchManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 配置中心增量同步引擎测试
+ * 使用内存版配置中心，验证只传输校验和不一致的分组与配置
+ */
+@ExtendWith(MockitoExtension.class)
+class ConfigSyncEngineTest {
+
+    @Mock
+    private ConfigRepository configRepository;
+
+    @Mock
+    private ConfigWatchManager configWatchManager;
+
+    private final InMemoryRemoteConfigStore remote = new InMemoryRemoteConfigStore();
+    private final List<ConfigItem> items = new ArrayList<>();
+    private ConfigSyncEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        items.add(item(1L, "a.key", "A", "1"));
+        items.add(item(2L, "b.key", "A", "2"));
+        items.add(item(3L, "c.key", "B", "3"));
+        items.add(item(4L, "d.key", null, "4"));
+
+        engine = new ConfigSyncEngine();
+        ReflectionTestUtils.setField(engine, "configRepository", configRepository);
+        ReflectionTestUtils.setField(engine, "configWatchManager", configWatchManager);
+        ReflectionTestUtils.setField(engine, "remoteConfigStore", remote);
+        ReflectionTestUtils.setField(engine, "configSyncExecutor", (Executor) Runnable::run);
+        ReflectionTestUtils.setField(engine, "retryBackoffMillis", 0L);
+
+        lenient().when(configRepository.findByEnvironment("dev")).thenAnswer(invocation -> new ArrayList<>(items));
+        lenient().when(configRepository.findAllByKeysAndEnvironment(anyCollection(), eq("dev"))).thenAnswer(invocation -> {
+            Collection<String> keys = invocation.getArgument(0);
+            Map<String, ConfigItem> result = new HashMap<>();
+            for (ConfigItem item : items) {
+                if (keys.contains(item.getConfigKey())) {
+                    result.put(item.getConfigKey(), item);
+                }
+            }
+            return result;
+        });
+    }
+
+    @Test
+    void testPushTransfersOnlyChangedGroups() {
+        ConfigDTO.ConfigSyncResult first = engine.push("dev");
+        assertEquals(3, first.getGroupsChanged());
+        assertEquals(4, first.getConfigsTransferred());
+        assertEquals("2", remote.getConfig("dev", "A", "b.key"));
+        assertEquals("4", remote.getConfig("dev", ConfigSyncEngine.DEFAULT_GROUP, "d.key"));
+
+        remote.resetTransferCount();
+        ConfigDTO.ConfigSyncResult unchanged = engine.push("dev");
+        assertEquals(0, unchanged.getGroupsChanged());
+        assertEquals(0, remote.getTransferCount());
+
+        items.get(2).setConfigValue("3-changed");
+        engine.invalidate("dev");
+        ConfigDTO.ConfigSyncResult incremental = engine.push("dev");
+        assertEquals(1, incremental.getGroupsChanged());
+        assertEquals(1, incremental.getConfigsTransferred());
+        assertEquals(1, remote.getTransferCount());
+    }
+
+    @Test
+    void testPullWritesOnlyChangedConfigs() {
+        engine.push("dev");
+        remote.publishConfig("dev", "A", "a.key", "remote-value");
+        when(configRepository.findById(1L)).thenReturn(Optional.of(item(1L, "a.key", "A", "1")));
+
+        ConfigDTO.ConfigSyncResult result = engine.pull("dev");
+
+        assertEquals(1, result.getGroupsChanged());
+        assertEquals(1, result.getConfigsTransferred());
+        ArgumentCaptor<ConfigItem> saved = ArgumentCaptor.forClass(ConfigItem.class);
+        verify(configRepository, times(1)).save(saved.capture());
+        assertEquals("remote-value", saved.getValue().getConfigValue());
+    }
+
+    @Test
+    void testFailedGroupIsRetriedAndReported() {
+        RemoteConfigStore failing = spy(remote);
+        doThrow(new IllegalStateException("unavailable")).when(failing).configChecksums("dev", "B");
+        ReflectionTestUtils.setField(engine, "remoteConfigStore", failing);
+
+        ConfigDTO.ConfigSyncResult result = engine.push("dev");
+
+        assertEquals(List.of("B"), result.getFailedGroups());
+        assertEquals(3, result.getConfigsTransferred());
+        verify(failing, times(3)).configChecksums("dev", "B");
+    }
+
+    private static ConfigItem item(Long id, String key, String group, String value) {
+        ConfigItem item = new ConfigItem();
+        item.setId(id);
+        item.setConfigKey(key);
+        item.setGroupName(group);
+        item.setEnvironment("dev");
+        item.setConfigValue(value);
+        return item;
+    }
+}
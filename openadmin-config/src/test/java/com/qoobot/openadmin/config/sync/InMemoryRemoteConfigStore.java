@@ -0,0 +1,78 @@
+package com.qoobot.openadmin.config.sync;
+
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 内存版外部配置中心
+ * 测试中替代真实的配置中心，记录内容传输次数以便校验增量同步的效果
+ */
+public class InMemoryRemoteConfigStore implements RemoteConfigStore {
+
+    private final Map<String, Map<String, ConcurrentSkipListMap<String, String>>> namespaces = new ConcurrentHashMap<>();
+    private final AtomicInteger transferCount = new AtomicInteger();
+
+    @Override
+    public Map<String, String> groupChecksums(String namespace) {
+        Map<String, String> checksums = new TreeMap<>();
+        for (Map.Entry<String, ConcurrentSkipListMap<String, String>> group : groups(namespace).entrySet()) {
+            if (!group.getValue().isEmpty()) {
+                checksums.put(group.getKey(), ConfigChecksums.groupChecksum(configChecksums(group.getValue())));
+            }
+        }
+        return checksums;
+    }
+
+    @Override
+    public Map<String, String> configChecksums(String namespace, String group) {
+        ConcurrentSkipListMap<String, String> configs = groups(namespace).get(group);
+        return configs != null ? configChecksums(configs) : new TreeMap<>();
+    }
+
+    @Override
+    public String getConfig(String namespace, String group, String dataId) {
+        transferCount.incrementAndGet();
+        ConcurrentSkipListMap<String, String> configs = groups(namespace).get(group);
+        return configs != null ? configs.get(dataId) : null;
+    }
+
+    @Override
+    public void publishConfig(String namespace, String group, String dataId, String content) {
+        transferCount.incrementAndGet();
+        groups(namespace).computeIfAbsent(group, g -> new ConcurrentSkipListMap<>()).put(dataId, content);
+    }
+
+    @Override
+    public void removeConfig(String namespace, String group, String dataId) {
+        transferCount.incrementAndGet();
+        ConcurrentSkipListMap<String, String> configs = groups(namespace).get(group);
+        if (configs != null) {
+            configs.remove(dataId);
+        }
+    }
+
+    /**
+     * 读取、发布、删除配置的累计次数
+     */
+    public int getTransferCount() {
+        return transferCount.get();
+    }
+
+    public void resetTransferCount() {
+        transferCount.set(0);
+    }
+
+    private Map<String, ConcurrentSkipListMap<String, String>> groups(String namespace) {
+        return namespaces.computeIfAbsent(namespace, ns -> new ConcurrentHashMap<>());
+    }
+
+    private static SortedMap<String, String> configChecksums(Map<String, String> configs) {
+        SortedMap<String, String> checksums = new TreeMap<>();
+        configs.forEach((dataId, content) -> checksums.put(dataId, ConfigChecksums.md5Hex(content)));
+        return checksums;
+    }
+}
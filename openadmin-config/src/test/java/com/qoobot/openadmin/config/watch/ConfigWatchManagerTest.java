@@ -0,0 +1,75 @@
+package com.qoobot.openadmin.config.watch;
+
+import com.qoobot.openadmin.config.dto.ConfigDTO;
+import com.qoobot.openadmin.config.entity.ConfigItem;
+import com.qoobot.openadmin.config.mapper.ConfigMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 配置变更订阅管理器测试
+ * 验证内存中没有事件的配置键按数据库修订号补发变更
+ */
+class ConfigWatchManagerTest {
+
+    private final ConfigMapper configMapper = mock(ConfigMapper.class);
+
+    private final ConfigWatchManager manager = new ConfigWatchManager((Executor) Runnable::run, configMapper);
+
+    @Test
+    void testChangesMissedDuringRestartAreLoadedFromDatabase() {
+        // 重启后内存中没有事件，a在重启期间更新后又被删除重建，b在其他实例删除，c未变更
+        manager.advanceRevision(20);
+        when(configMapper.selectKeyRevisionsSince(eq("prod"), anyCollection(), eq(10L))).thenReturn(List.of(
+                row("a", 12, true), row("a", 15, false), row("b", 18, true)));
+
+        Map<String, ConfigDTO.ConfigChangeEvent> changes = manager
+                .getChangesSince("prod", List.of("a", "b", "c"), 10).stream()
+                .collect(Collectors.toMap(ConfigDTO.ConfigChangeEvent::getConfigKey, event -> event));
+
+        assertEquals(Set.of("a", "b"), changes.keySet());
+        assertEquals(15L, changes.get("a").getRevision());
+        assertEquals(ConfigWatchManager.CHANGE_TYPE_UPSERT, changes.get("a").getChangeType());
+        assertEquals(ConfigWatchManager.CHANGE_TYPE_DELETE, changes.get("b").getChangeType());
+    }
+
+    @Test
+    void testLocalEventsSkipDatabase() {
+        manager.publishChange("a", "prod", 11, null, "v");
+
+        List<ConfigDTO.ConfigChangeEvent> changes = manager.getChangesSince("prod", List.of("a"), 10);
+
+        assertEquals(1, changes.size());
+        assertEquals(11L, changes.get(0).getRevision());
+        verifyNoInteractions(configMapper);
+    }
+
+    @Test
+    void testDatabaseFailureResetsRemainingKeys() {
+        manager.advanceRevision(20);
+        when(configMapper.selectKeyRevisionsSince(anyString(), anyCollection(), anyLong()))
+                .thenThrow(new QueryTimeoutException("timeout"));
+
+        List<ConfigDTO.ConfigChangeEvent> changes = manager.getChangesSince("prod", List.of("a", "b"), 10);
+
+        assertEquals(List.of("a", "b"),
+                changes.stream().map(ConfigDTO.ConfigChangeEvent::getConfigKey).collect(Collectors.toList()));
+        assertTrue(changes.stream().allMatch(event -> event.getRevision() == 20L));
+    }
+
+    private static ConfigItem row(String configKey, long revision, boolean deleted) {
+        ConfigItem item = new ConfigItem();
+        item.setConfigKey(configKey);
+        item.setRevision(revision);
+        item.setDeleted(deleted);
+        return item;
+    }
+}
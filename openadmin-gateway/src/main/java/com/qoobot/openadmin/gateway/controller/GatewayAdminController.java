@@ -132,6 +132,35 @@ public class GatewayAdminController {
         return ResponseEntity.ok(result);
     }
 
+    /**
+     * 获取认证白名单
+     */
+    @GetMapping("/auth/whitelist")
+    public ResponseEntity<Map<String, Object>> getWhitelist() {
+        List<String> patterns = authenticationFilter.getWhitelist();
+        Map<String, Object> result = new HashMap<>();
+        result.put("patterns", patterns);
+        result.put("size", patterns.size());
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * 从配置重新加载认证白名单
+     */
+    @PostMapping("/auth/whitelist/reload")
+    public ResponseEntity<Map<String, Object>> reloadWhitelist() {
+        try {
+            authenticationFilter.reloadWhitelist();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        
+        Map<String, Object> result = new HashMap<>();
+        result.put("success", true);
+        result.put("patterns", authenticationFilter.getWhitelist());
+        return ResponseEntity.ok(result);
+    }
+
     /**
      * 获取限流统计信息
      */
@@ -2,11 +2,18 @@ package com.qoobot.openadmin.gateway.filter;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.context.event.EventListener;
 import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.http.server.reactive.ServerHttpResponse;
@@ -21,6 +28,7 @@ import java.util.*;
 /**
  * 认证网关过滤器
  * 实现JWT Token验证、权限控制、黑名单检查等功能
+ * 白名单从 gateway.auth.whitelist 加载并预编译，配置刷新（如Nacos推送、/actuator/refresh）后自动重新加载
  */
 @Slf4j
 @Component
@@ -35,8 +43,10 @@ public class AuthenticationGatewayFilter implements GlobalFilter, Ordered {
     @Value("${gateway.auth.enabled:true}")
     private Boolean authEnabled;
 
-    // 白名单路径，不需要认证
-    private static final Set<String> WHITE_LIST_PATHS = Set.of(
+    private static final String WHITELIST_PROPERTY = "gateway.auth.whitelist";
+
+    // 默认白名单路径，未配置 gateway.auth.whitelist 时使用
+    private static final List<String> DEFAULT_WHITE_LIST_PATHS = List.of(
             "/auth/login",
             "/auth/register",
             "/health",
@@ -45,14 +55,64 @@ public class AuthenticationGatewayFilter implements GlobalFilter, Ordered {
             "/v3/api-docs/**"
     );
 
+    @Autowired(required = false)
+    private Environment environment;
+
+    // 预编译的白名单，重新加载时整体替换
+    private volatile PathWhitelist whitelist = PathWhitelist.compile(DEFAULT_WHITE_LIST_PATHS);
+
     // 黑名单Token集合（可以从Redis或数据库加载）
     private static final Set<String> BLACKLIST_TOKENS = Collections.synchronizedSet(new HashSet<>());
 
     private SecretKey secretKey;
 
-    public AuthenticationGatewayFilter() {
-        // 初始化JWT密钥
+    @PostConstruct
+    public void init() {
+        // 初始化JWT密钥，需在属性注入后执行
         this.secretKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        reloadWhitelist();
+    }
+
+    /**
+     * 配置刷新后，白名单相关属性发生变化时重新加载
+     */
+    @EventListener
+    public void onEnvironmentChange(EnvironmentChangeEvent event) {
+        boolean changed = event.getKeys().stream().anyMatch(key -> key.startsWith(WHITELIST_PROPERTY));
+        if (!changed) {
+            return;
+        }
+        try {
+            reloadWhitelist();
+        } catch (IllegalArgumentException e) {
+            log.error("Failed to reload whitelist, keeping current patterns: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 从配置重新加载白名单
+     */
+    public void reloadWhitelist() {
+        List<String> patterns = environment == null ? DEFAULT_WHITE_LIST_PATHS
+                : Binder.get(environment).bind(WHITELIST_PROPERTY, Bindable.listOf(String.class))
+                        .orElse(DEFAULT_WHITE_LIST_PATHS);
+        updateWhitelist(patterns);
+    }
+
+    /**
+     * 以指定路径替换白名单，路径格式错误时抛出IllegalArgumentException且不修改当前白名单
+     */
+    public void updateWhitelist(Collection<String> patterns) {
+        PathWhitelist compiled = PathWhitelist.compile(patterns);
+        this.whitelist = compiled;
+        log.info("Whitelist loaded with {} patterns: {}", compiled.size(), compiled.getPatterns());
+    }
+
+    /**
+     * 获取当前白名单路径
+     */
+    public List<String> getWhitelist() {
+        return whitelist.getPatterns();
     }
 
     @Override
@@ -68,8 +128,8 @@ public class AuthenticationGatewayFilter implements GlobalFilter, Ordered {
 
         String path = request.getURI().getPath();
 
-        // 检查白名单路径
-        if (isWhitelisted(path)) {
+        // 检查白名单路径，直接使用请求已解析的路径
+        if (whitelist.matches(request.getPath().pathWithinApplication())) {
             log.debug("Whitelisted path, allowing request: {}", path);
             return chain.filter(exchange);
         }
@@ -138,10 +198,8 @@ public class AuthenticationGatewayFilter implements GlobalFilter, Ordered {
     /**
      * 检查路径是否在白名单中
      */
-    private boolean isWhitelisted(String path) {
-        return WHITE_LIST_PATHS.stream().anyMatch(pattern -> 
-            path.matches(pattern.replace("**", ".*").replace("*", "[^/]*"))
-        );
+    public boolean isWhitelisted(String path) {
+        return whitelist.matches(path);
     }
 
     /**
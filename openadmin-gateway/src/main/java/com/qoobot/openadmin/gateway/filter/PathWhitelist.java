@@ -0,0 +1,89 @@
+package com.qoobot.openadmin.gateway.filter;
+
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.*;
+
+/**
+ * 预编译的路径白名单
+ * 创建时将白名单路径一次性解析为PathPattern，不含通配符的路径放入哈希集合直接查找；
+ * 匹配时直接使用请求已解析的PathContainer，不再为每个请求编译正则。
+ * 实例不可变，重新加载时整体替换
+ */
+public final class PathWhitelist {
+
+    private static final PathPatternParser PARSER = new PathPatternParser();
+
+    private final List<String> patterns;
+    private final Set<String> exactPaths;
+    private final PathPattern[] pathPatterns;
+
+    private PathWhitelist(List<String> patterns, Set<String> exactPaths, PathPattern[] pathPatterns) {
+        this.patterns = patterns;
+        this.exactPaths = exactPaths;
+        this.pathPatterns = pathPatterns;
+    }
+
+    /**
+     * 编译白名单，路径格式与Spring PathPattern一致（如 /auth/login、/actuator/**、/api/{id}）
+     *
+     * @throws IllegalArgumentException 路径格式错误
+     */
+    public static PathWhitelist compile(Collection<String> patterns) {
+        List<String> normalized = new ArrayList<>();
+        Set<String> exactPaths = new HashSet<>();
+        List<PathPattern> pathPatterns = new ArrayList<>();
+        for (String pattern : patterns) {
+            if (pattern == null || pattern.isBlank()) {
+                continue;
+            }
+            String trimmed = pattern.trim();
+            PathPattern parsed;
+            try {
+                parsed = PARSER.parse(trimmed);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid whitelist path pattern: " + trimmed, e);
+            }
+            normalized.add(trimmed);
+            if (!parsed.hasPatternSyntax()) {
+                exactPaths.add(trimmed);
+            } else {
+                pathPatterns.add(parsed);
+            }
+        }
+        return new PathWhitelist(Collections.unmodifiableList(normalized), exactPaths,
+                pathPatterns.toArray(new PathPattern[0]));
+    }
+
+    /**
+     * 判断已解析的请求路径是否在白名单中
+     */
+    public boolean matches(PathContainer path) {
+        if (exactPaths.contains(path.value())) {
+            return true;
+        }
+        for (PathPattern pattern : pathPatterns) {
+            if (pattern.matches(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 判断路径是否在白名单中，需要先解析路径，仅用于非请求场景
+     */
+    public boolean matches(String path) {
+        return matches(PathContainer.parsePath(path));
+    }
+
+    public List<String> getPatterns() {
+        return patterns;
+    }
+
+    public int size() {
+        return patterns.size();
+    }
+}
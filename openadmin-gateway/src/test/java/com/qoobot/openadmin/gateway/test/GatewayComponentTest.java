@@ -3,8 +3,16 @@ package com.qoobot.openadmin.gateway.test;
 import com.qoobot.openadmin.gateway.filter.AuthenticationGatewayFilter;
 import com.qoobot.openadmin.gateway.filter.RateLimitGatewayFilter;
 import org.junit.jupiter.api.Test;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 /**
  * 网关组件单元测试
@@ -52,4 +60,46 @@ class GatewayComponentTest {
         assertThat(globalStats).isNotNull();
         assertThat(globalStats).containsKeys("availablePermissions", "numberOfWaitingThreads");
     }
-}
\ No newline at end of file
+
+    @Test
+    void testAuthenticationWhitelistMatching() {
+        // 测试默认白名单的精确与通配匹配
+        AuthenticationGatewayFilter filter = new AuthenticationGatewayFilter();
+        assertThat(filter.isWhitelisted("/auth/login")).isTrue();
+        assertThat(filter.isWhitelisted("/actuator/health/liveness")).isTrue();
+        assertThat(filter.isWhitelisted("/auth/logout")).isFalse();
+        assertThat(filter.isWhitelisted("/api/system/users")).isFalse();
+    }
+
+    @Test
+    void testAuthenticationWhitelistUpdate() {
+        // 测试白名单替换，格式错误时保留原白名单
+        AuthenticationGatewayFilter filter = new AuthenticationGatewayFilter();
+        filter.updateWhitelist(List.of("/auth/**", "/public/*/docs"));
+        assertThat(filter.isWhitelisted("/auth/logout")).isTrue();
+        assertThat(filter.isWhitelisted("/public/v1/docs")).isTrue();
+        assertThat(filter.isWhitelisted("/health")).isFalse();
+
+        assertThatThrownBy(() -> filter.updateWhitelist(List.of("/api/{id")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(filter.getWhitelist()).containsExactly("/auth/**", "/public/*/docs");
+    }
+
+    @Test
+    void testConfiguredWhitelistOnlyOpensLoginAndRegister() throws Exception {
+        // 测试application.yml中的白名单只放行登录与注册，其余认证接口仍需Token
+        StandardEnvironment environment = new StandardEnvironment();
+        for (PropertySource<?> source : new YamlPropertySourceLoader()
+                .load("application", new ClassPathResource("application.yml"))) {
+            environment.getPropertySources().addLast(source);
+        }
+        AuthenticationGatewayFilter filter = new AuthenticationGatewayFilter();
+        ReflectionTestUtils.setField(filter, "environment", environment);
+        filter.reloadWhitelist();
+
+        assertThat(filter.isWhitelisted("/auth/login")).isTrue();
+        assertThat(filter.isWhitelisted("/auth/register")).isTrue();
+        assertThat(filter.isWhitelisted("/auth/logout")).isFalse();
+        assertThat(filter.isWhitelisted("/auth/refresh")).isFalse();
+    }
+}